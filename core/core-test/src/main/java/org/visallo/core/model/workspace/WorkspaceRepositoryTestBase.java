@@ -352,6 +352,28 @@ public abstract class WorkspaceRepositoryTestBase extends VisalloInMemoryTestBas
     }
 
 
+    @Test
+    public void testUpdateEntitiesOnWorkspaceAddsOnlyMissingEdges() {
+        User systemUser = getUserRepository().getSystemUser();
+        Authorizations systemAuthorizations = getAuthorizationRepository().getGraphAuthorizations(systemUser);
+        Vertex v1 = getGraphRepository().addVertex("v1", JUNIT_CONCEPT_TYPE, "", null, null, null, systemUser, systemAuthorizations);
+        Vertex v2 = getGraphRepository().addVertex("v2", JUNIT_CONCEPT_TYPE, "", null, null, null, systemUser, systemAuthorizations);
+        getWorkspaceRepository().updateEntitiesOnWorkspace(workspace, Collections.singleton(v1.getId()), user);
+        getWorkspaceRepository().updateEntitiesOnWorkspace(workspace, Arrays.asList(v1.getId(), v2.getId(), "missing"), user);
+
+        Authorizations authorizations = getAuthorizationRepository().getGraphAuthorizations(
+                systemUser,
+                WorkspaceRepository.VISIBILITY_STRING,
+                workspace.getWorkspaceId()
+        );
+        Vertex workspaceVertex = getGraph().getVertex(workspace.getWorkspaceId(), authorizations);
+        assertEquals(
+                Sets.newHashSet(v1.getId(), v2.getId()),
+                Sets.newHashSet(workspaceVertex.getVertexIds(Direction.OUT, WorkspaceRepository.WORKSPACE_TO_ENTITY_RELATIONSHIP_IRI, authorizations))
+        );
+    }
+
+
     private void doTestPublishEdgeAdd(String edgeLabel, String expectedError, SandboxStatus expectedEdgeStatus) {
         User systemUser = getUserRepository().getSystemUser();
         Authorizations systemAuthorizations = getAuthorizationRepository().getGraphAuthorizations(systemUser);
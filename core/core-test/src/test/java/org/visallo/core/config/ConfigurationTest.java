@@ -4,13 +4,17 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
+import org.json.JSONObject;
+import org.visallo.core.model.ontology.Concept;
+import org.visallo.core.model.ontology.Ontology;
+import org.visallo.core.model.ontology.OntologyRepository;
+import org.visallo.core.model.user.PrivilegeRepository;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Set;
+import java.util.*;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.*;
 
 @RunWith(JUnit4.class)
 public class ConfigurationTest {
@@ -109,6 +113,48 @@ public class ConfigurationTest {
         assertEquals("1b", obj.map.get("1").get("b"));
     }
 
+    @Test
+    public void testToJSONRebuildsIntentsOnlyWhenOntologyChanges() {
+        OntologyRepository ontologyRepository = mock(OntologyRepository.class);
+        PrivilegeRepository privilegeRepository = mock(PrivilegeRepository.class);
+        Concept concept = mock(Concept.class);
+        when(concept.getIntents()).thenReturn(new String[]{"person"});
+        when(concept.getIRI()).thenReturn("http://visallo.org/test#person");
+        when(ontologyRepository.getConceptsWithProperties("ws1")).thenReturn(Collections.singletonList(concept));
+        when(ontologyRepository.getProperties("ws1")).thenReturn(Collections.emptyList());
+        when(ontologyRepository.getRelationships("ws1")).thenReturn(Collections.emptyList());
+        when(ontologyRepository.getOntology("ws1")).thenReturn(mock(Ontology.class));
+        when(privilegeRepository.getAllPrivileges()).thenReturn(Collections.emptySet());
+
+        Map<String, String> map = new HashMap<>();
+        map.put(Configuration.WEB_CONFIGURATION_PREFIX + "a", "1");
+        Configuration config = new Configuration(new HashMapConfigurationLoader(map), map) {
+            @Override
+            protected OntologyRepository getOntologyRepository() {
+                return ontologyRepository;
+            }
+
+            @Override
+            protected PrivilegeRepository getPrivilegeRepository() {
+                return privilegeRepository;
+            }
+        };
+
+        JSONObject json = config.toJSON((ResourceBundle) null, "ws1");
+        JSONObject properties = json.getJSONObject("properties");
+        assertEquals("http://visallo.org/test#person", properties.getString(OntologyRepository.CONFIG_INTENT_CONCEPT_PREFIX + "person"));
+        assertEquals("1", properties.getString("a"));
+
+        config.toJSON((ResourceBundle) null, "ws1");
+        verify(ontologyRepository, times(1)).getConceptsWithProperties("ws1");
+
+        when(ontologyRepository.getOntology("ws1")).thenReturn(mock(Ontology.class));
+        config.set(Configuration.WEB_CONFIGURATION_PREFIX + "a", "2");
+        json = config.toJSON((ResourceBundle) null, "ws1");
+        verify(ontologyRepository, times(2)).getConceptsWithProperties("ws1");
+        assertEquals("2", json.getJSONObject("properties").getString("a"));
+    }
+
     private static class SetConfigurablesTestClass {
         @Configurable
         private String propWithCodeDefault = "propWithCodeDefaultValue";
@@ -0,0 +1,101 @@
+package org.visallo.core.ingest.graphProperty;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.vertexium.Element;
+import org.vertexium.Property;
+import org.visallo.core.exception.VisalloException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TextAnalysisGraphPropertyWorkerTest extends TermMentionGraphPropertyWorkerTestBase {
+    private TextAnalyzer extraAnalyzer;
+
+    @Override
+    public GraphPropertyWorker getGpw() throws Exception {
+        TextAnalysisGraphPropertyWorker gpw = new TextAnalysisGraphPropertyWorker();
+        gpw.addAnalyzer(new WordAnalyzer("alpha"));
+        gpw.addAnalyzer(new WordAnalyzer("beta"));
+        if (extraAnalyzer != null) {
+            gpw.addAnalyzer(extraAnalyzer);
+        }
+        return gpw;
+    }
+
+    @Test
+    public void testAllAnalyzersRunOverText() throws Exception {
+        doExtractionTest("alpha then beta then alpha", Arrays.asList(
+                new ExpectedTermMention("alpha", 0L, 5L),
+                new ExpectedTermMention("beta", 11L, 15L),
+                new ExpectedTermMention("alpha", 21L, 26L)
+        ));
+    }
+
+    @Test
+    public void testNoMentions() throws Exception {
+        doExtractionTest("gamma", null);
+    }
+
+    @Test
+    public void testAnalyzerFailureFailsWork() throws Exception {
+        RuntimeException failure = new RuntimeException("analyzer failed");
+        extraAnalyzer = new FailingAnalyzer(failure);
+        try {
+            doExtractionTest("alpha then beta", null);
+            fail("expected the analyzer failure to fail the work");
+        } catch (VisalloException ex) {
+            Throwable cause = ex;
+            while (cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            assertSame(failure, cause);
+        }
+    }
+
+    private static class WordAnalyzer implements TextAnalyzer {
+        private final String word;
+
+        WordAnalyzer(String word) {
+            this.word = word;
+        }
+
+        @Override
+        public boolean isHandled(Element element, Property property) {
+            return property != null;
+        }
+
+        @Override
+        public List<Mention> analyze(String text, GraphPropertyWorkData data) {
+            List<Mention> mentions = new ArrayList<>();
+            for (int i = text.indexOf(word); i >= 0; i = text.indexOf(word, i + 1)) {
+                mentions.add(new Mention(i, i + word.length(), word, CONCEPT_IRI, WordAnalyzer.class.getName()));
+            }
+            return mentions;
+        }
+    }
+
+    private static class FailingAnalyzer implements TextAnalyzer {
+        private final RuntimeException failure;
+
+        FailingAnalyzer(RuntimeException failure) {
+            this.failure = failure;
+        }
+
+        @Override
+        public boolean isHandled(Element element, Property property) {
+            return property != null;
+        }
+
+        @Override
+        public List<Mention> analyze(String text, GraphPropertyWorkData data) {
+            throw failure;
+        }
+    }
+}
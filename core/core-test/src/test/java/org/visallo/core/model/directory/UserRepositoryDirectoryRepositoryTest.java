@@ -50,6 +50,17 @@ public class UserRepositoryDirectoryRepositoryTest {
         assertEquals("USER_joe", results.get(0).getId());
     }
 
+    @Test
+    public void testSearchPeopleWithLimit() {
+        List<User> users = new ArrayList<>();
+        users.add(userJoe);
+        when(userRepository.find("joe", 0, 1)).thenReturn(users);
+
+        List<DirectoryPerson> results = userRepositoryDirectoryRepository.searchPeople("joe", 1, user);
+        assertEquals(1, results.size());
+        assertEquals("USER_joe", results.get(0).getId());
+    }
+
     @Test
     public void testSearchGroups() {
         List<DirectoryGroup> results = userRepositoryDirectoryRepository.searchGroups("*", user);
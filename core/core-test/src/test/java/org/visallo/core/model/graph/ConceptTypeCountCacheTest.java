@@ -0,0 +1,59 @@
+package org.visallo.core.model.graph;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.vertexium.Authorizations;
+import org.vertexium.Graph;
+import org.visallo.core.model.properties.VisalloProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ConceptTypeCountCacheTest {
+    @Mock
+    private Graph graph;
+
+    private ConceptTypeCountCache conceptTypeCountCache;
+
+    @Before
+    public void setUp() {
+        Map<Object, Long> counts = new HashMap<>();
+        counts.put("http://visallo.org/test#person", 5L);
+        when(graph.getVertexPropertyCountByValue(eq(VisalloProperties.CONCEPT_TYPE.getPropertyName()), any(Authorizations.class)))
+                .thenReturn(counts);
+        conceptTypeCountCache = new ConceptTypeCountCache(graph, 60, 100);
+    }
+
+    @Test
+    public void testCountsAreCachedPerAuthorizations() {
+        Authorizations ab = createAuthorizations("a", "b");
+        Authorizations ba = createAuthorizations("b", "a");
+        Authorizations a = createAuthorizations("a");
+
+        assertEquals(5L, (long) conceptTypeCountCache.getCountsByConceptType(ab).get("http://visallo.org/test#person"));
+        conceptTypeCountCache.getCountsByConceptType(ba);
+        verify(graph, times(1)).getVertexPropertyCountByValue(anyString(), any(Authorizations.class));
+
+        conceptTypeCountCache.getCountsByConceptType(a);
+        verify(graph, times(2)).getVertexPropertyCountByValue(anyString(), any(Authorizations.class));
+
+        conceptTypeCountCache.invalidateAll();
+        conceptTypeCountCache.getCountsByConceptType(ab);
+        verify(graph, times(3)).getVertexPropertyCountByValue(anyString(), any(Authorizations.class));
+    }
+
+    private static Authorizations createAuthorizations(String... auths) {
+        Authorizations authorizations = mock(Authorizations.class);
+        when(authorizations.getAuthorizations()).thenReturn(auths);
+        return authorizations;
+    }
+}
@@ -0,0 +1,191 @@
+package org.visallo.core.model.graph;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.vertexium.*;
+import org.vertexium.inmemory.InMemoryGraph;
+import org.visallo.core.model.workQueue.WorkQueueRepository;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class EdgeSummaryCacheTest {
+    @Mock
+    private Vertex vertex;
+
+    @Mock
+    private Graph mockGraph;
+
+    @Mock
+    private WorkQueueRepository workQueueRepository;
+
+    private Authorizations authorizations;
+    private EdgeSummaryCache edgeSummaryCache;
+
+    @Before
+    public void setUp() {
+        when(vertex.getId()).thenReturn("v1");
+        when(vertex.getFetchHints()).thenReturn(FetchHint.ALL);
+        List<EdgeInfo> inEdgeInfos = Arrays.asList(createEdgeInfo("knows", "v2"), createEdgeInfo("knows", "v3"));
+        List<EdgeInfo> outEdgeInfos = Arrays.asList(createEdgeInfo("knows", "v2"), createEdgeInfo("worksFor", "v4"));
+        when(vertex.getEdgeInfos(eq(Direction.IN), any(Authorizations.class))).thenReturn(inEdgeInfos);
+        when(vertex.getEdgeInfos(eq(Direction.OUT), any(Authorizations.class))).thenReturn(outEdgeInfos);
+        authorizations = createAuthorizations("a", "b");
+        edgeSummaryCache = new EdgeSummaryCache(60, 100, mockGraph, workQueueRepository);
+    }
+
+    @Test
+    public void testSummaryIsComputedFromTheVertexOnce() {
+        EdgeSummaryCache.EdgeSummary summary = edgeSummaryCache.getEdgeSummary(vertex, authorizations);
+        assertEquals(Arrays.asList("knows", "worksFor"), Arrays.asList(summary.getLabels().toArray()));
+        assertEquals(2, summary.getInCount("knows"));
+        assertEquals(1, summary.getOutCount("knows"));
+        assertEquals(0, summary.getInCount("worksFor"));
+        assertEquals(3, summary.getCount("knows"));
+
+        edgeSummaryCache.getEdgeSummary(vertex, createAuthorizations("b", "a"));
+        assertSummarized(1);
+
+        edgeSummaryCache.getEdgeSummary(vertex, createAuthorizations("a"));
+        assertSummarized(2);
+    }
+
+    @Test
+    public void testVertexWithoutEdgeRefsIsNotSummarized() {
+        when(vertex.getFetchHints()).thenReturn(EnumSet.of(FetchHint.PROPERTIES, FetchHint.IN_EDGE_LABELS, FetchHint.OUT_EDGE_LABELS));
+        assertNull(edgeSummaryCache.getEdgeSummary(vertex, authorizations));
+        assertSummarized(0);
+    }
+
+    @Test
+    public void testAddedEdgeShowsUpInSummariesOfBothVertices() {
+        InMemoryGraph graph = InMemoryGraph.create();
+        Authorizations authorizations = graph.createAuthorizations();
+        edgeSummaryCache = new EdgeSummaryCache(60, 100, graph, workQueueRepository);
+        Vertex v1 = graph.addVertex("v1", new Visibility(""), authorizations);
+        Vertex v2 = graph.addVertex("v2", new Visibility(""), authorizations);
+        graph.addEdge("e1", v1, v2, "knows", new Visibility(""), authorizations);
+        graph.flush();
+
+        assertEquals(Collections.singleton("knows"), getLabels(graph, "v1", authorizations));
+        assertEquals(Collections.singleton("knows"), getLabels(graph, "v2", authorizations));
+
+        graph.addEdge("e2", v2, v1, "worksFor", new Visibility(""), authorizations);
+        graph.flush();
+
+        assertEquals(new HashSet<>(Arrays.asList("knows", "worksFor")), getLabels(graph, "v1", authorizations));
+        assertEquals(new HashSet<>(Arrays.asList("knows", "worksFor")), getLabels(graph, "v2", authorizations));
+
+        graph.deleteEdge("e1", authorizations);
+        graph.flush();
+
+        assertEquals(Collections.singleton("worksFor"), getLabels(graph, "v1", authorizations));
+
+        edgeSummaryCache.sendPendingBroadcast();
+        ArgumentCaptor<JSONObject> data = ArgumentCaptor.forClass(JSONObject.class);
+        verify(workQueueRepository).broadcast(eq(EdgeSummaryCache.BROADCAST_TYPE), data.capture(), any());
+        assertEquals(new HashSet<>(Arrays.asList("v1", "v2")), toSet(data.getValue().getJSONArray("vertexIds")));
+
+        edgeSummaryCache.sendPendingBroadcast();
+        verify(workQueueRepository, times(1)).broadcast(eq(EdgeSummaryCache.BROADCAST_TYPE), any(JSONObject.class), any());
+    }
+
+    @Test
+    public void testEdgeChangesOnOtherServersInvalidate() {
+        edgeSummaryCache.getEdgeSummary(vertex, authorizations);
+
+        edgeSummaryCache.handleBroadcast(createBroadcast(EdgeSummaryCache.BROADCAST_TYPE, new JSONObject().put("vertexIds", new JSONArray().put("v2"))));
+        edgeSummaryCache.getEdgeSummary(vertex, authorizations);
+        assertSummarized(1);
+
+        edgeSummaryCache.handleBroadcast(createBroadcast(EdgeSummaryCache.BROADCAST_TYPE, new JSONObject().put("vertexIds", new JSONArray().put("v1"))));
+        edgeSummaryCache.getEdgeSummary(vertex, authorizations);
+        assertSummarized(2);
+
+        edgeSummaryCache.handleBroadcast(createBroadcast(EdgeSummaryCache.BROADCAST_TYPE, new JSONObject().put("all", true)));
+        edgeSummaryCache.getEdgeSummary(vertex, authorizations);
+        assertSummarized(3);
+    }
+
+    @Test
+    public void testPublishBroadcasts() {
+        edgeSummaryCache.getEdgeSummary(vertex, authorizations);
+
+        edgeSummaryCache.handleBroadcast(createBroadcast("publish", new JSONObject().put("objectType", "vertex").put("graphVertexId", "v1")));
+        edgeSummaryCache.getEdgeSummary(vertex, authorizations);
+        assertSummarized(1);
+
+        edgeSummaryCache.handleBroadcast(createBroadcast("publish", new JSONObject().put("objectType", "edge").put("graphEdgeId", "e1").put("outVertexId", "v1").put("inVertexId", "v2")));
+        edgeSummaryCache.getEdgeSummary(vertex, authorizations);
+        assertSummarized(2);
+
+        edgeSummaryCache.handleBroadcast(createBroadcast("publish", new JSONObject().put("objectType", "elements").put("vertexIds", new JSONArray()).put("edgeIds", new JSONArray().put("e1"))));
+        edgeSummaryCache.getEdgeSummary(vertex, authorizations);
+        assertSummarized(3);
+    }
+
+    @Test
+    public void testDeletionBroadcasts() {
+        edgeSummaryCache.getEdgeSummary(vertex, authorizations);
+
+        edgeSummaryCache.handleBroadcast(createBroadcast("propertyChange", new JSONObject().put("graphVertexId", "v1")));
+        edgeSummaryCache.getEdgeSummary(vertex, authorizations);
+        assertSummarized(1);
+
+        edgeSummaryCache.handleBroadcast(createBroadcast("edgeDeletion", new JSONObject().put("edgeId", "e1").put("outVertexId", "v2").put("inVertexId", "v1")));
+        edgeSummaryCache.getEdgeSummary(vertex, authorizations);
+        assertSummarized(2);
+
+        edgeSummaryCache.handleBroadcast(createBroadcast("verticesDeleted", new JSONObject().put("vertexIds", new JSONArray().put("v2"))));
+        edgeSummaryCache.getEdgeSummary(vertex, authorizations);
+        assertSummarized(3);
+    }
+
+    private Set<String> getLabels(Graph graph, String vertexId, Authorizations authorizations) {
+        Vertex vertex = graph.getVertex(vertexId, authorizations);
+        return edgeSummaryCache.getEdgeSummary(vertex, authorizations).getLabels();
+    }
+
+    private void assertSummarized(int times) {
+        verify(vertex, times(times)).getEdgeInfos(eq(Direction.IN), any(Authorizations.class));
+    }
+
+    private static Set<String> toSet(JSONArray array) {
+        Set<String> set = new HashSet<>();
+        for (int i = 0; i < array.length(); i++) {
+            set.add(array.getString(i));
+        }
+        return set;
+    }
+
+    private static JSONObject createBroadcast(String type, JSONObject data) {
+        JSONObject json = new JSONObject();
+        json.put("type", type);
+        json.put("data", data);
+        return json;
+    }
+
+    private static EdgeInfo createEdgeInfo(String label, String vertexId) {
+        EdgeInfo edgeInfo = mock(EdgeInfo.class);
+        when(edgeInfo.getLabel()).thenReturn(label);
+        when(edgeInfo.getVertexId()).thenReturn(vertexId);
+        return edgeInfo;
+    }
+
+    private static Authorizations createAuthorizations(String... auths) {
+        Authorizations authorizations = mock(Authorizations.class);
+        when(authorizations.getAuthorizations()).thenReturn(auths);
+        return authorizations;
+    }
+}
@@ -0,0 +1,41 @@
+package org.visallo.core.model.longRunningProcess;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AdaptiveBatchSizerTest {
+    @Test
+    public void testGrowsWhenFasterThanTarget() {
+        AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(100, 10, 1000, 1000, 1024);
+        sizer.recordBatch(100, 100);
+        assertTrue("expected batch size to grow: " + sizer.getBatchSize(), sizer.getBatchSize() > 100);
+    }
+
+    @Test
+    public void testShrinksWhenSlowerThanTarget() {
+        AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(100, 10, 1000, 1000, 1024);
+        sizer.recordBatch(100, 10000);
+        assertTrue("expected batch size to shrink: " + sizer.getBatchSize(), sizer.getBatchSize() < 100);
+    }
+
+    @Test
+    public void testClampsToBounds() {
+        AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(100, 10, 200, 1000, 1024);
+        for (int i = 0; i < 20; i++) {
+            sizer.recordBatch(sizer.getBatchSize(), 1);
+        }
+        assertEquals(200, sizer.getBatchSize());
+
+        for (int i = 0; i < 20; i++) {
+            sizer.recordBatch(sizer.getBatchSize(), 100000);
+        }
+        assertEquals(10, sizer.getBatchSize());
+    }
+
+    @Test
+    public void testInitialBatchSizeIsClamped() {
+        assertEquals(50, new AdaptiveBatchSizer(5000, 10, 50, 1000, 1024).getBatchSize());
+    }
+}
@@ -0,0 +1,20 @@
+package org.visallo.core.model.longRunningProcess;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ReindexLongRunningProcessWorkerTest {
+    @Test
+    public void testEstimateRangeProgress() {
+        assertEquals(0.0, ReindexLongRunningProcessWorker.estimateRangeProgress("a", "c", "a"), 0.001);
+        assertEquals(0.5, ReindexLongRunningProcessWorker.estimateRangeProgress("a", "c", "b"), 0.001);
+        assertEquals(1.0, ReindexLongRunningProcessWorker.estimateRangeProgress("a", "c", "d"), 0.001);
+        assertEquals(0.5, ReindexLongRunningProcessWorker.estimateRangeProgress("user1a", "user1c", "user1b"), 0.001);
+
+        double early = ReindexLongRunningProcessWorker.estimateRangeProgress(null, null, "A");
+        double late = ReindexLongRunningProcessWorker.estimateRangeProgress(null, null, "z");
+        assertTrue("expected progress to increase with id: " + early + " < " + late, early < late);
+    }
+}
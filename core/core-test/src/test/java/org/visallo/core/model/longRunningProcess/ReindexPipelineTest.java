@@ -0,0 +1,117 @@
+package org.visallo.core.model.longRunningProcess;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Timer;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.vertexium.Authorizations;
+import org.vertexium.Element;
+import org.vertexium.Graph;
+import org.vertexium.Visibility;
+import org.vertexium.inmemory.InMemoryGraph;
+import org.vertexium.search.SearchIndex;
+import org.visallo.core.exception.VisalloException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ReindexPipelineTest {
+    private Graph graph;
+    private Authorizations authorizations;
+    private Counter pendingBatchesCounter;
+    private List<Integer> batchSizes;
+    private long lastProgressCount;
+    private String lastProgressId;
+
+    @Mock
+    private SearchIndex searchIndex;
+
+    @Before
+    public void setUp() {
+        graph = InMemoryGraph.create();
+        authorizations = graph.createAuthorizations();
+        pendingBatchesCounter = new Counter();
+        batchSizes = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(invocation -> {
+            batchSizes.add(((List<?>) invocation.getArguments()[1]).size());
+            return null;
+        }).when(searchIndex).addElements(any(Graph.class), any(Iterable.class), any(Authorizations.class));
+    }
+
+    @Test
+    public void testBatchesByElementCount() {
+        List<Element> elements = createVertices(25);
+
+        long indexedCount = createPipeline(new AdaptiveBatchSizer(10, 10, 10, 1000, Long.MAX_VALUE)).run(elements);
+
+        assertEquals(25, indexedCount);
+        assertEquals(Arrays.asList(10, 10, 5), batchSizes);
+        assertEquals(25, lastProgressCount);
+        assertEquals("v24", lastProgressId);
+        assertEquals(0, pendingBatchesCounter.getCount());
+    }
+
+    @Test
+    public void testBatchesByBytes() {
+        List<Element> elements = createVertices(3);
+
+        long indexedCount = createPipeline(new AdaptiveBatchSizer(10, 10, 10, 1000, 1)).run(elements);
+
+        assertEquals(3, indexedCount);
+        assertEquals(Arrays.asList(1, 1, 1), batchSizes);
+    }
+
+    @Test
+    public void testIndexFailureFailsRun() {
+        RuntimeException indexFailure = new RuntimeException("index unavailable");
+        doThrow(indexFailure).when(searchIndex).addElements(any(Graph.class), any(Iterable.class), any(Authorizations.class));
+        List<Element> elements = createVertices(100);
+
+        try {
+            createPipeline(new AdaptiveBatchSizer(10, 10, 10, 1000, Long.MAX_VALUE)).run(elements);
+            fail("expected the index failure to fail the run");
+        } catch (VisalloException ex) {
+            assertSame(indexFailure, ex.getCause());
+        }
+        assertEquals(0, pendingBatchesCounter.getCount());
+    }
+
+    private ReindexPipeline createPipeline(AdaptiveBatchSizer batchSizer) {
+        return new ReindexPipeline(
+                graph,
+                searchIndex,
+                authorizations,
+                batchSizer,
+                2,
+                new Meter(),
+                pendingBatchesCounter,
+                new Timer(),
+                Long.MAX_VALUE,
+                (indexedCount, lastIndexedId, elementsPerSecond, pendingBatches) -> {
+                    lastProgressCount = indexedCount;
+                    lastProgressId = lastIndexedId;
+                }
+        );
+    }
+
+    private List<Element> createVertices(int count) {
+        List<Element> vertices = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            vertices.add(graph.addVertex("v" + i, new Visibility(""), authorizations));
+        }
+        graph.flush();
+        return vertices;
+    }
+}
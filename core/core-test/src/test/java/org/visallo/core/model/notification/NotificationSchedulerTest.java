@@ -0,0 +1,165 @@
+package org.visallo.core.model.notification;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.visallo.core.config.Configuration;
+import org.visallo.core.config.HashMapConfigurationLoader;
+import org.visallo.core.model.lock.LeaderListener;
+import org.visallo.core.model.lock.LockRepository;
+import org.visallo.core.model.user.UserRepository;
+import org.visallo.core.model.workQueue.WorkQueueRepository;
+import org.visallo.core.user.User;
+import org.visallo.core.util.ShutdownService;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class NotificationSchedulerTest {
+    private static final String USER_ID = "user1";
+    private NotificationScheduler notificationScheduler;
+    private LeaderListener leaderListener;
+
+    @Mock
+    private SystemNotificationRepository systemNotificationRepository;
+
+    @Mock
+    private UserNotificationRepository userNotificationRepository;
+
+    @Mock
+    private WorkQueueRepository workQueueRepository;
+
+    @Mock
+    private LockRepository lockRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ShutdownService shutdownService;
+
+    @Mock
+    private User user;
+
+    @Before
+    public void setUp() {
+        when(user.getUserId()).thenReturn(USER_ID);
+        when(systemNotificationRepository.getActiveNotifications(any(User.class))).thenReturn(new ArrayList<>());
+        when(systemNotificationRepository.getFutureNotifications(any(Date.class), any(User.class))).thenReturn(new ArrayList<>());
+        Configuration configuration = new Configuration(new HashMapConfigurationLoader(new HashMap()), new HashMap<>());
+
+        notificationScheduler = new NotificationScheduler(
+                systemNotificationRepository,
+                userNotificationRepository,
+                workQueueRepository,
+                lockRepository,
+                userRepository,
+                configuration,
+                shutdownService
+        );
+        verify(shutdownService).register(notificationScheduler);
+        notificationScheduler.start();
+
+        ArgumentCaptor<LeaderListener> leaderListenerCaptor = ArgumentCaptor.forClass(LeaderListener.class);
+        verify(lockRepository).leaderElection(anyString(), leaderListenerCaptor.capture());
+        leaderListener = leaderListenerCaptor.getValue();
+    }
+
+    @After
+    public void after() {
+        notificationScheduler.shutdown();
+    }
+
+    @Test
+    public void testOnlyTheLeaderDeliversScheduledNotifications() throws Exception {
+        SystemNotification beforeLeader = createSystemNotification("n1", 50);
+        notificationScheduler.schedule(beforeLeader);
+        Thread.sleep(500);
+        verify(workQueueRepository, never()).pushSystemNotification(any(SystemNotification.class));
+
+        leaderListener.isLeader();
+        SystemNotification afterLeader = createSystemNotification("n2", 50);
+        notificationScheduler.schedule(afterLeader);
+        verify(workQueueRepository, timeout(5000)).pushSystemNotification(afterLeader);
+        verify(workQueueRepository, never()).pushSystemNotification(beforeLeader);
+    }
+
+    @Test
+    public void testCancelledNotificationIsNotDelivered() throws Exception {
+        leaderListener.isLeader();
+        SystemNotification notification = createSystemNotification("n1", 200);
+        notificationScheduler.schedule(notification);
+        notificationScheduler.cancel(notification.getId());
+        Thread.sleep(500);
+        verify(workQueueRepository, never()).pushSystemNotification(any(SystemNotification.class));
+    }
+
+    @Test
+    public void testUserNotificationBroadcastReloadsUnread() {
+        UserNotification notification = createUserNotification("un1");
+        when(userNotificationRepository.findAllForUser(USER_ID, user)).thenAnswer(invocation -> Stream.of(notification));
+
+        assertEquals(1, notificationScheduler.getActiveUserNotifications(user).size());
+        notificationScheduler.getActiveUserNotifications(user);
+        verify(userNotificationRepository, times(1)).findAllForUser(USER_ID, user);
+
+        notificationScheduler.handleBroadcast(createBroadcast(
+                "notification",
+                new JSONObject().put("notification", notification.toJSONObject())
+        ));
+        notificationScheduler.getActiveUserNotifications(user);
+        verify(userNotificationRepository, times(2)).findAllForUser(USER_ID, user);
+    }
+
+    @Test
+    public void testMarkReadIsBroadcastToOtherServers() {
+        UserNotification un1 = createUserNotification("un1");
+        UserNotification un2 = createUserNotification("un2");
+        when(userNotificationRepository.findAllForUser(USER_ID, user)).thenAnswer(invocation -> Stream.of(un1, un2));
+        assertEquals(2, notificationScheduler.getActiveUserNotifications(user).size());
+
+        String[] notificationIds = {"un1"};
+        notificationScheduler.markRead(notificationIds, user);
+        verify(workQueueRepository).pushUserNotificationsRead(USER_ID, notificationIds);
+        assertEquals(1, notificationScheduler.getActiveUserNotifications(user).size());
+
+        // as received from another server
+        notificationScheduler.handleBroadcast(createBroadcast(
+                "userNotificationsRead",
+                new JSONObject().put("userId", USER_ID).put("notificationIds", new JSONArray().put("un2"))
+        ));
+        assertEquals(0, notificationScheduler.getActiveUserNotifications(user).size());
+        verify(userNotificationRepository, times(1)).findAllForUser(USER_ID, user);
+    }
+
+    private static SystemNotification createSystemNotification(String id, long startsInMillis) {
+        SystemNotification notification = new SystemNotification(id, "title", "message", null, null);
+        notification.setStartDate(new Date(System.currentTimeMillis() + startsInMillis));
+        return notification;
+    }
+
+    private static UserNotification createUserNotification(String id) {
+        return new UserNotification(id, USER_ID, "title", "message", null, null, new Date(System.currentTimeMillis() - 1000), null);
+    }
+
+    private static JSONObject createBroadcast(String type, JSONObject data) {
+        JSONObject json = new JSONObject();
+        json.put("type", type);
+        json.put("data", data);
+        return json;
+    }
+}
@@ -0,0 +1,33 @@
+package org.visallo.core.model.properties.types;
+
+import org.junit.Test;
+import org.visallo.web.clientapi.model.VisibilityJson;
+
+import static org.junit.Assert.*;
+
+public class DecodedValueCacheTest {
+    @Test
+    public void testVisibilityJsonIsDecodedOnceAndCopied() {
+        VisibilityJsonVisalloProperty property = new VisibilityJsonVisalloProperty("http://visallo.org/test#visibilityJson");
+        VisibilityJson visibilityJson = new VisibilityJson("a&b");
+        visibilityJson.addWorkspace("decodedValueCacheTestWorkspace");
+        String valueStr = property.wrap(visibilityJson);
+
+        DecodedValueCache<VisibilityJson> cache = DecodedValueCache.forType(VisibilityJson.class);
+        assertNotNull(cache);
+        long missCount = cache.getStats().missCount();
+        long hitCount = cache.getStats().hitCount();
+
+        VisibilityJson first = property.unwrap(valueStr);
+        VisibilityJson second = property.unwrap(valueStr);
+        assertEquals(visibilityJson, first);
+        assertEquals(visibilityJson, second);
+        assertNotSame(first, second);
+        assertEquals(missCount + 1, cache.getStats().missCount());
+        assertEquals(hitCount + 1, cache.getStats().hitCount());
+
+        first.addWorkspace("otherWorkspace");
+        first.setSource("c");
+        assertEquals(visibilityJson, property.unwrap(valueStr));
+    }
+}
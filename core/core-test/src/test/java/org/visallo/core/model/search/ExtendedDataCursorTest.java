@@ -0,0 +1,35 @@
+package org.visallo.core.model.search;
+
+import org.junit.Test;
+import org.visallo.core.exception.VisalloException;
+
+import static org.junit.Assert.*;
+
+public class ExtendedDataCursorTest {
+    @Test
+    public void testEncodeDecode() {
+        ExtendedDataCursor cursor = ExtendedDataCursor.START.next("row/0025", 25);
+        ExtendedDataCursor decoded = ExtendedDataCursor.decode(cursor.encode());
+        assertEquals(25, decoded.getOffset());
+        assertEquals("row/0025", decoded.getLastRowId());
+
+        decoded = ExtendedDataCursor.decode(new ExtendedDataCursor(100, null).encode());
+        assertEquals(100, decoded.getOffset());
+        assertNull(decoded.getLastRowId());
+    }
+
+    @Test
+    public void testIsAfterCursor() {
+        assertTrue(ExtendedDataCursor.START.isAfterCursor("row1"));
+
+        ExtendedDataCursor cursor = ExtendedDataCursor.START.next("row2", 2);
+        assertFalse(cursor.isAfterCursor("row1"));
+        assertFalse(cursor.isAfterCursor("row2"));
+        assertTrue(cursor.isAfterCursor("row3"));
+    }
+
+    @Test(expected = VisalloException.class)
+    public void testDecodeInvalid() {
+        ExtendedDataCursor.decode("not a cursor");
+    }
+}
@@ -9,14 +9,19 @@ import org.vertexium.*;
 import org.vertexium.inmemory.InMemoryGraph;
 import org.visallo.core.model.properties.VisalloProperties;
 import org.visallo.core.model.user.GraphAuthorizationRepository;
+import org.visallo.core.user.User;
 import org.visallo.core.util.VisalloInMemoryTestBase;
 import org.visallo.web.clientapi.model.VisibilityJson;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.when;
+import static org.vertexium.util.IterableUtils.count;
+import static org.visallo.core.util.StreamUtil.stream;
 
 @RunWith(MockitoJUnitRunner.class)
 public class TermMentionRepositoryTest extends VisalloInMemoryTestBase {
@@ -26,6 +31,9 @@ public class TermMentionRepositoryTest extends VisalloInMemoryTestBase {
     private Authorizations authorizations;
     private TermMentionRepository termMentionRepository;
 
+    @Mock
+    private User user;
+
     @Before
     public void setUp() {
         visibility = new Visibility("");
@@ -33,6 +41,114 @@ public class TermMentionRepositoryTest extends VisalloInMemoryTestBase {
         authorizations = getGraph().createAuthorizations(TermMentionRepository.VISIBILITY_STRING);
 
         termMentionRepository = getTermMentionRepository();
+        when(user.getUserId()).thenReturn("USER123");
+    }
+
+    @Test
+    public void testFindByOutVertexAndProperty() {
+        Vertex doc = getGraph().addVertex("doc", visibility, authorizations);
+        Vertex tm1 = createTermMention(doc, "key1", "name1", "tm1");
+        createTermMention(doc, "key2", "name1", "tm2");
+        Vertex tm3 = createTermMention(doc, "key1", "name1", "tm3");
+
+        // term mention saved before the property index existed
+        Vertex legacy = getGraph().addVertex("legacy", termMentionVisibility, authorizations);
+        VisalloProperties.TERM_MENTION_PROPERTY_KEY.setProperty(legacy, "key1", termMentionVisibility, authorizations);
+        VisalloProperties.TERM_MENTION_PROPERTY_NAME.setProperty(legacy, "name1", termMentionVisibility, authorizations);
+        getGraph().addEdge("doc_to_legacy", doc, legacy, VisalloProperties.TERM_MENTION_LABEL_HAS_TERM_MENTION, termMentionVisibility, authorizations);
+        getGraph().flush();
+
+        assertEquals(sorted(tm1.getId(), tm3.getId()), findTermMentionIds("key1", "name1"));
+        assertEquals("finding term mentions must not write index rows", 2, countPropertyIndexRows("key1", "name1"));
+
+        doc = getGraph().getVertex("doc", authorizations);
+        assertEquals(4, termMentionRepository.indexTermMentions(doc, authorizations));
+        getGraph().flush();
+        assertEquals(3, countPropertyIndexRows("key1", "name1"));
+        assertEquals(1, countPropertyIndexRows("key2", "name1"));
+        assertEquals(sorted(tm1.getId(), tm3.getId(), "legacy"), findTermMentionIds("key1", "name1"));
+
+        termMentionRepository.delete(getGraph().getVertex(tm1.getId(), authorizations), authorizations);
+        getGraph().flush();
+        assertEquals(2, countPropertyIndexRows("key1", "name1"));
+        assertEquals(sorted(tm3.getId(), "legacy"), findTermMentionIds("key1", "name1"));
+    }
+
+    @Test
+    public void testFindByOutVertexAndPropertyWithoutPropertyIndex() {
+        Vertex doc = getGraph().addVertex("doc", visibility, authorizations);
+        Vertex legacy = getGraph().addVertex("legacy", termMentionVisibility, authorizations);
+        VisalloProperties.TERM_MENTION_PROPERTY_KEY.setProperty(legacy, "key1", termMentionVisibility, authorizations);
+        VisalloProperties.TERM_MENTION_PROPERTY_NAME.setProperty(legacy, "name1", termMentionVisibility, authorizations);
+        getGraph().addEdge("doc_to_legacy", doc, legacy, VisalloProperties.TERM_MENTION_LABEL_HAS_TERM_MENTION, termMentionVisibility, authorizations);
+        getGraph().flush();
+
+        assertEquals(0, countPropertyIndexRows("key1", "name1"));
+        assertEquals(sorted("legacy"), findTermMentionIds("key1", "name1"));
+        assertEquals(sorted(), findTermMentionIds("key2", "name1"));
+    }
+
+    @Test
+    public void testFindByOutVertexAndPropertyFindsSourceInfo() {
+        Vertex doc = getGraph().addVertex("doc", visibility, authorizations);
+        Vertex v = getGraph().addVertex("v", visibility, authorizations);
+        termMentionRepository.addSourceInfoToVertex(
+                v,
+                v.getId(),
+                TermMentionFor.VERTEX,
+                null,
+                null,
+                null,
+                "snippet",
+                "key1",
+                "name1",
+                0,
+                5,
+                doc,
+                visibility,
+                authorizations
+        );
+        getGraph().flush();
+
+        List<String> ids = findTermMentionIds("key1", "name1");
+        assertEquals(1, ids.size());
+        assertEquals(v.getId(), VisalloProperties.TERM_MENTION_FOR_ELEMENT_ID.getPropertyValue(
+                getGraph().getVertex(ids.get(0), authorizations)
+        ));
+    }
+
+    private static List<String> sorted(String... ids) {
+        return Arrays.stream(ids).sorted().collect(Collectors.toList());
+    }
+
+    private long countPropertyIndexRows(String propertyKey, String propertyName) {
+        return count(getGraph().getExtendedData(
+                ElementType.VERTEX,
+                "doc",
+                TermMentionRepository.getPropertyIndexTableName(propertyKey, propertyName),
+                authorizations
+        ));
+    }
+
+    private List<String> findTermMentionIds(String propertyKey, String propertyName) {
+        return stream(termMentionRepository.findByOutVertexAndProperty("doc", propertyKey, propertyName, authorizations))
+                .map(Vertex::getId)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    private Vertex createTermMention(Vertex outVertex, String propertyKey, String propertyName, String title) {
+        return new TermMentionBuilder()
+                .outVertex(outVertex)
+                .propertyKey(propertyKey)
+                .propertyName(propertyName)
+                .conceptIri("http://visallo.org/test#person")
+                .start(0)
+                .end(1)
+                .title(title)
+                .visibilityJson("")
+                .process(getClass().getSimpleName())
+                .save(getGraph(), getVisibilityTranslator(), user, authorizations);
     }
 
     @Test
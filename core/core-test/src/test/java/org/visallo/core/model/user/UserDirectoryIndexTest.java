@@ -0,0 +1,120 @@
+package org.visallo.core.model.user;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.visallo.core.user.User;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class UserDirectoryIndexTest {
+    private UserDirectoryIndex index;
+    private User joe;
+    private User joan;
+    private User bob;
+
+    @Before
+    public void before() {
+        joe = createUser("u1", "joe", "Joe Smith", "joe@example.com");
+        joan = createUser("u2", "jsmith", "Joan Smith", "joan@example.com");
+        bob = createUser("u3", "bob", "Bob Jones", "bjones@example.org");
+
+        index = new UserDirectoryIndex();
+        index.load(Arrays.asList(joe, joan, bob));
+    }
+
+    @Test
+    public void testFindRanksPrefixMatchesFirst() {
+        assertEquals(Arrays.asList("u2", "u1"), findIds("smith", 10));
+        assertEquals(Arrays.asList("u1", "u3", "u2"), findIds("jo", 10));
+        assertEquals(Arrays.asList("u3"), findIds("example.org", 10));
+        assertEquals(Arrays.asList(), findIds("nobody", 10));
+    }
+
+    @Test
+    public void testFindWithSkipAndLimit() {
+        assertEquals(Arrays.asList("u3", "u2"), index.find(null, 0, 2));
+        assertEquals(Arrays.asList("u2", "u1"), index.find(null, 1, 5));
+    }
+
+    @Test
+    public void testLoadReplacesIndex() {
+        index.load(Arrays.asList(bob, createUser("u5", "jdoe", "Jane Doe", null)));
+        assertEquals(Arrays.asList(), findIds("smith", 10));
+        assertEquals(Arrays.asList("u5"), findIds("jane", 10));
+        assertEquals(Arrays.asList("u3"), findIds("bob", 10));
+    }
+
+    @Test
+    public void testUpdates() {
+        index.userDeleted(joe);
+        assertEquals(Arrays.asList("u2"), findIds("smith", 10));
+
+        User robert = createUser("u3", "bob", "Robert Jones", "bjones@example.org");
+        index.userLogin(robert, null);
+        assertEquals(Arrays.asList("u3"), findIds("robert", 10));
+        assertEquals(Arrays.asList(), findIds("bob jones", 10));
+
+        index.newUserAdded(createUser("u4", "ajoseph", "Al Joseph", null));
+        assertEquals(Arrays.asList("u4"), findIds("jos", 10));
+    }
+
+    @Test
+    public void testUpdatesDuringLoadAreNotBlockedOrLost() throws Exception {
+        User jane = createUser("u5", "jdoe", "Jane Doe", null);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Iterable<User> users = () -> new Iterator<User>() {
+                private final Iterator<User> it = Arrays.asList(joe, joan, bob).iterator();
+
+                @Override
+                public boolean hasNext() {
+                    return it.hasNext();
+                }
+
+                @Override
+                public User next() {
+                    User user = it.next();
+                    if (user == joan) {
+                        try {
+                            executor.submit(() -> {
+                                index.newUserAdded(jane);
+                                index.userDeleted(joe);
+                            }).get(5, TimeUnit.SECONDS);
+                        } catch (Exception ex) {
+                            throw new RuntimeException("update blocked by load", ex);
+                        }
+                    }
+                    return user;
+                }
+            };
+            index.load(users);
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(Arrays.asList("u5"), findIds("jane", 10));
+        assertEquals(Arrays.asList("u2"), findIds("smith", 10));
+    }
+
+    private List<String> findIds(String query, int limit) {
+        return index.find(query, 0, limit);
+    }
+
+    private static User createUser(String userId, String username, String displayName, String emailAddress) {
+        User user = mock(User.class);
+        when(user.getUserId()).thenReturn(userId);
+        when(user.getUsername()).thenReturn(username);
+        when(user.getDisplayName()).thenReturn(displayName);
+        when(user.getEmailAddress()).thenReturn(emailAddress);
+        return user;
+    }
+}
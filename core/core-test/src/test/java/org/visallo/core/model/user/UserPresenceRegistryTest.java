@@ -0,0 +1,90 @@
+package org.visallo.core.model.user;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.visallo.core.model.workQueue.WorkQueueRepository;
+import org.visallo.core.time.MockTimeRepository;
+
+import java.util.Arrays;
+import java.util.Date;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+public class UserPresenceRegistryTest {
+    private MockTimeRepository timeRepository = new MockTimeRepository();
+    private UserPresenceRegistry registry;
+
+    @Before
+    public void setUp() {
+        timeRepository.setNow(new Date(1000000));
+        registry = new UserPresenceRegistry(mock(WorkQueueRepository.class), timeRepository);
+    }
+
+    @Test
+    public void testSessionsAndPaging() {
+        registry.sessionStarted("user3", "s1", false);
+        registry.sessionStarted("user1", "s2", false);
+        registry.sessionStarted("user2", "s3", false);
+        registry.sessionStarted("user1", "s4", false);
+
+        assertEquals(3, registry.getOnlineUserCount());
+        assertEquals(Arrays.asList("user1", "user2"), registry.getOnlineUserIds(0, 2));
+        assertEquals(Arrays.asList("user3"), registry.getOnlineUserIds(2, 2));
+
+        registry.sessionEnded("user1", "s2");
+        assertTrue(registry.isOnline("user1"));
+        registry.sessionEnded("user1", "s4");
+        assertFalse(registry.isOnline("user1"));
+        assertEquals(Arrays.asList("user2", "user3"), registry.getOnlineUserIds(0, 10));
+    }
+
+    @Test
+    public void testAutoDeleteSessionsExpire() {
+        registry.sessionStarted("user1", "s1", true);
+        registry.sessionStarted("user2", "s2", false);
+
+        advance(UserPresenceRegistry.SESSION_DURATION / 2);
+        registry.touch("user1");
+        advance(UserPresenceRegistry.SESSION_DURATION / 2);
+        registry.expireSessions();
+        assertTrue(registry.isOnline("user1"));
+
+        advance(UserPresenceRegistry.SESSION_DURATION);
+        registry.expireSessions();
+        assertFalse(registry.isOnline("user1"));
+        assertTrue(registry.isOnline("user2"));
+    }
+
+    @Test
+    public void testRemotePresence() {
+        registry.handleBroadcast(createBroadcast("server2", true, "user1"));
+        registry.sessionStarted("user1", "s1", false);
+        assertTrue(registry.isOnline("user1"));
+
+        registry.sessionEnded("user1", "s1");
+        assertTrue(registry.isOnline("user1"));
+
+        registry.handleBroadcast(createBroadcast("server2", false, "user1"));
+        assertFalse(registry.isOnline("user1"));
+
+        registry.handleBroadcast(createBroadcast("server2", true, "user2"));
+        advance(UserPresenceRegistry.SESSION_DURATION);
+        registry.expireSessions();
+        assertFalse(registry.isOnline("user2"));
+    }
+
+    private void advance(long millis) {
+        timeRepository.setNow(new Date(timeRepository.currentTimeMillis() + millis));
+    }
+
+    private static JSONObject createBroadcast(String serverId, boolean online, String... userIds) {
+        JSONObject data = new JSONObject();
+        data.put("serverId", serverId);
+        data.put("online", online);
+        data.put("userIds", new JSONArray(Arrays.asList(userIds)));
+        return data;
+    }
+}
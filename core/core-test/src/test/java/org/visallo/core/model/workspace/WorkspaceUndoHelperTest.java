@@ -0,0 +1,144 @@
+package org.visallo.core.model.workspace;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.vertexium.*;
+import org.vertexium.inmemory.InMemoryGraph;
+import org.visallo.core.model.properties.VisalloProperties;
+import org.visallo.core.model.workQueue.Priority;
+import org.visallo.core.model.workQueue.WorkQueueRepository;
+import org.visallo.core.user.User;
+import org.visallo.web.clientapi.model.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class WorkspaceUndoHelperTest {
+    private static final String WORKSPACE_ID = "WORKSPACE_1234";
+    private InMemoryGraph graph;
+    private Authorizations authorizations;
+    private WorkspaceUndoHelper workspaceUndoHelper;
+
+    @Mock
+    private WorkspaceHelper workspaceHelper;
+
+    @Mock
+    private WorkQueueRepository workQueueRepository;
+
+    @Mock
+    private User user;
+
+    @Before
+    public void setUp() {
+        graph = InMemoryGraph.create();
+        authorizations = graph.createAuthorizations(WORKSPACE_ID);
+        workspaceUndoHelper = new WorkspaceUndoHelper(graph, workspaceHelper, workQueueRepository);
+    }
+
+    @Test
+    public void testUnhideVerticesSendsOneNotification() {
+        Vertex v1 = graph.addVertex("v1", new Visibility(""), authorizations);
+        Vertex v2 = graph.addVertex("v2", new Visibility(""), authorizations);
+        graph.markVertexHidden(v1, new Visibility(WORKSPACE_ID), authorizations);
+        graph.markVertexHidden(v2, new Visibility(WORKSPACE_ID), authorizations);
+        graph.flush();
+
+        ClientApiWorkspaceUndoResponse response = new ClientApiWorkspaceUndoResponse();
+        workspaceUndoHelper.undo(Arrays.asList(vertexUndoItem("v1"), vertexUndoItem("v2")), response, WORKSPACE_ID, user, authorizations);
+
+        assertTrue(response.isSuccess());
+        assertNotNull(graph.getVertex("v1", authorizations));
+        assertNotNull(graph.getVertex("v2", authorizations));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Element>> elements = (ArgumentCaptor) ArgumentCaptor.forClass(Collection.class);
+        verify(workQueueRepository, times(1)).pushElementsUnhidden(elements.capture(), eq(Priority.HIGH));
+        assertEquals(Arrays.asList("v1", "v2"), getIds(elements.getValue()));
+        verify(workQueueRepository, never()).pushVertexUnhidden(any(Vertex.class), any(Priority.class));
+    }
+
+    @Test
+    public void testUndoSandboxedEdgesBroadcastsOnceAndReloadsChangedVertices() {
+        Vertex v1 = graph.addVertex("v1", new Visibility(""), authorizations);
+        Vertex v2 = graph.addVertex("v2", new Visibility(""), authorizations);
+        Vertex v3 = graph.addVertex("v3", new Visibility(""), authorizations);
+        addSandboxedEdge("e1", v1, v2);
+        addSandboxedEdge("e2", v1, v3);
+        graph.flush();
+
+        doAnswer(invocation -> {
+            graph.deleteEdge((Edge) invocation.getArguments()[1], authorizations);
+            return null;
+        }).when(workspaceHelper).deleteEdge(
+                eq(WORKSPACE_ID), any(Edge.class), any(Vertex.class), any(Vertex.class), eq(false), eq(Priority.HIGH),
+                any(Authorizations.class), any(User.class)
+        );
+
+        ClientApiWorkspaceUndoResponse response = new ClientApiWorkspaceUndoResponse();
+        workspaceUndoHelper.undo(Arrays.asList(edgeUndoItem("e1"), edgeUndoItem("e2")), response, WORKSPACE_ID, user, authorizations);
+
+        assertTrue(response.isSuccess());
+
+        ArgumentCaptor<Vertex> outVertices = ArgumentCaptor.forClass(Vertex.class);
+        verify(workspaceHelper, times(2)).deleteEdge(
+                eq(WORKSPACE_ID), any(Edge.class), outVertices.capture(), any(Vertex.class), eq(false), eq(Priority.HIGH),
+                any(Authorizations.class), any(User.class)
+        );
+        Vertex reloadedOutVertex = outVertices.getAllValues().get(1);
+        assertNotSame(outVertices.getAllValues().get(0), reloadedOutVertex);
+        assertEquals(Arrays.asList("e2"), toList(reloadedOutVertex.getEdgeIds(Direction.BOTH, authorizations)));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<String>> edgeIds = (ArgumentCaptor) ArgumentCaptor.forClass(Collection.class);
+        verify(workQueueRepository, times(1)).broadcastUndoElements(anyCollectionOf(String.class), edgeIds.capture());
+        assertEquals(Arrays.asList("e1", "e2"), new ArrayList<>(edgeIds.getValue()));
+        verify(workQueueRepository, never()).broadcastUndoEdge(any(Edge.class));
+    }
+
+    private void addSandboxedEdge(String edgeId, Vertex outVertex, Vertex inVertex) {
+        VisibilityJson visibilityJson = new VisibilityJson("");
+        visibilityJson.addWorkspace(WORKSPACE_ID);
+        Edge edge = graph.addEdge(edgeId, outVertex, inVertex, "label1", new Visibility(WORKSPACE_ID), authorizations);
+        VisalloProperties.VISIBILITY_JSON.setProperty(edge, visibilityJson, new Visibility(""), authorizations);
+    }
+
+    private static ClientApiVertexUndoItem vertexUndoItem(String vertexId) {
+        ClientApiVertexUndoItem undoItem = new ClientApiVertexUndoItem();
+        undoItem.setVertexId(vertexId);
+        return undoItem;
+    }
+
+    private static ClientApiRelationshipUndoItem edgeUndoItem(String edgeId) {
+        ClientApiRelationshipUndoItem undoItem = new ClientApiRelationshipUndoItem();
+        undoItem.setEdgeId(edgeId);
+        return undoItem;
+    }
+
+    private static List<String> getIds(Collection<Element> elements) {
+        List<String> ids = new ArrayList<>();
+        for (Element element : elements) {
+            ids.add(element.getId());
+        }
+        ids.sort(String::compareTo);
+        return ids;
+    }
+
+    private static List<String> toList(Iterable<String> values) {
+        List<String> list = new ArrayList<>();
+        values.forEach(list::add);
+        return list;
+    }
+}
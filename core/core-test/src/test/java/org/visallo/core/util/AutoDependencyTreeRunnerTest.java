@@ -4,12 +4,14 @@ import com.google.common.base.Joiner;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
 
 public class AutoDependencyTreeRunnerTest {
-    private List<String> foundOrder = new ArrayList<String>();
+    private List<String> foundOrder = Collections.synchronizedList(new ArrayList<String>());
     private Runnable a = new FoundOrderRunnable(foundOrder, "a");
     private Runnable b = new FoundOrderRunnable(foundOrder, "b");
     private Runnable c = new FoundOrderRunnable(foundOrder, "c");
@@ -42,6 +44,42 @@ public class AutoDependencyTreeRunnerTest {
         assertEquals("a,b,c,d,e", Joiner.on(',').join(foundOrder));
     }
 
+    @Test
+    public void testParallel() {
+        foundOrder.clear();
+
+        AutoDependencyTreeRunner tree = new AutoDependencyTreeRunner();
+        tree.add(c, d);
+        tree.add(c, e);
+        tree.add(a, b, c);
+        tree.run(4);
+
+        assertEquals(5, foundOrder.size());
+        assertEquals("a,b,c", Joiner.on(',').join(foundOrder.subList(0, 3)));
+        assertTrue(foundOrder.subList(3, 5).containsAll(Arrays.asList("d", "e")));
+    }
+
+    @Test
+    public void testParallelFailureStopsDependents() {
+        foundOrder.clear();
+
+        Runnable failure = AutoDependencyTreeRunner.named("failure", () -> {
+            throw new IllegalStateException("failed");
+        });
+        AutoDependencyTreeRunner tree = new AutoDependencyTreeRunner();
+        tree.add(a, failure, b);
+        tree.add(c);
+        try {
+            tree.run(4);
+            fail("expected failure");
+        } catch (IllegalStateException ex) {
+            assertEquals("failed", ex.getMessage());
+        }
+
+        assertTrue(foundOrder.contains("a"));
+        assertFalse(foundOrder.contains("b"));
+    }
+
     private static class FoundOrderRunnable implements Runnable {
         private final List<String> foundOrder;
         private final String name;
@@ -0,0 +1,57 @@
+package org.visallo.core.util;
+
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+import static org.junit.Assert.assertEquals;
+
+public class ImageProcessingServiceTest {
+    private ImageProcessingService imageProcessingService = new ImageProcessingService(16);
+
+    @Test
+    public void testReadSubsamplesAndReorients() throws Exception {
+        InputStream in = getClass().getResourceAsStream("/org/visallo/core/util/imageTransformExtractorTest/Landscape_6.jpg");
+        int[] dims = imageProcessingService.read(in, 200, 200, new ImageTransform(false, 90),
+                image -> new int[]{image.getWidth(), image.getHeight()});
+
+        assertEquals(300, dims[0]);
+        assertEquals(225, dims[1]);
+    }
+
+    @Test
+    public void testReorient() {
+        BufferedImage image = new BufferedImage(2, 1, BufferedImage.TYPE_INT_RGB);
+        image.setRGB(0, 0, Color.RED.getRGB());
+        image.setRGB(1, 0, Color.BLUE.getRGB());
+
+        BufferedImage rotated = ImageProcessingService.reorient(image, new ImageTransform(false, 90));
+        assertEquals(1, rotated.getWidth());
+        assertEquals(2, rotated.getHeight());
+        assertEquals(Color.RED.getRGB(), rotated.getRGB(0, 0));
+        assertEquals(Color.BLUE.getRGB(), rotated.getRGB(0, 1));
+
+        BufferedImage flipped = ImageProcessingService.reorient(image, new ImageTransform(true, 0));
+        assertEquals(Color.BLUE.getRGB(), flipped.getRGB(0, 0));
+        assertEquals(Color.RED.getRGB(), flipped.getRGB(1, 0));
+
+        BufferedImage flippedAndRotated = ImageProcessingService.reorient(image, new ImageTransform(true, 270));
+        assertEquals(Color.RED.getRGB(), flippedAndRotated.getRGB(0, 0));
+        assertEquals(Color.BLUE.getRGB(), flippedAndRotated.getRGB(0, 1));
+    }
+
+    @Test
+    public void testResize() throws Exception {
+        BufferedImage image = new BufferedImage(400, 100, BufferedImage.TYPE_INT_RGB);
+        byte[] data = imageProcessingService.write(image, "png");
+
+        BufferedImage resized = ImageIO.read(new ByteArrayInputStream(imageProcessingService.resize(data, 100, 100, 80)));
+        assertEquals(100, resized.getWidth());
+        assertEquals(25, resized.getHeight());
+        assertEquals(1, ImageProcessingService.getSubsampling(400, 100, 100, 100));
+    }
+}
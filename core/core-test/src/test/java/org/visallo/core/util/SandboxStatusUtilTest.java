@@ -0,0 +1,72 @@
+package org.visallo.core.util;
+
+import org.junit.Test;
+import org.vertexium.Metadata;
+import org.vertexium.Property;
+import org.vertexium.Visibility;
+import org.visallo.core.model.properties.VisalloProperties;
+import org.visallo.web.clientapi.model.SandboxStatus;
+import org.visallo.web.clientapi.model.VisibilityJson;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SandboxStatusUtilTest {
+    private static final String WORKSPACE_ID = "WORKSPACE_1";
+
+    @Test
+    public void testGetPropertySandboxStatuses() {
+        Property publicProperty = createProperty("k1", "name", null);
+        Property changedProperty = createProperty("k1", "name", WORKSPACE_ID);
+        Property privateProperty = createProperty("k2", "name", WORKSPACE_ID);
+        Property otherWorkspaceProperty = createProperty("k3", "name", "WORKSPACE_2");
+
+        SandboxStatus[] sandboxStatuses = SandboxStatusUtil.getPropertySandboxStatuses(
+                Arrays.asList(publicProperty, changedProperty, privateProperty, otherWorkspaceProperty),
+                WORKSPACE_ID
+        );
+
+        assertArrayEquals(new SandboxStatus[]{
+                SandboxStatus.PUBLIC,
+                SandboxStatus.PUBLIC_CHANGED,
+                SandboxStatus.PRIVATE,
+                SandboxStatus.PUBLIC
+        }, sandboxStatuses);
+    }
+
+    @Test
+    public void testGetPropertySandboxStatusesMatchesKeyAndName() {
+        Property publicProperty = createProperty("k1", "name1", null);
+        Property otherNameProperty = createProperty("k1", "name2", WORKSPACE_ID);
+        Property otherKeyProperty = createProperty("k2", "name1", WORKSPACE_ID);
+
+        SandboxStatus[] sandboxStatuses = SandboxStatusUtil.getPropertySandboxStatuses(
+                Arrays.asList(otherNameProperty, publicProperty, otherKeyProperty),
+                WORKSPACE_ID
+        );
+
+        assertArrayEquals(new SandboxStatus[]{
+                SandboxStatus.PRIVATE,
+                SandboxStatus.PUBLIC,
+                SandboxStatus.PRIVATE
+        }, sandboxStatuses);
+    }
+
+    private static Property createProperty(String key, String name, String workspaceId) {
+        Metadata metadata = new Metadata();
+        VisibilityJson visibilityJson = new VisibilityJson("");
+        if (workspaceId != null) {
+            visibilityJson.addWorkspace(workspaceId);
+        }
+        VisalloProperties.VISIBILITY_JSON_METADATA.setMetadata(metadata, visibilityJson, new Visibility(""));
+
+        Property property = mock(Property.class);
+        when(property.getKey()).thenReturn(key);
+        when(property.getName()).thenReturn(name);
+        when(property.getMetadata()).thenReturn(metadata);
+        return property;
+    }
+}
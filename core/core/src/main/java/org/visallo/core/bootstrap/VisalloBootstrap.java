@@ -20,6 +20,7 @@ import org.visallo.core.model.longRunningProcess.LongRunningProcessRepository;
 import org.visallo.core.model.notification.SystemNotificationRepository;
 import org.visallo.core.model.notification.UserNotificationRepository;
 import org.visallo.core.model.ontology.OntologyRepository;
+import org.visallo.core.model.properties.types.DecodedValueCache;
 import org.visallo.core.model.search.SearchRepository;
 import org.visallo.core.model.user.*;
 import org.visallo.core.model.workQueue.WorkQueueRepository;
@@ -115,6 +116,7 @@ public class VisalloBootstrap extends AbstractModule {
         LOGGER.debug("binding %s", JmxMetricsManager.class.getName());
         MetricsManager metricsManager = new JmxMetricsManager();
         bind(MetricsManager.class).toInstance(metricsManager);
+        DecodedValueCache.setMetricsManager(metricsManager);
 
         bindInterceptor(Matchers.any(), Matchers.annotatedWith(Traced.class), new TracedMethodInterceptor());
 
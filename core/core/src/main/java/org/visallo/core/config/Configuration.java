@@ -7,6 +7,7 @@ import org.json.JSONObject;
 import org.visallo.core.bootstrap.InjectHelper;
 import org.visallo.core.exception.VisalloException;
 import org.visallo.core.model.ontology.Concept;
+import org.visallo.core.model.ontology.Ontology;
 import org.visallo.core.model.ontology.OntologyProperty;
 import org.visallo.core.model.ontology.OntologyRepository;
 import org.visallo.core.model.ontology.Relationship;
@@ -108,6 +109,9 @@ public class Configuration {
     private OntologyRepository ontologyRepository;
 
     private Map<String, String> config = new HashMap<>();
+    private final Map<Ontology, JSONObject> intentPropertiesByOntology = Collections.synchronizedMap(new WeakHashMap<>());
+    private final Map<ResourceBundle, JSONObject> messagesByResourceBundle = Collections.synchronizedMap(new WeakHashMap<>());
+    private volatile JSONObject webProperties;
 
     public static final Map<String, String> DEFAULTS = new HashMap<>();
 
@@ -372,6 +376,7 @@ public class Configuration {
         } else {
             config.put(propertyKey, value.toString().trim());
         }
+        webProperties = null;
     }
 
     @Override
@@ -403,10 +408,48 @@ public class Configuration {
         return toJSON(visalloResourceBundleManager.getBundle(locale), workspaceId);
     }
 
+    /**
+     * The intent, configuration and message sections are each memoized. Intents are keyed by the
+     * {@link Ontology} instance for the workspace, which is replaced whenever the ontology changes, so
+     * only that section is rebuilt after an ontology change.
+     */
     public JSONObject toJSON(ResourceBundle resourceBundle, String workspaceId) {
         JSONObject properties = new JSONObject();
+        putAll(properties, getIntentProperties(workspaceId));
+        putAll(properties, getWebProperties());
 
+        PrivilegeRepository privilegeRepository = getPrivilegeRepository();
+        Set<String> allPrivileges = privilegeRepository.getAllPrivileges().stream()
+                .map(Privilege::getName)
+                .collect(Collectors.toSet());
+        properties.put("privileges", Privilege.toJson(allPrivileges));
+
+        JSONObject messages = new JSONObject();
+        putAll(messages, getMessages(resourceBundle));
+
+        JSONObject configuration = new JSONObject();
+        configuration.put("properties", properties);
+        configuration.put("messages", messages);
+
+        return configuration;
+    }
+
+    private JSONObject getIntentProperties(String workspaceId) {
         OntologyRepository ontologyRepository = getOntologyRepository();
+        Ontology ontology = ontologyRepository.getOntology(workspaceId);
+        if (ontology == null) {
+            return createIntentProperties(ontologyRepository, workspaceId);
+        }
+        JSONObject intentProperties = intentPropertiesByOntology.get(ontology);
+        if (intentProperties == null) {
+            intentProperties = createIntentProperties(ontologyRepository, workspaceId);
+            intentPropertiesByOntology.put(ontology, intentProperties);
+        }
+        return intentProperties;
+    }
+
+    private JSONObject createIntentProperties(OntologyRepository ontologyRepository, String workspaceId) {
+        JSONObject properties = new JSONObject();
         for (Concept concept : ontologyRepository.getConceptsWithProperties(workspaceId)) {
             for (String intent : concept.getIntents()) {
                 properties.put(OntologyRepository.CONFIG_INTENT_CONCEPT_PREFIX + intent, concept.getIRI());
@@ -422,7 +465,15 @@ public class Configuration {
                 properties.put(OntologyRepository.CONFIG_INTENT_RELATIONSHIP_PREFIX + intent, relationship.getIRI());
             }
         }
+        return properties;
+    }
 
+    private JSONObject getWebProperties() {
+        JSONObject properties = webProperties;
+        if (properties != null) {
+            return properties;
+        }
+        properties = new JSONObject();
         for (String key : getKeys()) {
             if (key.startsWith(Configuration.WEB_CONFIGURATION_PREFIX)) {
                 properties.put(key.replaceFirst(Configuration.WEB_CONFIGURATION_PREFIX, ""), get(key, ""));
@@ -430,25 +481,29 @@ public class Configuration {
                 properties.put(key, get(key, ""));
             }
         }
+        webProperties = properties;
+        return properties;
+    }
 
-        PrivilegeRepository privilegeRepository = getPrivilegeRepository();
-        Set<String> allPrivileges = privilegeRepository.getAllPrivileges().stream()
-                .map(Privilege::getName)
-                .collect(Collectors.toSet());
-        properties.put("privileges", Privilege.toJson(allPrivileges));
-
-        JSONObject messages = new JSONObject();
-        if (resourceBundle != null) {
+    private JSONObject getMessages(ResourceBundle resourceBundle) {
+        if (resourceBundle == null) {
+            return new JSONObject();
+        }
+        JSONObject messages = messagesByResourceBundle.get(resourceBundle);
+        if (messages == null) {
+            messages = new JSONObject();
             for (String key : resourceBundle.keySet()) {
                 messages.put(key, resourceBundle.getString(key));
             }
+            messagesByResourceBundle.put(resourceBundle, messages);
         }
+        return messages;
+    }
 
-        JSONObject configuration = new JSONObject();
-        configuration.put("properties", properties);
-        configuration.put("messages", messages);
-
-        return configuration;
+    private static void putAll(JSONObject target, JSONObject source) {
+        for (String key : source.keySet()) {
+            target.put(key, source.get(key));
+        }
     }
 
     protected OntologyRepository getOntologyRepository() {
@@ -9,12 +9,14 @@ import java.io.InputStreamReader;
 import java.net.URL;
 import java.net.URLConnection;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class VisalloResourceBundleManager {
     private static final VisalloLogger LOGGER = VisalloLoggerFactory.getLogger(VisalloResourceBundleManager.class);
     public static final String RESOURCE_BUNDLE_BASE_NAME = "MessageBundle";
     private Properties unlocalizedProperties;
     private Map<Locale, Properties> localizedProperties;
+    private final Map<Locale, ResourceBundle> bundlesByLocale = new ConcurrentHashMap<>();
 
     public VisalloResourceBundleManager() {
         unlocalizedProperties = new Properties();
@@ -23,6 +25,7 @@ public class VisalloResourceBundleManager {
 
     public void register(InputStream inputStream) throws IOException {
         unlocalizedProperties.load(new InputStreamReader(inputStream, "UTF-8"));
+        bundlesByLocale.clear();
     }
 
     public void register(InputStream inputStream, Locale locale) throws IOException {
@@ -32,17 +35,18 @@ public class VisalloResourceBundleManager {
             localizedProperties.put(locale, properties);
         }
         properties.load(new InputStreamReader(inputStream, "UTF-8"));
+        bundlesByLocale.clear();
     }
 
     public ResourceBundle getBundle() {
         Locale defaultLocale = Locale.getDefault();
         LOGGER.debug("returning a bundle configured for the default locale: %s ", defaultLocale);
-        return createBundle(defaultLocale);
+        return bundlesByLocale.computeIfAbsent(defaultLocale, this::createBundle);
     }
 
     public ResourceBundle getBundle(Locale locale) {
         LOGGER.debug("returning a bundle configured for locale: %s ", locale);
-        return createBundle(locale);
+        return bundlesByLocale.computeIfAbsent(locale, this::createBundle);
     }
 
     private ResourceBundle createBundle(Locale locale) {
@@ -27,8 +27,10 @@ import org.visallo.core.util.*;
 import java.io.*;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static org.vertexium.util.IterableUtils.toList;
@@ -36,7 +38,11 @@ import static org.vertexium.util.IterableUtils.toList;
 // Unlike many other injected classes, this is not a singleton
 public class GraphPropertyRunner extends WorkerBase<GraphPropertyWorkerItem> {
     private static final VisalloLogger LOGGER = VisalloLoggerFactory.getLogger(GraphPropertyRunner.class);
+    public static final String CONFIG_PREPARE_THREAD_COUNT = GraphPropertyRunner.class.getName() + ".prepareThreadCount";
+    // workers are prepared one at a time in order unless a deployment opts in to preparing them in parallel
+    public static final int CONFIG_PREPARE_THREAD_COUNT_DEFAULT = 1;
     private final AuthorizationRepository authorizationRepository;
+    private final MetricsManager metricsManager;
     private Graph graph;
     private Authorizations authorizations;
     private List<GraphPropertyThreadedWrapper> workerWrappers = Lists.newArrayList();
@@ -58,6 +64,7 @@ public class GraphPropertyRunner extends WorkerBase<GraphPropertyWorkerItem> {
     ) {
         super(workQueueRepository, configuration, metricsManager);
         this.authorizationRepository = authorizationRepository;
+        this.metricsManager = metricsManager;
     }
 
     @Override
@@ -108,6 +115,7 @@ public class GraphPropertyRunner extends WorkerBase<GraphPropertyWorkerItem> {
                 GraphPropertyWorker.class,
                 configuration
         );
+        Set<GraphPropertyWorker> textAnalyzerWorkers = addTextAnalyzersToTextAnalysisWorker(workers);
         for (GraphPropertyWorker worker : workers) {
             try {
                 LOGGER.debug("verifying: %s", worker.getClass().getName());
@@ -127,17 +135,27 @@ public class GraphPropertyRunner extends WorkerBase<GraphPropertyWorkerItem> {
             }
         }
 
-        boolean failedToPrepareAtLeastOneGraphPropertyWorker = false;
+        // workers only read shared state while preparing, set the thread count to 1 to prepare them one at a time
+        AtomicBoolean failedToPrepareAtLeastOneGraphPropertyWorker = new AtomicBoolean();
+        AutoDependencyTreeRunner prepareRunner = new AutoDependencyTreeRunner(metricsManager);
+        for (GraphPropertyWorker worker : workers) {
+            prepareRunner.add(AutoDependencyTreeRunner.named("prepare " + worker.getClass().getName(), () -> {
+                try {
+                    LOGGER.debug("preparing: %s", worker.getClass().getName());
+                    worker.prepare(workerPrepareData);
+                } catch (Exception ex) {
+                    LOGGER.error("Could not prepare graph property worker %s", worker.getClass().getName(), ex);
+                    failedToPrepareAtLeastOneGraphPropertyWorker.set(true);
+                }
+            }));
+        }
+        prepareRunner.run(configuration.getInt(CONFIG_PREPARE_THREAD_COUNT, CONFIG_PREPARE_THREAD_COUNT_DEFAULT));
+
         List<GraphPropertyThreadedWrapper> wrappers = Lists.newArrayList();
         for (GraphPropertyWorker worker : workers) {
-            try {
-                LOGGER.debug("preparing: %s", worker.getClass().getName());
-                worker.prepare(workerPrepareData);
-            } catch (Exception ex) {
-                LOGGER.error("Could not prepare graph property worker %s", worker.getClass().getName(), ex);
-                failedToPrepareAtLeastOneGraphPropertyWorker = true;
+            if (textAnalyzerWorkers.contains(worker)) {
+                continue;
             }
-
             GraphPropertyThreadedWrapper wrapper = new GraphPropertyThreadedWrapper(worker);
             InjectHelper.inject(wrapper);
             wrappers.add(wrapper);
@@ -150,12 +168,33 @@ public class GraphPropertyRunner extends WorkerBase<GraphPropertyWorkerItem> {
         this.addGraphPropertyThreadedWrappers(wrappers);
         this.graphPropertyWorkers.addAll(workers);
 
-        if (failedToPrepareAtLeastOneGraphPropertyWorker) {
+        if (failedToPrepareAtLeastOneGraphPropertyWorker.get()) {
             throw new VisalloException(
                     "Failed to initialize at least one graph property worker. See the log for more details.");
         }
     }
 
+    /**
+     * Gives the text analyzers to the text analysis worker if it is enabled.
+     *
+     * @return The workers run by the text analysis worker instead of separately
+     */
+    private Set<GraphPropertyWorker> addTextAnalyzersToTextAnalysisWorker(Collection<GraphPropertyWorker> workers) {
+        Set<GraphPropertyWorker> textAnalyzerWorkers = new HashSet<>();
+        for (GraphPropertyWorker worker : workers) {
+            if (worker instanceof TextAnalysisGraphPropertyWorker) {
+                for (GraphPropertyWorker analyzer : workers) {
+                    if (analyzer instanceof TextAnalyzer) {
+                        LOGGER.info("running %s as part of %s", analyzer.getClass().getName(), worker.getClass().getName());
+                        ((TextAnalysisGraphPropertyWorker) worker).addAnalyzer((TextAnalyzer) analyzer);
+                        textAnalyzerWorkers.add(analyzer);
+                    }
+                }
+            }
+        }
+        return textAnalyzerWorkers;
+    }
+
     public void addGraphPropertyThreadedWrappers(List<GraphPropertyThreadedWrapper> wrappers) {
         this.workerWrappers.addAll(wrappers);
     }
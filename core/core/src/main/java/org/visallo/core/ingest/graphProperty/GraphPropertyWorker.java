@@ -11,6 +11,8 @@ import org.visallo.core.model.ontology.OntologyRepository;
 import org.visallo.core.model.properties.MediaVisalloProperties;
 import org.visallo.core.model.properties.VisalloProperties;
 import org.visallo.core.model.properties.types.VisalloPropertyUpdate;
+import org.visallo.core.model.termMention.TermMentionBuilder;
+import org.visallo.core.model.termMention.TermMentionRepository;
 import org.visallo.core.model.user.GraphAuthorizationRepository;
 import org.visallo.core.model.workQueue.Priority;
 import org.visallo.core.model.workQueue.WorkQueueRepository;
@@ -20,9 +22,11 @@ import org.visallo.core.user.User;
 import org.visallo.core.util.RowKeyHelper;
 import org.visallo.core.util.VisalloLogger;
 import org.visallo.core.util.VisalloLoggerFactory;
+import org.visallo.web.clientapi.model.VisibilityJson;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
 
 public abstract class GraphPropertyWorker {
@@ -56,6 +60,35 @@ public abstract class GraphPropertyWorker {
         getGraph().flush();
     }
 
+    /**
+     * Saves term mentions found in the text of the work data's property without flushing the graph. The property
+     * index rows of all the mentions are saved to the document with a single mutation.
+     */
+    protected List<Vertex> saveTextMentions(GraphPropertyWorkData data, Iterable<TextAnalyzer.Mention> mentions) {
+        Vertex outVertex = (Vertex) data.getElement();
+        VisibilityJson visibilityJson = VisibilityJson.updateVisibilitySourceAndAddWorkspaceId(null, null, data.getWorkspaceId());
+        List<Vertex> termMentions = new ArrayList<>();
+        ExistingElementMutation<Vertex> outVertexMutation = outVertex.prepareMutation();
+        for (TextAnalyzer.Mention mention : mentions) {
+            Vertex termMention = new TermMentionBuilder()
+                    .outVertex(outVertex)
+                    .propertyKey(data.getProperty().getKey())
+                    .propertyName(data.getProperty().getName())
+                    .start(mention.getStart())
+                    .end(mention.getEnd())
+                    .title(mention.getTitle())
+                    .conceptIri(mention.getConceptIri())
+                    .visibilityJson(visibilityJson)
+                    .process(mention.getProcess())
+                    .save(getGraph(), getVisibilityTranslator(), getUser(), outVertexMutation, getAuthorizations());
+            termMentions.add(termMention);
+        }
+        if (!termMentions.isEmpty()) {
+            outVertexMutation.save(getGraph().createAuthorizations(getAuthorizations(), TermMentionRepository.VISIBILITY_STRING));
+        }
+        return termMentions;
+    }
+
     protected void pushTextUpdated(GraphPropertyWorkData data) {
         if (data == null || data.getElement() == null) {
             return;
@@ -7,10 +7,8 @@ import org.vertexium.Property;
 import org.vertexium.Vertex;
 import org.visallo.core.model.ontology.Concept;
 import org.visallo.core.model.properties.VisalloProperties;
-import org.visallo.core.model.termMention.TermMentionBuilder;
 import org.visallo.core.util.VisalloLogger;
 import org.visallo.core.util.VisalloLoggerFactory;
-import org.visallo.web.clientapi.model.VisibilityJson;
 
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -19,7 +17,7 @@ import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-public abstract class RegexGraphPropertyWorker extends GraphPropertyWorker {
+public abstract class RegexGraphPropertyWorker extends GraphPropertyWorker implements TextAnalyzer {
     private static final VisalloLogger LOGGER = VisalloLoggerFactory.getLogger(RegexGraphPropertyWorker.class);
     private final Pattern pattern;
 
@@ -37,36 +35,22 @@ public abstract class RegexGraphPropertyWorker extends GraphPropertyWorker {
 
     @Override
     public void execute(InputStream in, GraphPropertyWorkData data) throws Exception {
-        LOGGER.debug("Extracting pattern [%s] from provided text", pattern);
-
         final String text = CharStreams.toString(new InputStreamReader(in, Charsets.UTF_8));
+        List<Vertex> termMentions = saveTextMentions(data, analyze(text, data));
+        applyTermMentionFilters((Vertex) data.getElement(), termMentions);
+        pushTextUpdated(data);
+    }
 
-        final Matcher matcher = pattern.matcher(text);
-
-        Vertex outVertex = (Vertex) data.getElement();
+    @Override
+    public List<Mention> analyze(String text, GraphPropertyWorkData data) {
+        LOGGER.debug("Extracting pattern [%s] from provided text", pattern);
 
-        List<Vertex> termMentions = new ArrayList<>();
+        final Matcher matcher = pattern.matcher(text);
+        List<Mention> mentions = new ArrayList<>();
         while (matcher.find()) {
-            final String patternGroup = matcher.group();
-            int start = matcher.start();
-            int end = matcher.end();
-
-            VisibilityJson visibilityJson = VisibilityJson.updateVisibilitySourceAndAddWorkspaceId(null, null, data.getWorkspaceId());
-            Vertex termMention = new TermMentionBuilder()
-                    .outVertex(outVertex)
-                    .propertyKey(data.getProperty().getKey())
-                    .propertyName(data.getProperty().getName())
-                    .start(start)
-                    .end(end)
-                    .title(patternGroup)
-                    .conceptIri(getConcept().getIRI())
-                    .visibilityJson(visibilityJson)
-                    .process(getClass().getName())
-                    .save(getGraph(), getVisibilityTranslator(), getUser(), getAuthorizations());
-            termMentions.add(termMention);
+            mentions.add(new Mention(matcher.start(), matcher.end(), matcher.group(), getConcept().getIRI(), getClass().getName()));
         }
-        applyTermMentionFilters(outVertex, termMentions);
-        pushTextUpdated(data);
+        return mentions;
     }
 
     @Override
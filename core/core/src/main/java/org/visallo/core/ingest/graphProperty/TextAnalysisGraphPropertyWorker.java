@@ -0,0 +1,125 @@
+package org.visallo.core.ingest.graphProperty;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.CharStreams;
+import org.vertexium.Element;
+import org.vertexium.Property;
+import org.vertexium.Vertex;
+import org.visallo.core.exception.VisalloException;
+import org.visallo.core.model.Description;
+import org.visallo.core.model.Name;
+import org.visallo.core.util.VisalloLogger;
+import org.visallo.core.util.VisalloLoggerFactory;
+import org.visallo.core.util.VisalloPlugin;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Runs every {@link TextAnalyzer} over a text property with a single read of the text. The analyzers run in
+ * parallel, their term mentions are saved together followed by one flush, one pass of the term mention filters
+ * and one text updated notification.
+ * <p>
+ * Disabled by default, enable it with:
+ *
+ * <pre><code>
+ * disable.org.visallo.core.ingest.graphProperty.TextAnalysisGraphPropertyWorker=false
+ * </code></pre>
+ * <p>
+ * While enabled, the text analyzers are given to this worker by {@link GraphPropertyRunner} and no longer run
+ * as separate workers.
+ */
+@Name("Text Analysis")
+@Description("Runs all text analyzers over a single read of the text")
+@VisalloPlugin(disabledByDefault = true)
+public class TextAnalysisGraphPropertyWorker extends GraphPropertyWorker {
+    private static final VisalloLogger LOGGER = VisalloLoggerFactory.getLogger(TextAnalysisGraphPropertyWorker.class);
+    public static final String CONFIG_THREAD_COUNT = TextAnalysisGraphPropertyWorker.class.getName() + ".threadCount";
+    private final List<TextAnalyzer> analyzers = new CopyOnWriteArrayList<>();
+    private ExecutorService executor;
+
+    public void addAnalyzer(TextAnalyzer analyzer) {
+        analyzers.add(analyzer);
+    }
+
+    public List<TextAnalyzer> getAnalyzers() {
+        return analyzers;
+    }
+
+    @Override
+    public void prepare(GraphPropertyWorkerPrepareData workerPrepareData) throws Exception {
+        super.prepare(workerPrepareData);
+        int threadCount = getConfiguration().getInt(CONFIG_THREAD_COUNT, Runtime.getRuntime().availableProcessors());
+        if (threadCount > 1) {
+            executor = Executors.newFixedThreadPool(threadCount, r -> {
+                Thread t = new Thread(r, "text-analysis");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    @Override
+    public void execute(InputStream in, GraphPropertyWorkData data) throws Exception {
+        final String text = CharStreams.toString(new InputStreamReader(in, Charsets.UTF_8));
+
+        List<TextAnalyzer> handledAnalyzers = new ArrayList<>();
+        for (TextAnalyzer analyzer : analyzers) {
+            if (analyzer.isHandled(data.getElement(), data.getProperty())) {
+                handledAnalyzers.add(analyzer);
+            }
+        }
+
+        List<TextAnalyzer.Mention> mentions = new ArrayList<>();
+        if (executor == null || handledAnalyzers.size() < 2) {
+            for (TextAnalyzer analyzer : handledAnalyzers) {
+                mentions.addAll(analyze(analyzer, text, data));
+            }
+        } else {
+            List<Future<List<TextAnalyzer.Mention>>> futures = new ArrayList<>();
+            for (TextAnalyzer analyzer : handledAnalyzers) {
+                futures.add(executor.submit(() -> analyze(analyzer, text, data)));
+            }
+            try {
+                for (Future<List<TextAnalyzer.Mention>> future : futures) {
+                    mentions.addAll(future.get());
+                }
+            } catch (ExecutionException ex) {
+                for (Future<List<TextAnalyzer.Mention>> future : futures) {
+                    future.cancel(true);
+                }
+                if (ex.getCause() instanceof VisalloException) {
+                    throw (VisalloException) ex.getCause();
+                }
+                throw new VisalloException("Text analysis failed", ex.getCause());
+            }
+        }
+        LOGGER.debug("%d text analyzers found %d mentions", handledAnalyzers.size(), mentions.size());
+
+        List<Vertex> termMentions = saveTextMentions(data, mentions);
+        getGraph().flush();
+        applyTermMentionFilters((Vertex) data.getElement(), termMentions);
+        pushTextUpdated(data);
+    }
+
+    private static List<TextAnalyzer.Mention> analyze(TextAnalyzer analyzer, String text, GraphPropertyWorkData data) {
+        try {
+            return analyzer.analyze(text, data);
+        } catch (Exception ex) {
+            throw new VisalloException("Text analyzer " + analyzer.getClass().getName() + " failed", ex);
+        }
+    }
+
+    @Override
+    public boolean isHandled(Element element, Property property) {
+        for (TextAnalyzer analyzer : analyzers) {
+            if (analyzer.isHandled(element, property)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,55 @@
+package org.visallo.core.ingest.graphProperty;
+
+import org.vertexium.Element;
+import org.vertexium.Property;
+
+import java.util.List;
+
+/**
+ * A graph property worker that finds term mentions in text without saving them. When the
+ * {@link TextAnalysisGraphPropertyWorker} is enabled, text analyzers don't run as separate workers, the text is
+ * read once and given to every analyzer that handles the property.
+ * <p>
+ * Implementations must be safe to call concurrently.
+ */
+public interface TextAnalyzer {
+    boolean isHandled(Element element, Property property);
+
+    List<Mention> analyze(String text, GraphPropertyWorkData data) throws Exception;
+
+    class Mention {
+        private final long start;
+        private final long end;
+        private final String title;
+        private final String conceptIri;
+        private final String process;
+
+        public Mention(long start, long end, String title, String conceptIri, String process) {
+            this.start = start;
+            this.end = end;
+            this.title = title;
+            this.conceptIri = conceptIri;
+            this.process = process;
+        }
+
+        public long getStart() {
+            return start;
+        }
+
+        public long getEnd() {
+            return end;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public String getConceptIri() {
+            return conceptIri;
+        }
+
+        public String getProcess() {
+            return process;
+        }
+    }
+}
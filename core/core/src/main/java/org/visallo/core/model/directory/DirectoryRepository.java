@@ -10,6 +10,14 @@ import java.util.List;
 public abstract class DirectoryRepository {
     public abstract List<DirectoryPerson> searchPeople(String search, User user);
 
+    /**
+     * Finds at most limit people, repositories that can limit the search itself should override this.
+     */
+    public List<DirectoryPerson> searchPeople(String search, int limit, User user) {
+        List<DirectoryPerson> people = searchPeople(search, user);
+        return people.size() > limit ? people.subList(0, limit) : people;
+    }
+
     public abstract List<DirectoryGroup> searchGroups(String search, User user);
 
     public abstract DirectoryEntity findById(String id, User user);
@@ -23,8 +23,16 @@ public class UserRepositoryDirectoryRepository extends DirectoryRepository {
 
     @Override
     public List<DirectoryPerson> searchPeople(String search, User user) {
+        return toDirectoryPeople(userRepository.find(search));
+    }
+
+    @Override
+    public List<DirectoryPerson> searchPeople(String search, int limit, User user) {
+        return toDirectoryPeople(userRepository.find(search, 0, limit));
+    }
+
+    private List<DirectoryPerson> toDirectoryPeople(Iterable<User> users) {
         List<DirectoryPerson> results = new ArrayList<>();
-        Iterable<User> users = userRepository.find(search);
         for (User u : users) {
             results.add(userToDirectoryPerson(u));
         }
@@ -0,0 +1,70 @@
+package org.visallo.core.model.graph;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import org.vertexium.Authorizations;
+import org.vertexium.Graph;
+import org.visallo.core.config.Configuration;
+import org.visallo.core.exception.VisalloException;
+import org.visallo.core.model.properties.VisalloProperties;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches the number of vertices of each concept type for a short time. Counting is a full aggregation over
+ * the search index, so results are shared by every request with the same authorizations and only one request
+ * at a time runs the aggregation for a given set of authorizations, others wait for its result.
+ */
+@Singleton
+public class ConceptTypeCountCache {
+    public static final String CONFIG_EXPIRE_SECONDS = ConceptTypeCountCache.class.getName() + ".expireSeconds";
+    public static final int CONFIG_EXPIRE_SECONDS_DEFAULT = 30;
+    public static final String CONFIG_MAXIMUM_SIZE = ConceptTypeCountCache.class.getName() + ".maximumSize";
+    public static final int CONFIG_MAXIMUM_SIZE_DEFAULT = 1000;
+    private final Graph graph;
+    private final Cache<String, Map<Object, Long>> countsByAuthorizations;
+
+    @Inject
+    public ConceptTypeCountCache(Graph graph, Configuration configuration) {
+        this(
+                graph,
+                configuration.getInt(CONFIG_EXPIRE_SECONDS, CONFIG_EXPIRE_SECONDS_DEFAULT),
+                configuration.getInt(CONFIG_MAXIMUM_SIZE, CONFIG_MAXIMUM_SIZE_DEFAULT)
+        );
+    }
+
+    public ConceptTypeCountCache(Graph graph, int expireSeconds, int maximumSize) {
+        this.graph = graph;
+        this.countsByAuthorizations = CacheBuilder.newBuilder()
+                .expireAfterWrite(expireSeconds, TimeUnit.SECONDS)
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    public Map<Object, Long> getCountsByConceptType(Authorizations authorizations) {
+        try {
+            return countsByAuthorizations.get(getCacheKey(authorizations), () -> Collections.unmodifiableMap(
+                    graph.getVertexPropertyCountByValue(VisalloProperties.CONCEPT_TYPE.getPropertyName(), authorizations)
+            ));
+        } catch (ExecutionException | UncheckedExecutionException ex) {
+            throw new VisalloException("Could not count vertices by concept type", ex.getCause());
+        }
+    }
+
+    public void invalidateAll() {
+        countsByAuthorizations.invalidateAll();
+    }
+
+    private static String getCacheKey(Authorizations authorizations) {
+        String[] auths = authorizations.getAuthorizations().clone();
+        Arrays.sort(auths);
+        return String.join(",", auths);
+    }
+}
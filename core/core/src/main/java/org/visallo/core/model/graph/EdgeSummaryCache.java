@@ -0,0 +1,300 @@
+package org.visallo.core.model.graph;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.vertexium.*;
+import org.vertexium.event.*;
+import org.visallo.core.config.Configuration;
+import org.visallo.core.exception.VisalloException;
+import org.visallo.core.model.workQueue.WorkQueueRepository;
+import org.visallo.core.util.VisalloLogger;
+import org.visallo.core.util.VisalloLoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches the distinct edge labels and the number of in and out edges of each label for vertices. The summary is
+ * computed from the edge refs of the vertex being converted, so a miss reads nothing more from the graph, and it
+ * is shared for each set of authorizations until an edge of the vertex changes.
+ * <p>
+ * Every process that writes to the graph registers a graph listener through
+ * {@link GraphRepository#setEdgeSummaryCache(EdgeSummaryCache)}. The listener invalidates both vertices of each edge
+ * added, deleted, hidden or shown and announces them to the other servers with a {@link #BROADCAST_TYPE} broadcast,
+ * sent at most once every {@link #BROADCAST_INTERVAL_MILLIS}. Edges published from a workspace are invalidated from
+ * the publish broadcast, and deleted vertices clear the cache.
+ */
+@Singleton
+public class EdgeSummaryCache {
+    private static final VisalloLogger LOGGER = VisalloLoggerFactory.getLogger(EdgeSummaryCache.class);
+    public static final String BROADCAST_TYPE = "edgeSummaryInvalidate";
+    public static final String CONFIG_EXPIRE_SECONDS = EdgeSummaryCache.class.getName() + ".expireSeconds";
+    public static final int CONFIG_EXPIRE_SECONDS_DEFAULT = 300;
+    public static final String CONFIG_MAXIMUM_SIZE = EdgeSummaryCache.class.getName() + ".maximumSize";
+    public static final int CONFIG_MAXIMUM_SIZE_DEFAULT = 10000;
+    static final long BROADCAST_INTERVAL_MILLIS = 1000;
+    // announcing more vertices than this asks the other servers to clear their caches instead
+    static final int MAX_BROADCAST_VERTEX_IDS = 1000;
+    private final Cache<String, ConcurrentMap<String, EdgeSummary>> summariesByVertexId;
+    private final WorkQueueRepository workQueueRepository;
+    private final Set<String> pendingVertexIds = new HashSet<>();
+    private boolean pendingInvalidateAll;
+    private boolean broadcastThreadStarted;
+
+    @Inject
+    public EdgeSummaryCache(Configuration configuration, Graph graph, WorkQueueRepository workQueueRepository) {
+        this(
+                configuration.getInt(CONFIG_EXPIRE_SECONDS, CONFIG_EXPIRE_SECONDS_DEFAULT),
+                configuration.getInt(CONFIG_MAXIMUM_SIZE, CONFIG_MAXIMUM_SIZE_DEFAULT),
+                graph,
+                workQueueRepository
+        );
+    }
+
+    EdgeSummaryCache(int expireSeconds, int maximumSize, Graph graph, WorkQueueRepository workQueueRepository) {
+        this.summariesByVertexId = CacheBuilder.newBuilder()
+                .expireAfterWrite(expireSeconds, TimeUnit.SECONDS)
+                .maximumSize(maximumSize)
+                .build();
+        this.workQueueRepository = workQueueRepository;
+        graph.addGraphEventListener(new GraphEventListener() {
+            @Override
+            public void onGraphEvent(GraphEvent graphEvent) {
+                try {
+                    handleGraphEvent(graphEvent);
+                } catch (Exception ex) {
+                    LOGGER.error("Could not handle edge summary graph event: %s", graphEvent, ex);
+                }
+            }
+        });
+        workQueueRepository.subscribeToBroadcastMessages(new WorkQueueRepository.BroadcastConsumer() {
+            @Override
+            public void broadcastReceived(JSONObject json) {
+                try {
+                    handleBroadcast(json);
+                } catch (Exception ex) {
+                    LOGGER.error("Could not handle edge summary broadcast: %s", json, ex);
+                }
+            }
+        });
+    }
+
+    /**
+     * @return The summary of the vertex's edges, or null if the vertex was not fetched with its edge refs in which
+     * case the caller reads the edge labels from the vertex.
+     */
+    public EdgeSummary getEdgeSummary(Vertex vertex, Authorizations authorizations) {
+        if (!vertex.getFetchHints().containsAll(FetchHint.EDGE_REFS)) {
+            return null;
+        }
+        try {
+            ConcurrentMap<String, EdgeSummary> summaries = summariesByVertexId.get(vertex.getId(), ConcurrentHashMap::new);
+            return summaries.computeIfAbsent(getCacheKey(authorizations), key -> createEdgeSummary(vertex, authorizations));
+        } catch (ExecutionException | UncheckedExecutionException ex) {
+            throw new VisalloException("Could not summarize edges of vertex: " + vertex.getId(), ex.getCause());
+        }
+    }
+
+    public void invalidate(String vertexId) {
+        summariesByVertexId.invalidate(vertexId);
+    }
+
+    public void invalidateAll() {
+        summariesByVertexId.invalidateAll();
+    }
+
+    void handleGraphEvent(GraphEvent graphEvent) {
+        Edge edge;
+        if (graphEvent instanceof AddEdgeEvent) {
+            edge = ((AddEdgeEvent) graphEvent).getEdge();
+        } else if (graphEvent instanceof DeleteEdgeEvent) {
+            edge = ((DeleteEdgeEvent) graphEvent).getEdge();
+        } else if (graphEvent instanceof MarkHiddenEdgeEvent) {
+            edge = ((MarkHiddenEdgeEvent) graphEvent).getEdge();
+        } else if (graphEvent instanceof MarkVisibleEdgeEvent) {
+            edge = ((MarkVisibleEdgeEvent) graphEvent).getEdge();
+        } else {
+            if (graphEvent instanceof DeleteVertexEvent) {
+                // the neighbors of a deleted vertex can't be found once it is gone, deleting vertices is rare
+                // enough to start over
+                invalidateAll();
+                queueInvalidateAllBroadcast();
+            }
+            return;
+        }
+
+        List<String> vertexIds = Arrays.asList(edge.getVertexId(Direction.OUT), edge.getVertexId(Direction.IN));
+        vertexIds.forEach(this::invalidate);
+        queueBroadcast(vertexIds);
+    }
+
+    void handleBroadcast(JSONObject json) {
+        String type = json.optString("type");
+        JSONObject data = json.optJSONObject("data");
+        if (data == null) {
+            return;
+        }
+        switch (type) {
+            case BROADCAST_TYPE:
+                if (data.optBoolean("all")) {
+                    invalidateAll();
+                } else {
+                    JSONArray vertexIds = data.getJSONArray("vertexIds");
+                    for (int i = 0; i < vertexIds.length(); i++) {
+                        invalidate(vertexIds.getString(i));
+                    }
+                }
+                break;
+            case "publish":
+                if ("edge".equals(data.optString("objectType"))) {
+                    invalidateOpt(data.optString("outVertexId", null));
+                    invalidateOpt(data.optString("inVertexId", null));
+                } else if ("elements".equals(data.optString("objectType"))) {
+                    JSONArray edgeIds = data.optJSONArray("edgeIds");
+                    if (edgeIds != null && edgeIds.length() > 0) {
+                        invalidateAll();
+                    }
+                }
+                break;
+            case "edgeDeletion":
+                invalidateOpt(data.optString("outVertexId", null));
+                invalidateOpt(data.optString("inVertexId", null));
+                break;
+            case "verticesDeleted":
+                invalidateAll();
+                break;
+        }
+    }
+
+    private void invalidateOpt(String vertexId) {
+        if (vertexId != null) {
+            invalidate(vertexId);
+        }
+    }
+
+    private synchronized void queueBroadcast(Collection<String> vertexIds) {
+        if (!pendingInvalidateAll) {
+            pendingVertexIds.addAll(vertexIds);
+            if (pendingVertexIds.size() > MAX_BROADCAST_VERTEX_IDS) {
+                pendingVertexIds.clear();
+                pendingInvalidateAll = true;
+            }
+        }
+        startBroadcastThread();
+    }
+
+    private synchronized void queueInvalidateAllBroadcast() {
+        pendingVertexIds.clear();
+        pendingInvalidateAll = true;
+        startBroadcastThread();
+    }
+
+    private void startBroadcastThread() {
+        if (broadcastThreadStarted) {
+            return;
+        }
+        Thread t = new Thread(() -> {
+            while (true) {
+                try {
+                    Thread.sleep(BROADCAST_INTERVAL_MILLIS);
+                    sendPendingBroadcast();
+                } catch (InterruptedException ex) {
+                    LOGGER.info("edge summary broadcast interrupted");
+                    return;
+                } catch (Exception ex) {
+                    LOGGER.error("Could not broadcast edge summary invalidations", ex);
+                }
+            }
+        });
+        t.setDaemon(true);
+        t.setName("visallo-edge-summary-broadcast");
+        t.start();
+        broadcastThreadStarted = true;
+    }
+
+    /**
+     * Announces the vertices whose edges changed since the last broadcast to the other servers.
+     */
+    void sendPendingBroadcast() {
+        JSONObject data = new JSONObject();
+        synchronized (this) {
+            if (pendingInvalidateAll) {
+                data.put("all", true);
+            } else if (!pendingVertexIds.isEmpty()) {
+                data.put("vertexIds", new JSONArray(pendingVertexIds));
+            } else {
+                return;
+            }
+            pendingVertexIds.clear();
+            pendingInvalidateAll = false;
+        }
+        workQueueRepository.broadcast(BROADCAST_TYPE, data, null);
+    }
+
+    private static EdgeSummary createEdgeSummary(Vertex vertex, Authorizations authorizations) {
+        Map<String, Integer> inCounts = countByLabel(vertex.getEdgeInfos(Direction.IN, authorizations));
+        Map<String, Integer> outCounts = countByLabel(vertex.getEdgeInfos(Direction.OUT, authorizations));
+        LOGGER.debug("summarized edges of vertex %s (in: %s, out: %s)", vertex.getId(), inCounts, outCounts);
+        return new EdgeSummary(inCounts, outCounts);
+    }
+
+    private static Map<String, Integer> countByLabel(Iterable<EdgeInfo> edgeInfos) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (EdgeInfo edgeInfo : edgeInfos) {
+            counts.merge(edgeInfo.getLabel(), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    private static String getCacheKey(Authorizations authorizations) {
+        String[] auths = authorizations.getAuthorizations().clone();
+        Arrays.sort(auths);
+        return String.join(",", auths);
+    }
+
+    public static class EdgeSummary {
+        private final Map<String, Integer> inCounts;
+        private final Map<String, Integer> outCounts;
+        private final Set<String> labels;
+
+        public EdgeSummary(Map<String, Integer> inCounts, Map<String, Integer> outCounts) {
+            this.inCounts = Collections.unmodifiableMap(inCounts);
+            this.outCounts = Collections.unmodifiableMap(outCounts);
+            Set<String> labels = new TreeSet<>(inCounts.keySet());
+            labels.addAll(outCounts.keySet());
+            this.labels = Collections.unmodifiableSet(labels);
+        }
+
+        public Set<String> getLabels() {
+            return labels;
+        }
+
+        public Map<String, Integer> getInCounts() {
+            return inCounts;
+        }
+
+        public Map<String, Integer> getOutCounts() {
+            return outCounts;
+        }
+
+        public int getInCount(String label) {
+            return inCounts.getOrDefault(label, 0);
+        }
+
+        public int getOutCount(String label) {
+            return outCounts.getOrDefault(label, 0);
+        }
+
+        public int getCount(String label) {
+            return getInCount(label) + getOutCount(label);
+        }
+    }
+}
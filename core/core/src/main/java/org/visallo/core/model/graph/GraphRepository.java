@@ -38,6 +38,7 @@ public class GraphRepository {
     private final VisibilityTranslator visibilityTranslator;
     private final TermMentionRepository termMentionRepository;
     private final WorkQueueRepository workQueueRepository;
+    private EdgeSummaryCache edgeSummaryCache;
 
     @Inject
     public GraphRepository(
@@ -52,6 +53,15 @@ public class GraphRepository {
         this.workQueueRepository = workQueueRepository;
     }
 
+    /**
+     * Every process that writes to the graph has a GraphRepository, injecting the cache here registers its graph
+     * listener so that the edges written by the process invalidate the cached summaries of all servers.
+     */
+    @Inject
+    public void setEdgeSummaryCache(EdgeSummaryCache edgeSummaryCache) {
+        this.edgeSummaryCache = edgeSummaryCache;
+    }
+
     public void verifyVersion() {
         verifyVersion(VISALLO_VERSION);
     }
@@ -0,0 +1,50 @@
+package org.visallo.core.model.longRunningProcess;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Chooses the number of elements and bytes to send to the search index per batch based on how long
+ * previous batches took to index. Batches that finish faster than the target latency grow, batches that
+ * take longer shrink.
+ */
+public class AdaptiveBatchSizer {
+    private static final double SMOOTHING = 0.5;
+    private final int minBatchSize;
+    private final int maxBatchSize;
+    private final long targetLatencyMillis;
+    private final long maxBatchBytes;
+    private double batchSize;
+
+    public AdaptiveBatchSizer(int initialBatchSize, int minBatchSize, int maxBatchSize, long targetLatencyMillis, long maxBatchBytes) {
+        checkArgument(minBatchSize > 0, "minBatchSize must be greater than 0");
+        checkArgument(maxBatchSize >= minBatchSize, "maxBatchSize must be greater than or equal to minBatchSize");
+        checkArgument(targetLatencyMillis > 0, "targetLatencyMillis must be greater than 0");
+        checkArgument(maxBatchBytes > 0, "maxBatchBytes must be greater than 0");
+        this.minBatchSize = minBatchSize;
+        this.maxBatchSize = maxBatchSize;
+        this.targetLatencyMillis = targetLatencyMillis;
+        this.maxBatchBytes = maxBatchBytes;
+        this.batchSize = clamp(initialBatchSize);
+    }
+
+    public synchronized int getBatchSize() {
+        return (int) batchSize;
+    }
+
+    public long getMaxBatchBytes() {
+        return maxBatchBytes;
+    }
+
+    public synchronized void recordBatch(int elementCount, long latencyMillis) {
+        if (elementCount <= 0) {
+            return;
+        }
+        double millisPerElement = Math.max(latencyMillis, 1) / (double) elementCount;
+        double idealBatchSize = targetLatencyMillis / millisPerElement;
+        batchSize = clamp((SMOOTHING * batchSize) + ((1.0 - SMOOTHING) * idealBatchSize));
+    }
+
+    private double clamp(double value) {
+        return Math.max(minBatchSize, Math.min(maxBatchSize, value));
+    }
+}
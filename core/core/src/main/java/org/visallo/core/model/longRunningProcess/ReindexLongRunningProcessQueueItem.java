@@ -10,17 +10,29 @@ public class ReindexLongRunningProcessQueueItem extends LongRunningProcessQueueI
     private final int batchSize;
     private final String startId;
     private final String endId;
+    private final boolean pipelined;
+
+    public ReindexLongRunningProcessQueueItem(
+            ElementType elementType,
+            Integer batchSize,
+            String startId,
+            String endId
+    ) {
+        this(elementType, batchSize, startId, endId, null);
+    }
 
     public ReindexLongRunningProcessQueueItem(
             @JsonProperty("elementType") ElementType elementType,
             @JsonProperty("batchSize") Integer batchSize,
             @JsonProperty("startId") String startId,
-            @JsonProperty("endId") String endId
+            @JsonProperty("endId") String endId,
+            @JsonProperty("pipelined") Boolean pipelined
     ) {
         this.elementType = elementType;
         this.batchSize = batchSize == null ? DEFAULT_BATCH_SIZE : batchSize;
         this.startId = startId;
         this.endId = endId;
+        this.pipelined = pipelined != null && pipelined;
     }
 
     public static boolean isHandled(JSONObject jsonObject) {
@@ -42,5 +54,9 @@ public class ReindexLongRunningProcessQueueItem extends LongRunningProcessQueueI
     public String getEndId() {
         return endId;
     }
+
+    public boolean isPipelined() {
+        return pipelined;
+    }
 }
 
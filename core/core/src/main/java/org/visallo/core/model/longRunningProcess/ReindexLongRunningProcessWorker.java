@@ -1,9 +1,13 @@
 package org.visallo.core.model.longRunningProcess;
 
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Timer;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import org.json.JSONObject;
 import org.vertexium.*;
+import org.visallo.core.config.Configuration;
 import org.visallo.core.exception.VisalloException;
 import org.visallo.core.model.Description;
 import org.visallo.core.model.Name;
@@ -23,17 +27,48 @@ import java.util.List;
 public class ReindexLongRunningProcessWorker extends LongRunningProcessWorker {
     private static final VisalloLogger LOGGER = VisalloLoggerFactory.getLogger(ReindexLongRunningProcessWorker.class);
     private static final EnumSet<FetchHint> FETCH_HINTS = FetchHint.ALL;
+    private static final String CONFIG_PREFIX = ReindexLongRunningProcessWorker.class.getName() + ".pipeline.";
+    public static final String QUEUE_DEPTH_CONFIG_NAME = CONFIG_PREFIX + "queueDepth";
+    public static final String MIN_BATCH_SIZE_CONFIG_NAME = CONFIG_PREFIX + "minBatchSize";
+    public static final String MAX_BATCH_SIZE_CONFIG_NAME = CONFIG_PREFIX + "maxBatchSize";
+    public static final String TARGET_LATENCY_MILLIS_CONFIG_NAME = CONFIG_PREFIX + "targetLatencyMillis";
+    public static final String MAX_BATCH_BYTES_CONFIG_NAME = CONFIG_PREFIX + "maxBatchBytes";
+    public static final String PROGRESS_INTERVAL_SECONDS_CONFIG_NAME = CONFIG_PREFIX + "progressIntervalSeconds";
+    private static final int QUEUE_DEPTH_DEFAULT = 4;
+    private static final int MIN_BATCH_SIZE_DEFAULT = 10;
+    private static final int MAX_BATCH_SIZE_DEFAULT = 5000;
+    private static final long TARGET_LATENCY_MILLIS_DEFAULT = 2000L;
+    private static final long MAX_BATCH_BYTES_DEFAULT = 10L * 1024L * 1024L;
+    private static final int PROGRESS_INTERVAL_SECONDS_DEFAULT = 30;
+    private static final int PROGRESS_SIGNIFICANT_CHARS = 8;
     private final Authorizations authorizations;
     private final Graph graph;
+    private final Configuration configuration;
+    private final LongRunningProcessRepository longRunningProcessRepository;
+    private Meter reindexedElementsMeter;
+    private Counter pendingBatchesCounter;
+    private Timer indexTimer;
 
     @Inject
     public ReindexLongRunningProcessWorker(
             Graph graph,
             UserRepository userRepository,
-            AuthorizationRepository authorizationRepository
+            AuthorizationRepository authorizationRepository,
+            Configuration configuration,
+            LongRunningProcessRepository longRunningProcessRepository
     ) {
         this.graph = graph;
         this.authorizations = authorizationRepository.getGraphAuthorizations(userRepository.getSystemUser());
+        this.configuration = configuration;
+        this.longRunningProcessRepository = longRunningProcessRepository;
+    }
+
+    @Override
+    public void prepare(LongRunningWorkerPrepareData workerPrepareData) {
+        super.prepare(workerPrepareData);
+        reindexedElementsMeter = getMetricsManager().meter(this, "reindexed-elements");
+        pendingBatchesCounter = getMetricsManager().counter(this, "pending-batches");
+        indexTimer = getMetricsManager().timer(this, "index-batch-time");
     }
 
     @Override
@@ -50,7 +85,9 @@ public class ReindexLongRunningProcessWorker extends LongRunningProcessWorker {
         int batchSize = queueItem.getBatchSize();
         Range range = new Range(queueItem.getStartId(), queueItem.getEndId());
         LOGGER.info("reindex %s %s", range, queueItem.getElementType());
-        if (queueItem.getElementType() == ElementType.VERTEX) {
+        if (queueItem.isPipelined()) {
+            reindexPipelined(longRunningProcessQueueItem, queueItem, range);
+        } else if (queueItem.getElementType() == ElementType.VERTEX) {
             reindexVertices(range, batchSize, authorizations);
         } else if (queueItem.getElementType() == ElementType.EDGE) {
             reindexEdges(range, batchSize, authorizations);
@@ -69,6 +106,96 @@ public class ReindexLongRunningProcessWorker extends LongRunningProcessWorker {
         reindexElements(edges, batchSize, authorizations);
     }
 
+    private void reindexPipelined(
+            JSONObject longRunningProcessQueueItem,
+            ReindexLongRunningProcessQueueItem queueItem,
+            Range range
+    ) {
+        ElementType elementType = queueItem.getElementType();
+        Iterable<? extends Element> elements;
+        if (elementType == ElementType.VERTEX) {
+            elements = graph.getVerticesInRange(range, FETCH_HINTS, authorizations);
+        } else if (elementType == ElementType.EDGE) {
+            elements = graph.getEdgesInRange(range, FETCH_HINTS, authorizations);
+        } else {
+            throw new VisalloException("Unhandled element type: " + elementType);
+        }
+
+        AdaptiveBatchSizer batchSizer = new AdaptiveBatchSizer(
+                queueItem.getBatchSize(),
+                configuration.getInt(MIN_BATCH_SIZE_CONFIG_NAME, MIN_BATCH_SIZE_DEFAULT),
+                configuration.getInt(MAX_BATCH_SIZE_CONFIG_NAME, MAX_BATCH_SIZE_DEFAULT),
+                configuration.getLong(TARGET_LATENCY_MILLIS_CONFIG_NAME, TARGET_LATENCY_MILLIS_DEFAULT),
+                configuration.getLong(MAX_BATCH_BYTES_CONFIG_NAME, MAX_BATCH_BYTES_DEFAULT)
+        );
+        ReindexPipeline pipeline = new ReindexPipeline(
+                graph,
+                ((GraphWithSearchIndex) graph).getSearchIndex(),
+                authorizations,
+                batchSizer,
+                configuration.getInt(QUEUE_DEPTH_CONFIG_NAME, QUEUE_DEPTH_DEFAULT),
+                reindexedElementsMeter,
+                pendingBatchesCounter,
+                indexTimer,
+                configuration.getInt(PROGRESS_INTERVAL_SECONDS_CONFIG_NAME, PROGRESS_INTERVAL_SECONDS_DEFAULT) * 1000L,
+                (indexedCount, lastIndexedId, elementsPerSecond, pendingBatches) -> {
+                    double progress = lastIndexedId == null
+                            ? 0.0
+                            : estimateRangeProgress(queueItem.getStartId(), queueItem.getEndId(), lastIndexedId);
+                    String message = String.format(
+                            "Reindexed %d %s (%.1f/sec, batch size %d, %d batches pending)",
+                            indexedCount,
+                            elementType == ElementType.VERTEX ? "vertices" : "edges",
+                            elementsPerSecond,
+                            batchSizer.getBatchSize(),
+                            pendingBatches
+                    );
+                    LOGGER.debug("%s: %s", range, message);
+                    if (longRunningProcessQueueItem.has("id")) {
+                        longRunningProcessRepository.reportProgress(longRunningProcessQueueItem, progress, message);
+                    }
+                }
+        );
+        long count = pipeline.run(elements);
+        LOGGER.info("reindexed %d elements in %s %s", count, range, elementType);
+    }
+
+    /**
+     * Estimates how far through a range an element id is by treating the characters of the ids after the prefix
+     * the range bounds share as digits of a fraction. Element ids are not evenly distributed so this is only an
+     * estimate, but it moves forward as the scan does since ranges are scanned in id order.
+     *
+     * @param startId the inclusive start of the range or null if the range has no lower bound.
+     * @param endId   the exclusive end of the range or null if the range has no upper bound.
+     * @return the fraction of the range before the id, between 0.0 and 1.0.
+     */
+    static double estimateRangeProgress(String startId, String endId, String id) {
+        int prefixLength = 0;
+        if (startId != null && endId != null) {
+            int maxPrefixLength = Math.min(startId.length(), endId.length());
+            while (prefixLength < maxPrefixLength && startId.charAt(prefixLength) == endId.charAt(prefixLength)) {
+                prefixLength++;
+            }
+        }
+        double start = startId == null ? 0.0 : toFraction(startId, prefixLength);
+        double end = endId == null ? 1.0 : toFraction(endId, prefixLength);
+        if (end <= start) {
+            return 0.0;
+        }
+        double progress = (toFraction(id, prefixLength) - start) / (end - start);
+        return Math.max(0.0, Math.min(1.0, progress));
+    }
+
+    private static double toFraction(String id, int offset) {
+        double result = 0.0;
+        double scale = 1.0;
+        for (int i = offset; i < offset + PROGRESS_SIGNIFICANT_CHARS && i < id.length(); i++) {
+            scale /= 256.0;
+            result += Math.min(id.charAt(i), 255) * scale;
+        }
+        return result;
+    }
+
     private void reindexElements(
             Iterable<? extends Element> elements,
             int batchSize,
@@ -0,0 +1,208 @@
+package org.visallo.core.model.longRunningProcess;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Timer;
+import org.vertexium.Authorizations;
+import org.vertexium.Element;
+import org.vertexium.Graph;
+import org.vertexium.Property;
+import org.vertexium.search.SearchIndex;
+import org.visallo.core.exception.VisalloException;
+import org.visallo.core.util.VisalloLogger;
+import org.visallo.core.util.VisalloLoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Overlaps reading elements from storage with submitting them to the search index. The calling thread
+ * scans the range and builds batches while a consumer thread submits them, with a bounded queue between
+ * the two so a slow index applies back pressure to the scan.
+ */
+class ReindexPipeline {
+    private static final VisalloLogger LOGGER = VisalloLoggerFactory.getLogger(ReindexPipeline.class);
+    private static final List<Element> END_OF_INPUT = Collections.emptyList();
+    private static final long PROPERTY_OVERHEAD_BYTES = 64;
+    private static final long OFFER_TIMEOUT_MILLIS = 500;
+    private final Graph graph;
+    private final SearchIndex searchIndex;
+    private final Authorizations authorizations;
+    private final AdaptiveBatchSizer batchSizer;
+    private final BlockingQueue<List<Element>> queue;
+    private final Meter elementsMeter;
+    private final Counter pendingBatchesCounter;
+    private final Timer indexTimer;
+    private final ProgressListener progressListener;
+    private final long progressIntervalMillis;
+    private final AtomicReference<Throwable> consumerError = new AtomicReference<>();
+    private final AtomicLong indexedCount = new AtomicLong();
+    private volatile String lastIndexedId;
+
+    public interface ProgressListener {
+        /**
+         * @param lastIndexedId the id of the last element submitted to the search index or null if none have been.
+         */
+        void progress(long indexedCount, String lastIndexedId, double elementsPerSecond, int pendingBatches);
+    }
+
+    ReindexPipeline(
+            Graph graph,
+            SearchIndex searchIndex,
+            Authorizations authorizations,
+            AdaptiveBatchSizer batchSizer,
+            int queueDepth,
+            Meter elementsMeter,
+            Counter pendingBatchesCounter,
+            Timer indexTimer,
+            long progressIntervalMillis,
+            ProgressListener progressListener
+    ) {
+        this.graph = graph;
+        this.searchIndex = searchIndex;
+        this.authorizations = authorizations;
+        this.batchSizer = batchSizer;
+        this.queue = new ArrayBlockingQueue<>(queueDepth);
+        this.elementsMeter = elementsMeter;
+        this.pendingBatchesCounter = pendingBatchesCounter;
+        this.indexTimer = indexTimer;
+        this.progressIntervalMillis = progressIntervalMillis;
+        this.progressListener = progressListener;
+    }
+
+    public long run(Iterable<? extends Element> elements) {
+        Thread consumer = new Thread(this::consume);
+        consumer.setName("reindex-pipeline-" + consumer.getId());
+        consumer.setDaemon(true);
+        consumer.start();
+
+        long startTime = System.currentTimeMillis();
+        long lastProgressTime = startTime;
+        try {
+            List<Element> batch = new ArrayList<>();
+            long batchBytes = 0;
+            for (Element element : elements) {
+                batch.add(element);
+                batchBytes += estimateSize(element);
+                if (batch.size() >= batchSizer.getBatchSize() || batchBytes >= batchSizer.getMaxBatchBytes()) {
+                    enqueue(batch);
+                    batch = new ArrayList<>();
+                    batchBytes = 0;
+                }
+
+                long now = System.currentTimeMillis();
+                if (now - lastProgressTime >= progressIntervalMillis) {
+                    reportProgress(startTime, now);
+                    lastProgressTime = now;
+                }
+            }
+            if (batch.size() > 0) {
+                enqueue(batch);
+            }
+            enqueue(END_OF_INPUT);
+            consumer.join();
+        } catch (InterruptedException ex) {
+            consumer.interrupt();
+            Thread.currentThread().interrupt();
+            throw new VisalloException("Interrupted while reindexing", ex);
+        } catch (RuntimeException ex) {
+            consumer.interrupt();
+            drainQueue();
+            throw ex;
+        }
+        if (consumerError.get() != null) {
+            // batches queued after the consumer stopped were never taken
+            drainQueue();
+        }
+        checkConsumerError();
+        reportProgress(startTime, System.currentTimeMillis());
+        return indexedCount.get();
+    }
+
+    private void enqueue(List<Element> batch) throws InterruptedException {
+        checkConsumerError();
+        boolean counted = batch != END_OF_INPUT;
+        if (counted) {
+            pendingBatchesCounter.inc();
+        }
+        try {
+            while (!queue.offer(batch, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                checkConsumerError();
+            }
+        } catch (InterruptedException | RuntimeException ex) {
+            if (counted) {
+                pendingBatchesCounter.dec();
+            }
+            throw ex;
+        }
+    }
+
+    private void consume() {
+        try {
+            while (true) {
+                List<Element> batch = queue.take();
+                if (batch == END_OF_INPUT) {
+                    return;
+                }
+                pendingBatchesCounter.dec();
+                long startTime = System.currentTimeMillis();
+                try (Timer.Context ignored = indexTimer.time()) {
+                    searchIndex.addElements(graph, batch, authorizations);
+                }
+                batchSizer.recordBatch(batch.size(), System.currentTimeMillis() - startTime);
+                elementsMeter.mark(batch.size());
+                indexedCount.addAndGet(batch.size());
+                lastIndexedId = batch.get(batch.size() - 1).getId();
+            }
+        } catch (InterruptedException ex) {
+            LOGGER.warn("reindex pipeline consumer interrupted");
+            consumerError.compareAndSet(null, ex);
+        } catch (Throwable ex) {
+            LOGGER.error("reindex pipeline consumer failed", ex);
+            consumerError.compareAndSet(null, ex);
+        } finally {
+            drainQueue();
+        }
+    }
+
+    private void drainQueue() {
+        List<List<Element>> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (List<Element> batch : remaining) {
+            if (batch != END_OF_INPUT) {
+                pendingBatchesCounter.dec();
+            }
+        }
+    }
+
+    private void checkConsumerError() {
+        Throwable ex = consumerError.get();
+        if (ex != null) {
+            throw new VisalloException("Failed to submit elements to search index", ex);
+        }
+    }
+
+    private void reportProgress(long startTime, long now) {
+        long count = indexedCount.get();
+        double elapsedSeconds = Math.max(now - startTime, 1) / 1000.0;
+        progressListener.progress(count, lastIndexedId, count / elapsedSeconds, queue.size());
+    }
+
+    private static long estimateSize(Element element) {
+        long size = PROPERTY_OVERHEAD_BYTES;
+        for (Property property : element.getProperties()) {
+            size += PROPERTY_OVERHEAD_BYTES;
+            Object value = property.getValue();
+            if (value instanceof String) {
+                size += ((String) value).length() * 2;
+            }
+        }
+        return size;
+    }
+}
@@ -71,7 +71,7 @@ public class InMemorySystemNotificationRepository extends SystemNotificationRepo
     public List<SystemNotification> getFutureNotifications(Date maxDate, User user) {
         Date now = new Date();
         return notifications.values().stream()
-                .filter(n -> n.getStartDate().compareTo(now) >= 0 && (n.getEndDate() == null || n.getEndDate().compareTo(maxDate) <= 0))
+                .filter(n -> n.getStartDate().compareTo(now) >= 0 && (maxDate == null || n.getEndDate() == null || n.getEndDate().compareTo(maxDate) <= 0))
                 .sorted(Comparator.comparing(SystemNotification::getStartDate))
                 .collect(Collectors.toList());
     }
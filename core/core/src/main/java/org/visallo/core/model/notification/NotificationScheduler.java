@@ -0,0 +1,342 @@
+package org.visallo.core.model.notification;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.visallo.core.config.Configuration;
+import org.visallo.core.exception.VisalloException;
+import org.visallo.core.model.lock.LeaderListener;
+import org.visallo.core.model.lock.LockRepository;
+import org.visallo.core.model.user.UserRepository;
+import org.visallo.core.model.workQueue.WorkQueueRepository;
+import org.visallo.core.user.User;
+import org.visallo.core.util.ShutdownListener;
+import org.visallo.core.util.ShutdownService;
+import org.visallo.core.util.VisalloLogger;
+import org.visallo.core.util.VisalloLoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps system notifications and each user's unread notifications in memory so that clients can be served
+ * without querying the graph. System notifications are loaded once at start up and delivered through
+ * {@link WorkQueueRepository#pushSystemNotification(SystemNotification)} when their start date is reached.
+ * Only the elected leader delivers scheduled notifications, all other servers just keep their indexes current
+ * by listening to the notification broadcasts, including the broadcast sent when a user marks notifications read.
+ * <p>
+ * A user's unread index is dropped when it has not been read for {@link #CONFIG_UNREAD_EXPIRE_SECONDS} and
+ * at most {@link #CONFIG_UNREAD_MAXIMUM_SIZE} users are kept, so users who go idle or are deleted don't stay
+ * in memory.
+ */
+@Singleton
+public class NotificationScheduler implements ShutdownListener {
+    private static final VisalloLogger LOGGER = VisalloLoggerFactory.getLogger(NotificationScheduler.class);
+    public static final String CONFIG_UNREAD_EXPIRE_SECONDS = NotificationScheduler.class.getName() + ".unreadExpireSeconds";
+    public static final int CONFIG_UNREAD_EXPIRE_SECONDS_DEFAULT = 30 * 60;
+    public static final String CONFIG_UNREAD_MAXIMUM_SIZE = NotificationScheduler.class.getName() + ".unreadMaximumSize";
+    public static final int CONFIG_UNREAD_MAXIMUM_SIZE_DEFAULT = 10000;
+    private final SystemNotificationRepository systemNotificationRepository;
+    private final UserNotificationRepository userNotificationRepository;
+    private final WorkQueueRepository workQueueRepository;
+    private final LockRepository lockRepository;
+    private final UserRepository userRepository;
+    private final DelayQueue<ScheduledNotification> queue = new DelayQueue<>();
+    private final Map<String, ScheduledNotification> scheduledById = new ConcurrentHashMap<>();
+    private final Map<String, SystemNotification> systemNotifications = new ConcurrentHashMap<>();
+    private final Cache<String, Map<String, UserNotification>> unreadByUserId;
+    private volatile boolean leader;
+    private volatile boolean started;
+    private Thread deliveryThread;
+
+    @Inject
+    public NotificationScheduler(
+            SystemNotificationRepository systemNotificationRepository,
+            UserNotificationRepository userNotificationRepository,
+            WorkQueueRepository workQueueRepository,
+            LockRepository lockRepository,
+            UserRepository userRepository,
+            Configuration configuration,
+            ShutdownService shutdownService
+    ) {
+        this.systemNotificationRepository = systemNotificationRepository;
+        this.userNotificationRepository = userNotificationRepository;
+        this.workQueueRepository = workQueueRepository;
+        this.lockRepository = lockRepository;
+        this.userRepository = userRepository;
+        this.unreadByUserId = CacheBuilder.newBuilder()
+                .expireAfterAccess(
+                        configuration.getInt(CONFIG_UNREAD_EXPIRE_SECONDS, CONFIG_UNREAD_EXPIRE_SECONDS_DEFAULT),
+                        TimeUnit.SECONDS
+                )
+                .maximumSize(configuration.getInt(CONFIG_UNREAD_MAXIMUM_SIZE, CONFIG_UNREAD_MAXIMUM_SIZE_DEFAULT))
+                .build();
+        shutdownService.register(this);
+    }
+
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+
+        User systemUser = userRepository.getSystemUser();
+        for (SystemNotification notification : systemNotificationRepository.getActiveNotifications(systemUser)) {
+            schedule(notification);
+        }
+        for (SystemNotification notification : systemNotificationRepository.getFutureNotifications(null, systemUser)) {
+            schedule(notification);
+        }
+        LOGGER.info("loaded %d system notifications (%d scheduled)", systemNotifications.size(), scheduledById.size());
+
+        workQueueRepository.subscribeToBroadcastMessages(new WorkQueueRepository.BroadcastConsumer() {
+            @Override
+            public void broadcastReceived(JSONObject json) {
+                try {
+                    handleBroadcast(json);
+                } catch (Exception ex) {
+                    LOGGER.error("Could not handle notification broadcast: %s", json, ex);
+                }
+            }
+        });
+
+        lockRepository.leaderElection(getClass().getName(), new LeaderListener() {
+            @Override
+            public void isLeader() {
+                LOGGER.debug("delivering scheduled system notifications (%s)", Thread.currentThread().getName());
+                leader = true;
+            }
+
+            @Override
+            public void notLeader() {
+                LOGGER.debug("lost leadership (%s)", Thread.currentThread().getName());
+                leader = false;
+            }
+        });
+
+        deliveryThread = new Thread(this::deliverScheduledNotifications);
+        deliveryThread.setDaemon(true);
+        deliveryThread.setName("visallo-notification-scheduler");
+        deliveryThread.start();
+        started = true;
+    }
+
+    @Override
+    public synchronized void shutdown() {
+        if (deliveryThread != null) {
+            deliveryThread.interrupt();
+            deliveryThread = null;
+        }
+        started = false;
+    }
+
+    public boolean isStarted() {
+        return started;
+    }
+
+    /**
+     * Adds or replaces a system notification, scheduling it for delivery if it starts in the future.
+     */
+    public void schedule(SystemNotification notification) {
+        String id = notification.getId();
+        ScheduledNotification previous = scheduledById.remove(id);
+        if (previous != null) {
+            queue.remove(previous);
+        }
+
+        Date now = new Date();
+        if (notification.getEndDate() != null && !notification.getEndDate().after(now)) {
+            systemNotifications.remove(id);
+            return;
+        }
+        systemNotifications.put(id, notification);
+
+        if (notification.getStartDate().after(now)) {
+            ScheduledNotification scheduled = new ScheduledNotification(notification);
+            scheduledById.put(id, scheduled);
+            queue.add(scheduled);
+        }
+    }
+
+    public void cancel(String notificationId) {
+        systemNotifications.remove(notificationId);
+        ScheduledNotification scheduled = scheduledById.remove(notificationId);
+        if (scheduled != null) {
+            queue.remove(scheduled);
+        }
+    }
+
+    public List<SystemNotification> getActiveSystemNotifications(User user) {
+        if (!started) {
+            return systemNotificationRepository.getActiveNotifications(user);
+        }
+        Date now = new Date();
+        systemNotifications.values().removeIf(n -> n.getEndDate() != null && !n.getEndDate().after(now));
+        return systemNotifications.values().stream()
+                .filter(SystemNotification::isActive)
+                .sorted(Comparator.comparing(SystemNotification::getStartDate))
+                .collect(Collectors.toList());
+    }
+
+    public List<SystemNotification> getFutureSystemNotifications(Date maxDate, User user) {
+        if (!started) {
+            return systemNotificationRepository.getFutureNotifications(maxDate, user);
+        }
+        Date now = new Date();
+        return systemNotifications.values().stream()
+                .filter(n -> n.getStartDate().compareTo(now) >= 0
+                        && (maxDate == null || n.getEndDate() == null || n.getEndDate().compareTo(maxDate) <= 0))
+                .sorted(Comparator.comparing(SystemNotification::getStartDate))
+                .collect(Collectors.toList());
+    }
+
+    public List<UserNotification> getActiveUserNotifications(User user) {
+        if (!started) {
+            return userNotificationRepository.getActiveNotifications(user).collect(Collectors.toList());
+        }
+        Map<String, UserNotification> unread;
+        try {
+            unread = unreadByUserId.get(user.getUserId(), () -> {
+                Map<String, UserNotification> notifications = new ConcurrentHashMap<>();
+                userNotificationRepository.findAllForUser(user.getUserId(), user)
+                        .filter(notification -> !notification.isMarkedRead())
+                        .forEach(notification -> notifications.put(notification.getId(), notification));
+                return notifications;
+            });
+        } catch (ExecutionException | UncheckedExecutionException ex) {
+            throw new VisalloException("Could not load notifications for user: " + user.getUserId(), ex.getCause());
+        }
+        return unread.values().stream()
+                .filter(UserNotification::isActive)
+                .sorted(Comparator.comparing(UserNotification::getSentDate))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Drops a user's unread index so that it is reloaded on the next request.
+     */
+    public void invalidateUser(String userId) {
+        unreadByUserId.invalidate(userId);
+    }
+
+    /**
+     * Drops notifications from the user's unread index on this server and broadcasts the change to the others.
+     */
+    public void markRead(String[] notificationIds, User user) {
+        removeUnread(user.getUserId(), notificationIds);
+        workQueueRepository.pushUserNotificationsRead(user.getUserId(), notificationIds);
+    }
+
+    private void removeUnread(String userId, String[] notificationIds) {
+        Map<String, UserNotification> unread = unreadByUserId.getIfPresent(userId);
+        if (unread == null) {
+            return;
+        }
+        for (String notificationId : notificationIds) {
+            unread.remove(notificationId);
+        }
+    }
+
+    void handleBroadcast(JSONObject json) {
+        String type = json.optString("type");
+        JSONObject data = json.optJSONObject("data");
+        if (data == null) {
+            return;
+        }
+        switch (type) {
+            case "notification":
+            case "systemNotificationUpdated":
+                JSONObject notificationJson = data.optJSONObject("notification");
+                if (notificationJson == null) {
+                    return;
+                }
+                if ("user".equals(notificationJson.optString("type"))) {
+                    invalidateUser(notificationJson.optString("userId"));
+                } else if ("system".equals(notificationJson.optString("type"))) {
+                    refreshSystemNotification(notificationJson);
+                }
+                break;
+            case "systemNotificationEnded":
+                cancel(data.getString("notificationId"));
+                break;
+            case "userNotificationsRead":
+                JSONArray notificationIds = data.getJSONArray("notificationIds");
+                String[] ids = new String[notificationIds.length()];
+                for (int i = 0; i < ids.length; i++) {
+                    ids[i] = notificationIds.getString(i);
+                }
+                removeUnread(data.getString("userId"), ids);
+                break;
+        }
+    }
+
+    private void refreshSystemNotification(JSONObject notificationJson) {
+        String id = notificationJson.getString("id");
+        SystemNotification current = systemNotifications.get(id);
+        if (current != null && current.toJSONObject().optString("hash").equals(notificationJson.optString("hash"))) {
+            return;
+        }
+        SystemNotification notification = systemNotificationRepository.getNotification(id, userRepository.getSystemUser());
+        if (notification == null) {
+            cancel(id);
+        } else {
+            schedule(notification);
+        }
+    }
+
+    private void deliverScheduledNotifications() {
+        while (true) {
+            ScheduledNotification scheduled;
+            try {
+                scheduled = queue.take();
+            } catch (InterruptedException e) {
+                LOGGER.info("notification scheduler interrupted");
+                return;
+            }
+            if (!scheduledById.remove(scheduled.getNotification().getId(), scheduled)) {
+                continue;
+            }
+            if (!leader) {
+                continue;
+            }
+            try {
+                LOGGER.debug("delivering system notification: %s", scheduled.getNotification().getId());
+                workQueueRepository.pushSystemNotification(scheduled.getNotification());
+            } catch (Exception ex) {
+                LOGGER.error("Could not deliver system notification: %s", scheduled.getNotification().getId(), ex);
+            }
+        }
+    }
+
+    private static class ScheduledNotification implements Delayed {
+        private final SystemNotification notification;
+        private final long startTime;
+
+        ScheduledNotification(SystemNotification notification) {
+            this.notification = notification;
+            this.startTime = notification.getStartDate().getTime();
+        }
+
+        public SystemNotification getNotification() {
+            return notification;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(startTime - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed o) {
+            return Long.compare(startTime, ((ScheduledNotification) o).startTime);
+        }
+    }
+}
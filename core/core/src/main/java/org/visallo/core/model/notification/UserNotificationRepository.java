@@ -27,16 +27,24 @@ public abstract class UserNotificationRepository extends NotificationRepository
 
     public Stream<UserNotification> getActiveNotifications(User user) {
         Date now = new Date();
-        return findAll(user)
+        return findAllForUser(user.getUserId(), user)
                 .filter(notification ->
-                        user.getUserId().equals(notification.getUserId())
-                                && notification.getSentDate().before(now)
+                        notification.getSentDate().before(now)
                                 && notification.isActive()
                 );
     }
 
     protected abstract Stream<UserNotification> findAll(User authUser);
 
+    /**
+     * Finds all notifications sent to a single user. Implementations that can look up a single user's
+     * notifications directly should override this instead of filtering every notification.
+     */
+    protected Stream<UserNotification> findAllForUser(String userId, User authUser) {
+        return findAll(authUser)
+                .filter(notification -> userId.equals(notification.getUserId()));
+    }
+
     public Stream<UserNotification> getActiveNotificationsOlderThan(int duration, TimeUnit timeUnit, User authUser) {
         Date now = new Date();
         return findAll(authUser)
@@ -72,6 +72,7 @@ public class VisalloProperties {
     public static final String TERM_MENTION_LABEL_HAS_TERM_MENTION = "http://visallo.org/termMention#hasTermMention";
     public static final String TERM_MENTION_LABEL_RESOLVED_TO = "http://visallo.org/termMention#resolvedTo";
     public static final String TERM_MENTION_RESOLVED_FROM = "http://visallo.org/termMention#resolvedFrom";
+    public static final String TERM_MENTION_PROPERTY_INDEX_TABLE_PREFIX = "http://visallo.org/termMention#propertyIndex";
 
     private VisalloProperties() {
         throw new UnsupportedOperationException("do not construct utility class");
@@ -26,6 +26,6 @@ public class ClientApiMetadataVisalloProperty<TClientApi> extends MetadataVisall
         } else {
             valueStr = value.toString();
         }
-        return ClientApiConverter.toClientApi(valueStr, clazz);
+        return DecodedValueCache.decodeClientApi(valueStr, clazz);
     }
 }
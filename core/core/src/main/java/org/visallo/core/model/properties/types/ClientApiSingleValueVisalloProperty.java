@@ -26,7 +26,7 @@ public abstract class ClientApiSingleValueVisalloProperty<TClientApi> extends Si
         } else {
             valueStr = value.toString();
         }
-        return ClientApiConverter.toClientApi(valueStr, clazz);
+        return DecodedValueCache.decodeClientApi(valueStr, clazz);
     }
 }
 
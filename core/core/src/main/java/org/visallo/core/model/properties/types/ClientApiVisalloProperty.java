@@ -26,7 +26,7 @@ public abstract class ClientApiVisalloProperty<TClientApi> extends VisalloProper
         } else {
             valueStr = value.toString();
         }
-        return ClientApiConverter.toClientApi(valueStr, clazz);
+        return DecodedValueCache.decodeClientApi(valueStr, clazz);
     }
 }
 
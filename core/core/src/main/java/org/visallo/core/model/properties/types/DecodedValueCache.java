@@ -0,0 +1,123 @@
+package org.visallo.core.model.properties.types;
+
+import com.codahale.metrics.Counter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import org.visallo.core.status.MetricsManager;
+import org.visallo.core.util.ClientApiConverter;
+import org.visallo.web.clientapi.model.VisibilityJson;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Maps serialized property values to their decoded form so that values repeated across many elements, such as
+ * visibility json, are only parsed once. The decoded values are mutable client api objects, so the cache holds
+ * its own instance and hands out copies, which are much cheaper than parsing. There is one bounded cache per
+ * value type, shared by all properties of that type. Only types with a registered copier are cached.
+ */
+public class DecodedValueCache<T> {
+    public static final int MAXIMUM_SIZE = 10000;
+    private static final Map<Class<?>, DecodedValueCache<?>> cachesByType = new ConcurrentHashMap<>();
+    private static volatile MetricsManager metricsManager;
+    private final Class<T> type;
+    private final UnaryOperator<T> copier;
+    private final Cache<String, T> cache;
+    private volatile Counter hitCounter;
+    private volatile Counter decodeCounter;
+
+    static {
+        register(VisibilityJson.class, visibilityJson -> {
+            VisibilityJson copy = new VisibilityJson(visibilityJson.getSource());
+            visibilityJson.getWorkspaces().forEach(copy::addWorkspace);
+            return copy;
+        });
+    }
+
+    private DecodedValueCache(Class<T> type, UnaryOperator<T> copier) {
+        this.type = type;
+        this.copier = copier;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(MAXIMUM_SIZE)
+                .recordStats()
+                .build();
+        createCounters(metricsManager);
+    }
+
+    /**
+     * Enables caching of a client api type.
+     *
+     * @param copier Creates an independent copy of a decoded value.
+     */
+    public static <T> void register(Class<T> type, UnaryOperator<T> copier) {
+        cachesByType.put(type, new DecodedValueCache<>(type, copier));
+    }
+
+    /**
+     * @return The cache for the type or null if the type isn't cached.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> DecodedValueCache<T> forType(Class<T> type) {
+        return (DecodedValueCache<T>) cachesByType.get(type);
+    }
+
+    /**
+     * Decodes a serialized client api value, using the cached value if the same string was decoded before.
+     */
+    public static <T> T decodeClientApi(String valueStr, Class<T> type) {
+        DecodedValueCache<T> decodedValueCache = forType(type);
+        if (decodedValueCache == null) {
+            return ClientApiConverter.toClientApi(valueStr, type);
+        }
+        return decodedValueCache.get(valueStr);
+    }
+
+    /**
+     * Reports hits and decodes of all caches as counters.
+     */
+    public static void setMetricsManager(MetricsManager metricsManager) {
+        DecodedValueCache.metricsManager = metricsManager;
+        for (DecodedValueCache<?> decodedValueCache : cachesByType.values()) {
+            decodedValueCache.createCounters(metricsManager);
+        }
+    }
+
+    public T get(String valueStr) {
+        T value = cache.getIfPresent(valueStr);
+        if (value == null) {
+            value = ClientApiConverter.toClientApi(valueStr, type);
+            cache.put(valueStr, value);
+            increment(decodeCounter);
+        } else {
+            increment(hitCounter);
+        }
+        return copier.apply(value);
+    }
+
+    /**
+     * Hits, misses (each of which decoded a value) and evictions since the cache was created.
+     */
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    private void createCounters(MetricsManager metricsManager) {
+        if (metricsManager == null) {
+            return;
+        }
+        hitCounter = metricsManager.counter(this, type.getSimpleName() + "-hits");
+        decodeCounter = metricsManager.counter(this, type.getSimpleName() + "-decodes");
+    }
+
+    private static void increment(Counter counter) {
+        if (counter != null) {
+            counter.inc();
+        }
+    }
+}
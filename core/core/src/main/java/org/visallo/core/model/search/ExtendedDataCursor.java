@@ -0,0 +1,62 @@
+package org.visallo.core.model.search;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.visallo.core.exception.VisalloException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * An opaque position in a list of extended data rows, handed to clients so they can ask for the next page.
+ * Reading a table directly resumes after the last returned row id, which stays correct when rows are added
+ * to the table between pages. Searches resume at the offset.
+ */
+public class ExtendedDataCursor {
+    public static final ExtendedDataCursor START = new ExtendedDataCursor(0, null);
+    private final long offset;
+    private final String lastRowId;
+
+    public ExtendedDataCursor(long offset, String lastRowId) {
+        this.offset = offset;
+        this.lastRowId = lastRowId;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public String getLastRowId() {
+        return lastRowId;
+    }
+
+    /**
+     * Extended data rows are read in row id order, so rows at or before the last returned row were already
+     * returned.
+     */
+    public boolean isAfterCursor(String rowId) {
+        return lastRowId == null || rowId.compareTo(lastRowId) > 0;
+    }
+
+    public ExtendedDataCursor next(String lastRowId, long count) {
+        return new ExtendedDataCursor(offset + count, lastRowId);
+    }
+
+    public String encode() {
+        JSONObject json = new JSONObject();
+        json.put("offset", offset);
+        if (lastRowId != null) {
+            json.put("lastRowId", lastRowId);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ExtendedDataCursor decode(String cursor) {
+        try {
+            JSONObject json = new JSONObject(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+            return new ExtendedDataCursor(json.getLong("offset"), json.optString("lastRowId", null));
+        } catch (IllegalArgumentException | JSONException ex) {
+            throw new VisalloException("Invalid extended data cursor: " + cursor, ex);
+        }
+    }
+}
@@ -29,6 +29,18 @@ public class ExtendedDataSearchRunner extends VertexiumObjectSearchRunnerWithRel
         return EnumSet.of(VertexiumObjectType.EXTENDED_DATA);
     }
 
+    /**
+     * Accepts a cursor returned by a previous page in place of an offset.
+     */
+    @Override
+    protected Long getOffset(SearchOptions searchOptions) {
+        String cursor = searchOptions.getOptionalParameter("cursor", String.class);
+        if (cursor != null) {
+            return ExtendedDataCursor.decode(cursor).getOffset();
+        }
+        return super.getOffset(searchOptions);
+    }
+
     @Override
     public String getUri() {
         return URI;
@@ -64,7 +64,7 @@ public abstract class VertexiumObjectSearchRunnerBase extends SearchRunner {
             queryAndData.getQuery().limit(size);
         }
 
-        Long offset = searchOptions.getOptionalParameter("offset", 0L);
+        Long offset = getOffset(searchOptions);
         if (offset != null) {
             queryAndData.getQuery().skip(offset.intValue());
         }
@@ -74,6 +74,10 @@ public abstract class VertexiumObjectSearchRunnerBase extends SearchRunner {
         return new QueryResultsIterableSearchResults(searchResults, queryAndData, offset, size);
     }
 
+    protected Long getOffset(SearchOptions searchOptions) {
+        return searchOptions.getOptionalParameter("offset", 0L);
+    }
+
     private EnumSet<FetchHint> getFetchHints(SearchOptions searchOptions) {
         String fetchHintsString = searchOptions.getOptionalParameter("fetchHints", String.class);
         if (fetchHintsString == null) {
@@ -5,6 +5,8 @@ import com.google.common.hash.Hasher;
 import com.google.common.hash.Hashing;
 import org.vertexium.*;
 import org.vertexium.mutation.EdgeMutation;
+import org.vertexium.mutation.ElementMutation;
+import org.vertexium.mutation.ExistingElementMutation;
 import org.visallo.core.model.properties.VisalloProperties;
 import org.visallo.core.security.VisalloVisibility;
 import org.visallo.core.security.VisibilityTranslator;
@@ -195,8 +197,31 @@ public class TermMentionBuilder {
      * <p/>
      * Source  -- Has --> Term    -- Resolved To --> Resolved
      * Vertex             Mention                    Vertex
+     * <p/>
+     * The term mention is also added to the source vertex's term mention property index, a single extended data row
+     * in the table of the property, see
+     * {@link TermMentionRepository#findByOutVertexAndProperty(String, String, String, Authorizations)}.
      */
     public Vertex save(Graph graph, VisibilityTranslator visibilityTranslator, User user, Authorizations authorizations) {
+        ExistingElementMutation<Vertex> outVertexMutation = this.outVertex.prepareMutation();
+        Vertex termMentionVertex = save(graph, visibilityTranslator, user, outVertexMutation, authorizations);
+        outVertexMutation.save(graph.createAuthorizations(authorizations, TermMentionRepository.VISIBILITY_STRING));
+        return termMentionVertex;
+    }
+
+    /**
+     * Saves the term mention to the graph like {@link #save(Graph, VisibilityTranslator, User, Authorizations)} but
+     * adds the source vertex's property index row to the given mutation instead of saving it, so that the rows of
+     * many term mentions of the same source vertex can be saved with a single mutation. The mutation must be saved
+     * with the {@link TermMentionRepository#VISIBILITY_STRING} authorization.
+     */
+    public Vertex save(
+            Graph graph,
+            VisibilityTranslator visibilityTranslator,
+            User user,
+            ElementMutation<Vertex> outVertexMutation,
+            Authorizations authorizations
+    ) {
         checkNotNull(outVertex, "outVertex cannot be null");
         checkNotNull(propertyKey, "propertyKey cannot be null");
         checkNotNull(title, "title cannot be null");
@@ -248,6 +273,14 @@ public class TermMentionBuilder {
         VisalloProperties.MODIFIED_BY.setProperty(termMentionEdgeBuilder, user.getUserId(), defaultVisibility);
         VisalloProperties.MODIFIED_DATE.setProperty(termMentionEdgeBuilder, now, defaultVisibility);
         termMentionEdgeBuilder.save(authorizations);
+
+        TermMentionRepository.addToPropertyIndex(
+                outVertexMutation,
+                vertexId,
+                this.propertyKey,
+                this.propertyName,
+                visibility
+        );
         if (this.resolvedToVertexId != null) {
             String resolvedToId = vertexId + "_resolvedTo";
             EdgeMutation resolvedToEdgeBuilder = graph.prepareEdge(resolvedToId, termMentionVertex.getId(), resolvedToVertexId, VisalloProperties.TERM_MENTION_LABEL_RESOLVED_TO, visibility);
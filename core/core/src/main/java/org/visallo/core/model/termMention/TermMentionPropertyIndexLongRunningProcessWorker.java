@@ -0,0 +1,72 @@
+package org.visallo.core.model.termMention;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import org.json.JSONObject;
+import org.vertexium.*;
+import org.visallo.core.model.Description;
+import org.visallo.core.model.Name;
+import org.visallo.core.model.longRunningProcess.LongRunningProcessWorker;
+import org.visallo.core.model.user.AuthorizationRepository;
+import org.visallo.core.model.user.UserRepository;
+import org.visallo.core.util.ClientApiConverter;
+import org.visallo.core.util.VisalloLogger;
+import org.visallo.core.util.VisalloLoggerFactory;
+
+import java.util.EnumSet;
+
+/**
+ * Adds the term mentions of the documents in a range of vertex ids to the documents' term mention property
+ * indexes. Needs to be run once over all vertices for term mentions saved before the index existed, term
+ * mentions saved since are indexed when they are saved.
+ */
+@Name("Term Mention Property Index")
+@Description("Indexes the term mentions of documents by property")
+@Singleton
+public class TermMentionPropertyIndexLongRunningProcessWorker extends LongRunningProcessWorker {
+    private static final VisalloLogger LOGGER = VisalloLoggerFactory.getLogger(TermMentionPropertyIndexLongRunningProcessWorker.class);
+    private static final EnumSet<FetchHint> FETCH_HINTS = EnumSet.of(FetchHint.OUT_EDGE_REFS);
+    private final Graph graph;
+    private final TermMentionRepository termMentionRepository;
+    private final Authorizations authorizations;
+
+    @Inject
+    public TermMentionPropertyIndexLongRunningProcessWorker(
+            Graph graph,
+            TermMentionRepository termMentionRepository,
+            UserRepository userRepository,
+            AuthorizationRepository authorizationRepository
+    ) {
+        this.graph = graph;
+        this.termMentionRepository = termMentionRepository;
+        this.authorizations = termMentionRepository.getAuthorizations(
+                authorizationRepository.getGraphAuthorizations(userRepository.getSystemUser())
+        );
+    }
+
+    @Override
+    public boolean isHandled(JSONObject jsonObject) {
+        return TermMentionPropertyIndexQueueItem.isHandled(jsonObject);
+    }
+
+    @Override
+    protected void processInternal(JSONObject longRunningProcessQueueItem) {
+        TermMentionPropertyIndexQueueItem queueItem = ClientApiConverter.toClientApi(
+                longRunningProcessQueueItem.toString(),
+                TermMentionPropertyIndexQueueItem.class
+        );
+        Range range = new Range(queueItem.getStartId(), queueItem.getEndId());
+        LOGGER.info("indexing term mentions of vertices in %s", range);
+        long documentCount = 0;
+        long termMentionCount = 0;
+        for (Vertex vertex : graph.getVerticesInRange(range, FETCH_HINTS, authorizations)) {
+            int count = termMentionRepository.indexTermMentions(vertex, authorizations);
+            if (count > 0) {
+                documentCount++;
+                termMentionCount += count;
+            }
+        }
+        graph.flush();
+        LOGGER.info("indexed %d term mentions of %d documents in %s", termMentionCount, documentCount, range);
+    }
+}
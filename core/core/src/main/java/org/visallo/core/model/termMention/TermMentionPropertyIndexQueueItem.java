@@ -0,0 +1,30 @@
+package org.visallo.core.model.termMention;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.json.JSONObject;
+import org.visallo.core.model.longRunningProcess.LongRunningProcessQueueItemBase;
+
+public class TermMentionPropertyIndexQueueItem extends LongRunningProcessQueueItemBase {
+    private final String startId;
+    private final String endId;
+
+    public TermMentionPropertyIndexQueueItem(
+            @JsonProperty("startId") String startId,
+            @JsonProperty("endId") String endId
+    ) {
+        this.startId = startId;
+        this.endId = endId;
+    }
+
+    public static boolean isHandled(JSONObject jsonObject) {
+        return isA(jsonObject, TermMentionPropertyIndexQueueItem.class);
+    }
+
+    public String getStartId() {
+        return startId;
+    }
+
+    public String getEndId() {
+        return endId;
+    }
+}
@@ -23,6 +23,7 @@ import org.visallo.web.clientapi.model.ClientApiTermMentionsResponse;
 import org.visallo.web.clientapi.model.SandboxStatus;
 import org.visallo.web.clientapi.model.VisibilityJson;
 
+import java.util.EnumSet;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -37,6 +38,7 @@ public class TermMentionRepository {
     private static final VisalloLogger LOGGER = VisalloLoggerFactory.getLogger(TermMentionRepository.class);
     public static final String VISIBILITY_STRING = "termMention";
     public static final String OWL_IRI = "http://visallo.org/termMention";
+    private static final String PROPERTY_INDEX_COLUMN_TERM_MENTION_ID = OWL_IRI + "#termMentionId";
     private final VisibilityTranslator visibilityTranslator;
     private final WorkQueueRepository workQueueRepository;
     private final Graph graph;
@@ -54,6 +56,12 @@ public class TermMentionRepository {
         graphAuthorizationRepository.addAuthorizationToGraph(VISIBILITY_STRING);
     }
 
+    /**
+     * Finds the term mentions found in a property of a document. The term mentions are found using the document's
+     * term mention property index, which has a table for each property so only the rows of the property are read.
+     * Documents without an index table for the property, such as documents saved before the index existed and not yet
+     * indexed with {@link #indexTermMentions(Vertex, Authorizations)}, are read by following their term mention edges.
+     */
     public Iterable<Vertex> findByOutVertexAndProperty(
             String outVertexId,
             String propertyKey,
@@ -61,7 +69,23 @@ public class TermMentionRepository {
             Authorizations authorizations
     ) {
         authorizations = getAuthorizations(authorizations);
-        return new FilterIterable<Vertex>(findByOutVertex(outVertexId, authorizations)) {
+        String tableName = getPropertyIndexTableName(propertyKey, propertyName);
+        Vertex outVertex = graph.getVertex(outVertexId, EnumSet.of(FetchHint.EXTENDED_DATA_TABLE_NAMES), authorizations);
+        if (outVertex == null || !outVertex.getExtendedDataTableNames().contains(tableName)) {
+            return filterByProperty(findByOutVertex(outVertexId, authorizations), propertyKey, propertyName);
+        }
+
+        Iterable<ExtendedDataRow> rows = graph.getExtendedData(ElementType.VERTEX, outVertexId, tableName, authorizations);
+        List<String> termMentionIds = stream(rows)
+                .map(row -> row.getId().getRowId())
+                .collect(Collectors.toList());
+
+        // rows of deleted term mentions may remain, their vertices are not found
+        return filterByProperty(graph.getVertices(termMentionIds, authorizations), propertyKey, propertyName);
+    }
+
+    private static Iterable<Vertex> filterByProperty(Iterable<Vertex> termMentions, String propertyKey, String propertyName) {
+        return new FilterIterable<Vertex>(termMentions) {
             @Override
             protected boolean isIncluded(Vertex v) {
                 String vertexPropertyKey = VisalloProperties.TERM_MENTION_PROPERTY_KEY.getPropertyValue(v);
@@ -80,6 +104,90 @@ public class TermMentionRepository {
         };
     }
 
+    /**
+     * Adds the term mentions of a document to its term mention property index, used to index term mentions saved
+     * before the index existed. Indexing a document again rewrites the same rows.
+     *
+     * @return the number of term mentions indexed.
+     */
+    public int indexTermMentions(Vertex outVertex, Authorizations authorizations) {
+        Authorizations authorizationsWithTermMention = getAuthorizations(authorizations);
+        Iterable<Vertex> termMentions = outVertex.getVertices(
+                Direction.OUT,
+                VisalloProperties.TERM_MENTION_LABEL_HAS_TERM_MENTION,
+                authorizationsWithTermMention
+        );
+        ExistingElementMutation<Vertex> m = outVertex.prepareMutation();
+        int count = 0;
+        for (Vertex termMention : termMentions) {
+            addToPropertyIndex(m, termMention, termMention.getVisibility());
+            count++;
+        }
+        if (count > 0) {
+            m.save(authorizationsWithTermMention);
+        }
+        return count;
+    }
+
+    static String getPropertyIndexTableName(String propertyKey, String propertyName) {
+        // legacy term mentions without a property name are for the text property
+        if (propertyName == null) {
+            propertyName = VisalloProperties.TEXT.getPropertyName();
+        }
+        return VisalloProperties.TERM_MENTION_PROPERTY_INDEX_TABLE_PREFIX + "/" + propertyName + "/" + propertyKey;
+    }
+
+    static void addToPropertyIndex(
+            ElementMutation<Vertex> outVertexMutation,
+            String termMentionId,
+            String propertyKey,
+            String propertyName,
+            Visibility visibility
+    ) {
+        if (propertyKey == null) {
+            return;
+        }
+        outVertexMutation.addExtendedData(
+                getPropertyIndexTableName(propertyKey, propertyName),
+                termMentionId,
+                PROPERTY_INDEX_COLUMN_TERM_MENTION_ID,
+                termMentionId,
+                visibility
+        );
+    }
+
+    private void addToPropertyIndex(ElementMutation<Vertex> outVertexMutation, Vertex termMention, Visibility visibility) {
+        addToPropertyIndex(
+                outVertexMutation,
+                termMention.getId(),
+                VisalloProperties.TERM_MENTION_PROPERTY_KEY.getPropertyValue(termMention),
+                VisalloProperties.TERM_MENTION_PROPERTY_NAME.getPropertyValue(termMention, null),
+                visibility
+        );
+    }
+
+    private void deleteFromPropertyIndex(Vertex termMention, Authorizations authorizationsWithTermMention) {
+        String propertyKey = VisalloProperties.TERM_MENTION_PROPERTY_KEY.getPropertyValue(termMention);
+        if (propertyKey == null) {
+            return;
+        }
+        String tableName = getPropertyIndexTableName(
+                propertyKey,
+                VisalloProperties.TERM_MENTION_PROPERTY_NAME.getPropertyValue(termMention, null)
+        );
+        Iterable<String> outVertexIds = termMention.getVertexIds(
+                Direction.IN,
+                VisalloProperties.TERM_MENTION_LABEL_HAS_TERM_MENTION,
+                authorizationsWithTermMention
+        );
+        for (String outVertexId : outVertexIds) {
+            graph.deleteExtendedDataRow(
+                    new ExtendedDataRowId(ElementType.VERTEX, outVertexId, tableName, termMention.getId()),
+                    authorizationsWithTermMention
+            );
+        }
+    }
+
     public Iterable<Vertex> findByOutVertex(String outVertexId, Authorizations authorizations) {
         Authorizations authorizationsWithTermMention = getAuthorizations(authorizations);
         Vertex outVertex = graph.getVertex(outVertexId, authorizationsWithTermMention);
@@ -305,6 +413,18 @@ public class TermMentionRepository {
             }
             edgeMutation.save(authorizationsWithTermMention);
         }
+
+        deleteFromPropertyIndex(termMention, authorizationsWithTermMention);
+        Iterable<Vertex> outVertices = termMention.getVertices(
+                Direction.IN,
+                VisalloProperties.TERM_MENTION_LABEL_HAS_TERM_MENTION,
+                authorizationsWithTermMention
+        );
+        for (Vertex outVertex : outVertices) {
+            ExistingElementMutation<Vertex> outVertexMutation = outVertex.prepareMutation();
+            addToPropertyIndex(outVertexMutation, termMention, newVisibilityWithTermMention);
+            outVertexMutation.save(authorizationsWithTermMention);
+        }
     }
 
     public Iterable<Vertex> findResolvedTo(String inVertexId, Authorizations authorizations) {
@@ -360,6 +480,7 @@ public class TermMentionRepository {
 
     public void delete(Vertex termMention, Authorizations authorizations) {
         Authorizations authorizationsWithTermMention = getAuthorizations(authorizations);
+        deleteFromPropertyIndex(termMention, authorizationsWithTermMention);
         graph.softDeleteVertex(termMention, authorizationsWithTermMention);
     }
 
@@ -593,6 +714,10 @@ public class TermMentionRepository {
         VisalloProperties.TERM_MENTION_END_OFFSET.setProperty(m, endOffset, visibility);
         Vertex termMention = m.save(authorizations);
 
+        ExistingElementMutation<Vertex> outVertexMutation = outVertex.prepareMutation();
+        addToPropertyIndex(outVertexMutation, termMentionVertexId, textPropertyKey, textPropertyName, visibility);
+        outVertexMutation.save(authorizations);
+
         graph.addEdge(
                 VisalloProperties.TERM_MENTION_LABEL_HAS_TERM_MENTION + termMentionVertexId,
                 outVertex,
@@ -688,6 +813,7 @@ public class TermMentionRepository {
                 authorizations
         );
         if (termMention != null) {
+            deleteFromPropertyIndex(termMention, getAuthorizations(authorizations));
             graph.softDeleteVertex(termMention, authorizations);
         }
     }
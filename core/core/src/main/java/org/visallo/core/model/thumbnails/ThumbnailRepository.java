@@ -7,13 +7,13 @@ import org.visallo.core.model.ontology.OntologyRepository;
 import org.visallo.core.model.properties.types.BooleanVisalloProperty;
 import org.visallo.core.model.properties.types.IntegerVisalloProperty;
 import org.visallo.core.user.User;
+import org.visallo.core.util.ImageProcessingService;
+import org.visallo.core.util.ImageTransform;
 import org.visallo.core.util.VisalloLogger;
 import org.visallo.core.util.VisalloLoggerFactory;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 
@@ -27,6 +27,7 @@ public abstract class ThumbnailRepository {
     public static int PREVIEW_FRAME_HEIGHT = 240;
     private BooleanVisalloProperty yAxisFlippedProperty;
     private IntegerVisalloProperty clockwiseRotationProperty;
+    private ImageProcessingService imageProcessingService;
 
     @Inject
     public ThumbnailRepository(
@@ -69,49 +70,67 @@ public abstract class ThumbnailRepository {
             User user
     );
 
-    public Thumbnail generateThumbnail(Vertex vertex, String propertyKey, String thumbnailType, InputStream in, int[] boundaryDims) {
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        String format;
-        int type;
-        try {
-            BufferedImage originalImage = ImageIO.read(in);
-            checkNotNull(originalImage, "Could not generateThumbnail: read original image for vertex " + vertex.getId());
-            type = ImageUtils.thumbnailType(originalImage);
-            format = ImageUtils.thumbnailFormat(originalImage);
-
-            BufferedImage transformedImage = getTransformedImage(originalImage, vertex, propertyKey);
-
-            //Get new image dimensions, which will be used for the icon.
-            int[] transformedImageDims = new int[]{transformedImage.getWidth(), transformedImage.getHeight()};
-            int[] newImageDims = getScaledDimension(transformedImageDims, boundaryDims);
-            if (newImageDims[0] >= transformedImageDims[0] || newImageDims[1] >= transformedImageDims[1]) {
-                LOGGER.info("Original image dimensions %d x %d are smaller "
-                                + "than requested dimensions %d x %d returning original.",
-                        transformedImageDims[0], transformedImageDims[1],
-                        newImageDims[0], newImageDims[1]);
-            }
-            //Resize the image.
-            BufferedImage resizedImage = new BufferedImage(newImageDims[0], newImageDims[1], type);
-            Graphics2D g = resizedImage.createGraphics();
-            int width = resizedImage.getWidth();
-            int height = resizedImage.getHeight();
-            if (transformedImage.getColorModel().getNumComponents() != 3) {
-                g.drawImage(transformedImage, 0, 0, width, height, null);
-            } else {
-                g.drawImage(transformedImage, 0, 0, width, height, Color.BLACK, null);
-            }
-            g.dispose();
+    /**
+     * Sets the service used to decode and encode thumbnails. Repositories created without injection fall back to
+     * a service with the default memory budget.
+     */
+    @Inject
+    public void setImageProcessingService(ImageProcessingService imageProcessingService) {
+        this.imageProcessingService = imageProcessingService;
+    }
 
-            //Write the bufferedImage to a file.
-            ImageIO.write(resizedImage, format, out);
+    private ImageProcessingService getImageProcessingService() {
+        if (imageProcessingService == null) {
+            imageProcessingService = new ImageProcessingService(ImageProcessingService.CONFIG_MEMORY_BUDGET_MB_DEFAULT);
+        }
+        return imageProcessingService;
+    }
 
-            return new Thumbnail(vertex.getId(), thumbnailType, out.toByteArray(), format, width, height);
+    public Thumbnail generateThumbnail(Vertex vertex, String propertyKey, String thumbnailType, InputStream in, int[] boundaryDims) {
+        try {
+            ImageTransform imageTransform = getImageTransform(vertex, propertyKey);
+            return getImageProcessingService().read(in, boundaryDims[0], boundaryDims[1], imageTransform, transformedImage -> {
+                checkNotNull(transformedImage, "Could not generateThumbnail: read original image for vertex " + vertex.getId());
+                int type = ImageUtils.thumbnailType(transformedImage);
+                String format = ImageUtils.thumbnailFormat(transformedImage);
+
+                //Get new image dimensions, which will be used for the icon.
+                int[] transformedImageDims = new int[]{transformedImage.getWidth(), transformedImage.getHeight()};
+                int[] newImageDims = getScaledDimension(transformedImageDims, boundaryDims);
+                if (newImageDims[0] >= transformedImageDims[0] || newImageDims[1] >= transformedImageDims[1]) {
+                    LOGGER.info("Original image dimensions %d x %d are smaller "
+                                    + "than requested dimensions %d x %d returning original.",
+                            transformedImageDims[0], transformedImageDims[1],
+                            newImageDims[0], newImageDims[1]);
+                }
+                //Resize the image.
+                BufferedImage resizedImage = new BufferedImage(newImageDims[0], newImageDims[1], type);
+                Graphics2D g = resizedImage.createGraphics();
+                int width = resizedImage.getWidth();
+                int height = resizedImage.getHeight();
+                if (transformedImage.getColorModel().getNumComponents() != 3) {
+                    g.drawImage(transformedImage, 0, 0, width, height, null);
+                } else {
+                    g.drawImage(transformedImage, 0, 0, width, height, Color.BLACK, null);
+                }
+                g.dispose();
+
+                byte[] data = getImageProcessingService().write(resizedImage, format);
+                return new Thumbnail(vertex.getId(), thumbnailType, data, format, width, height);
+            });
         } catch (IOException e) {
             throw new VisalloResourceNotFoundException("Error reading InputStream");
         }
     }
 
     public BufferedImage getTransformedImage(BufferedImage originalImage, Vertex vertex, String propertyKey) {
+        ImageTransform imageTransform = getImageTransform(vertex, propertyKey);
+
+        //Rotate and flip image.
+        return ImageUtils.reOrientImage(originalImage, imageTransform.isYAxisFlipNeeded(), imageTransform.getCWRotationNeeded());
+    }
+
+    private ImageTransform getImageTransform(Vertex vertex, String propertyKey) {
         int cwRotationNeeded = 0;
         if (clockwiseRotationProperty != null) {
             Integer nullable = clockwiseRotationProperty.getPropertyValue(vertex, propertyKey);
@@ -126,9 +145,7 @@ public abstract class ThumbnailRepository {
                 yAxisFlipNeeded = nullable;
             }
         }
-
-        //Rotate and flip image.
-        return ImageUtils.reOrientImage(originalImage, yAxisFlipNeeded, cwRotationNeeded);
+        return new ImageTransform(yAxisFlipNeeded, cwRotationNeeded);
     }
 
     public int[] getScaledDimension(int[] imgSize, int[] boundary) {
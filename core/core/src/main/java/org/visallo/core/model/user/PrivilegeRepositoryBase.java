@@ -6,12 +6,16 @@ import org.visallo.core.config.Configuration;
 import org.visallo.core.user.User;
 import org.visallo.web.clientapi.model.Privilege;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 public abstract class PrivilegeRepositoryBase implements PrivilegeRepository {
     private final Iterable<PrivilegesProvider> privilegesProviders;
     private UserRepository userRepository;
+    private volatile PrivilegeCatalog privilegeCatalog;
 
     protected PrivilegeRepositoryBase(Configuration configuration) {
         this.privilegesProviders = getPrivilegesProviders(configuration);
@@ -51,21 +55,38 @@ public abstract class PrivilegeRepositoryBase implements PrivilegeRepository {
 
     @Override
     public Set<Privilege> getAllPrivileges() {
-        Set<Privilege> privileges = new HashSet<>();
-        for (PrivilegesProvider privilegesProvider : privilegesProviders) {
-            for (Privilege privilege : privilegesProvider.getPrivileges()) {
-                privileges.add(privilege);
-            }
-        }
-        return privileges;
+        return getPrivilegeCatalog().privileges;
     }
 
     protected Privilege findPrivilegeByName(String privilegeName) {
-        for (Privilege p : getAllPrivileges()) {
-            if (p.getName().equals(privilegeName)) {
-                return p;
+        return getPrivilegeCatalog().privilegesByName.get(privilegeName);
+    }
+
+    // PrivilegesProviders declare a fixed set of privileges so the catalog is built once, on first use
+    private PrivilegeCatalog getPrivilegeCatalog() {
+        PrivilegeCatalog catalog = privilegeCatalog;
+        if (catalog == null) {
+            catalog = new PrivilegeCatalog(privilegesProviders);
+            privilegeCatalog = catalog;
+        }
+        return catalog;
+    }
+
+    private static class PrivilegeCatalog {
+        private final Set<Privilege> privileges;
+        private final Map<String, Privilege> privilegesByName;
+
+        PrivilegeCatalog(Iterable<PrivilegesProvider> privilegesProviders) {
+            Set<Privilege> privileges = new HashSet<>();
+            Map<String, Privilege> privilegesByName = new HashMap<>();
+            for (PrivilegesProvider privilegesProvider : privilegesProviders) {
+                for (Privilege privilege : privilegesProvider.getPrivileges()) {
+                    privileges.add(privilege);
+                    privilegesByName.putIfAbsent(privilege.getName(), privilege);
+                }
             }
+            this.privileges = Collections.unmodifiableSet(privileges);
+            this.privilegesByName = privilegesByName;
         }
-        return null;
     }
 }
@@ -0,0 +1,281 @@
+package org.visallo.core.model.user;
+
+import org.visallo.core.user.User;
+import org.visallo.core.util.VisalloLogger;
+import org.visallo.core.util.VisalloLoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * In memory index of users used to answer {@link UserRepository#find(String)} without scanning every user.
+ * Username, display name and email address are broken into lower case n-grams which are used to find
+ * candidate users; candidates are then verified and ranked so that exact and prefix matches come first.
+ * The index is kept current through the {@link UserListener} events fired by {@link UserRepository}.
+ * <p>
+ * Only user ids are returned, callers resolve them through the repository so they never see a stale user.
+ * A reload builds a new index without holding the lock used by updates and swaps it in, queries running during
+ * a reload use the previous index. Updates made while a reload is scanning users are applied to both indexes.
+ */
+public class UserDirectoryIndex implements UserListener {
+    private static final VisalloLogger LOGGER = VisalloLoggerFactory.getLogger(UserDirectoryIndex.class);
+    static final int GRAM_SIZE = 3;
+    private static final int RANK_EXACT = 0;
+    private static final int RANK_USERNAME_PREFIX = 1;
+    private static final int RANK_WORD_PREFIX = 2;
+    private static final int RANK_CONTAINS = 3;
+    private static final int RANK_NO_MATCH = Integer.MAX_VALUE;
+
+    private final Object loadLock = new Object();
+    private volatile Index index = new Index();
+    private volatile long loadedTime;
+    private List<Consumer<Index>> changesDuringLoad; // guarded by this
+
+    public void load(Iterable<User> users) {
+        synchronized (loadLock) {
+            synchronized (this) {
+                changesDuringLoad = new ArrayList<>();
+            }
+            try {
+                Index newIndex = new Index();
+                for (User user : users) {
+                    newIndex.put(user);
+                }
+                synchronized (this) {
+                    for (Consumer<Index> change : changesDuringLoad) {
+                        change.accept(newIndex);
+                    }
+                    index = newIndex;
+                    loadedTime = System.currentTimeMillis();
+                }
+                LOGGER.debug("indexed %d users", newIndex.usersById.size());
+            } finally {
+                synchronized (this) {
+                    changesDuringLoad = null;
+                }
+            }
+        }
+    }
+
+    public boolean isLoaded() {
+        return loadedTime > 0;
+    }
+
+    public long getLoadedTime() {
+        return loadedTime;
+    }
+
+    public synchronized void put(User user) {
+        index.put(user);
+        if (changesDuringLoad != null) {
+            changesDuringLoad.add(newIndex -> newIndex.put(user));
+        }
+    }
+
+    public synchronized void remove(String userId) {
+        index.remove(userId);
+        if (changesDuringLoad != null) {
+            changesDuringLoad.add(newIndex -> newIndex.remove(userId));
+        }
+    }
+
+    /**
+     * Finds the ids of users whose username, display name or email address contains the query, best matches
+     * first.
+     *
+     * @param query The text to search for or null to return all users.
+     * @param skip  The number of matching users to skip.
+     * @param limit The maximum number of user ids to return.
+     */
+    public List<String> find(String query, int skip, int limit) {
+        String lowerCaseQuery = query == null ? "" : query.trim().toLowerCase();
+        Collection<IndexedUser> candidates = index.getCandidates(lowerCaseQuery);
+        return candidates.stream()
+                .map(user -> new RankedUser(user, user.rank(lowerCaseQuery)))
+                .filter(rankedUser -> rankedUser.rank != RANK_NO_MATCH)
+                .sorted()
+                .skip(skip)
+                .limit(limit)
+                .map(rankedUser -> rankedUser.user.userId)
+                .collect(Collectors.toList());
+    }
+
+    static Set<String> toGrams(String value) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM_SIZE));
+        }
+        return grams;
+    }
+
+    @Override
+    public void newUserAdded(User user) {
+        put(user);
+    }
+
+    @Override
+    public void userDeleted(User user) {
+        remove(user.getUserId());
+    }
+
+    @Override
+    public void userPrivilegesUpdated(User user, Set<String> privileges) {
+    }
+
+    @Override
+    public void userRemoveAuthorization(User user, String auth) {
+    }
+
+    @Override
+    public void userAddAuthorization(User user, String auth) {
+    }
+
+    @Override
+    public void userLogin(User user, AuthorizationContext authorizationContext) {
+        put(user);
+    }
+
+    @Override
+    public void userUpdated(User user) {
+        put(user);
+    }
+
+    private static class Index {
+        private final Map<String, IndexedUser> usersById = new ConcurrentHashMap<>();
+        private final Map<String, Set<String>> userIdsByGram = new ConcurrentHashMap<>();
+
+        void put(User user) {
+            remove(user.getUserId());
+            IndexedUser indexedUser = new IndexedUser(user);
+            usersById.put(user.getUserId(), indexedUser);
+            for (String gram : indexedUser.getGrams()) {
+                userIdsByGram.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(user.getUserId());
+            }
+        }
+
+        void remove(String userId) {
+            IndexedUser existing = usersById.remove(userId);
+            if (existing == null) {
+                return;
+            }
+            for (String gram : existing.getGrams()) {
+                Set<String> userIds = userIdsByGram.get(gram);
+                if (userIds != null) {
+                    userIds.remove(userId);
+                    if (userIds.isEmpty()) {
+                        userIdsByGram.remove(gram);
+                    }
+                }
+            }
+        }
+
+        Collection<IndexedUser> getCandidates(String lowerCaseQuery) {
+            if (lowerCaseQuery.length() < GRAM_SIZE) {
+                return usersById.values();
+            }
+
+            List<Set<String>> postings = new ArrayList<>();
+            for (String gram : toGrams(lowerCaseQuery)) {
+                Set<String> userIds = userIdsByGram.get(gram);
+                if (userIds == null) {
+                    return Collections.emptyList();
+                }
+                postings.add(userIds);
+            }
+            postings.sort(Comparator.comparingInt(Set::size));
+
+            List<IndexedUser> candidates = new ArrayList<>();
+            for (String userId : postings.get(0)) {
+                boolean inAll = true;
+                for (int i = 1; i < postings.size() && inAll; i++) {
+                    inAll = postings.get(i).contains(userId);
+                }
+                IndexedUser indexedUser = usersById.get(userId);
+                if (inAll && indexedUser != null) {
+                    candidates.add(indexedUser);
+                }
+            }
+            return candidates;
+        }
+    }
+
+    private static class IndexedUser {
+        private final String userId;
+        private final String username;
+        private final String displayName;
+        private final String emailAddress;
+
+        IndexedUser(User user) {
+            this.userId = user.getUserId();
+            this.username = toLowerCase(user.getUsername());
+            this.displayName = toLowerCase(user.getDisplayName());
+            this.emailAddress = toLowerCase(user.getEmailAddress());
+        }
+
+        Set<String> getGrams() {
+            Set<String> grams = toGrams(username);
+            grams.addAll(toGrams(displayName));
+            grams.addAll(toGrams(emailAddress));
+            return grams;
+        }
+
+        int rank(String lowerCaseQuery) {
+            if (lowerCaseQuery.isEmpty()) {
+                return RANK_CONTAINS;
+            }
+            if (username.equals(lowerCaseQuery) || displayName.equals(lowerCaseQuery) || emailAddress.equals(lowerCaseQuery)) {
+                return RANK_EXACT;
+            }
+            if (username.startsWith(lowerCaseQuery)) {
+                return RANK_USERNAME_PREFIX;
+            }
+            if (isWordPrefix(displayName, lowerCaseQuery) || emailAddress.startsWith(lowerCaseQuery)) {
+                return RANK_WORD_PREFIX;
+            }
+            if (username.contains(lowerCaseQuery) || displayName.contains(lowerCaseQuery) || emailAddress.contains(lowerCaseQuery)) {
+                return RANK_CONTAINS;
+            }
+            return RANK_NO_MATCH;
+        }
+
+        private static boolean isWordPrefix(String value, String prefix) {
+            int i = value.indexOf(prefix);
+            while (i >= 0) {
+                if (i == 0 || !Character.isLetterOrDigit(value.charAt(i - 1))) {
+                    return true;
+                }
+                i = value.indexOf(prefix, i + 1);
+            }
+            return false;
+        }
+
+        private static String toLowerCase(String value) {
+            return value == null ? "" : value.toLowerCase();
+        }
+    }
+
+    private static class RankedUser implements Comparable<RankedUser> {
+        private final IndexedUser user;
+        private final int rank;
+
+        RankedUser(IndexedUser user, int rank) {
+            this.user = user;
+            this.rank = rank;
+        }
+
+        @Override
+        public int compareTo(RankedUser o) {
+            int result = Integer.compare(rank, o.rank);
+            if (result != 0) {
+                return result;
+            }
+            result = user.displayName.compareTo(o.user.displayName);
+            if (result != 0) {
+                return result;
+            }
+            return user.username.compareTo(o.user.username);
+        }
+    }
+}
@@ -16,4 +16,12 @@ public interface UserListener {
     void userAddAuthorization(User user, String auth);
 
     void userLogin(User user, AuthorizationContext authorizationContext);
+
+    /**
+     * Called after a user's properties (e.g. display name, current workspace or ui preferences) have changed.
+     *
+     * @param user The user with the changes applied.
+     */
+    default void userUpdated(User user) {
+    }
 }
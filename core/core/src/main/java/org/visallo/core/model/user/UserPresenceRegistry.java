@@ -0,0 +1,282 @@
+package org.visallo.core.model.user;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.visallo.core.model.workQueue.WorkQueueRepository;
+import org.visallo.core.time.TimeRepository;
+import org.visallo.core.util.VisalloLogger;
+import org.visallo.core.util.VisalloLoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the set of online users in memory so that presence can be answered without asking
+ * {@link UserSessionCounterRepository} about every user. Sessions that are not closed explicitly (long polling)
+ * expire if they are not renewed within {@link MapUserSessionCounterRepositoryBase#UNSEEN_SESSION_DURATION},
+ * expirations are kept in a queue ordered by deadline so only due sessions are examined.
+ * <p>
+ * Servers announce the users connected to them through {@link WorkQueueRepository#broadcast(String, JSONObject, JSONObject)},
+ * these announcements are only used by other servers and are not delivered to clients.
+ */
+@Singleton
+public class UserPresenceRegistry {
+    private static final VisalloLogger LOGGER = VisalloLoggerFactory.getLogger(UserPresenceRegistry.class);
+    public static final String BROADCAST_TYPE = "userPresenceChange";
+    static final long SESSION_DURATION = MapUserSessionCounterRepositoryBase.UNSEEN_SESSION_DURATION;
+    static final long ANNOUNCE_INTERVAL = SESSION_DURATION / 2;
+    private static final long EXPIRATION_CHECK_INTERVAL = 1000;
+    private final WorkQueueRepository workQueueRepository;
+    private final TimeRepository timeRepository;
+    private final String serverId = UUID.randomUUID().toString();
+    private final Map<String, Map<String, Session>> sessionsByUserId = new HashMap<>();
+    private final Map<String, Map<String, Long>> remoteExpirationsByUserId = new HashMap<>();
+    private final PriorityQueue<Session> expirationQueue = new PriorityQueue<>(Comparator.comparingLong(s -> s.deadline));
+    private final ConcurrentSkipListSet<String> onlineUserIds = new ConcurrentSkipListSet<>();
+    private volatile boolean started;
+    private long nextAnnounceTime;
+
+    @Inject
+    public UserPresenceRegistry(WorkQueueRepository workQueueRepository, TimeRepository timeRepository) {
+        this.workQueueRepository = workQueueRepository;
+        this.timeRepository = timeRepository;
+    }
+
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+        workQueueRepository.subscribeToBroadcastMessages(new WorkQueueRepository.BroadcastConsumer() {
+            @Override
+            public void broadcastReceived(JSONObject json) {
+                if (BROADCAST_TYPE.equals(json.optString("type"))) {
+                    try {
+                        handleBroadcast(json.getJSONObject("data"));
+                    } catch (Exception ex) {
+                        LOGGER.error("Could not handle presence broadcast: %s", json, ex);
+                    }
+                }
+            }
+        });
+        Thread t = new Thread(() -> {
+            while (true) {
+                try {
+                    Thread.sleep(EXPIRATION_CHECK_INTERVAL);
+                    expireSessions();
+                    announceIfDue();
+                } catch (InterruptedException ex) {
+                    LOGGER.info("presence registry interrupted");
+                    return;
+                } catch (Exception ex) {
+                    LOGGER.error("Could not expire sessions", ex);
+                }
+            }
+        });
+        t.setDaemon(true);
+        t.setName("visallo-user-presence");
+        t.start();
+        started = true;
+    }
+
+    /**
+     * Starts or renews a session.
+     *
+     * @param autoDelete true if the session should expire when it is not renewed.
+     */
+    public void sessionStarted(String userId, String sessionId, boolean autoDelete) {
+        boolean firstSession;
+        synchronized (this) {
+            firstSession = !sessionsByUserId.containsKey(userId);
+            Map<String, Session> sessions = sessionsByUserId.computeIfAbsent(userId, id -> new HashMap<>());
+            Session session = sessions.get(sessionId);
+            long deadline = timeRepository.currentTimeMillis() + SESSION_DURATION;
+            if (session == null) {
+                session = new Session(userId, sessionId, autoDelete, deadline);
+                sessions.put(sessionId, session);
+                if (autoDelete) {
+                    expirationQueue.add(session);
+                }
+            } else {
+                session.lastSeenDeadline = deadline;
+            }
+            updateOnline(userId);
+        }
+        if (firstSession) {
+            announce(Collections.singleton(userId), true);
+        }
+    }
+
+    public void sessionEnded(String userId, String sessionId) {
+        boolean lastSession = false;
+        synchronized (this) {
+            Map<String, Session> sessions = sessionsByUserId.get(userId);
+            if (sessions == null) {
+                return;
+            }
+            // sessions left on the expiration queue are skipped when they come due
+            sessions.remove(sessionId);
+            if (sessions.isEmpty()) {
+                sessionsByUserId.remove(userId);
+                lastSession = true;
+            }
+            updateOnline(userId);
+        }
+        if (lastSession) {
+            announce(Collections.singleton(userId), false);
+        }
+    }
+
+    /**
+     * Renews all of a user's sessions, called when the user shows activity without reconnecting.
+     */
+    public synchronized void touch(String userId) {
+        Map<String, Session> sessions = sessionsByUserId.get(userId);
+        if (sessions == null) {
+            return;
+        }
+        long deadline = timeRepository.currentTimeMillis() + SESSION_DURATION;
+        for (Session session : sessions.values()) {
+            session.lastSeenDeadline = deadline;
+        }
+    }
+
+    public boolean isOnline(String userId) {
+        return onlineUserIds.contains(userId);
+    }
+
+    public int getOnlineUserCount() {
+        return onlineUserIds.size();
+    }
+
+    /**
+     * Gets a page of online user ids ordered by user id.
+     */
+    public List<String> getOnlineUserIds(int skip, int limit) {
+        return onlineUserIds.stream()
+                .skip(skip)
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Expires sessions that have not been renewed. Only sessions whose original deadline has passed are looked
+     * at, renewed sessions are put back on the queue with their new deadline.
+     */
+    void expireSessions() {
+        long now = timeRepository.currentTimeMillis();
+        Set<String> offlineLocalUserIds = new HashSet<>();
+        synchronized (this) {
+            Session session;
+            while ((session = expirationQueue.peek()) != null && session.deadline <= now) {
+                expirationQueue.poll();
+                if (session.lastSeenDeadline > now) {
+                    session.deadline = session.lastSeenDeadline;
+                    expirationQueue.add(session);
+                    continue;
+                }
+                Map<String, Session> sessions = sessionsByUserId.get(session.userId);
+                if (sessions != null && sessions.remove(session.sessionId, session)) {
+                    LOGGER.debug("session expired %s (userId: %s)", session.sessionId, session.userId);
+                    if (sessions.isEmpty()) {
+                        sessionsByUserId.remove(session.userId);
+                        offlineLocalUserIds.add(session.userId);
+                    }
+                    updateOnline(session.userId);
+                }
+            }
+
+            Iterator<Map.Entry<String, Map<String, Long>>> it = remoteExpirationsByUserId.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<String, Map<String, Long>> entry = it.next();
+                entry.getValue().values().removeIf(expiration -> expiration <= now);
+                if (entry.getValue().isEmpty()) {
+                    it.remove();
+                    updateOnline(entry.getKey());
+                }
+            }
+        }
+        if (offlineLocalUserIds.size() > 0) {
+            announce(offlineLocalUserIds, false);
+        }
+    }
+
+    private void announceIfDue() {
+        long now = timeRepository.currentTimeMillis();
+        Set<String> localUserIds;
+        synchronized (this) {
+            if (now < nextAnnounceTime) {
+                return;
+            }
+            nextAnnounceTime = now + ANNOUNCE_INTERVAL;
+            localUserIds = new HashSet<>(sessionsByUserId.keySet());
+        }
+        if (localUserIds.size() > 0) {
+            announce(localUserIds, true);
+        }
+    }
+
+    private void announce(Collection<String> userIds, boolean online) {
+        if (!started) {
+            return;
+        }
+        JSONObject data = new JSONObject();
+        data.put("serverId", serverId);
+        data.put("online", online);
+        data.put("userIds", new JSONArray(userIds));
+        workQueueRepository.broadcast(BROADCAST_TYPE, data, null);
+    }
+
+    void handleBroadcast(JSONObject data) {
+        if (serverId.equals(data.optString("serverId"))) {
+            return;
+        }
+        String remoteServerId = data.getString("serverId");
+        boolean online = data.getBoolean("online");
+        JSONArray userIds = data.getJSONArray("userIds");
+        long expiration = timeRepository.currentTimeMillis() + SESSION_DURATION;
+        synchronized (this) {
+            for (int i = 0; i < userIds.length(); i++) {
+                String userId = userIds.getString(i);
+                if (online) {
+                    remoteExpirationsByUserId.computeIfAbsent(userId, id -> new HashMap<>()).put(remoteServerId, expiration);
+                } else {
+                    Map<String, Long> expirations = remoteExpirationsByUserId.get(userId);
+                    if (expirations != null) {
+                        expirations.remove(remoteServerId);
+                        if (expirations.isEmpty()) {
+                            remoteExpirationsByUserId.remove(userId);
+                        }
+                    }
+                }
+                updateOnline(userId);
+            }
+        }
+    }
+
+    private void updateOnline(String userId) {
+        if (sessionsByUserId.containsKey(userId) || remoteExpirationsByUserId.containsKey(userId)) {
+            onlineUserIds.add(userId);
+        } else {
+            onlineUserIds.remove(userId);
+        }
+    }
+
+    private static class Session {
+        private final String userId;
+        private final String sessionId;
+        private final boolean autoDelete;
+        private long deadline;
+        private volatile long lastSeenDeadline;
+
+        Session(String userId, String sessionId, boolean autoDelete, long deadline) {
+            this.userId = userId;
+            this.sessionId = sessionId;
+            this.autoDelete = autoDelete;
+            this.deadline = deadline;
+            this.lastSeenDeadline = deadline;
+        }
+    }
+}
@@ -12,6 +12,8 @@ import org.visallo.core.user.SystemUser;
 import org.visallo.core.user.User;
 import org.visallo.core.util.ClientApiConverter;
 import org.visallo.core.util.JSONUtil;
+import org.visallo.core.util.VisalloLogger;
+import org.visallo.core.util.VisalloLoggerFactory;
 import org.visallo.web.clientapi.model.ClientApiUser;
 import org.visallo.web.clientapi.model.ClientApiUsers;
 import org.visallo.web.clientapi.model.Privilege;
@@ -24,11 +26,14 @@ import java.util.function.Predicate;
 import static org.vertexium.util.IterableUtils.toList;
 
 public abstract class UserRepository {
+    private static final VisalloLogger LOGGER = VisalloLoggerFactory.getLogger(UserRepository.class);
     public static final String GRAPH_USER_ID_PREFIX = "USER_";
     public static final String VISIBILITY_STRING = "user";
     public static final VisalloVisibility VISIBILITY = new VisalloVisibility(VISIBILITY_STRING);
     public static final String OWL_IRI = "http://visallo.org/user";
     public static final String USER_CONCEPT_IRI = "http://visallo.org/user#user";
+    public static final String DIRECTORY_INDEX_REFRESH_SECONDS = UserRepository.class.getName() + ".directoryIndex.refreshSeconds";
+    public static final int DIRECTORY_INDEX_REFRESH_SECONDS_DEFAULT = 600;
     private final UserSessionCounterRepository userSessionCounterRepository;
     private final LockRepository lockRepository;
     private final Configuration configuration;
@@ -36,6 +41,8 @@ public abstract class UserRepository {
     private final PrivilegeRepository privilegeRepository;
     private LongRunningProcessRepository longRunningProcessRepository; // can't inject this because of circular dependencies
     private Collection<UserListener> userListeners;
+    private final UserDirectoryIndex userDirectoryIndex = new UserDirectoryIndex();
+    private volatile boolean userDirectoryIndexRefreshing;
 
     protected UserRepository(
             Configuration configuration,
@@ -245,11 +252,88 @@ public abstract class UserRepository {
         return foundUsers;
     }
 
+    /**
+     * Finds users whose username, display name or email address contains the query, best matches first.
+     */
     public Iterable<User> find(String query) {
-        final String lowerCaseQuery = query == null ? null : query.toLowerCase();
-        return filter(user -> lowerCaseQuery == null
-                || user.getDisplayName().toLowerCase().contains(lowerCaseQuery)
-                || user.getUsername().toLowerCase().contains(lowerCaseQuery));
+        return find(query, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Finds a page of users whose username, display name or email address contains the query, best matches first.
+     */
+    public List<User> find(String query, int skip, int limit) {
+        List<User> users = new ArrayList<>();
+        for (String userId : getUserDirectoryIndex().find(query, skip, limit)) {
+            User user = findById(userId);
+            if (user != null) {
+                users.add(user);
+            }
+        }
+        return users;
+    }
+
+    protected UserDirectoryIndex getUserDirectoryIndex() {
+        if (!userDirectoryIndex.isLoaded()) {
+            synchronized (userDirectoryIndex) {
+                if (!userDirectoryIndex.isLoaded()) {
+                    userDirectoryIndex.load(filter(user -> true));
+                }
+            }
+        } else if (isUserDirectoryIndexStale() && !userDirectoryIndexRefreshing) {
+            refreshUserDirectoryIndex();
+        }
+        return userDirectoryIndex;
+    }
+
+    private boolean isUserDirectoryIndexStale() {
+        long refreshMillis = configuration.getInt(DIRECTORY_INDEX_REFRESH_SECONDS, DIRECTORY_INDEX_REFRESH_SECONDS_DEFAULT) * 1000L;
+        return refreshMillis > 0 && System.currentTimeMillis() - userDirectoryIndex.getLoadedTime() > refreshMillis;
+    }
+
+    /**
+     * Other servers may have changed users, so the index is periodically reloaded in the background while
+     * the current index continues to answer queries.
+     */
+    private synchronized void refreshUserDirectoryIndex() {
+        if (userDirectoryIndexRefreshing) {
+            return;
+        }
+        userDirectoryIndexRefreshing = true;
+        Thread t = new Thread(() -> {
+            try {
+                userDirectoryIndex.load(filter(user -> true));
+            } catch (Exception ex) {
+                LOGGER.error("Could not refresh user directory index", ex);
+            } finally {
+                userDirectoryIndexRefreshing = false;
+            }
+        });
+        t.setName("visallo-user-directory-index");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /**
+     * Called by implementations after a user's properties have changed, e.g. display name, email address or
+     * current workspace.
+     */
+    protected void afterUserUpdated(String userId) {
+        User user = findById(userId);
+        if (user == null) {
+            userDirectoryIndex.remove(userId);
+            return;
+        }
+        fireUserUpdatedEvent(user);
+    }
+
+    private void fireUserUpdatedEvent(User user) {
+        if (userDirectoryIndex.isLoaded()) {
+            userDirectoryIndex.userUpdated(user);
+        }
+        for (UserListener userListener : getUserListeners()) {
+            userListener.userUpdated(user);
+        }
     }
 
     public static String createRandomPassword() {
@@ -267,18 +351,25 @@ public abstract class UserRepository {
     }
 
     private void fireNewUserAddedEvent(User user) {
+        if (userDirectoryIndex.isLoaded()) {
+            userDirectoryIndex.newUserAdded(user);
+        }
         for (UserListener userListener : getUserListeners()) {
             userListener.newUserAdded(user);
         }
     }
 
     private void fireUserDeletedEvent(User user) {
+        userDirectoryIndex.userDeleted(user);
         for (UserListener userListener : getUserListeners()) {
             userListener.userDeleted(user);
         }
     }
 
     protected void fireUserLoginEvent(User user, AuthorizationContext authorizationContext) {
+        if (userDirectoryIndex.isLoaded()) {
+            userDirectoryIndex.userLogin(user, authorizationContext);
+        }
         for (UserListener userListener : getUserListeners()) {
             userListener.userLogin(user, authorizationContext);
         }
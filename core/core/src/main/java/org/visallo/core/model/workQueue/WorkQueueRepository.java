@@ -25,8 +25,6 @@ import org.visallo.core.model.user.AuthorizationRepository;
 import org.visallo.core.model.user.UserRepository;
 import org.visallo.core.model.workspace.Workspace;
 import org.visallo.core.model.workspace.WorkspaceRepository;
-import org.visallo.core.model.workspace.WorkspaceUser;
-import org.visallo.core.user.SystemUser;
 import org.visallo.core.user.User;
 import org.visallo.core.util.ClientApiConverter;
 import org.visallo.core.util.VisalloLogger;
@@ -330,6 +328,34 @@ public abstract class WorkQueueRepository {
             return;
         }
 
+        pushMultipleGraphPropertyQueueMessage(
+                elements,
+                propertyKey,
+                propertyName,
+                workspaceId,
+                visibilitySource,
+                priority,
+                status,
+                beforeActionTimestamp
+        );
+
+        for (Element element : elements) {
+            if (shouldBroadcastGraphPropertyChange(element, propertyKey, propertyName, workspaceId, priority)) {
+                broadcastPropertyChange(element, propertyKey, propertyName, workspaceId);
+            }
+        }
+    }
+
+    private void pushMultipleGraphPropertyQueueMessage(
+            Iterable<? extends Element> elements,
+            String propertyKey,
+            String propertyName,
+            String workspaceId,
+            String visibilitySource,
+            Priority priority,
+            ElementOrPropertyStatus status,
+            Long beforeActionTimestamp
+    ) {
         getGraph().flush();
 
         GraphPropertyMessage data = createPropertySpecificMessage(
@@ -362,12 +388,6 @@ public abstract class WorkQueueRepository {
         data.setGraphEdgeId(edges.toArray(new String[edges.size()]));
 
         pushOnQueue(workQueueNames.getGraphPropertyQueueName(), data.toBytes(), priority);
-
-        for (Element element : elements) {
-            if (shouldBroadcastGraphPropertyChange(element, propertyKey, propertyName, workspaceId, priority)) {
-                broadcastPropertyChange(element, propertyKey, propertyName, workspaceId);
-            }
-        }
     }
 
     public void pushGraphPropertyQueue(
@@ -616,8 +636,12 @@ public abstract class WorkQueueRepository {
         broadcastWorkProductChange(workProductId, skipSourceGuid, workspaceId, getPermissionsWithWorkspace(workspaceId));
     }
 
+    /**
+     * @deprecated Use {@link #broadcastWorkProductChange(String, String, User, String)}
+     */
+    @Deprecated
     public void broadcastWorkProductChange(String workProductId, ClientApiWorkspace workspace, User user, String skipSourceGuid) {
-        broadcastWorkProductChange(workProductId, skipSourceGuid, workspace.getWorkspaceId(), getPermissionsWithUsers(workspace, null));
+        broadcastWorkProductChange(workProductId, workspace.getWorkspaceId(), user, skipSourceGuid);
     }
 
     public void broadcastWorkProductPreviewChange(String workProductId, String workspaceId, User user, String md5) {
@@ -638,10 +662,18 @@ public abstract class WorkQueueRepository {
         broadcastJson(json);
     }
 
+    /**
+     * @deprecated Use {@link #broadcastWorkProductDelete(String, String)}
+     */
+    @Deprecated
     public void broadcastWorkProductDelete(String workProductId, ClientApiWorkspace workspace) {
+        broadcastWorkProductDelete(workProductId, workspace.getWorkspaceId());
+    }
+
+    public void broadcastWorkProductDelete(String workProductId, String workspaceId) {
         JSONObject json = new JSONObject();
         json.put("type", "workProductDelete");
-        json.put("permissions", getPermissionsWithUsers(workspace, null));
+        json.put("permissions", getPermissionsWithWorkspace(workspaceId));
         JSONObject dataJson = new JSONObject();
         dataJson.put("id", workProductId);
         json.put("data", dataJson);
@@ -740,6 +772,38 @@ public abstract class WorkQueueRepository {
         pushGraphPropertyQueue(vertex, null, null, ElementOrPropertyStatus.UNHIDDEN, null, priority);
     }
 
+    /**
+     * Same as {@link #pushVertexUnhidden(Vertex, Priority)} and {@link #pushEdgeUnhidden(Edge, Priority)} for many
+     * elements, sending one graph property message and one broadcast for all of them.
+     */
+    public void pushElementsUnhidden(Collection<? extends Element> elements, Priority priority) {
+        if (elements.isEmpty()) {
+            return;
+        }
+        List<String> vertexIds = new ArrayList<>();
+        List<String> edgeIds = new ArrayList<>();
+        for (Element element : elements) {
+            if (element instanceof Vertex) {
+                vertexIds.add(element.getId());
+            } else if (element instanceof Edge) {
+                edgeIds.add(element.getId());
+            } else {
+                throw new VisalloException("Unexpected element type: " + element.getClass().getName());
+            }
+        }
+        broadcastPublish(vertexIds, edgeIds, PublishType.UNDO_DELETE);
+        pushMultipleGraphPropertyQueueMessage(
+                elements,
+                null,
+                null,
+                null,
+                null,
+                priority,
+                ElementOrPropertyStatus.UNHIDDEN,
+                null
+        );
+    }
+
     protected void broadcastEdgeDeletion(Edge edge) {
         JSONObject dataJson = new JSONObject();
         if (edge != null) {
@@ -965,20 +1029,13 @@ public abstract class WorkQueueRepository {
         return permissions;
     }
 
+    /**
+     * Addresses a broadcast to the users with access to a workspace, see
+     * {@link WorkspaceRepository#findUserIdsWithAccess(String)}.
+     */
     private JSONObject getPermissionsWithWorkspace(String workspaceId) {
-        List<WorkspaceUser> users = getWorkspaceRepository().findUsersWithAccess(workspaceId, new SystemUser());
-        return getPermissionsWithUsers(users);
-    }
-
-    private JSONObject getPermissionsWithUsers(List<WorkspaceUser> workspaceUsers) {
         JSONObject permissions = new JSONObject();
-        JSONArray users = new JSONArray();
-        if (workspaceUsers != null) {
-            for (WorkspaceUser workspaceUser : workspaceUsers) {
-                users.put(workspaceUser.getUserId());
-            }
-        }
-        permissions.put("users", users);
+        permissions.put("users", new JSONArray(getWorkspaceRepository().findUserIdsWithAccess(workspaceId)));
         return permissions;
     }
 
@@ -1018,6 +1075,27 @@ public abstract class WorkQueueRepository {
         broadcastJson(json);
     }
 
+    public void pushUserNotificationsRead(String userId, String[] notificationIds) {
+        JSONObject json = new JSONObject();
+        json.put("type", "userNotificationsRead");
+
+        JSONObject permissions = new JSONObject();
+        JSONArray users = new JSONArray();
+        users.put(userId);
+        permissions.put("users", users);
+        json.put("permissions", permissions);
+
+        JSONObject data = new JSONObject();
+        json.put("data", data);
+        data.put("userId", userId);
+        JSONArray ids = new JSONArray();
+        for (String notificationId : notificationIds) {
+            ids.put(notificationId);
+        }
+        data.put("notificationIds", ids);
+        broadcastJson(json);
+    }
+
     public void pushSystemNotification(SystemNotification notification) {
         JSONObject json = new JSONObject();
         json.put("type", "notification");
@@ -1237,6 +1315,24 @@ public abstract class WorkQueueRepository {
         broadcastPublish(edge, PublishType.UNDO);
     }
 
+    /**
+     * Notifies clients that changes to many elements were undone with a single broadcast.
+     */
+    public void broadcastUndoElements(Collection<String> vertexIds, Collection<String> edgeIds) {
+        if (vertexIds.isEmpty() && edgeIds.isEmpty()) {
+            return;
+        }
+        broadcastPublish(vertexIds, edgeIds, PublishType.UNDO);
+    }
+
+    private void broadcastPublish(Collection<String> vertexIds, Collection<String> edgeIds, PublishType publishType) {
+        try {
+            broadcastJson(getBroadcastPublishJson(vertexIds, edgeIds, publishType));
+        } catch (Exception ex) {
+            throw new VisalloException("Could not broadcast publish", ex);
+        }
+    }
+
     private void broadcastPublish(Element element, PublishType publishType) {
         broadcastPublish(element, null, null, publishType);
     }
@@ -1290,6 +1386,8 @@ public abstract class WorkQueueRepository {
 
         JSONObject dataJson = new JSONObject();
         dataJson.put("graphEdgeId", edge.getId());
+        dataJson.put("outVertexId", edge.getVertexId(Direction.OUT));
+        dataJson.put("inVertexId", edge.getVertexId(Direction.IN));
         dataJson.put("publishType", publishType.getJsonString());
         if (propertyName == null) {
             dataJson.put("objectType", "edge");
@@ -1301,6 +1399,24 @@ public abstract class WorkQueueRepository {
         return json;
     }
 
+    protected JSONObject getBroadcastPublishJson(
+            Collection<String> vertexIds,
+            Collection<String> edgeIds,
+            PublishType publishType
+    ) {
+        JSONObject json = new JSONObject();
+        json.put("type", "publish");
+
+        JSONObject dataJson = new JSONObject();
+        dataJson.put("vertexIds", new JSONArray(vertexIds));
+        dataJson.put("edgeIds", new JSONArray(edgeIds));
+        dataJson.put("publishType", publishType.getJsonString());
+        dataJson.put("objectType", "elements");
+        json.put("data", dataJson);
+
+        return json;
+    }
+
     public void setGraphPropertyRunner(GraphPropertyRunner graphPropertyRunner) {
         this.graphPropertyRunner = graphPropertyRunner;
     }
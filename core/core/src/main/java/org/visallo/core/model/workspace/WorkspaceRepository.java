@@ -34,6 +34,7 @@ import org.visallo.core.model.workspace.product.*;
 import org.visallo.core.security.VisalloVisibility;
 import org.visallo.core.security.VisibilityTranslator;
 import org.visallo.core.trace.Traced;
+import org.visallo.core.user.SystemUser;
 import org.visallo.core.user.User;
 import org.visallo.core.util.SandboxStatusUtil;
 import org.visallo.core.util.VisalloLogger;
@@ -162,6 +163,16 @@ public abstract class WorkspaceRepository {
 
     public abstract List<WorkspaceUser> findUsersWithAccess(String workspaceId, User user);
 
+    /**
+     * Finds the ids of the users with access to a workspace, which is all that is needed to address broadcasts
+     * about the workspace.
+     */
+    public Set<String> findUserIdsWithAccess(String workspaceId) {
+        return findUsersWithAccess(workspaceId, new SystemUser()).stream()
+                .map(WorkspaceUser::getUserId)
+                .collect(Collectors.toSet());
+    }
+
     public List<WorkspaceEntity> findEntities(Workspace workspace, User user) {
         return findEntities(workspace, false, user);
     }
@@ -9,11 +9,13 @@ import org.visallo.core.model.workQueue.Priority;
 import org.visallo.core.model.workQueue.WorkQueueRepository;
 import org.visallo.core.user.User;
 import org.visallo.core.util.SandboxStatusUtil;
+import org.visallo.core.util.VertexiumUtil;
 import org.visallo.core.util.VisalloLogger;
 import org.visallo.core.util.VisalloLoggerFactory;
 import org.visallo.web.clientapi.model.*;
 
-import java.util.List;
+import java.util.*;
+import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -34,24 +36,48 @@ public class WorkspaceUndoHelper {
 
     public void undo(Iterable<ClientApiUndoItem> undoItems, ClientApiWorkspaceUndoResponse workspaceUndoResponse,
                      String workspaceId, User user, Authorizations authorizations) {
-        undoVertices(undoItems, workspaceUndoResponse, workspaceId, user, authorizations);
-        undoEdges(undoItems, workspaceUndoResponse, workspaceId, user, authorizations);
-        undoProperties(undoItems, workspaceUndoResponse, workspaceId, authorizations);
+        List<ClientApiVertexUndoItem> vertexUndoItems = new ArrayList<>();
+        List<ClientApiRelationshipUndoItem> relationshipUndoItems = new ArrayList<>();
+        List<ClientApiPropertyUndoItem> propertyUndoItems = new ArrayList<>();
+        for (ClientApiUndoItem undoItem : undoItems) {
+            if (undoItem instanceof ClientApiVertexUndoItem) {
+                vertexUndoItems.add((ClientApiVertexUndoItem) undoItem);
+            } else if (undoItem instanceof ClientApiRelationshipUndoItem) {
+                relationshipUndoItems.add((ClientApiRelationshipUndoItem) undoItem);
+            } else if (undoItem instanceof ClientApiPropertyUndoItem) {
+                propertyUndoItems.add((ClientApiPropertyUndoItem) undoItem);
+            }
+        }
+
+        if (vertexUndoItems.size() > 0) {
+            undoVertices(vertexUndoItems, workspaceUndoResponse, workspaceId, user, authorizations);
+        }
+        if (relationshipUndoItems.size() > 0) {
+            undoEdges(relationshipUndoItems, workspaceUndoResponse, workspaceId, user, authorizations);
+        }
+        if (propertyUndoItems.size() > 0) {
+            undoProperties(propertyUndoItems, workspaceUndoResponse, workspaceId, authorizations);
+        }
     }
 
-    private void undoVertices(Iterable<ClientApiUndoItem> undoItems, ClientApiWorkspaceUndoResponse workspaceUndoResponse,
+    private void undoVertices(List<ClientApiVertexUndoItem> undoItems, ClientApiWorkspaceUndoResponse workspaceUndoResponse,
                               String workspaceId, User user, Authorizations authorizations) {
-        LOGGER.debug("BEGIN undoVertices");
+        LOGGER.debug("BEGIN undoVertices (count: %d)", undoItems.size());
+        StageElements elements = new StageElements(
+                getVerticesById(
+                        undoItems.stream().map(ClientApiVertexUndoItem::getVertexId).filter(Objects::nonNull).collect(Collectors.toSet()),
+                        authorizations
+                ),
+                new HashMap<>(),
+                authorizations
+        );
+        PendingNotifications pendingNotifications = new PendingNotifications(workspaceUndoResponse, authorizations);
         JSONArray verticesDeleted = new JSONArray();
-        for (ClientApiUndoItem undoItem : undoItems) {
+        for (ClientApiVertexUndoItem undoItem : undoItems) {
             try {
-                if (!(undoItem instanceof ClientApiVertexUndoItem)) {
-                    continue;
-                }
-                ClientApiVertexUndoItem vertexUndoItem = (ClientApiVertexUndoItem) undoItem;
-                String vertexId = vertexUndoItem.getVertexId();
+                String vertexId = undoItem.getVertexId();
                 checkNotNull(vertexId);
-                Vertex vertex = graph.getVertex(vertexId, FetchHint.ALL_INCLUDING_HIDDEN, authorizations);
+                Vertex vertex = elements.getVertex(vertexId);
                 checkNotNull(vertex);
                 if (WorkspaceDiffHelper.isPublicDelete(vertex, authorizations)) {
                     LOGGER.debug("un-hiding vertex: %s (workspaceId: %s)", vertex.getId(), workspaceId);
@@ -61,112 +87,123 @@ public class WorkspaceUndoHelper {
                     for (Property property : vertex.getProperties()) {
                         undoProperties(
                                 property.getKey(), property.getName(), property.getVisibility().getVisibilityString(),
-                                vertex, workspaceId, authorizations);
+                                vertex, workspaceId, undoItem, pendingNotifications, authorizations);
                     }
 
-                    graph.flush();
-                    workQueueRepository.pushVertexUnhidden(vertex, Priority.HIGH);
+                    pendingNotifications.addUnhidden(undoItem, vertex);
                 } else if (SandboxStatusUtil.getSandboxStatus(vertex, workspaceId) == SandboxStatus.PUBLIC) {
                     LOGGER.warn("Cannot undo a public vertex");
                 } else {
                     workspaceHelper.deleteVertex(vertex, workspaceId, false, Priority.HIGH, authorizations, user);
                     verticesDeleted.put(vertexId);
-                    graph.flush();
-                    workQueueRepository.broadcastUndoVertex(vertex);
+                    pendingNotifications.addUndone(undoItem, vertex);
                 }
+                elements.changed(vertex);
             } catch (Exception ex) {
-                LOGGER.error("Error undoing %s", undoItem.toString(), ex);
-                undoItem.setErrorMessage(ex.getMessage());
-                workspaceUndoResponse.addFailure(undoItem);
+                addFailure(workspaceUndoResponse, undoItem, ex);
             }
         }
-        LOGGER.debug("END undoVertices");
+        pendingNotifications.flushAndSend();
         if (verticesDeleted.length() > 0) {
             workQueueRepository.pushVerticesDeletion(verticesDeleted);
         }
-        graph.flush();
+        LOGGER.debug("END undoVertices");
     }
 
-    private void undoEdges(Iterable<ClientApiUndoItem> undoItems, ClientApiWorkspaceUndoResponse workspaceUndoResponse,
+    private void undoEdges(List<ClientApiRelationshipUndoItem> undoItems, ClientApiWorkspaceUndoResponse workspaceUndoResponse,
                            String workspaceId, User user, Authorizations authorizations) {
-        LOGGER.debug("BEGIN undoEdges");
-        for (ClientApiUndoItem undoItem : undoItems) {
+        LOGGER.debug("BEGIN undoEdges (count: %d)", undoItems.size());
+        Map<String, Edge> edgesById = getEdgesById(
+                undoItems.stream().map(ClientApiRelationshipUndoItem::getEdgeId).filter(Objects::nonNull).collect(Collectors.toSet()),
+                authorizations
+        );
+        StageElements elements = new StageElements(
+                getVerticesById(VertexiumUtil.getAllVertexIdsOnEdges(new ArrayList<>(edgesById.values())), authorizations),
+                edgesById,
+                authorizations
+        );
+        PendingNotifications pendingNotifications = new PendingNotifications(workspaceUndoResponse, authorizations);
+        for (ClientApiRelationshipUndoItem undoItem : undoItems) {
             try {
-                if (!(undoItem instanceof ClientApiRelationshipUndoItem)) {
-                    continue;
-                }
-
-                ClientApiRelationshipUndoItem relationshipUndoItem = (ClientApiRelationshipUndoItem) undoItem;
-                Edge edge = graph.getEdge(relationshipUndoItem.getEdgeId(), FetchHint.ALL_INCLUDING_HIDDEN, authorizations);
+                Edge edge = elements.getEdge(undoItem.getEdgeId());
                 if (edge == null) {
                     continue;
                 }
-                Vertex outVertex = edge.getVertex(Direction.OUT, authorizations);
-                Vertex inVertex = edge.getVertex(Direction.IN, authorizations);
+                Vertex outVertex = elements.getVertex(edge.getVertexId(Direction.OUT));
+                Vertex inVertex = elements.getVertex(edge.getVertexId(Direction.IN));
                 if (outVertex == null || inVertex == null) {
                     continue;
                 }
 
-                checkNotNull(edge);
-
                 if (WorkspaceDiffHelper.isPublicDelete(edge, authorizations)) {
                     LOGGER.debug("un-hiding edge: %s (workspaceId: %s)", edge.getId(), workspaceId);
                     // TODO see workspaceHelper.deleteEdge for all the other things we need to bring back
                     graph.markEdgeVisible(edge, new Visibility(workspaceId), authorizations);
-                    graph.flush();
-                    workQueueRepository.pushEdgeUnhidden(edge, Priority.HIGH);
+                    pendingNotifications.addUnhidden(undoItem, edge);
                 } else if (SandboxStatusUtil.getSandboxStatus(edge, workspaceId) == SandboxStatus.PUBLIC) {
                     LOGGER.warn("Cannot undo a public edge");
                 } else {
                     workspaceHelper.deleteEdge(workspaceId, edge, outVertex, inVertex, false, Priority.HIGH, authorizations, user);
-                    graph.flush();
-                    workQueueRepository.broadcastUndoEdge(edge);
+                    pendingNotifications.addUndone(undoItem, edge);
                 }
+                elements.changed(edge);
+                elements.changed(outVertex);
+                elements.changed(inVertex);
             } catch (Exception ex) {
-                LOGGER.error("Error publishing %s", undoItem.toString(), ex);
-                undoItem.setErrorMessage(ex.getMessage());
-                workspaceUndoResponse.addFailure(undoItem);
+                addFailure(workspaceUndoResponse, undoItem, ex);
             }
         }
+        pendingNotifications.flushAndSend();
         LOGGER.debug("END undoEdges");
-        graph.flush();
     }
 
     private void undoProperties(
-            Iterable<ClientApiUndoItem> undoItems, ClientApiWorkspaceUndoResponse workspaceUndoResponse,
+            List<ClientApiPropertyUndoItem> undoItems, ClientApiWorkspaceUndoResponse workspaceUndoResponse,
             String workspaceId, Authorizations authorizations) {
-        LOGGER.debug("BEGIN undoProperties");
-        for (ClientApiUndoItem undoItem : undoItems) {
+        LOGGER.debug("BEGIN undoProperties (count: %d)", undoItems.size());
+        StageElements elements = new StageElements(
+                getVerticesById(
+                        undoItems.stream()
+                                .filter(undoItem -> undoItem.getEdgeId() == null)
+                                .map(ClientApiPropertyUndoItem::getVertexId)
+                                .filter(Objects::nonNull)
+                                .collect(Collectors.toSet()),
+                        authorizations
+                ),
+                getEdgesById(
+                        undoItems.stream().map(ClientApiPropertyUndoItem::getEdgeId).filter(Objects::nonNull).collect(Collectors.toSet()),
+                        authorizations
+                ),
+                authorizations
+        );
+        PendingNotifications pendingNotifications = new PendingNotifications(workspaceUndoResponse, authorizations);
+        for (ClientApiPropertyUndoItem undoItem : undoItems) {
             try {
-                if (!(undoItem instanceof ClientApiPropertyUndoItem)) {
-                    continue;
-                }
-                ClientApiPropertyUndoItem propertyUndoItem = (ClientApiPropertyUndoItem) undoItem;
                 Element element;
-                if (propertyUndoItem.getEdgeId() != null) {
-                    element = graph.getEdge(propertyUndoItem.getEdgeId(), FetchHint.ALL_INCLUDING_HIDDEN, authorizations);
+                if (undoItem.getEdgeId() != null) {
+                    element = elements.getEdge(undoItem.getEdgeId());
                 } else {
-                    element = graph.getVertex(propertyUndoItem.getVertexId(), FetchHint.ALL_INCLUDING_HIDDEN, authorizations);
+                    element = elements.getVertex(undoItem.getVertexId());
                 }
                 if (element == null) {
                     continue;
                 }
                 undoProperties(
-                        propertyUndoItem.getKey(), propertyUndoItem.getName(), propertyUndoItem.getVisibilityString(),
-                        element, workspaceId, authorizations);
+                        undoItem.getKey(), undoItem.getName(), undoItem.getVisibilityString(),
+                        element, workspaceId, undoItem, pendingNotifications, authorizations);
+                elements.changed(element);
             } catch (Exception ex) {
-                LOGGER.error("Error publishing %s", undoItem.toString(), ex);
-                undoItem.setErrorMessage(ex.getMessage());
-                workspaceUndoResponse.addFailure(undoItem);
+                addFailure(workspaceUndoResponse, undoItem, ex);
             }
         }
+        pendingNotifications.flushAndSend();
         LOGGER.debug("End undoProperties");
-        graph.flush();
     }
 
     private void undoProperties(
             String propertyKey, String propertyName, String propertyVisibilityString, Element element,
-            String workspaceId, Authorizations authorizations) {
+            String workspaceId, ClientApiUndoItem undoItem, PendingNotifications pendingNotifications,
+            Authorizations authorizations) {
         List<Property> properties = IterableUtils.toList(element.getProperties(propertyKey, propertyName));
         SandboxStatus[] sandboxStatuses = SandboxStatusUtil.getPropertySandboxStatuses(properties, workspaceId);
         Property publicProperty = null;
@@ -191,8 +228,8 @@ public class WorkspaceUndoHelper {
                 if (publicProperty == null) {
                     LOGGER.debug("un-hiding property: %s (workspaceId: %s)", property, workspaceId);
                     element.markPropertyVisible(property, new Visibility(workspaceId), authorizations);
-                    graph.flush();
-                    workQueueRepository.pushUndoPublicPropertyDeletion(element, propertyKey, propertyName, Priority.HIGH);
+                    pendingNotifications.add(undoItem, () -> workQueueRepository.pushUndoPublicPropertyDeletion(
+                            element, propertyKey, propertyName, Priority.HIGH));
                 }
             } else if (propertySandboxStatus == SandboxStatus.PUBLIC) {
                 LOGGER.warn("Cannot undo a public property");
@@ -201,16 +238,146 @@ public class WorkspaceUndoHelper {
                 element.softDeleteProperty(propertyKey, propertyName, property.getVisibility(), authorizations);
                 if (publicProperty != null) {
                     element.markPropertyVisible(publicProperty, new Visibility(workspaceId), authorizations);
-                    graph.flush();
-                    workQueueRepository.pushUndoPublicPropertyDeletion(element, propertyKey, propertyName, Priority.HIGH);
+                    pendingNotifications.add(undoItem, () -> workQueueRepository.pushUndoPublicPropertyDeletion(
+                            element, propertyKey, propertyName, Priority.HIGH));
                 } else {
-                    graph.flush();
-                    workQueueRepository.pushUndoSandboxProperty(element, propertyKey, propertyName, beforeActionTimestamp, Priority.HIGH);
+                    pendingNotifications.add(undoItem, () -> workQueueRepository.pushUndoSandboxProperty(
+                            element, propertyKey, propertyName, beforeActionTimestamp, Priority.HIGH));
                 }
             } else {
                 workspaceHelper.deleteProperty(element, property, false, workspaceId, Priority.HIGH, authorizations);
+                pendingNotifications.addUndone(undoItem, element);
+            }
+        }
+    }
+
+    private Map<String, Vertex> getVerticesById(Collection<String> vertexIds, Authorizations authorizations) {
+        return VertexiumUtil.getVerticesInBatches(
+                graph, vertexIds, FetchHint.ALL_INCLUDING_HIDDEN, VertexiumUtil.DEFAULT_FETCH_BATCH_SIZE, authorizations
+        ).stream().collect(Collectors.toMap(Vertex::getId, vertex -> vertex));
+    }
+
+    private Map<String, Edge> getEdgesById(Collection<String> edgeIds, Authorizations authorizations) {
+        return VertexiumUtil.getEdgesInBatches(
+                graph, edgeIds, FetchHint.ALL_INCLUDING_HIDDEN, VertexiumUtil.DEFAULT_FETCH_BATCH_SIZE, authorizations
+        ).stream().collect(Collectors.toMap(Edge::getId, edge -> edge));
+    }
+
+    private static void addFailure(ClientApiWorkspaceUndoResponse workspaceUndoResponse, ClientApiUndoItem undoItem, Exception ex) {
+        LOGGER.error("Error undoing %s", undoItem.toString(), ex);
+        undoItem.setErrorMessage(ex.getMessage());
+        workspaceUndoResponse.addFailure(undoItem);
+    }
+
+    /**
+     * Elements are loaded in bulk before a stage starts. Once an undo item has changed an element it is loaded
+     * again the next time an item uses it, so that later items don't act on a stale copy.
+     */
+    private class StageElements {
+        private final Map<String, Vertex> verticesById;
+        private final Map<String, Edge> edgesById;
+        private final Set<String> changedVertexIds = new HashSet<>();
+        private final Set<String> changedEdgeIds = new HashSet<>();
+        private final Authorizations authorizations;
+
+        StageElements(Map<String, Vertex> verticesById, Map<String, Edge> edgesById, Authorizations authorizations) {
+            this.verticesById = verticesById;
+            this.edgesById = edgesById;
+            this.authorizations = authorizations;
+        }
+
+        Vertex getVertex(String vertexId) {
+            if (changedVertexIds.remove(vertexId)) {
+                graph.flush();
+                verticesById.put(vertexId, graph.getVertex(vertexId, FetchHint.ALL_INCLUDING_HIDDEN, authorizations));
+            }
+            return verticesById.get(vertexId);
+        }
+
+        Edge getEdge(String edgeId) {
+            if (changedEdgeIds.remove(edgeId)) {
+                graph.flush();
+                edgesById.put(edgeId, graph.getEdge(edgeId, FetchHint.ALL_INCLUDING_HIDDEN, authorizations));
+            }
+            return edgesById.get(edgeId);
+        }
+
+        void changed(Element element) {
+            if (element instanceof Vertex) {
+                changedVertexIds.add(element.getId());
+            } else {
+                changedEdgeIds.add(element.getId());
+            }
+        }
+    }
+
+    /**
+     * Work queue messages are only sent after the graph has been flushed so that the changes are visible to
+     * the consumers. Collecting them lets a whole undo batch be written with a single flush, and lets the
+     * un-hidden and undone elements of the batch be announced with one message each.
+     */
+    private class PendingNotifications {
+        private final ClientApiWorkspaceUndoResponse workspaceUndoResponse;
+        private final Authorizations authorizations;
+        private final Map<ClientApiUndoItem, List<Runnable>> notificationsByUndoItem = new LinkedHashMap<>();
+        private final Set<ClientApiUndoItem> batchedUndoItems = new LinkedHashSet<>();
+        private final Set<String> unhiddenVertexIds = new LinkedHashSet<>();
+        private final Set<String> unhiddenEdgeIds = new LinkedHashSet<>();
+        private final Set<String> undoneVertexIds = new LinkedHashSet<>();
+        private final Set<String> undoneEdgeIds = new LinkedHashSet<>();
+
+        PendingNotifications(ClientApiWorkspaceUndoResponse workspaceUndoResponse, Authorizations authorizations) {
+            this.workspaceUndoResponse = workspaceUndoResponse;
+            this.authorizations = authorizations;
+        }
+
+        void add(ClientApiUndoItem undoItem, Runnable notification) {
+            notificationsByUndoItem.computeIfAbsent(undoItem, k -> new ArrayList<>()).add(notification);
+        }
+
+        void addUnhidden(ClientApiUndoItem undoItem, Element element) {
+            batchedUndoItems.add(undoItem);
+            (element instanceof Vertex ? unhiddenVertexIds : unhiddenEdgeIds).add(element.getId());
+        }
+
+        void addUndone(ClientApiUndoItem undoItem, Element element) {
+            batchedUndoItems.add(undoItem);
+            (element instanceof Vertex ? undoneVertexIds : undoneEdgeIds).add(element.getId());
+        }
+
+        void flushAndSend() {
+            try {
                 graph.flush();
-                workQueueRepository.broadcastUndoProperty(element, propertyKey, propertyName);
+            } catch (Exception ex) {
+                Set<ClientApiUndoItem> undoItems = new LinkedHashSet<>(batchedUndoItems);
+                undoItems.addAll(notificationsByUndoItem.keySet());
+                for (ClientApiUndoItem undoItem : undoItems) {
+                    addFailure(workspaceUndoResponse, undoItem, ex);
+                }
+                return;
+            }
+            if (batchedUndoItems.size() > 0) {
+                try {
+                    // load the un-hidden elements again, the copies the undo items used are stale
+                    List<Element> unhiddenElements = new ArrayList<>();
+                    unhiddenElements.addAll(getVerticesById(unhiddenVertexIds, authorizations).values());
+                    unhiddenElements.addAll(getEdgesById(unhiddenEdgeIds, authorizations).values());
+                    workQueueRepository.pushElementsUnhidden(unhiddenElements, Priority.HIGH);
+                    workQueueRepository.broadcastUndoElements(undoneVertexIds, undoneEdgeIds);
+                } catch (Exception ex) {
+                    for (ClientApiUndoItem undoItem : batchedUndoItems) {
+                        addFailure(workspaceUndoResponse, undoItem, ex);
+                    }
+                }
+            }
+            for (Map.Entry<ClientApiUndoItem, List<Runnable>> entry : notificationsByUndoItem.entrySet()) {
+                try {
+                    for (Runnable notification : entry.getValue()) {
+                        notification.run();
+                    }
+                } catch (Exception ex) {
+                    addFailure(workspaceUndoResponse, entry.getKey(), ex);
+                }
             }
         }
     }
@@ -2,19 +2,19 @@ package org.visallo.core.process;
 
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
-import org.visallo.core.model.notification.SystemNotificationService;
+import org.visallo.core.model.notification.NotificationScheduler;
 
 @Singleton
 public class SystemNotificationProcess implements VisalloProcess {
-    private final SystemNotificationService systemNotificationService;
+    private final NotificationScheduler notificationScheduler;
 
     @Inject
-    public SystemNotificationProcess(SystemNotificationService systemNotificationService) {
-        this.systemNotificationService = systemNotificationService;
+    public SystemNotificationProcess(NotificationScheduler notificationScheduler) {
+        this.notificationScheduler = notificationScheduler;
     }
 
     @Override
     public void startProcess(VisalloProcessOptions options) {
-        this.systemNotificationService.start();
+        this.notificationScheduler.start();
     }
 }
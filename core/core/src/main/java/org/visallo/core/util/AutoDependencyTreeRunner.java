@@ -1,12 +1,57 @@
 package org.visallo.core.util;
 
+import org.visallo.core.exception.VisalloException;
+import org.visallo.core.status.MetricsManager;
+
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
-
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs runnables after the runnables they depend on. {@link #add(Runnable...)} makes each runnable depend on the
+ * one before it, runnables without a path between them are independent.
+ * <p>
+ * {@link #run()} runs everything on the calling thread in the order it was added. {@link #run(int)} runs
+ * independent runnables in parallel, each runnable starts once all of its dependencies have finished and a
+ * failure stops the runnables that depend on it. The time taken by each runnable is logged and, when a
+ * {@link MetricsManager} is given, recorded in a timer named after the runnable.
+ */
 public class AutoDependencyTreeRunner {
     private static final VisalloLogger LOGGER = VisalloLoggerFactory.getLogger(AutoDependencyTreeRunner.class);
+    private final MetricsManager metricsManager;
     private List<DependencyNode> dependencyNodes = new ArrayList<DependencyNode>();
 
+    public AutoDependencyTreeRunner() {
+        this(null);
+    }
+
+    public AutoDependencyTreeRunner(MetricsManager metricsManager) {
+        this.metricsManager = metricsManager;
+    }
+
+    /**
+     * Gives a runnable a name to use in logs and metrics.
+     */
+    public static Runnable named(String name, Runnable runnable) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                runnable.run();
+            }
+
+            @Override
+            public String toString() {
+                return name;
+            }
+        };
+    }
+
     public void add(Runnable... newRunnables) {
         for (int i = 0; i < newRunnables.length; i++) {
             if (i == 0) {
@@ -50,6 +95,57 @@ public class AutoDependencyTreeRunner {
         run(false);
     }
 
+    /**
+     * Runs independent runnables in parallel on up to threadCount threads, waiting for all of them to finish.
+     * A thread count of one or less runs everything on the calling thread like {@link #run()}.
+     */
+    public void run(int threadCount) {
+        if (threadCount <= 1) {
+            run();
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount, r -> {
+            Thread t = new Thread(r, "dependency-tree-runner");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            Map<DependencyNode, CompletableFuture<Void>> futures = new IdentityHashMap<>();
+            for (DependencyNode dependencyNode : dependencyNodes) {
+                getOrCreateFuture(dependencyNode, futures, executor);
+            }
+            CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[futures.size()])).join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new VisalloException("Could not run dependency tree", ex.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private CompletableFuture<Void> getOrCreateFuture(
+            DependencyNode dependencyNode,
+            Map<DependencyNode, CompletableFuture<Void>> futures,
+            ExecutorService executor
+    ) {
+        CompletableFuture<Void> future = futures.get(dependencyNode);
+        if (future != null) {
+            return future;
+        }
+
+        List<CompletableFuture<Void>> dependencyFutures = new ArrayList<>();
+        for (DependencyNode dependent : dependencyNode.getDependents()) {
+            dependencyFutures.add(getOrCreateFuture(dependent, futures, executor));
+        }
+        future = CompletableFuture.allOf(dependencyFutures.toArray(new CompletableFuture[dependencyFutures.size()]))
+                .thenRunAsync(() -> runTimed(dependencyNode), executor);
+        futures.put(dependencyNode, future);
+        return future;
+    }
+
     private void run(boolean dryRun) {
         List<DependencyNode> ranNodes = new ArrayList<DependencyNode>();
         for (DependencyNode dependencyNode : dependencyNodes) {
@@ -69,12 +165,22 @@ public class AutoDependencyTreeRunner {
         if (!ranNodes.contains(dependencyNode)) {
             LOGGER.debug("Running " + dependencyNode);
             if (!dryRun) {
-                dependencyNode.getRunnable().run();
+                runTimed(dependencyNode);
             }
             ranNodes.add(dependencyNode);
         }
     }
 
+    private void runTimed(DependencyNode dependencyNode) {
+        long startTime = System.nanoTime();
+        dependencyNode.getRunnable().run();
+        long elapsedTime = System.nanoTime() - startTime;
+        LOGGER.info("%s took %dms", dependencyNode, TimeUnit.NANOSECONDS.toMillis(elapsedTime));
+        if (metricsManager != null) {
+            metricsManager.timer(this, dependencyNode.toString()).update(elapsedTime, TimeUnit.NANOSECONDS);
+        }
+    }
+
     private static class DependencyNode {
         private final Runnable runnable;
         private final List<DependencyNode> dependents = new ArrayList<DependencyNode>();
@@ -7,9 +7,11 @@ import org.vertexium.property.StreamingPropertyValue;
 import org.vertexium.type.GeoPoint;
 import org.vertexium.type.GeoRect;
 import org.vertexium.util.IterableUtils;
+import org.visallo.core.bootstrap.InjectHelper;
 import org.visallo.core.exception.VisalloException;
 import org.visallo.core.ingest.video.VideoFrameInfo;
 import org.visallo.core.ingest.video.VideoPropertyHelper;
+import org.visallo.core.model.graph.EdgeSummaryCache;
 import org.visallo.core.model.properties.MediaVisalloProperties;
 import org.visallo.core.model.properties.VisalloProperties;
 import org.visallo.core.model.workspace.Dashboard;
@@ -36,6 +38,8 @@ public class ClientApiConverter extends org.visallo.web.clientapi.util.ClientApi
             FetchHint.EXTENDED_DATA_TABLE_NAMES
     );
     private static final int HISTORICAL_PROPERTY_MAX_SPV_SIZE = 2000;
+    private static volatile EdgeSummaryCache edgeSummaryCache;
+    private static volatile boolean edgeSummaryCacheUnavailable;
 
     public static List<? extends ClientApiVertexiumObject> toClientApi(
             Iterable<? extends VertexiumObject> vertexiumObjects,
@@ -123,13 +127,35 @@ public class ClientApiConverter extends org.visallo.web.clientapi.util.ClientApi
             Integer commonCount,
             boolean includeEdgeInfos,
             Authorizations authorizations
+    ) {
+        return toClientApiVertex(vertex, workspaceId, commonCount, includeEdgeInfos, ClientApiProjection.FULL, authorizations);
+    }
+
+    /**
+     * @param commonCount the number of vertices this vertex has in common with other vertices.
+     * @param projection  limits the properties, edge labels and extended data table names included.
+     */
+    public static ClientApiVertex toClientApiVertex(
+            Vertex vertex,
+            String workspaceId,
+            Integer commonCount,
+            boolean includeEdgeInfos,
+            ClientApiProjection projection,
+            Authorizations authorizations
     ) {
         checkNotNull(vertex, "vertex is required");
         ClientApiVertex v = new ClientApiVertex();
 
         if (authorizations != null) {
-            stream(vertex.getEdgeLabels(Direction.BOTH, authorizations))
-                    .forEach(v::addEdgeLabel);
+            if (projection.isIncludeEdgeLabels()) {
+                EdgeSummaryCache.EdgeSummary edgeSummary = getEdgeSummary(vertex, authorizations);
+                if (edgeSummary != null) {
+                    edgeSummary.getLabels().forEach(v::addEdgeLabel);
+                } else {
+                    stream(vertex.getEdgeLabels(Direction.BOTH, authorizations))
+                            .forEach(v::addEdgeLabel);
+                }
+            }
 
             if (includeEdgeInfos) {
                 stream(vertex.getEdgeInfos(Direction.BOTH, authorizations))
@@ -138,11 +164,28 @@ public class ClientApiConverter extends org.visallo.web.clientapi.util.ClientApi
             }
         }
 
-        populateClientApiElement(v, vertex, workspaceId);
+        populateClientApiElement(v, vertex, workspaceId, projection);
         v.setCommonCount(commonCount);
         return v;
     }
 
+    private static EdgeSummaryCache.EdgeSummary getEdgeSummary(Vertex vertex, Authorizations authorizations) {
+        EdgeSummaryCache cache = getEdgeSummaryCache();
+        return cache == null ? null : cache.getEdgeSummary(vertex, authorizations);
+    }
+
+    private static EdgeSummaryCache getEdgeSummaryCache() {
+        if (edgeSummaryCache == null && !edgeSummaryCacheUnavailable) {
+            try {
+                edgeSummaryCache = InjectHelper.getInstance(EdgeSummaryCache.class);
+            } catch (VisalloException e) {
+                LOGGER.warn("EdgeSummaryCache not found through injection. Reading edge labels from each vertex");
+                edgeSummaryCacheUnavailable = true;
+            }
+        }
+        return edgeSummaryCache;
+    }
+
     private static ClientApiEdgeInfo toClientApi(EdgeInfo edgeInfo) {
         return new ClientApiEdgeInfo(
                 edgeInfo.getEdgeId(),
@@ -152,8 +195,12 @@ public class ClientApiConverter extends org.visallo.web.clientapi.util.ClientApi
     }
 
     public static ClientApiEdge toClientApiEdge(Edge edge, String workspaceId) {
+        return toClientApiEdge(edge, workspaceId, ClientApiProjection.FULL);
+    }
+
+    public static ClientApiEdge toClientApiEdge(Edge edge, String workspaceId, ClientApiProjection projection) {
         ClientApiEdge e = new ClientApiEdge();
-        populateClientApiEdge(e, edge, workspaceId);
+        populateClientApiEdge(e, edge, workspaceId, projection);
         return e;
     }
 
@@ -174,21 +221,37 @@ public class ClientApiConverter extends org.visallo.web.clientapi.util.ClientApi
     }
 
     public static void populateClientApiEdge(ClientApiEdge e, Edge edge, String workspaceId) {
+        populateClientApiEdge(e, edge, workspaceId, ClientApiProjection.FULL);
+    }
+
+    private static void populateClientApiEdge(ClientApiEdge e, Edge edge, String workspaceId, ClientApiProjection projection) {
         e.setLabel(edge.getLabel());
         e.setOutVertexId(edge.getVertexId(Direction.OUT));
         e.setInVertexId(edge.getVertexId(Direction.IN));
 
-        populateClientApiElement(e, edge, workspaceId);
+        populateClientApiElement(e, edge, workspaceId, projection);
     }
 
     private static void populateClientApiElement(
             ClientApiElement clientApiElement,
             org.vertexium.Element element,
-            String workspaceId
+            String workspaceId,
+            ClientApiProjection projection
     ) {
         clientApiElement.setId(element.getId());
-        clientApiElement.getProperties().addAll(toClientApiProperties(element.getProperties(), workspaceId));
-        clientApiElement.getExtendedDataTableNames().addAll(element.getExtendedDataTableNames());
+        Iterable<Property> properties = element.getProperties();
+        if (!projection.isFull()) {
+            properties = stream(properties)
+                    .filter(property -> projection.includesProperty(property.getName()))
+                    .collect(Collectors.toList());
+        }
+        clientApiElement.getProperties().addAll(toClientApiProperties(properties, workspaceId));
+        if (projection.isIncludeExtendedDataTableNames()) {
+            // the term mention property index tables are internal
+            element.getExtendedDataTableNames().stream()
+                    .filter(tableName -> !tableName.startsWith(VisalloProperties.TERM_MENTION_PROPERTY_INDEX_TABLE_PREFIX))
+                    .forEach(clientApiElement.getExtendedDataTableNames()::add);
+        }
         clientApiElement.setSandboxStatus(SandboxStatusUtil.getSandboxStatus(element, workspaceId));
 
         VisibilityJson visibilityJson = VisalloProperties.VISIBILITY_JSON.getPropertyValue(element);
@@ -584,8 +647,21 @@ public class ClientApiConverter extends org.visallo.web.clientapi.util.ClientApi
     }
 
     public static ClientApiExtendedDataRow toClientApiExtendedDataRow(ExtendedDataRow row, String workspaceId) {
+        return toClientApiExtendedDataRow(row, workspaceId, null);
+    }
+
+    /**
+     * @param columns The names of the columns to include, or null to include all columns.
+     */
+    public static ClientApiExtendedDataRow toClientApiExtendedDataRow(ExtendedDataRow row, String workspaceId, Set<String> columns) {
         ClientApiExtendedDataRow results = new ClientApiExtendedDataRow(toClientApiExtendedDataRowId(row.getId()));
-        results.getProperties().addAll(toClientApiProperties(row.getProperties(), workspaceId));
+        Iterable<Property> properties = row.getProperties();
+        if (columns != null) {
+            properties = stream(properties)
+                    .filter(property -> columns.contains(property.getName()))
+                    .collect(Collectors.toList());
+        }
+        results.getProperties().addAll(toClientApiProperties(properties, workspaceId));
         return results;
     }
 
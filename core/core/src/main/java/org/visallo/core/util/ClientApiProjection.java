@@ -0,0 +1,94 @@
+package org.visallo.core.util;
+
+import org.vertexium.FetchHint;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Describes which parts of an element a client needs. Used to narrow the fetch hints used to load elements
+ * and to skip converting properties the client didn't ask for.
+ */
+public class ClientApiProjection {
+    public static final ClientApiProjection FULL = new ClientApiProjection(null, true, true);
+
+    /**
+     * Only the id of an element, its properties, edge labels and extended data table names are not fetched.
+     */
+    public static final ClientApiProjection SUMMARY = new ClientApiProjection(false, Collections.emptySet(), false, false);
+
+    private final boolean fetchProperties;
+    private final Set<String> propertyNames;
+    private final boolean includeExtendedDataTableNames;
+    private final boolean includeEdgeLabels;
+
+    /**
+     * @param propertyNames The names of the properties to include, or null to include all properties.
+     */
+    public ClientApiProjection(Set<String> propertyNames, boolean includeExtendedDataTableNames, boolean includeEdgeLabels) {
+        this(true, propertyNames, includeExtendedDataTableNames, includeEdgeLabels);
+    }
+
+    private ClientApiProjection(
+            boolean fetchProperties,
+            Set<String> propertyNames,
+            boolean includeExtendedDataTableNames,
+            boolean includeEdgeLabels
+    ) {
+        this.fetchProperties = fetchProperties;
+        this.propertyNames = propertyNames == null ? null : Collections.unmodifiableSet(propertyNames);
+        this.includeExtendedDataTableNames = includeExtendedDataTableNames;
+        this.includeEdgeLabels = includeEdgeLabels;
+    }
+
+    public static ClientApiProjection create(String[] propertyNames, boolean includeExtendedDataTableNames, boolean includeEdgeLabels) {
+        if (propertyNames == null && includeExtendedDataTableNames && includeEdgeLabels) {
+            return FULL;
+        }
+        return new ClientApiProjection(
+                propertyNames == null ? null : new HashSet<>(Arrays.asList(propertyNames)),
+                includeExtendedDataTableNames,
+                includeEdgeLabels
+        );
+    }
+
+    public boolean isFull() {
+        return propertyNames == null && includeExtendedDataTableNames && includeEdgeLabels;
+    }
+
+    public boolean includesProperty(String propertyName) {
+        return propertyNames == null || propertyNames.contains(propertyName);
+    }
+
+    public boolean isIncludeExtendedDataTableNames() {
+        return includeExtendedDataTableNames;
+    }
+
+    public boolean isIncludeEdgeLabels() {
+        return includeEdgeLabels;
+    }
+
+    /**
+     * Narrows the given fetch hints to only what this projection needs. Properties are still fetched when
+     * an allow-list is given since the element's visibility, concept type and sandbox status are derived from them,
+     * only {@link #SUMMARY} skips them.
+     */
+    public EnumSet<FetchHint> getFetchHints(EnumSet<FetchHint> fetchHints) {
+        EnumSet<FetchHint> result = EnumSet.copyOf(fetchHints);
+        if (!fetchProperties) {
+            result.remove(FetchHint.PROPERTIES);
+            result.remove(FetchHint.PROPERTY_METADATA);
+        }
+        if (!includeExtendedDataTableNames) {
+            result.remove(FetchHint.EXTENDED_DATA_TABLE_NAMES);
+        }
+        if (!includeEdgeLabels) {
+            result.remove(FetchHint.IN_EDGE_LABELS);
+            result.remove(FetchHint.OUT_EDGE_LABELS);
+        }
+        return result;
+    }
+}
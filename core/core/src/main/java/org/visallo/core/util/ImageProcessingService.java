@@ -0,0 +1,254 @@
+package org.visallo.core.util;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import org.visallo.core.config.Configuration;
+import org.visallo.core.exception.VisalloException;
+import org.visallo.core.exception.VisalloResourceNotFoundException;
+
+import javax.imageio.*;
+import javax.imageio.plugins.jpeg.JPEGImageWriteParam;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.AffineTransformOp;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.concurrent.Semaphore;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Decodes, reorients and encodes images for thumbnails and resized images.
+ * <p>
+ * Images are decoded with source subsampling so that a large image shown at a small size is never fully
+ * decoded, and the EXIF orientation is applied to the decoded image before it is returned. Concurrent decodes
+ * share a memory budget ({@link #CONFIG_MEMORY_BUDGET_MB}), a decode waits until the pixels it will produce fit
+ * in the budget and keeps them in the budget until the caller is done with the decoded image. Encoded output is written to a buffer that is reused by each thread.
+ */
+@Singleton
+public class ImageProcessingService {
+    private static final VisalloLogger LOGGER = VisalloLoggerFactory.getLogger(ImageProcessingService.class);
+    public static final String CONFIG_MEMORY_BUDGET_MB = ImageProcessingService.class.getName() + ".memoryBudgetMB";
+    public static final int CONFIG_MEMORY_BUDGET_MB_DEFAULT = 256;
+    private static final int BYTES_PER_PIXEL = 4;
+    private static final int MAX_SCRATCH_BUFFER_SIZE = 4 * 1024 * 1024;
+    private final int memoryBudgetKB;
+    private final Semaphore memoryBudget;
+    private final ThreadLocal<ByteArrayOutputStream> scratchBuffers = new ThreadLocal<>();
+
+    @Inject
+    public ImageProcessingService(Configuration configuration) {
+        this(configuration.getInt(CONFIG_MEMORY_BUDGET_MB, CONFIG_MEMORY_BUDGET_MB_DEFAULT));
+    }
+
+    public ImageProcessingService(int memoryBudgetMB) {
+        this.memoryBudgetKB = memoryBudgetMB * 1024;
+        this.memoryBudget = new Semaphore(memoryBudgetKB, true);
+    }
+
+    /**
+     * Uses an image decoded by {@link #read(InputStream, int, int, ImageTransform, ImageHandler)}. The image
+     * must not be kept after the handler returns.
+     */
+    public interface ImageHandler<T> {
+        /**
+         * @param image The decoded image or null if no reader could decode the stream.
+         */
+        T handle(BufferedImage image) throws IOException;
+    }
+
+    /**
+     * Decodes an image which will be shown no larger than maxWidth x maxHeight, applies the image transform and
+     * passes it to the handler. The image is at least as large as the bounds allow but is not scaled to fit them.
+     * The decoded pixels count against the memory budget until the handler returns.
+     *
+     * @return The result of the handler.
+     */
+    public <T> T read(
+            InputStream in,
+            int maxWidth,
+            int maxHeight,
+            ImageTransform imageTransform,
+            ImageHandler<T> handler
+    ) throws IOException {
+        try (ImageInputStream imageIn = ImageIO.createImageInputStream(in)) {
+            if (imageIn == null) {
+                return handler.handle(null);
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(imageIn);
+            if (!readers.hasNext()) {
+                return handler.handle(null);
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(imageIn, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                boolean quadrantRotated = imageTransform != null && imageTransform.getCWRotationNeeded() % 180 != 0;
+                int subsampling = quadrantRotated
+                        ? getSubsampling(width, height, maxHeight, maxWidth)
+                        : getSubsampling(width, height, maxWidth, maxHeight);
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                if (subsampling > 1) {
+                    param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                }
+
+                int decodedWidth = (width + subsampling - 1) / subsampling;
+                int decodedHeight = (height + subsampling - 1) / subsampling;
+                long decodedBytes = (long) decodedWidth * decodedHeight * BYTES_PER_PIXEL;
+                if (!isIdentity(imageTransform)) {
+                    decodedBytes *= 2;
+                }
+                int permits = (int) Math.min(memoryBudgetKB, Math.max(1, decodedBytes / 1024));
+                acquire(permits);
+                try {
+                    LOGGER.debug("decoding %dx%d image with subsampling %d", width, height, subsampling);
+                    BufferedImage image = reader.read(0, param);
+                    return handler.handle(reorient(image, imageTransform));
+                } finally {
+                    memoryBudget.release(permits);
+                }
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Resizes an image to fit within maxWidth x maxHeight, honoring its EXIF orientation. Images with an alpha
+     * channel are written as png, all others as jpg with the given quality.
+     */
+    public byte[] resize(byte[] imageData, int maxWidth, int maxHeight, int jpegQuality) {
+        try {
+            ImageTransform imageTransform = ImageTransformExtractor.getImageTransform(imageData);
+            return read(new ByteArrayInputStream(imageData), maxWidth, maxHeight, imageTransform, image -> {
+                checkNotNull(image, "Could not load image");
+                int type = ImageUtils.thumbnailType(image);
+
+                //Get new image dimensions, which will be used for the icon.
+                int[] newImageDims = ImageUtils.getScaledDimension(image.getWidth(), image.getHeight(), maxWidth, maxHeight);
+
+                //Resize the image.
+                BufferedImage resizedImage = new BufferedImage(newImageDims[0], newImageDims[1], type);
+                Graphics2D g = resizedImage.createGraphics();
+                if (image.getColorModel().getNumComponents() > 3) {
+                    g.drawImage(image, 0, 0, resizedImage.getWidth(), resizedImage.getHeight(), null);
+                    g.dispose();
+                    return write(resizedImage, "png");
+                } else {
+                    g.drawImage(image, 0, 0, resizedImage.getWidth(), resizedImage.getHeight(), Color.BLACK, null);
+                    g.dispose();
+                    return writeJpeg(resizedImage, jpegQuality);
+                }
+            });
+        } catch (IOException e) {
+            throw new VisalloResourceNotFoundException("Could not resize image", e);
+        }
+    }
+
+    public byte[] write(BufferedImage image, String format) throws IOException {
+        ByteArrayOutputStream out = getScratchBuffer();
+        if (!ImageIO.write(image, format, out)) {
+            throw new VisalloException("No image writer found for format: " + format);
+        }
+        return toByteArray(out);
+    }
+
+    public byte[] writeJpeg(BufferedImage image, int jpegQuality) throws IOException {
+        ByteArrayOutputStream out = getScratchBuffer();
+        ImageWriter jpgWriter = ImageIO.getImageWritersByFormatName("jpg").next();
+        try (ImageOutputStream imageOutputStream = new MemoryCacheImageOutputStream(out)) {
+            JPEGImageWriteParam jpegParams = new JPEGImageWriteParam(null);
+            jpegParams.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            jpegParams.setCompressionQuality((float) jpegQuality / 100.0f);
+            jpgWriter.setOutput(imageOutputStream);
+            jpgWriter.write(null, new IIOImage(image, null, null), jpegParams);
+        } finally {
+            jpgWriter.dispose();
+        }
+        return toByteArray(out);
+    }
+
+    /**
+     * Gets the largest subsampling factor that still decodes the image at least as large as it will be shown.
+     */
+    static int getSubsampling(int width, int height, int maxWidth, int maxHeight) {
+        if (maxWidth <= 0 || maxHeight <= 0) {
+            return 1;
+        }
+        return Math.max(1, Math.min(width / maxWidth, height / maxHeight));
+    }
+
+    /**
+     * Flips the image over the y axis then rotates it clockwise. Rotations are multiples of 90 degrees so
+     * nearest neighbor interpolation is exact and the destination keeps the source color model.
+     */
+    static BufferedImage reorient(BufferedImage image, ImageTransform imageTransform) {
+        if (isIdentity(imageTransform)) {
+            return image;
+        }
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int quadrants = ((imageTransform.getCWRotationNeeded() % 360) + 360) % 360 / 90;
+
+        AffineTransform transform = new AffineTransform();
+        switch (quadrants) {
+            case 1:
+                transform.translate(height, 0);
+                break;
+            case 2:
+                transform.translate(width, height);
+                break;
+            case 3:
+                transform.translate(0, width);
+                break;
+        }
+        transform.quadrantRotate(quadrants);
+        if (imageTransform.isYAxisFlipNeeded()) {
+            transform.scale(-1, 1);
+            transform.translate(-width, 0);
+        }
+        return new AffineTransformOp(transform, AffineTransformOp.TYPE_NEAREST_NEIGHBOR).filter(image, null);
+    }
+
+    private static boolean isIdentity(ImageTransform imageTransform) {
+        return imageTransform == null
+                || (!imageTransform.isYAxisFlipNeeded() && imageTransform.getCWRotationNeeded() % 360 == 0);
+    }
+
+    private void acquire(int permits) {
+        try {
+            memoryBudget.acquire(permits);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new VisalloException("Interrupted waiting to decode image", e);
+        }
+    }
+
+    private ByteArrayOutputStream getScratchBuffer() {
+        ByteArrayOutputStream out = scratchBuffers.get();
+        if (out == null) {
+            out = new ByteArrayOutputStream();
+            scratchBuffers.set(out);
+        }
+        out.reset();
+        return out;
+    }
+
+    private byte[] toByteArray(ByteArrayOutputStream out) {
+        byte[] result = out.toByteArray();
+        if (result.length > MAX_SCRATCH_BUFFER_SIZE) {
+            // don't let one large image pin its buffer to the thread
+            scratchBuffers.remove();
+        }
+        return result;
+    }
+}
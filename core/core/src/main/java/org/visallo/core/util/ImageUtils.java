@@ -1,62 +1,19 @@
 package org.visallo.core.util;
 
-import org.visallo.core.exception.VisalloResourceNotFoundException;
-
-import javax.imageio.IIOImage;
-import javax.imageio.ImageIO;
-import javax.imageio.ImageWriteParam;
-import javax.imageio.ImageWriter;
-import javax.imageio.plugins.jpeg.JPEGImageWriteParam;
-import javax.imageio.stream.ImageOutputStream;
-import javax.imageio.stream.MemoryCacheImageOutputStream;
+import org.visallo.core.bootstrap.InjectHelper;
+
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.*;
 import java.net.URLConnection;
 
-import static com.google.common.base.Preconditions.checkNotNull;
-
 public class ImageUtils {
+    /**
+     * @deprecated Use {@link ImageProcessingService#resize(byte[], int, int, int)}
+     */
+    @Deprecated
     public static byte[] resize(byte[] imageData, int maxWidth, int maxHeight, int jpegQuality) {
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        int type;
-        try {
-            BufferedImage image = ImageIO.read(new ByteArrayInputStream(imageData));
-            checkNotNull(image, "Could not load image");
-            type = thumbnailType(image);
-
-            ImageTransform imageTransform = ImageTransformExtractor.getImageTransform(imageData);
-            image = reorientImage(image, imageTransform.isYAxisFlipNeeded(), imageTransform.getCWRotationNeeded());
-
-            //Get new image dimensions, which will be used for the icon.
-            int[] newImageDims = getScaledDimension(image.getWidth(), image.getHeight(), maxWidth, maxHeight);
-
-            //Resize the image.
-            BufferedImage resizedImage = new BufferedImage(newImageDims[0], newImageDims[1], type);
-            Graphics2D g = resizedImage.createGraphics();
-            if (image.getColorModel().getNumComponents() > 3) {
-                g.drawImage(image, 0, 0, resizedImage.getWidth(), resizedImage.getHeight(), null);
-                g.dispose();
-                ImageIO.write(resizedImage, "png", out);
-            } else {
-                g.drawImage(image, 0, 0, resizedImage.getWidth(), resizedImage.getHeight(), Color.BLACK, null);
-                g.dispose();
-
-                try (ImageOutputStream imageOutputStream = new MemoryCacheImageOutputStream(out)) {
-                    JPEGImageWriteParam jpegParams = new JPEGImageWriteParam(null);
-                    jpegParams.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
-                    jpegParams.setCompressionQuality((float) jpegQuality / 100.0f);
-                    ImageWriter jpgWriter = ImageIO.getImageWritersByFormatName("jpg").next();
-                    jpgWriter.setOutput(imageOutputStream);
-                    IIOImage outputImage = new IIOImage(resizedImage, null, null);
-                    jpgWriter.write(null, outputImage, jpegParams);
-                    jpgWriter.dispose();
-                }
-            }
-        } catch (IOException e) {
-            throw new VisalloResourceNotFoundException("Could not resize image", e);
-        }
-        return out.toByteArray();
+        return InjectHelper.getInstance(ImageProcessingService.class).resize(imageData, maxWidth, maxHeight, jpegQuality);
     }
 
     /**
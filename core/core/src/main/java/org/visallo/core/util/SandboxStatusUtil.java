@@ -7,7 +7,9 @@ import org.visallo.web.clientapi.model.SandboxStatus;
 import org.visallo.web.clientapi.model.VisibilityJson;
 
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public class SandboxStatusUtil {
     private static final VisalloLogger LOGGER = VisalloLoggerFactory.getLogger(SandboxStatusUtil.class);
@@ -17,8 +19,15 @@ public class SandboxStatusUtil {
         return SandboxStatus.getFromVisibilityJsonString(visibilityJson, workspaceId);
     }
 
+    /**
+     * A private property is reported as PUBLIC_CHANGED when there is a public property with the same key and
+     * name. The key and name of each public property are collected in one pass so that each private property
+     * only needs a lookup.
+     */
     public static SandboxStatus[] getPropertySandboxStatuses(List<Property> properties, String workspaceId) {
+        Set<PropertyKeyAndName> publicProperties = new HashSet<>();
         SandboxStatus[] sandboxStatuses = new SandboxStatus[properties.size()];
+        boolean hasPrivateProperties = false;
         for (int i = 0; i < properties.size(); i++) {
             Property property = properties.get(i);
             Collection<VisibilityJson> visibilityJsons = VisalloProperties.VISIBILITY_JSON_METADATA.getMetadataValues(property.getMetadata());
@@ -26,25 +35,20 @@ public class SandboxStatusUtil {
                 LOGGER.error("Multiple %s found on property %s. Choosing the best match.", VisalloProperties.VISIBILITY_JSON_METADATA.getMetadataKey(), property);
             }
             sandboxStatuses[i] = getMostExclusiveSandboxStatus(visibilityJsons, workspaceId);
+            if (sandboxStatuses[i] == SandboxStatus.PUBLIC) {
+                publicProperties.add(new PropertyKeyAndName(property));
+            } else if (sandboxStatuses[i] == SandboxStatus.PRIVATE) {
+                hasPrivateProperties = true;
+            }
         }
 
+        if (!hasPrivateProperties || publicProperties.isEmpty()) {
+            return sandboxStatuses;
+        }
         for (int i = 0; i < properties.size(); i++) {
-            Property property = properties.get(i);
-            if (sandboxStatuses[i] != SandboxStatus.PRIVATE) {
-                continue;
-            }
-            for (int j = 0; j < properties.size(); j++) {
-                Property p = properties.get(j);
-                if (i == j) {
-                    continue;
-                }
-
-                if (sandboxStatuses[j] == SandboxStatus.PUBLIC &&
-                        sandboxStatuses[i] == SandboxStatus.PRIVATE &&
-                        property.getKey().equals(p.getKey()) &&
-                        property.getName().equals(p.getName())) {
-                    sandboxStatuses[i] = SandboxStatus.PUBLIC_CHANGED;
-                }
+            if (sandboxStatuses[i] == SandboxStatus.PRIVATE
+                    && publicProperties.contains(new PropertyKeyAndName(properties.get(i)))) {
+                sandboxStatuses[i] = SandboxStatus.PUBLIC_CHANGED;
             }
         }
 
@@ -64,4 +68,31 @@ public class SandboxStatusUtil {
         }
         return SandboxStatus.PUBLIC;
     }
+
+    private static class PropertyKeyAndName {
+        private final String key;
+        private final String name;
+
+        PropertyKeyAndName(Property property) {
+            this.key = property.getKey();
+            this.name = property.getName();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            PropertyKeyAndName that = (PropertyKeyAndName) o;
+            return key.equals(that.key) && name.equals(that.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * key.hashCode() + name.hashCode();
+        }
+    }
 }
@@ -1,12 +1,26 @@
 package org.visallo.core.util;
 
-import org.vertexium.Direction;
-import org.vertexium.Edge;
-import org.vertexium.Vertex;
+import com.google.common.collect.Lists;
+import org.vertexium.*;
+import org.visallo.core.bootstrap.InjectHelper;
+import org.visallo.core.config.Configuration;
+import org.visallo.core.exception.VisalloException;
 
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.visallo.core.util.StreamUtil.stream;
 
 public class VertexiumUtil {
+    private static final VisalloLogger LOGGER = VisalloLoggerFactory.getLogger(VertexiumUtil.class);
+    public static final int DEFAULT_FETCH_BATCH_SIZE = 1000;
+    public static final String CONFIG_FETCH_THREADS = VertexiumUtil.class.getName() + ".fetchThreads";
+    public static final int CONFIG_FETCH_THREADS_DEFAULT = Math.max(1, Math.min(8, Runtime.getRuntime().availableProcessors()));
+    private static final long FETCH_THREAD_IDLE_SECONDS = 60;
+    private static ExecutorService fetchExecutor;
+
     public static Map<String, Vertex> verticesToMapById(Iterable<Vertex> vertices) {
         Map<String, Vertex> results = new HashMap<>();
         for (Vertex vertex : vertices) {
@@ -23,4 +37,86 @@ public class VertexiumUtil {
         }
         return results;
     }
+
+    /**
+     * Fetches vertices, splitting large id lists into chunks of batchSize that are fetched in parallel by at
+     * most {@link #CONFIG_FETCH_THREADS} threads shared by all callers.
+     */
+    public static List<Vertex> getVerticesInBatches(
+            Graph graph,
+            Collection<String> vertexIds,
+            EnumSet<FetchHint> fetchHints,
+            int batchSize,
+            Authorizations authorizations
+    ) {
+        return getInBatches(vertexIds, batchSize, ids -> graph.getVertices(ids, fetchHints, authorizations));
+    }
+
+    /**
+     * Fetches edges, splitting large id lists into chunks of batchSize that are fetched in parallel by at
+     * most {@link #CONFIG_FETCH_THREADS} threads shared by all callers.
+     */
+    public static List<Edge> getEdgesInBatches(
+            Graph graph,
+            Collection<String> edgeIds,
+            EnumSet<FetchHint> fetchHints,
+            int batchSize,
+            Authorizations authorizations
+    ) {
+        return getInBatches(edgeIds, batchSize, ids -> graph.getEdges(ids, fetchHints, authorizations));
+    }
+
+    private static <T> List<T> getInBatches(
+            Collection<String> ids,
+            int batchSize,
+            Function<List<String>, Iterable<T>> fetch
+    ) {
+        List<String> idList = new ArrayList<>(ids);
+        if (idList.size() <= batchSize) {
+            return stream(fetch.apply(idList)).collect(Collectors.toList());
+        }
+        List<Callable<List<T>>> tasks = Lists.partition(idList, batchSize).stream()
+                .map(chunk -> (Callable<List<T>>) () -> stream(fetch.apply(chunk)).collect(Collectors.toList()))
+                .collect(Collectors.toList());
+        List<T> results = new ArrayList<>(idList.size());
+        try {
+            for (Future<List<T>> future : getFetchExecutor().invokeAll(tasks)) {
+                results.addAll(future.get());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new VisalloException("Interrupted fetching elements", ex);
+        } catch (ExecutionException ex) {
+            throw new VisalloException("Failed to fetch elements", ex.getCause());
+        }
+        return results;
+    }
+
+    private static synchronized ExecutorService getFetchExecutor() {
+        if (fetchExecutor == null) {
+            int threads;
+            try {
+                threads = InjectHelper.getInstance(Configuration.class).getInt(CONFIG_FETCH_THREADS, CONFIG_FETCH_THREADS_DEFAULT);
+            } catch (VisalloException e) {
+                LOGGER.warn("Configuration not found through injection. Using %d fetch threads", CONFIG_FETCH_THREADS_DEFAULT);
+                threads = CONFIG_FETCH_THREADS_DEFAULT;
+            }
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                    threads,
+                    threads,
+                    FETCH_THREAD_IDLE_SECONDS,
+                    TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(),
+                    r -> {
+                        Thread thread = new Thread(r);
+                        thread.setName("visallo-batch-fetch-" + thread.getId());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+            );
+            executor.allowCoreThreadTimeOut(true);
+            fetchExecutor = executor;
+        }
+        return fetchExecutor;
+    }
 }
@@ -137,5 +137,6 @@ public class InMemoryUserRepository extends UserRepository {
             throw new VisalloException("Cannot set properties on system user");
         }
         ((InMemoryUser) user).setProperty(propertyName, value);
+        afterUserUpdated(user.getUserId());
     }
 }
@@ -1,14 +1,18 @@
 package org.visallo.vertexium.model.user;
 
+import org.json.JSONObject;
 import org.junit.Test;
 import org.visallo.core.model.user.AuthorizationRepository;
 import org.visallo.core.model.user.UserListener;
 import org.visallo.core.model.user.UserRepository;
+import org.visallo.core.model.user.UserVisalloProperties;
+import org.visallo.core.user.User;
 import org.visallo.core.util.VisalloInMemoryTestBase;
 
 import java.util.Collection;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 public class VertexiumUserRepositoryTest extends VisalloInMemoryTestBase {
     private VertexiumUserRepository vertexiumUserRepository;
@@ -48,4 +52,30 @@ public class VertexiumUserRepositoryTest extends VisalloInMemoryTestBase {
         VertexiumUser vertexiumUser = (VertexiumUser) vertexiumUserRepository.findByUsername("12345");
         assertEquals("testUser", vertexiumUser.getDisplayName());
     }
+
+    @Test
+    public void testUserStateIsReadBeforeAndAfterFlush() {
+        User user = getUserRepository().findOrAddUser("12345", "testUser", null, "testPassword");
+        String userId = user.getUserId();
+
+        vertexiumUserRepository.setCurrentWorkspace(userId, "workspace1");
+        vertexiumUserRepository.setCurrentWorkspace(userId, "workspace2");
+        JSONObject preferences = new JSONObject();
+        preferences.put("key", "value");
+        vertexiumUserRepository.setUiPreferences(user, preferences);
+        assertEquals("workspace2", vertexiumUserRepository.getCurrentWorkspaceId(userId));
+        assertEquals("value", vertexiumUserRepository.findById(userId).getUiPreferences().getString("key"));
+
+        vertexiumUserRepository.flushUserState();
+        assertEquals("workspace2", vertexiumUserRepository.getCurrentWorkspaceId(userId));
+        assertEquals(
+                "workspace2",
+                UserVisalloProperties.CURRENT_WORKSPACE.getPropertyValue(getGraph().getVertex(userId, getGraphAuthorizations(UserRepository.VISIBILITY_STRING)))
+        );
+
+        vertexiumUserRepository.setCurrentWorkspace(userId, null);
+        assertNull(vertexiumUserRepository.getCurrentWorkspaceId(userId));
+        vertexiumUserRepository.flushUserState();
+        assertNull(vertexiumUserRepository.getCurrentWorkspaceId(userId));
+    }
 }
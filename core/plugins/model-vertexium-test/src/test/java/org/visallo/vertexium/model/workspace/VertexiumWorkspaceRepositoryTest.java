@@ -1,5 +1,6 @@
 package org.visallo.vertexium.model.workspace;
 
+import com.google.common.collect.Sets;
 import org.junit.Test;
 import org.vertexium.*;
 import org.visallo.core.exception.VisalloAccessDeniedException;
@@ -167,6 +168,10 @@ public class VertexiumWorkspaceRepositoryTest extends WorkspaceRepositoryTestBas
             assertEquals(user, ex.getUser());
             assertEquals(user2Workspaces.get(0).getWorkspaceId(), ex.getResourceId());
         }
+        assertEquals(
+                Sets.newHashSet(otherUser.getUserId()),
+                getWorkspaceRepository().findUserIdsWithAccess(user2Workspaces.get(0).getWorkspaceId())
+        );
 
         WorkspaceRepository.UpdateUserOnWorkspaceResult updateUserOnWorkspaceResult = getWorkspaceRepository().updateUserOnWorkspace(
                 user2Workspaces.get(0),
@@ -199,6 +204,10 @@ public class VertexiumWorkspaceRepositoryTest extends WorkspaceRepositoryTestBas
         }
         assertTrue("could not find user1", foundUser1);
         assertTrue("could not find user2", foundUser2);
+        assertEquals(
+                Sets.newHashSet(user.getUserId(), otherUser.getUserId()),
+                getWorkspaceRepository().findUserIdsWithAccess(user2Workspaces.get(0).getWorkspaceId())
+        );
 
         try {
             getWorkspaceRepository().deleteUserFromWorkspace(user2Workspaces.get(0), user.getUserId(), user);
@@ -230,6 +239,10 @@ public class VertexiumWorkspaceRepositoryTest extends WorkspaceRepositoryTestBas
         ); // +4 = the edges between workspaces and users
 
         getWorkspaceRepository().deleteUserFromWorkspace(user2Workspaces.get(0), user.getUserId(), otherUser);
+        assertEquals(
+                Sets.newHashSet(otherUser.getUserId()),
+                getWorkspaceRepository().findUserIdsWithAccess(user2Workspaces.get(0).getWorkspaceId())
+        );
         assertEquals(startingVertexCount + 3, count(getGraph().getVertices(allAuths))); // +3 = the workspace vertices
         assertEquals(
                 startingEdgeCount + 3,
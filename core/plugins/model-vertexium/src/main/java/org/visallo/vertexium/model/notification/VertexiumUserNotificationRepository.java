@@ -73,6 +73,18 @@ public class VertexiumUserNotificationRepository extends UserNotificationReposit
                 .map(this::toUserNotification);
     }
 
+    @Override
+    protected Stream<UserNotification> findAllForUser(String userId, User authUser) {
+        Vertex userVertex = getUserVertex(userId);
+        return stream(getGraph().getExtendedData(
+                ElementType.VERTEX,
+                userVertex.getId(),
+                NotificationOntology.USER_NOTIFICATIONS_TABLE,
+                getAuthorizations(authUser)
+        ))
+                .map(this::toUserNotification);
+    }
+
     private UserNotification toUserNotification(ExtendedDataRow row) {
         UserNotification notification = new UserNotification(
                 row.getId().getRowId(),
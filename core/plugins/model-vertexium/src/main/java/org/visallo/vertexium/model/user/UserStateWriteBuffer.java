@@ -0,0 +1,67 @@
+package org.visallo.vertexium.model.user;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Changes to user vertex properties that haven't been written to the graph yet. Only the latest value of each
+ * property is kept so repeated changes to the same property are written once. Entries stay in the buffer until
+ * they have been written and flushed so readers always see them.
+ */
+class UserStateWriteBuffer {
+    private final Map<String, Map<String, PendingValue>> pendingByUserId = new HashMap<>();
+
+    /**
+     * @param value The graph value of the property, or null to remove the property.
+     */
+    synchronized void put(String userId, String propertyName, Object value) {
+        pendingByUserId.computeIfAbsent(userId, id -> new LinkedHashMap<>()).put(propertyName, new PendingValue(value));
+    }
+
+    synchronized Map<String, PendingValue> get(String userId) {
+        Map<String, PendingValue> pending = pendingByUserId.get(userId);
+        return pending == null ? Collections.emptyMap() : new LinkedHashMap<>(pending);
+    }
+
+    synchronized Map<String, Map<String, PendingValue>> getAll() {
+        Map<String, Map<String, PendingValue>> results = new HashMap<>();
+        for (Map.Entry<String, Map<String, PendingValue>> entry : pendingByUserId.entrySet()) {
+            results.put(entry.getKey(), new LinkedHashMap<>(entry.getValue()));
+        }
+        return results;
+    }
+
+    /**
+     * Removes written values unless they were replaced while they were being written.
+     */
+    synchronized void removeWritten(String userId, Map<String, PendingValue> written) {
+        Map<String, PendingValue> pending = pendingByUserId.get(userId);
+        if (pending == null) {
+            return;
+        }
+        for (Map.Entry<String, PendingValue> entry : written.entrySet()) {
+            pending.remove(entry.getKey(), entry.getValue());
+        }
+        if (pending.isEmpty()) {
+            pendingByUserId.remove(userId);
+        }
+    }
+
+    synchronized void remove(String userId) {
+        pendingByUserId.remove(userId);
+    }
+
+    static class PendingValue {
+        private final Object value;
+
+        PendingValue(Object value) {
+            this.value = value;
+        }
+
+        Object getValue() {
+            return value;
+        }
+    }
+}
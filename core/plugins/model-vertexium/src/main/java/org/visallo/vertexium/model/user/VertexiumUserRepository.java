@@ -22,27 +22,42 @@ import org.visallo.core.security.VisalloVisibility;
 import org.visallo.core.trace.Traced;
 import org.visallo.core.user.SystemUser;
 import org.visallo.core.user.User;
+import org.visallo.core.util.ShutdownListener;
+import org.visallo.core.util.ShutdownService;
 import org.visallo.core.util.VisalloLogger;
 import org.visallo.core.util.VisalloLoggerFactory;
 
 import java.util.Date;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static org.vertexium.util.IterableUtils.singleOrDefault;
 import static org.visallo.core.model.ontology.OntologyRepository.PUBLIC;
 
+/**
+ * Frequently changed user state (the current workspace, UI preferences and login information) is written
+ * behind: changes are visible to readers of this repository immediately and are saved to the graph together
+ * on an interval of {@link #CONFIG_USER_STATE_FLUSH_INTERVAL_MILLIS}, or on every change if the interval is 0.
+ */
 @Singleton
-public class VertexiumUserRepository extends UserRepository {
+public class VertexiumUserRepository extends UserRepository implements ShutdownListener {
     private static final VisalloLogger LOGGER = VisalloLoggerFactory.getLogger(VertexiumUserRepository.class);
+    public static final String CONFIG_USER_STATE_FLUSH_INTERVAL_MILLIS = VertexiumUserRepository.class.getName() + ".userStateFlushIntervalMillis";
+    public static final long CONFIG_USER_STATE_FLUSH_INTERVAL_MILLIS_DEFAULT = 1000;
     private Graph graph;
     private String userConceptId;
     private org.vertexium.Authorizations authorizations;
     private final Cache<String, Vertex> userVertexCache = CacheBuilder.newBuilder()
             .expireAfterWrite(15, TimeUnit.SECONDS)
             .build();
+    private final UserStateWriteBuffer userStateWriteBuffer = new UserStateWriteBuffer();
+    private final long userStateFlushIntervalMillis;
+    private ScheduledExecutorService userStateFlushExecutor;
 
     @Inject
     public VertexiumUserRepository(
@@ -74,6 +89,30 @@ public class VertexiumUserRepository extends UserRepository {
         authorizationsSet.add(VISIBILITY_STRING);
         authorizationsSet.add(VisalloVisibility.SUPER_USER_VISIBILITY_STRING);
         this.authorizations = graph.createAuthorizations(authorizationsSet);
+
+        userStateFlushIntervalMillis = configuration.getLong(
+                CONFIG_USER_STATE_FLUSH_INTERVAL_MILLIS,
+                CONFIG_USER_STATE_FLUSH_INTERVAL_MILLIS_DEFAULT
+        );
+        if (userStateFlushIntervalMillis > 0) {
+            userStateFlushExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "visallo-user-state-flush");
+                t.setDaemon(true);
+                return t;
+            });
+            userStateFlushExecutor.scheduleWithFixedDelay(() -> {
+                try {
+                    flushUserState();
+                } catch (Exception ex) {
+                    LOGGER.error("Could not write user state", ex);
+                }
+            }, userStateFlushIntervalMillis, userStateFlushIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Inject
+    public void setShutdownService(ShutdownService shutdownService) {
+        shutdownService.register(this);
     }
 
     private VertexiumUser createFromVertex(Vertex user) {
@@ -82,7 +121,11 @@ public class VertexiumUserRepository extends UserRepository {
         }
 
         LOGGER.debug("Creating user from UserRow. username: %s", UserVisalloProperties.USERNAME.getPropertyValue(user));
-        return new VertexiumUser(user);
+        VertexiumUser vertexiumUser = new VertexiumUser(user);
+        for (Map.Entry<String, UserStateWriteBuffer.PendingValue> pending : userStateWriteBuffer.get(user.getId()).entrySet()) {
+            vertexiumUser.setProperty(pending.getKey(), pending.getValue().getValue());
+        }
+        return vertexiumUser;
     }
 
     @Override
@@ -196,35 +239,22 @@ public class VertexiumUserRepository extends UserRepository {
 
     @Override
     public void updateUser(User user, AuthorizationContext authorizationContext) {
-        Vertex userVertex = findByIdUserVertex(user.getUserId());
-        ExistingElementMutation<Vertex> m = userVertex.prepareMutation();
+        User currentUser = createFromVertex(findByIdUserVertex(user.getUserId()));
+        String userId = user.getUserId();
 
-        Date currentLoginDate = UserVisalloProperties.CURRENT_LOGIN_DATE.getPropertyValue(userVertex);
+        Date currentLoginDate = currentUser.getCurrentLoginDate();
         if (currentLoginDate != null) {
-            UserVisalloProperties.PREVIOUS_LOGIN_DATE.setProperty(m, currentLoginDate, VISIBILITY.getVisibility());
+            setUserState(userId, UserVisalloProperties.PREVIOUS_LOGIN_DATE.getPropertyName(), UserVisalloProperties.PREVIOUS_LOGIN_DATE.wrap(currentLoginDate));
         }
 
-        String currentLoginRemoteAddr = UserVisalloProperties.CURRENT_LOGIN_REMOTE_ADDR.getPropertyValue(userVertex);
+        String currentLoginRemoteAddr = currentUser.getCurrentLoginRemoteAddr();
         if (currentLoginRemoteAddr != null) {
-            UserVisalloProperties.PREVIOUS_LOGIN_REMOTE_ADDR.setProperty(
-                    m,
-                    currentLoginRemoteAddr,
-                    VISIBILITY.getVisibility()
-            );
+            setUserState(userId, UserVisalloProperties.PREVIOUS_LOGIN_REMOTE_ADDR.getPropertyName(), UserVisalloProperties.PREVIOUS_LOGIN_REMOTE_ADDR.wrap(currentLoginRemoteAddr));
         }
 
-        UserVisalloProperties.CURRENT_LOGIN_DATE.setProperty(m, new Date(), VISIBILITY.getVisibility());
-        UserVisalloProperties.CURRENT_LOGIN_REMOTE_ADDR.setProperty(
-                m,
-                authorizationContext.getRemoteAddr(),
-                VISIBILITY.getVisibility()
-        );
-
-        int loginCount = UserVisalloProperties.LOGIN_COUNT.getPropertyValue(userVertex, 0);
-        UserVisalloProperties.LOGIN_COUNT.setProperty(m, loginCount + 1, VISIBILITY.getVisibility());
-
-        m.save(authorizations);
-        graph.flush();
+        setUserState(userId, UserVisalloProperties.CURRENT_LOGIN_DATE.getPropertyName(), UserVisalloProperties.CURRENT_LOGIN_DATE.wrap(new Date()));
+        setUserState(userId, UserVisalloProperties.CURRENT_LOGIN_REMOTE_ADDR.getPropertyName(), UserVisalloProperties.CURRENT_LOGIN_REMOTE_ADDR.wrap(authorizationContext.getRemoteAddr()));
+        setUserState(userId, UserVisalloProperties.LOGIN_COUNT.getPropertyName(), UserVisalloProperties.LOGIN_COUNT.wrap(currentUser.getLoginCount() + 1));
 
         getPrivilegeRepository().updateUser(user, authorizationContext);
         getAuthorizationRepository().updateUser(user, authorizationContext);
@@ -235,39 +265,30 @@ public class VertexiumUserRepository extends UserRepository {
     public User setCurrentWorkspace(String userId, String workspaceId) {
         User user = findById(userId);
         checkNotNull(user, "Could not find user: " + userId);
-        Vertex userVertex = findByIdUserVertex(user.getUserId());
-        if (workspaceId == null) {
-            UserVisalloProperties.CURRENT_WORKSPACE.removeProperty(userVertex, authorizations);
-        } else {
-            UserVisalloProperties.CURRENT_WORKSPACE.setProperty(
-                    userVertex,
-                    workspaceId,
-                    VISIBILITY.getVisibility(),
-                    authorizations
-            );
-        }
-        graph.flush();
-        return user;
+        setUserState(
+                user.getUserId(),
+                UserVisalloProperties.CURRENT_WORKSPACE.getPropertyName(),
+                workspaceId == null ? null : UserVisalloProperties.CURRENT_WORKSPACE.wrap(workspaceId)
+        );
+        afterUserUpdated(userId);
+        return findById(userId);
     }
 
     @Override
     public String getCurrentWorkspaceId(String userId) {
         User user = findById(userId);
         checkNotNull(user, "Could not find user: " + userId);
-        Vertex userVertex = findByIdUserVertex(user.getUserId());
-        return UserVisalloProperties.CURRENT_WORKSPACE.getPropertyValue(userVertex);
+        return user.getCurrentWorkspaceId();
     }
 
     @Override
     public void setUiPreferences(User user, JSONObject preferences) {
-        Vertex userVertex = findByIdUserVertex(user.getUserId());
-        UserVisalloProperties.UI_PREFERENCES.setProperty(
-                userVertex,
-                preferences,
-                VISIBILITY.getVisibility(),
-                authorizations
+        setUserState(
+                user.getUserId(),
+                UserVisalloProperties.UI_PREFERENCES.getPropertyName(),
+                UserVisalloProperties.UI_PREFERENCES.wrap(preferences)
         );
-        graph.flush();
+        afterUserUpdated(user.getUserId());
     }
 
     @Override
@@ -280,6 +301,7 @@ public class VertexiumUserRepository extends UserRepository {
                 authorizations
         );
         graph.flush();
+        afterUserUpdated(user.getUserId());
     }
 
     @Override
@@ -292,10 +314,12 @@ public class VertexiumUserRepository extends UserRepository {
                 authorizations
         );
         graph.flush();
+        afterUserUpdated(user.getUserId());
     }
 
     @Override
     protected void internalDelete(User user) {
+        userStateWriteBuffer.remove(user.getUserId());
         Vertex userVertex = findByIdUserVertex(user.getUserId());
         graph.softDeleteVertex(userVertex, authorizations);
         graph.flush();
@@ -349,10 +373,59 @@ public class VertexiumUserRepository extends UserRepository {
                 ((VertexiumUser) user).setProperty(propertyName, value);
             }
             graph.flush();
+            afterUserUpdated(user.getUserId());
         }
     }
 
     public Vertex getUserVertex(String userId) {
         return findByIdUserVertex(userId);
     }
+
+    private void setUserState(String userId, String propertyName, Object value) {
+        userStateWriteBuffer.put(userId, propertyName, value);
+        if (userStateFlushIntervalMillis <= 0) {
+            flushUserState();
+        }
+    }
+
+    /**
+     * Writes all buffered user state changes, one mutation per user, followed by a single flush.
+     */
+    public synchronized void flushUserState() {
+        Map<String, Map<String, UserStateWriteBuffer.PendingValue>> pendingByUserId = userStateWriteBuffer.getAll();
+        if (pendingByUserId.isEmpty()) {
+            return;
+        }
+        for (Map.Entry<String, Map<String, UserStateWriteBuffer.PendingValue>> userEntry : pendingByUserId.entrySet()) {
+            Vertex userVertex = findByIdUserVertex(userEntry.getKey());
+            if (userVertex == null) {
+                LOGGER.warn("Could not find user to write state: %s", userEntry.getKey());
+                userStateWriteBuffer.remove(userEntry.getKey());
+                continue;
+            }
+            ExistingElementMutation<Vertex> m = userVertex.prepareMutation();
+            for (Map.Entry<String, UserStateWriteBuffer.PendingValue> pending : userEntry.getValue().entrySet()) {
+                Object value = pending.getValue().getValue();
+                if (value == null) {
+                    m.softDeleteProperty(pending.getKey(), VISIBILITY.getVisibility());
+                } else {
+                    m.setProperty(pending.getKey(), value, VISIBILITY.getVisibility());
+                }
+            }
+            m.save(authorizations);
+        }
+        graph.flush();
+        for (Map.Entry<String, Map<String, UserStateWriteBuffer.PendingValue>> userEntry : pendingByUserId.entrySet()) {
+            userVertexCache.invalidate(userEntry.getKey());
+            userStateWriteBuffer.removeWritten(userEntry.getKey(), userEntry.getValue());
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        if (userStateFlushExecutor != null) {
+            userStateFlushExecutor.shutdown();
+        }
+        flushUserState();
+    }
 }
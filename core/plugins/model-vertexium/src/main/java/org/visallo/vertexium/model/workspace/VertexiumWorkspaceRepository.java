@@ -3,7 +3,6 @@ package org.visallo.vertexium.model.workspace;
 import com.google.common.base.Function;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
-import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
@@ -12,6 +11,7 @@ import com.google.inject.Singleton;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.json.JSONObject;
 import org.vertexium.*;
+import org.vertexium.mutation.ElementMutation;
 import org.vertexium.mutation.ExistingEdgeMutation;
 import org.vertexium.property.StreamingPropertyValue;
 import org.vertexium.query.Compare;
@@ -86,6 +86,9 @@ public class VertexiumWorkspaceRepository extends WorkspaceRepository {
     private Cache<String, List<WorkspaceUser>> usersWithAccessCache = CacheBuilder.newBuilder()
             .expireAfterWrite(15, TimeUnit.SECONDS)
             .build();
+    private Cache<String, Set<String>> userIdsWithAccessCache = CacheBuilder.newBuilder()
+            .expireAfterWrite(15, TimeUnit.SECONDS)
+            .build();
     private Cache<String, Vertex> userWorkspaceVertexCache = CacheBuilder.newBuilder()
             .expireAfterWrite(15, TimeUnit.SECONDS)
             .build();
@@ -95,6 +98,7 @@ public class VertexiumWorkspaceRepository extends WorkspaceRepository {
         usersWithCommentAccessCache.invalidateAll();
         usersWithWriteAccessCache.invalidateAll();
         usersWithAccessCache.invalidateAll();
+        userIdsWithAccessCache.invalidateAll();
         userWorkspaceVertexCache.invalidateAll();
     }
 
@@ -393,6 +397,16 @@ public class VertexiumWorkspaceRepository extends WorkspaceRepository {
         getGraph().flush();
     }
 
+    @Override
+    public Set<String> findUserIdsWithAccess(String workspaceId) {
+        Set<String> userIds = userIdsWithAccessCache.getIfPresent(workspaceId);
+        if (userIds == null) {
+            userIds = Collections.unmodifiableSet(super.findUserIdsWithAccess(workspaceId));
+            userIdsWithAccessCache.put(workspaceId, userIds);
+        }
+        return userIds;
+    }
+
     @Override
     @Traced
     public List<WorkspaceUser> findUsersWithAccess(final String workspaceId, final User user) {
@@ -622,12 +636,24 @@ public class VertexiumWorkspaceRepository extends WorkspaceRepository {
                 );
             }
 
-            Iterable<Vertex> vertices = getGraph().getVertices(vertexIds, authorizations);
-            ImmutableMap<String, Vertex> verticesMap = Maps.uniqueIndex(vertices, Element::getId);
-
+            // entities already on the workspace keep their edge, only the missing ones are looked up and added
+            Map<String, String> vertexIdsByEdgeId = new HashMap<>();
             for (String vertexId : vertexIds) {
-                Vertex otherVertex = verticesMap.get(vertexId);
-                if (otherVertex == null) {
+                vertexIdsByEdgeId.put(getWorkspaceToEntityEdgeId(workspaceVertex.getId(), vertexId), vertexId);
+            }
+            Map<String, Boolean> edgesExist = getGraph().doEdgesExist(vertexIdsByEdgeId.keySet(), authorizations);
+            List<String> missingVertexIds = vertexIdsByEdgeId.entrySet().stream()
+                    .filter(entry -> !edgesExist.getOrDefault(entry.getKey(), false))
+                    .map(Map.Entry::getValue)
+                    .collect(Collectors.toList());
+            if (missingVertexIds.size() == 0) {
+                return;
+            }
+
+            Map<String, Boolean> verticesExist = getGraph().doVerticesExist(missingVertexIds, authorizations);
+            List<ElementMutation> edgeMutations = new ArrayList<>();
+            for (String vertexId : missingVertexIds) {
+                if (!verticesExist.getOrDefault(vertexId, false)) {
                     LOGGER.error(
                             "updateEntitiesOnWorkspace: could not find vertex with id \"%s\" for workspace \"%s\"",
                             vertexId,
@@ -635,13 +661,15 @@ public class VertexiumWorkspaceRepository extends WorkspaceRepository {
                     );
                     continue;
                 }
-
-                createEdge(
-                        workspaceVertex,
-                        otherVertex,
-                        authorizations
-                );
+                edgeMutations.add(prepareEdge(workspaceVertex.getId(), vertexId));
             }
+            LOGGER.debug(
+                    "updateEntitiesOnWorkspace: adding %d of %d entities to workspace %s",
+                    edgeMutations.size(),
+                    vertexIds.size(),
+                    workspace.getWorkspaceId()
+            );
+            getGraph().saveElementMutations(edgeMutations, authorizations);
             getGraph().flush();
         });
 
@@ -1117,9 +1145,6 @@ public class VertexiumWorkspaceRepository extends WorkspaceRepository {
         getGraph().flush();
         userWorkspaceVertexCache.invalidateAll();
 
-        Workspace ws = findById(workspaceId, user);
-        ClientApiWorkspace userWorkspace = toClientApi(ws, user, authorizations);
-
         String skipSourceId = null;
         if (params != null && params.has("broadcastOptions")) {
             JSONObject broadcastOptions = params.getJSONObject("broadcastOptions");
@@ -1127,7 +1152,7 @@ public class VertexiumWorkspaceRepository extends WorkspaceRepository {
                 skipSourceId = broadcastOptions.getString("sourceGuid");
             }
         }
-        getWorkQueueRepository().broadcastWorkProductChange(productVertex.getId(), userWorkspace, user, skipSourceId);
+        getWorkQueueRepository().broadcastWorkProductChange(productVertex.getId(), workspaceId, user, skipSourceId);
 
         Product product = productVertexToProduct(workspaceId, productVertex, false, null, authorizations, user);
         if (isNew.get()) {
@@ -1184,9 +1209,7 @@ public class VertexiumWorkspaceRepository extends WorkspaceRepository {
         getGraph().softDeleteVertex(productId, authorizations);
         getGraph().flush();
 
-        Workspace ws = findById(workspaceId, user);
-        ClientApiWorkspace userWorkspace = toClientApi(ws, user, authorizations);
-        getWorkQueueRepository().broadcastWorkProductDelete(productId, userWorkspace);
+        getWorkQueueRepository().broadcastWorkProductDelete(productId, workspaceId);
 
     }
 
@@ -1385,23 +1408,17 @@ public class VertexiumWorkspaceRepository extends WorkspaceRepository {
         return null;
     }
 
-    private void createEdge(
-            Vertex workspaceVertex,
-            Vertex otherVertex,
-            Authorizations authorizations
-    ) {
-        String workspaceVertexId = workspaceVertex.getId();
-        String entityVertexId = otherVertex.getId();
+    private EdgeBuilderByVertexId prepareEdge(String workspaceVertexId, String entityVertexId) {
         String edgeId = getWorkspaceToEntityEdgeId(workspaceVertexId, entityVertexId);
-        EdgeBuilder edgeBuilder = getGraph().prepareEdge(
+        EdgeBuilderByVertexId edgeBuilder = getGraph().prepareEdge(
                 edgeId,
-                workspaceVertex,
-                otherVertex,
+                workspaceVertexId,
+                entityVertexId,
                 WORKSPACE_TO_ENTITY_RELATIONSHIP_IRI,
                 VISIBILITY.getVisibility()
         );
         edgeBuilder.setIndexHint(IndexHint.DO_NOT_INDEX);
-        edgeBuilder.save(authorizations);
+        return edgeBuilder;
     }
 
     @Override
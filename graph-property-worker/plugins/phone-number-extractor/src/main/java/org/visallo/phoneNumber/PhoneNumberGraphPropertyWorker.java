@@ -10,25 +10,23 @@ import org.vertexium.Vertex;
 import org.visallo.core.ingest.graphProperty.GraphPropertyWorkData;
 import org.visallo.core.ingest.graphProperty.GraphPropertyWorker;
 import org.visallo.core.ingest.graphProperty.GraphPropertyWorkerPrepareData;
+import org.visallo.core.ingest.graphProperty.TextAnalyzer;
 import org.visallo.core.model.Description;
 import org.visallo.core.model.Name;
 import org.visallo.core.model.properties.VisalloProperties;
-import org.visallo.core.model.termMention.TermMentionBuilder;
 import org.visallo.core.util.VisalloLogger;
 import org.visallo.core.util.VisalloLoggerFactory;
-import org.visallo.web.clientapi.model.VisibilityJson;
 
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.List;
 
-import static org.vertexium.util.IterableUtils.count;
 import static org.visallo.core.model.ontology.OntologyRepository.PUBLIC;
 
 @Name("Phone Number Extractor")
 @Description("Extracts phone numbers from text")
-public class PhoneNumberGraphPropertyWorker extends GraphPropertyWorker {
+public class PhoneNumberGraphPropertyWorker extends GraphPropertyWorker implements TextAnalyzer {
     private static final VisalloLogger LOGGER = VisalloLoggerFactory.getLogger(PhoneNumberGraphPropertyWorker.class);
     public static final String PHONE_NUMBER_CONCEPT_INTENT = "phoneNumber";
     private static final String DEFAULT_REGION_CODE = "phoneNumber.defaultRegionCode";
@@ -52,37 +50,27 @@ public class PhoneNumberGraphPropertyWorker extends GraphPropertyWorker {
 
     @Override
     public void execute(InputStream in, GraphPropertyWorkData data) throws Exception {
-        LOGGER.debug("Extracting phone numbers from provided text");
-
         final String text = CharStreams.toString(new InputStreamReader(in, Charsets.UTF_8));
 
-        Vertex outVertex = (Vertex) data.getElement();
-        VisibilityJson visibilityJson = VisibilityJson.updateVisibilitySourceAndAddWorkspaceId(null, null, data.getWorkspaceId());
-        final Iterable<PhoneNumberMatch> phoneNumbers = phoneNumberUtil.findNumbers(text, defaultRegionCode);
-        List<Vertex> termMentions = new ArrayList<>();
-        for (final PhoneNumberMatch phoneNumber : phoneNumbers) {
-            final String formattedNumber = phoneNumberUtil.format(phoneNumber.number(), PhoneNumberUtil.PhoneNumberFormat.E164);
-            int start = phoneNumber.start();
-            int end = phoneNumber.end();
-
-            Vertex termMention = new TermMentionBuilder()
-                    .outVertex(outVertex)
-                    .propertyKey(data.getProperty().getKey())
-                    .propertyName(data.getProperty().getName())
-                    .start(start)
-                    .end(end)
-                    .title(formattedNumber)
-                    .conceptIri(publicEntityType)
-                    .visibilityJson(visibilityJson)
-                    .process(getClass().getName())
-                    .save(getGraph(), getVisibilityTranslator(), getUser(), getAuthorizations());
-            termMentions.add(termMention);
-        }
+        List<Mention> mentions = analyze(text, data);
+        List<Vertex> termMentions = saveTextMentions(data, mentions);
         getGraph().flush();
-        applyTermMentionFilters(outVertex, termMentions);
+        applyTermMentionFilters((Vertex) data.getElement(), termMentions);
         pushTextUpdated(data);
 
-        LOGGER.debug("Number of phone numbers extracted: %d", count(phoneNumbers));
+        LOGGER.debug("Number of phone numbers extracted: %d", mentions.size());
+    }
+
+    @Override
+    public List<Mention> analyze(String text, GraphPropertyWorkData data) {
+        LOGGER.debug("Extracting phone numbers from provided text");
+
+        List<Mention> mentions = new ArrayList<>();
+        for (final PhoneNumberMatch phoneNumber : phoneNumberUtil.findNumbers(text, defaultRegionCode)) {
+            final String formattedNumber = phoneNumberUtil.format(phoneNumber.number(), PhoneNumberUtil.PhoneNumberFormat.E164);
+            mentions.add(new Mention(phoneNumber.start(), phoneNumber.end(), formattedNumber, publicEntityType, getClass().getName()));
+        }
+        return mentions;
     }
 
     @Override
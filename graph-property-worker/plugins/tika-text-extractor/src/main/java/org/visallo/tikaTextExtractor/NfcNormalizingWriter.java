@@ -0,0 +1,61 @@
+package org.visallo.tikaTextExtractor;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.text.Normalizer;
+
+/**
+ * NFC normalizes text as it is written. Text is normalized a word at a time, spaces and newlines never combine
+ * with the characters around them so normalizing each word gives the same result as normalizing the whole text.
+ * Very long runs without whitespace are normalized in chunks.
+ */
+class NfcNormalizingWriter extends FilterWriter {
+    private static final int MAX_BUFFER_LENGTH = 64 * 1024;
+    private final StringBuilder buffer = new StringBuilder();
+
+    NfcNormalizingWriter(Writer out) {
+        super(out);
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        buffer.append((char) c);
+        if (c == ' ' || c == '\n' || (buffer.length() >= MAX_BUFFER_LENGTH && !Character.isHighSurrogate((char) c))) {
+            writeBuffer();
+        }
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        for (int i = off; i < off + len; i++) {
+            write(cbuf[i]);
+        }
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        for (int i = off; i < off + len; i++) {
+            write(str.charAt(i));
+        }
+    }
+
+    private void writeBuffer() throws IOException {
+        if (buffer.length() == 0) {
+            return;
+        }
+        out.write(Normalizer.normalize(buffer, Normalizer.Form.NFC));
+        buffer.setLength(0);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writeBuffer();
+        out.close();
+    }
+}
@@ -0,0 +1,102 @@
+package org.visallo.tikaTextExtractor;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Cleans extracted text as it is written: carriage returns become newlines, tabs and non-breaking spaces become
+ * spaces, a whitespace run containing two adjacent newlines becomes a paragraph break ("\n\n") and any other
+ * whitespace run becomes a single space.
+ * <p>
+ * Writes are synchronized and rejected once the writer is closed, so a parser that is abandoned after a time
+ * limit can't write into text that is already being saved.
+ */
+class TextCleaningWriter extends FilterWriter {
+    private boolean inWhitespace;
+    private boolean previousWasNewline;
+    private boolean hasParagraphBreak;
+    private boolean closed;
+
+    TextCleaningWriter(Writer out) {
+        super(out);
+    }
+
+    @Override
+    public synchronized void write(int c) throws IOException {
+        ensureOpen();
+        writeChar((char) c);
+    }
+
+    @Override
+    public synchronized void write(char[] cbuf, int off, int len) throws IOException {
+        ensureOpen();
+        for (int i = off; i < off + len; i++) {
+            writeChar(cbuf[i]);
+        }
+    }
+
+    @Override
+    public synchronized void write(String str, int off, int len) throws IOException {
+        ensureOpen();
+        for (int i = off; i < off + len; i++) {
+            writeChar(str.charAt(i));
+        }
+    }
+
+    private void writeChar(char c) throws IOException {
+        if (c == '\r') {
+            c = '\n';
+        } else if (c == '\t' || c == '\u00A0') {
+            c = ' ';
+        }
+
+        if (c == '\n') {
+            if (previousWasNewline) {
+                hasParagraphBreak = true;
+            }
+            previousWasNewline = true;
+            inWhitespace = true;
+            return;
+        }
+        previousWasNewline = false;
+        if (c == ' ') {
+            inWhitespace = true;
+            return;
+        }
+
+        writeWhitespace();
+        out.write(c);
+    }
+
+    private void writeWhitespace() throws IOException {
+        if (inWhitespace) {
+            out.write(hasParagraphBreak ? "\n\n" : " ");
+        }
+        inWhitespace = false;
+        previousWasNewline = false;
+        hasParagraphBreak = false;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Writer closed");
+        }
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+        ensureOpen();
+        out.flush();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        writeWhitespace();
+        closed = true;
+        out.close();
+    }
+}
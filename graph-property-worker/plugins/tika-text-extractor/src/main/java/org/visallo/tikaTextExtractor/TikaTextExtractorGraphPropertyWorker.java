@@ -6,6 +6,7 @@ import com.google.inject.Singleton;
 import de.l3s.boilerpipe.BoilerpipeProcessingException;
 import de.l3s.boilerpipe.extractors.ArticleExtractor;
 import de.l3s.boilerpipe.extractors.NumWordsRulesExtractor;
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.tika.config.TikaConfig;
 import org.apache.tika.exception.TikaException;
@@ -18,6 +19,7 @@ import org.apache.tika.parser.pdf.PDFParserConfig;
 import org.apache.tika.parser.pdf.VisalloParserConfig;
 import org.apache.tika.sax.BodyContentHandler;
 import org.apache.tika.sax.SecureContentHandler;
+import org.apache.tika.sax.WriteOutContentHandler;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.vertexium.Element;
@@ -33,6 +35,7 @@ import org.visallo.core.model.Description;
 import org.visallo.core.model.Name;
 import org.visallo.core.model.properties.VisalloProperties;
 import org.visallo.core.model.properties.types.LongVisalloProperty;
+import org.visallo.core.exception.VisalloException;
 import org.visallo.core.util.VisalloLogger;
 import org.visallo.core.util.VisalloLoggerFactory;
 import org.xml.sax.ContentHandler;
@@ -40,11 +43,13 @@ import org.xml.sax.SAXException;
 
 import java.io.*;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.text.Normalizer;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.*;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static org.visallo.core.model.ontology.OntologyRepository.PUBLIC;
@@ -63,6 +68,10 @@ import static org.visallo.core.model.ontology.OntologyRepository.PUBLIC;
  * org.visallo.tikaTextExtractor.TikaTextExtractorGraphPropertyWorker.textExtractMapping.prop2.extractedTextPropertyName=http://my.org#prop2
  * org.visallo.tikaTextExtractor.TikaTextExtractorGraphPropertyWorker.textExtractMapping.prop2.textDescription=My Property 2
  * </code></pre>
+ * <p>
+ * Text is extracted with a single shared Tika parser and streamed through cleaning and NFC normalization into a
+ * temporary file, which backs the extracted text {@link StreamingPropertyValue}. The length of the extracted text
+ * and the time spent extracting it are limited, see {@link TikaTextExtractorGraphPropertyWorkerConfiguration}.
  */
 @Name("Tika Text Extractor")
 @Description("Uses Apache Tika to extract text")
@@ -88,6 +97,8 @@ public class TikaTextExtractorGraphPropertyWorker extends GraphPropertyWorker {
     private static final double SYSTEM_ASSIGNED_CONFIDENCE = 0.4;
 
     private final TikaTextExtractorGraphPropertyWorkerConfiguration configuration;
+    private final CompositeParser parser;
+    private final ExecutorService parseExecutor;
 
     private List<String> dateKeys;
     private List<String> subjectKeys;
@@ -106,6 +117,13 @@ public class TikaTextExtractorGraphPropertyWorker extends GraphPropertyWorker {
     @Inject
     public TikaTextExtractorGraphPropertyWorker(TikaTextExtractorGraphPropertyWorkerConfiguration configuration) {
         this.configuration = configuration;
+        TikaConfig tikaConfig = TikaConfig.getDefaultConfig();
+        this.parser = new CompositeParser(tikaConfig.getMediaTypeRegistry(), tikaConfig.getParser());
+        this.parseExecutor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "tika-text-extractor");
+            t.setDaemon(true);
+            return t;
+        });
     }
 
     @Override
@@ -152,10 +170,21 @@ public class TikaTextExtractorGraphPropertyWorker extends GraphPropertyWorker {
         String mimeType = (String) data.getProperty().getMetadata().getValue(VisalloProperties.MIME_TYPE.getPropertyName());
         checkNotNull(mimeType, VisalloProperties.MIME_TYPE.getPropertyName() + " is a required metadata field");
 
+        File textFile = File.createTempFile("tika-text-extractor-", ".txt");
+        try {
+            execute(in, data, mimeType, textFile);
+        } finally {
+            if (!textFile.delete()) {
+                LOGGER.warn("Could not delete temporary file: %s", textFile.getAbsolutePath());
+            }
+        }
+    }
+
+    private void execute(InputStream in, GraphPropertyWorkData data, String mimeType, File textFile) throws Exception {
         Charset charset = Charset.forName("UTF-8");
         Metadata metadata = new Metadata();
         metadata.set(Metadata.CONTENT_TYPE, mimeType);
-        String text = extractText(in, mimeType, metadata);
+        extractText(in, mimeType, metadata, textFile);
         String propertyKey = getPropertyKey(data);
         TikaTextExtractorGraphPropertyWorkerConfiguration.TextExtractMapping textExtractMapping
                 = configuration.getTextExtractMapping(data.getElement(), data.getProperty());
@@ -184,11 +213,12 @@ public class TikaTextExtractorGraphPropertyWorker extends GraphPropertyWorker {
             );
         }
 
+        InputStream textIn = null;
         if (customImageMetadata != null && !customImageMetadata.equals("")) {
             try {
                 JSONObject customImageMetadataJson = new JSONObject(customImageMetadata);
 
-                text = new JSONObject(customImageMetadataJson.get("description").toString()).get("_content") +
+                String text = new JSONObject(customImageMetadataJson.get("description").toString()).get("_content") +
                         "\n" + customImageMetadataJson.get("tags").toString();
                 StreamingPropertyValue textValue = new StreamingPropertyValue(new ByteArrayInputStream(text.getBytes(charset)), String.class);
                 addTextProperty(textExtractMapping, m, propertyKey, textValue, textMetadata, data.getProperty().getVisibility());
@@ -208,7 +238,8 @@ public class TikaTextExtractorGraphPropertyWorker extends GraphPropertyWorker {
                 LOGGER.warn("Image returned invalid custom metadata");
             }
         } else {
-            StreamingPropertyValue textValue = new StreamingPropertyValue(new ByteArrayInputStream(text.getBytes(charset)), String.class);
+            textIn = new FileInputStream(textFile);
+            StreamingPropertyValue textValue = new StreamingPropertyValue(textIn, String.class);
             addTextProperty(textExtractMapping, m, propertyKey, textValue, textMetadata, data.getProperty().getVisibility());
 
             VisalloProperties.MODIFIED_DATE.setProperty(m, extractDate(metadata), defaultVisibility);
@@ -233,7 +264,11 @@ public class TikaTextExtractorGraphPropertyWorker extends GraphPropertyWorker {
             }
         }
 
-        m.save(getAuthorizations());
+        try {
+            m.save(getAuthorizations());
+        } finally {
+            IOUtils.closeQuietly(textIn);
+        }
 
         getGraph().flush();
         getWorkQueueRepository().pushGraphPropertyQueue(
@@ -266,62 +301,87 @@ public class TikaTextExtractorGraphPropertyWorker extends GraphPropertyWorker {
         return data.getProperty().getKey();
     }
 
-    private String extractText(InputStream in, String mimeType, Metadata metadata) throws IOException, SAXException, TikaException, BoilerpipeProcessingException {
+    /**
+     * Extracts the text of the document into textFile. HTML is spooled to a temporary file by Tika, the main
+     * content found by Boilerpipe replaces the extracted body text when there is any.
+     */
+    private void extractText(InputStream in, String mimeType, Metadata metadata, File textFile) throws Exception {
         metadata.set(Metadata.CONTENT_TYPE, mimeType);
 
-        String text;
-
-        if (isHtml(mimeType)) {
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
-            IOUtils.copy(in, out);
-            byte[] textBytes = out.toByteArray();
-            String bodyContent = extractTextWithTika(new ByteArrayInputStream(textBytes), metadata);
-
-            text = extractTextFromHtml(IOUtils.toString(textBytes, "UTF-8"));
-            if (text == null || text.length() == 0) {
-                text = cleanExtractedText(bodyContent);
+        TemporaryResources tmp = new TemporaryResources();
+        try {
+            TikaInputStream tis = TikaInputStream.get(in, tmp);
+            if (isHtml(mimeType)) {
+                File htmlFile = tis.getFile();
+                extractTextWithTika(tis, metadata, textFile);
+
+                int maxLength = configuration.getMaxExtractedTextLength();
+                if (maxLength >= 0 && htmlFile.length() > maxLength) {
+                    LOGGER.warn("HTML is too large for boilerplate removal (%d bytes), using the extracted body text", htmlFile.length());
+                    return;
+                }
+                String text = extractTextFromHtml(FileUtils.readFileToString(htmlFile, StandardCharsets.UTF_8));
+                if (text != null && text.length() > 0) {
+                    FileUtils.write(textFile, Normalizer.normalize(text, Normalizer.Form.NFC), StandardCharsets.UTF_8);
+                }
+            } else {
+                extractTextWithTika(tis, metadata, textFile);
             }
-        } else {
-            text = cleanExtractedText(extractTextWithTika(in, metadata));
+        } finally {
+            tmp.dispose();
         }
-
-        return Normalizer.normalize(text, Normalizer.Form.NFC);
     }
 
-    private static String extractTextWithTika(InputStream stream, Metadata metadata) throws TikaException, SAXException, IOException {
-        TikaConfig tikaConfig = TikaConfig.getDefaultConfig();
-        CompositeParser compositeParser = new CompositeParser(tikaConfig.getMediaTypeRegistry(), tikaConfig.getParser());
-        ByteArrayOutputStream output = new ByteArrayOutputStream();
-        OutputStreamWriter writer = new OutputStreamWriter(output, "UTF-8");
-        ContentHandler handler = new BodyContentHandler(writer);
-        ParseContext context = new ParseContext();
-        context.set(PDFParserConfig.class, new VisalloParserConfig());
-
-        TemporaryResources tmp = new TemporaryResources();
+    private void extractTextWithTika(TikaInputStream tis, Metadata metadata, File textFile) throws Exception {
+        Writer writer = new TextCleaningWriter(new NfcNormalizingWriter(new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(textFile), StandardCharsets.UTF_8)
+        )));
         try {
-            TikaInputStream tis = TikaInputStream.get(stream, tmp);
+            WriteOutContentHandler writeOutContentHandler = new WriteOutContentHandler(writer, configuration.getMaxExtractedTextLength());
+            ContentHandler handler = new BodyContentHandler(writeOutContentHandler);
+            ParseContext context = new ParseContext();
+            context.set(PDFParserConfig.class, new VisalloParserConfig());
 
             // TIKA-216: Zip bomb prevention
             SecureContentHandler sch = new SecureContentHandler(handler, tis);
+            Future<?> parse = parseExecutor.submit(() -> {
+                parser.parse(tis, sch, metadata, context);
+                return null;
+            });
             try {
-                compositeParser.parse(tis, sch, metadata, context);
-            } catch (SAXException e) {
-                // Convert zip bomb exceptions to TikaExceptions
-                sch.throwIfCauseOf(e);
-                throw e;
+                parse.get(configuration.getExtractionTimeoutSeconds(), TimeUnit.SECONDS);
+            } catch (TimeoutException ex) {
+                parse.cancel(true);
+                LOGGER.warn("Text extraction did not finish within %d seconds, using the text extracted so far", configuration.getExtractionTimeoutSeconds());
+            } catch (ExecutionException ex) {
+                Throwable cause = ex.getCause();
+                if (cause instanceof SAXException) {
+                    if (writeOutContentHandler.isWriteLimitReached(cause)) {
+                        LOGGER.warn("Extracted text was truncated to %d characters", configuration.getMaxExtractedTextLength());
+                    } else {
+                        // Convert zip bomb exceptions to TikaExceptions
+                        sch.throwIfCauseOf((SAXException) cause);
+                        throw (SAXException) cause;
+                    }
+                } else if (cause instanceof TikaException) {
+                    throw (TikaException) cause;
+                } else if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                } else {
+                    throw new VisalloException("Could not extract text", cause);
+                }
             }
         } finally {
-            tmp.dispose();
+            writer.close();
         }
 
         if (LOGGER.isDebugEnabled()) {
-            LOGGER.debug("extracted %d bytes", output.size());
+            LOGGER.debug("extracted %d bytes", textFile.length());
             LOGGER.debug("metadata");
             for (String metadataName : metadata.names()) {
                 LOGGER.debug("  %s: %s", metadataName, metadata.get(metadataName));
             }
         }
-        return IOUtils.toString(output.toByteArray(), "UTF-8");
     }
 
     private String extractTextFromHtml(String text) throws BoilerpipeProcessingException {
@@ -386,22 +446,6 @@ public class TikaTextExtractorGraphPropertyWorker extends GraphPropertyWorker {
         return mimeType.contains("html");
     }
 
-    private String cleanExtractedText(String extractedText) {
-        return extractedText
-                // Normalize line breaks
-                .replaceAll("\r", "\n")
-                // Remove tabs
-                .replaceAll("\t", " ")
-                // Remove non-breaking spaces
-                .replaceAll("\u00A0", " ")
-                // Remove newlines that are just paragraph wrapping
-                .replaceAll("(?<![\\n])[\\n](?![\\n])", " ")
-                // Remove remaining newlines with exactly 2
-                .replaceAll("([ ]*\\n[ ]*)+", "\n\n")
-                // Remove duplicate spaces
-                .replaceAll("[ ]+", " ");
-    }
-
     @Override
     public boolean isHandled(Element element, Property property) {
         if (property == null) {
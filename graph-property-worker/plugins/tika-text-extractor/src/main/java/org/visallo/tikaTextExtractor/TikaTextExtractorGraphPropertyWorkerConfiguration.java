@@ -15,8 +15,14 @@ public class TikaTextExtractorGraphPropertyWorkerConfiguration {
     public static final String CONFIGURATION_PREFIX = TikaTextExtractorGraphPropertyWorker.class.getName();
     public static final String TEXT_EXTRACT_MAPPING_CONFIGURATION_PREFIX = CONFIGURATION_PREFIX + ".textExtractMapping";
     public static final String DEFAULT_TEXT_EXTRACT_MAPPING = "raw";
+    public static final String MAX_EXTRACTED_TEXT_LENGTH = CONFIGURATION_PREFIX + ".maxExtractedTextLength";
+    public static final int MAX_EXTRACTED_TEXT_LENGTH_DEFAULT = 50 * 1024 * 1024;
+    public static final String EXTRACTION_TIMEOUT_SECONDS = CONFIGURATION_PREFIX + ".extractionTimeoutSeconds";
+    public static final int EXTRACTION_TIMEOUT_SECONDS_DEFAULT = 5 * 60;
 
     private final Map<String, TextExtractMapping> textExtractMappings;
+    private final int maxExtractedTextLength;
+    private final int extractionTimeoutSeconds;
 
     @Inject
     public TikaTextExtractorGraphPropertyWorkerConfiguration(Configuration configuration) {
@@ -29,6 +35,23 @@ public class TikaTextExtractorGraphPropertyWorkerConfiguration {
             textExtractMapping.textDescription = "Extracted Text";
             textExtractMappings.put(DEFAULT_TEXT_EXTRACT_MAPPING, textExtractMapping);
         }
+
+        maxExtractedTextLength = configuration.getInt(MAX_EXTRACTED_TEXT_LENGTH, MAX_EXTRACTED_TEXT_LENGTH_DEFAULT);
+        extractionTimeoutSeconds = configuration.getInt(EXTRACTION_TIMEOUT_SECONDS, EXTRACTION_TIMEOUT_SECONDS_DEFAULT);
+    }
+
+    /**
+     * The maximum number of characters extracted from a document, text past this is dropped. -1 for no limit.
+     */
+    int getMaxExtractedTextLength() {
+        return maxExtractedTextLength;
+    }
+
+    /**
+     * How long text extraction of a document can run before the text extracted so far is used.
+     */
+    int getExtractionTimeoutSeconds() {
+        return extractionTimeoutSeconds;
     }
 
     boolean isHandled(Element element, Property property) {
@@ -0,0 +1,40 @@
+package org.visallo.tikaTextExtractor;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.Assert.assertEquals;
+
+public class TextCleaningWriterTest {
+    @Test
+    public void testCleansLikeRegexReplacement() throws IOException {
+        assertEquals("one two three", clean("one\ttwo  three"));
+        assertEquals("a paragraph wrapped", clean("a paragraph\nwrapped"));
+        assertEquals("first\n\nsecond", clean("first \r\n second"));
+        assertEquals("first\n\nsecond", clean("first\n\n\n\nsecond"));
+        assertEquals("a b", clean("a\n \nb"));
+        assertEquals("trailing ", clean("trailing \n"));
+    }
+
+    @Test
+    public void testCleansAcrossWrites() throws IOException {
+        StringWriter result = new StringWriter();
+        try (TextCleaningWriter writer = new TextCleaningWriter(result)) {
+            writer.write("first\n");
+            writer.write("\nsecond\t");
+            writer.write(' ');
+            writer.write("third");
+        }
+        assertEquals("first\n\nsecond third", result.toString());
+    }
+
+    private static String clean(String text) throws IOException {
+        StringWriter result = new StringWriter();
+        try (TextCleaningWriter writer = new TextCleaningWriter(result)) {
+            writer.write(text);
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,35 @@
+package org.visallo.tools;
+
+import com.beust.jcommander.Parameter;
+import com.beust.jcommander.Parameters;
+import com.google.inject.Inject;
+import org.visallo.core.cmdline.CommandLineTool;
+import org.visallo.core.model.longRunningProcess.LongRunningProcessRepository;
+import org.visallo.core.model.termMention.TermMentionPropertyIndexQueueItem;
+
+@Parameters(commandDescription = "Index the term mentions of documents by property by enqueueing a long running process item")
+public class IndexTermMentions extends CommandLineTool {
+    private LongRunningProcessRepository longRunningProcessRepository;
+
+    @Parameter(names = {"--startId"}, description = "Inclusive start of the vertex id range to index, defaults to the first vertex")
+    private String startId = null;
+
+    @Parameter(names = {"--endId"}, description = "Exclusive end of the vertex id range to index, defaults to the last vertex")
+    private String endId = null;
+
+    public static void main(String[] args) throws Exception {
+        CommandLineTool.main(new IndexTermMentions(), args);
+    }
+
+    @Override
+    protected int run() throws Exception {
+        TermMentionPropertyIndexQueueItem queueItem = new TermMentionPropertyIndexQueueItem(startId, endId);
+        longRunningProcessRepository.enqueue(queueItem, getUser(), getAuthorizations());
+        return 0;
+    }
+
+    @Inject
+    public void setLongRunningProcessRepository(LongRunningProcessRepository longRunningProcessRepository) {
+        this.longRunningProcessRepository = longRunningProcessRepository;
+    }
+}
@@ -36,6 +36,9 @@ public class Reindex extends CommandLineTool {
     @Parameter(names = {"--batchSize"}, description = "Number of elements to submit to search index at a time")
     private Integer batchSize = null;
 
+    @Parameter(names = {"--pipelined"}, description = "Overlap reading elements and submitting them to the search index, adapting the batch size to index latency")
+    private boolean pipelined = false;
+
     public static void main(String[] args) throws Exception {
         CommandLineTool.main(new Reindex(), args);
     }
@@ -78,7 +81,8 @@ public class Reindex extends CommandLineTool {
                     elementType,
                     batchSize,
                     null,
-                    null
+                    null,
+                    pipelined
             );
             longRunningProcessRepository.enqueue(reindexQueueItem, getUser(), getAuthorizations());
             return;
@@ -90,7 +94,8 @@ public class Reindex extends CommandLineTool {
                     elementType,
                     batchSize,
                     lastSplit,
-                    split
+                    split,
+                    pipelined
             );
             longRunningProcessRepository.enqueue(reindexQueueItem, getUser(), getAuthorizations());
             lastSplit = split;
@@ -99,7 +104,8 @@ public class Reindex extends CommandLineTool {
                 elementType,
                 batchSize,
                 lastSplit,
-                null
+                null,
+                pipelined
         );
         longRunningProcessRepository.enqueue(reindexQueueItem, getUser(), getAuthorizations());
     }
@@ -5,6 +5,7 @@ import java.util.List;
 
 public class ClientApiExtendedDataGetResponse implements ClientApiObject {
     private final List<ClientApiExtendedDataRow> rows;
+    private String nextCursor;
 
     public ClientApiExtendedDataGetResponse() {
         this.rows = new ArrayList<ClientApiExtendedDataRow>();
@@ -17,4 +18,12 @@ public class ClientApiExtendedDataGetResponse implements ClientApiObject {
     public List<ClientApiExtendedDataRow> getRows() {
         return rows;
     }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
 }
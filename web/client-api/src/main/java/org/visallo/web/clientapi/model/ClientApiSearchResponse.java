@@ -6,6 +6,7 @@ import java.util.*;
 
 public abstract class ClientApiSearchResponse implements ClientApiObject {
     private Integer nextOffset = null;
+    private String nextCursor = null;
     private Long retrievalTime = null;
     private Long totalTime = null;
     private Long totalHits = null;
@@ -20,6 +21,14 @@ public abstract class ClientApiSearchResponse implements ClientApiObject {
         this.nextOffset = nextOffset;
     }
 
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
     public Long getRetrievalTime() {
         return retrievalTime;
     }
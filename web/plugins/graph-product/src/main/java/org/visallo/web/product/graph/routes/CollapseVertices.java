@@ -16,12 +16,10 @@ import org.visallo.core.model.graph.GraphUpdateContext;
 import org.visallo.core.model.user.AuthorizationRepository;
 import org.visallo.core.model.workQueue.Priority;
 import org.visallo.core.model.workQueue.WorkQueueRepository;
-import org.visallo.core.model.workspace.Workspace;
 import org.visallo.core.model.workspace.WorkspaceRepository;
 import org.visallo.core.model.workspace.product.WorkProductVertex;
 import org.visallo.core.user.User;
 import org.visallo.core.util.ClientApiConverter;
-import org.visallo.web.clientapi.model.ClientApiWorkspace;
 import org.visallo.web.parameterProviders.ActiveWorkspaceId;
 import org.visallo.web.parameterProviders.SourceGuid;
 import org.visallo.web.product.graph.GraphWorkProductService;
@@ -91,10 +89,7 @@ public class CollapseVertices implements ParameterizedHandler {
             throw new VisalloException("Could not collapse vertices in product: " + productId, e);
         }
 
-        Workspace workspace = workspaceRepository.findById(workspaceId, user);
-        ClientApiWorkspace clientApiWorkspace = workspaceRepository.toClientApi(workspace, user, authorizations);
-
-        workQueueRepository.broadcastWorkProductChange(productId, clientApiWorkspace, user, sourceGuid);
+        workQueueRepository.broadcastWorkProductChange(productId, workspaceId, user, sourceGuid);
 
         return results;
     }
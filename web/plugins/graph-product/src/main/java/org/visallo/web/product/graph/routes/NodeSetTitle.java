@@ -12,13 +12,11 @@ import org.vertexium.mutation.ElementMutation;
 import org.visallo.core.exception.VisalloAccessDeniedException;
 import org.visallo.core.model.user.AuthorizationRepository;
 import org.visallo.core.model.workQueue.WorkQueueRepository;
-import org.visallo.core.model.workspace.Workspace;
 import org.visallo.core.model.workspace.WorkspaceRepository;
 import org.visallo.core.model.workspace.product.WorkProductServiceHasElementsBase;
 import org.visallo.core.user.User;
 import org.visallo.web.VisalloResponse;
 import org.visallo.web.clientapi.model.ClientApiSuccess;
-import org.visallo.web.clientapi.model.ClientApiWorkspace;
 import org.visallo.web.parameterProviders.ActiveWorkspaceId;
 import org.visallo.web.parameterProviders.SourceGuid;
 import org.visallo.web.product.graph.GraphProductOntology;
@@ -74,10 +72,7 @@ public class NodeSetTitle implements ParameterizedHandler {
         m.save(authorizations);
         graph.flush();
 
-        Workspace workspace = workspaceRepository.findById(workspaceId, user);
-        ClientApiWorkspace clientApiWorkspace = workspaceRepository.toClientApi(workspace, user, authorizations);
-
-        workQueueRepository.broadcastWorkProductChange(productId, clientApiWorkspace, user, sourceGuid);
+        workQueueRepository.broadcastWorkProductChange(productId, workspaceId, user, sourceGuid);
 
         return VisalloResponse.SUCCESS;
     }
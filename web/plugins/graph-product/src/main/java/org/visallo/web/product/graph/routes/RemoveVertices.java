@@ -16,13 +16,11 @@ import org.visallo.core.model.graph.GraphUpdateContext;
 import org.visallo.core.model.user.AuthorizationRepository;
 import org.visallo.core.model.workQueue.Priority;
 import org.visallo.core.model.workQueue.WorkQueueRepository;
-import org.visallo.core.model.workspace.Workspace;
 import org.visallo.core.model.workspace.WorkspaceRepository;
 import org.visallo.core.user.User;
 import org.visallo.core.util.ClientApiConverter;
 import org.visallo.web.VisalloResponse;
 import org.visallo.web.clientapi.model.ClientApiSuccess;
-import org.visallo.web.clientapi.model.ClientApiWorkspace;
 import org.visallo.web.parameterProviders.ActiveWorkspaceId;
 import org.visallo.web.parameterProviders.SourceGuid;
 import org.visallo.web.product.graph.GraphWorkProductService;
@@ -96,9 +94,6 @@ public class RemoveVertices implements ParameterizedHandler {
             throw new VisalloException("Could not remove vertices from product: " + productId);
         }
 
-        Workspace workspace = workspaceRepository.findById(workspaceId, user);
-        ClientApiWorkspace clientApiWorkspace = workspaceRepository.toClientApi(workspace, user, authorizations);
-
         String skipSourceGuid = null;
         if (params.getBroadcastOptions() != null) {
             RemoveVerticesParams.BroadcastOptions broadcastOptions = params.getBroadcastOptions();
@@ -106,7 +101,7 @@ public class RemoveVertices implements ParameterizedHandler {
                 skipSourceGuid = sourceGuid;
             }
         }
-        workQueueRepository.broadcastWorkProductChange(productId, clientApiWorkspace, user, skipSourceGuid);
+        workQueueRepository.broadcastWorkProductChange(productId, workspaceId, user, skipSourceGuid);
 
         return VisalloResponse.SUCCESS;
     }
@@ -15,14 +15,12 @@ import org.visallo.core.model.graph.GraphUpdateContext;
 import org.visallo.core.model.user.AuthorizationRepository;
 import org.visallo.core.model.workQueue.Priority;
 import org.visallo.core.model.workQueue.WorkQueueRepository;
-import org.visallo.core.model.workspace.Workspace;
 import org.visallo.core.model.workspace.WorkspaceHelper;
 import org.visallo.core.model.workspace.WorkspaceRepository;
 import org.visallo.core.user.User;
 import org.visallo.core.util.ClientApiConverter;
 import org.visallo.web.VisalloResponse;
 import org.visallo.web.clientapi.model.ClientApiSuccess;
-import org.visallo.web.clientapi.model.ClientApiWorkspace;
 import org.visallo.web.parameterProviders.ActiveWorkspaceId;
 import org.visallo.web.parameterProviders.SourceGuid;
 import org.visallo.web.product.graph.GraphWorkProductService;
@@ -102,10 +100,7 @@ public class UpdateVertices implements ParameterizedHandler {
             throw new VisalloException("Could not update vertices in product: " + productId);
         }
 
-        Workspace workspace = workspaceRepository.findById(workspaceId, user);
-        ClientApiWorkspace clientApiWorkspace = workspaceRepository.toClientApi(workspace, user, authorizations);
-
-        workQueueRepository.broadcastWorkProductChange(productId, clientApiWorkspace, user, sourceGuid);
+        workQueueRepository.broadcastWorkProductChange(productId, workspaceId, user, sourceGuid);
 
         return VisalloResponse.SUCCESS;
     }
@@ -14,12 +14,10 @@ import org.visallo.core.model.graph.GraphUpdateContext;
 import org.visallo.core.model.user.AuthorizationRepository;
 import org.visallo.core.model.workQueue.Priority;
 import org.visallo.core.model.workQueue.WorkQueueRepository;
-import org.visallo.core.model.workspace.Workspace;
 import org.visallo.core.model.workspace.WorkspaceRepository;
 import org.visallo.core.user.User;
 import org.visallo.web.VisalloResponse;
 import org.visallo.web.clientapi.model.ClientApiSuccess;
-import org.visallo.web.clientapi.model.ClientApiWorkspace;
 import org.visallo.web.parameterProviders.ActiveWorkspaceId;
 import org.visallo.web.parameterProviders.SourceGuid;
 import org.visallo.web.product.map.MapWorkProductService;
@@ -27,7 +25,6 @@ import org.visallo.web.product.map.MapWorkProductService;
 @Singleton
 public class RemoveVertices implements ParameterizedHandler {
     private final Graph graph;
-    private final WorkspaceRepository workspaceRepository;
     private final WorkQueueRepository workQueueRepository;
     private final AuthorizationRepository authorizationRepository;
     private final GraphRepository graphRepository;
@@ -36,14 +33,12 @@ public class RemoveVertices implements ParameterizedHandler {
     @Inject
     public RemoveVertices(
             Graph graph,
-            WorkspaceRepository workspaceRepository,
             WorkQueueRepository workQueueRepository,
             AuthorizationRepository authorizationRepository,
             GraphRepository graphRepository,
             MapWorkProductService mapWorkProductService
     ) {
         this.graph = graph;
-        this.workspaceRepository = workspaceRepository;
         this.workQueueRepository = workQueueRepository;
         this.authorizationRepository = authorizationRepository;
         this.graphRepository = graphRepository;
@@ -70,10 +65,7 @@ public class RemoveVertices implements ParameterizedHandler {
             throw new VisalloException("Could not remove vertices from product: " + productId);
         }
 
-        Workspace workspace = workspaceRepository.findById(workspaceId, user);
-        ClientApiWorkspace clientApiWorkspace = workspaceRepository.toClientApi(workspace, user, authorizations);
-
-        workQueueRepository.broadcastWorkProductChange(productId, clientApiWorkspace, user, sourceGuid);
+        workQueueRepository.broadcastWorkProductChange(productId, workspaceId, user, sourceGuid);
 
         return VisalloResponse.SUCCESS;
     }
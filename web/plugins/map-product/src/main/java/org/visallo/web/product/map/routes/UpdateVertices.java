@@ -14,7 +14,6 @@ import org.visallo.core.model.graph.GraphUpdateContext;
 import org.visallo.core.model.user.AuthorizationRepository;
 import org.visallo.core.model.workQueue.Priority;
 import org.visallo.core.model.workQueue.WorkQueueRepository;
-import org.visallo.core.model.workspace.Workspace;
 import org.visallo.core.model.workspace.WorkspaceHelper;
 import org.visallo.core.model.workspace.WorkspaceRepository;
 import org.visallo.core.model.workspace.product.UpdateProductEdgeOptions;
@@ -23,7 +22,6 @@ import org.visallo.core.user.User;
 import org.visallo.core.util.ClientApiConverter;
 import org.visallo.web.VisalloResponse;
 import org.visallo.web.clientapi.model.ClientApiSuccess;
-import org.visallo.web.clientapi.model.ClientApiWorkspace;
 import org.visallo.web.parameterProviders.ActiveWorkspaceId;
 import org.visallo.web.parameterProviders.SourceGuid;
 import org.visallo.web.product.map.MapWorkProductService;
@@ -34,7 +32,6 @@ import java.util.Map;
 public class UpdateVertices implements ParameterizedHandler {
     private final Graph graph;
     private final VisibilityTranslator visibilityTranslator;
-    private final WorkspaceRepository workspaceRepository;
     private final WorkspaceHelper workspaceHelper;
     private final WorkQueueRepository workQueueRepository;
     private final AuthorizationRepository authorizationRepository;
@@ -45,7 +42,6 @@ public class UpdateVertices implements ParameterizedHandler {
     public UpdateVertices(
             Graph graph,
             VisibilityTranslator visibilityTranslator,
-            WorkspaceRepository workspaceRepository,
             WorkspaceHelper workspaceHelper,
             WorkQueueRepository workQueueRepository,
             AuthorizationRepository authorizationRepository,
@@ -54,7 +50,6 @@ public class UpdateVertices implements ParameterizedHandler {
     ) {
         this.graph = graph;
         this.visibilityTranslator = visibilityTranslator;
-        this.workspaceRepository = workspaceRepository;
         this.workspaceHelper = workspaceHelper;
         this.workQueueRepository = workQueueRepository;
         this.authorizationRepository = authorizationRepository;
@@ -91,10 +86,7 @@ public class UpdateVertices implements ParameterizedHandler {
             throw new VisalloException("Could not update vertices in product: " + productId);
         }
 
-        Workspace workspace = workspaceRepository.findById(workspaceId, user);
-        ClientApiWorkspace clientApiWorkspace = workspaceRepository.toClientApi(workspace, user, authorizations);
-
-        workQueueRepository.broadcastWorkProductChange(productId, clientApiWorkspace, user, sourceGuid);
+        workQueueRepository.broadcastWorkProductChange(productId, workspaceId, user, sourceGuid);
 
         return VisalloResponse.SUCCESS;
     }
@@ -57,8 +57,12 @@ define([
             },
             userWorkspaceChange: NOOP,
             publish: function(data) {
+                if (data.objectType === 'elements') {
+                    require(['../store/element/actions-impl'], function(actions) {
+                        store.getStore().dispatch(actions.elementsChange(data));
+                    });
                 // Property undo already publishes propertyChange
-                if (data.objectType !== 'property' || data.publishType !== 'undo') {
+                } else if (data.objectType !== 'property' || data.publishType !== 'undo') {
                     socketHandlers.propertyChange(data);
                 }
             },
@@ -128,7 +132,8 @@ define([
                     eventName: 'notificationDeleted',
                     data: data
                 });
-            }
+            },
+            userNotificationsRead: NOOP
         },
         callHandlersForName = function(name, data) {
             var extensions = _.where(
@@ -164,6 +164,20 @@ define(['../actions', 'data/web-worker/util/ajax'], function(actions, ajax) {
             workspaceIds.forEach(updateOnWorkspace);
         },
 
+        elementsChange: ({ vertexIds = [], edgeIds = [] }) => (dispatch, getState) => {
+            const state = getState();
+
+            getWorkspaceIds(state).forEach(workspaceId => {
+                const { vertices = {}, edges = {} } = state.element[workspaceId] || {};
+                dispatch(api.get({
+                    workspaceId,
+                    vertexIds: vertexIds.filter(id => id in vertices),
+                    edgeIds: edgeIds.filter(id => id in edges),
+                    invalidate: true
+                }));
+            });
+        },
+
         deleteElements: ({ vertexIds, edgeIds }) => (dispatch, getState) => {
             const state = getState();
 
@@ -6,6 +6,8 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.visallo.core.model.graph.EdgeSummaryCache;
+import org.visallo.core.model.user.UserPresenceRegistry;
 import org.visallo.core.model.user.UserRepository;
 import org.visallo.core.user.User;
 import org.visallo.vertexium.model.user.InMemoryUser;
@@ -40,6 +42,20 @@ public class MessagingFilterTest {
         assertFalse(messagingFilter.shouldSendMessage(message, null));
     }
 
+    @Test
+    public void testShouldNotSendUserPresenceMessage() {
+        JSONObject message = new JSONObject();
+        message.put("type", UserPresenceRegistry.BROADCAST_TYPE);
+        assertFalse(messagingFilter.shouldSendMessage(message, request));
+    }
+
+    @Test
+    public void testShouldNotSendEdgeSummaryInvalidateMessage() {
+        JSONObject message = new JSONObject();
+        message.put("type", EdgeSummaryCache.BROADCAST_TYPE);
+        assertFalse(messagingFilter.shouldSendMessage(message, request));
+    }
+
     @Test
     public void testShouldSendMessageSessionNull() {
         JSONObject message = new JSONObject();
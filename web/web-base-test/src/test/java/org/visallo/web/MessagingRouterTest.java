@@ -0,0 +1,140 @@
+package org.visallo.web;
+
+import org.atmosphere.cpr.AtmosphereResource;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.visallo.core.model.user.UserPresenceRegistry;
+import org.visallo.core.model.user.UserRepository;
+import org.visallo.core.user.User;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class MessagingRouterTest {
+    private MessagingRouter messagingRouter;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private AtmosphereResource resource1;
+
+    @Mock
+    private AtmosphereResource resource2;
+
+    @Mock
+    private AtmosphereResource resource3;
+
+    @Before
+    public void before() {
+        when(userRepository.getCurrentWorkspaceId("user1")).thenReturn("ws1");
+        when(userRepository.getCurrentWorkspaceId("user2")).thenReturn("ws2");
+        messagingRouter = new MessagingRouter(userRepository);
+        messagingRouter.register(resource1, "user1");
+        messagingRouter.register(resource2, "user1");
+        messagingRouter.register(resource3, "user2");
+    }
+
+    @Test
+    public void testRouteWithoutPermissions() {
+        assertNull(messagingRouter.route(new JSONObject().put("type", "test")));
+    }
+
+    @Test
+    public void testRouteSetActiveWorkspace() {
+        JSONObject message = new JSONObject().put("type", MessagingFilter.TYPE_SET_ACTIVE_WORKSPACE);
+        assertEquals(Collections.emptySet(), messagingRouter.route(message));
+    }
+
+    @Test
+    public void testRouteUserPresence() {
+        JSONObject message = new JSONObject().put("type", UserPresenceRegistry.BROADCAST_TYPE);
+        assertEquals(Collections.emptySet(), messagingRouter.route(message));
+    }
+
+    @Test
+    public void testRouteByUsersAndWorkspaces() {
+        assertEquals(setOf(resource1, resource2), messagingRouter.route(createMessage("user1", null)));
+        assertEquals(setOf(resource3), messagingRouter.route(createMessage(null, "ws2")));
+        assertEquals(Collections.emptySet(), messagingRouter.route(createMessage("user1", "ws2")));
+        assertEquals(Collections.emptySet(), messagingRouter.route(createMessage("user3", null)));
+    }
+
+    @Test
+    public void testRouteAfterWorkspaceChange() {
+        JSONObject change = new JSONObject()
+                .put("type", "userWorkspaceChange")
+                .put("data", new JSONObject().put("id", "user2").put("workspaceId", "ws1"));
+        messagingRouter.route(change);
+
+        assertEquals(setOf(resource1, resource2, resource3), messagingRouter.route(createMessage(null, "ws1")));
+        assertEquals(Collections.emptySet(), messagingRouter.route(createMessage(null, "ws2")));
+        assertEquals("ws1", messagingRouter.getCurrentWorkspaceId("user2"));
+    }
+
+    @Test
+    public void testRouteAfterUserUpdated() {
+        messagingRouter.userUpdated(createUser("user2", "ws1"));
+        assertEquals(setOf(resource1, resource2, resource3), messagingRouter.route(createMessage(null, "ws1")));
+        assertEquals(Collections.emptySet(), messagingRouter.route(createMessage(null, "ws2")));
+
+        messagingRouter.userUpdated(createUser("user1", null));
+        assertEquals(setOf(resource3), messagingRouter.route(createMessage(null, "ws1")));
+
+        messagingRouter.userUpdated(createUser("user3", "ws1"));
+        assertEquals(setOf(resource3), messagingRouter.route(createMessage(null, "ws1")));
+        verify(userRepository, never()).getCurrentWorkspaceId("user3");
+    }
+
+    @Test
+    public void testUnregister() {
+        messagingRouter.unregister(resource1, "user1");
+        assertEquals(setOf(resource2), messagingRouter.route(createMessage("user1", null)));
+
+        messagingRouter.unregister(resource2, "user1");
+        assertEquals(Collections.emptySet(), messagingRouter.route(createMessage(null, "ws1")));
+    }
+
+    @Test
+    public void testParseReusesLastMessage() {
+        String message = new JSONObject().put("type", "test").toString();
+        JSONObject json = messagingRouter.parse(message);
+        assertSame(json, messagingRouter.parse(message));
+        assertNotSame(json, messagingRouter.parse(new String(message)));
+    }
+
+    private static Set<AtmosphereResource> setOf(AtmosphereResource... resources) {
+        return new HashSet<>(Arrays.asList(resources));
+    }
+
+    private static User createUser(String userId, String currentWorkspaceId) {
+        User user = mock(User.class);
+        when(user.getUserId()).thenReturn(userId);
+        when(user.getCurrentWorkspaceId()).thenReturn(currentWorkspaceId);
+        return user;
+    }
+
+    private static JSONObject createMessage(String userId, String workspaceId) {
+        JSONObject permissions = new JSONObject();
+        if (userId != null) {
+            permissions.put("users", new JSONArray().put(userId));
+        }
+        if (workspaceId != null) {
+            permissions.put("workspaces", new JSONArray().put(workspaceId));
+        }
+        return new JSONObject()
+                .put("type", "test")
+                .put("permissions", permissions);
+    }
+}
@@ -67,6 +67,7 @@ public class AuthTokenFilterTest {
         when(filterConfig.getInitParameter(AUTH_TOKEN_EXPIRATION_IN_MINS)).thenReturn(EXPIRATION);
         when(filterConfig.getInitParameter(AUTH_TOKEN_EXPIRATION_TOLERANCE_IN_SECS)).thenReturn(EXPIRATION_TOLERANCE);
         when(injector.getInstance(UserRepository.class)).thenReturn(userRepository);
+        when(injector.getInstance(AuthTokenCache.class)).thenReturn(new AuthTokenCache(100, 60));
         InjectHelper.setInjector(injector);
         filter = new AuthTokenFilter();
         filter.init(filterConfig);
@@ -91,6 +92,21 @@ public class AuthTokenFilterTest {
         verify(chain).doFilter(eq(request), any(HttpServletResponse.class));
     }
 
+    @Test
+    public void testCachedTokenLoadsCurrentUserForEachRequest() throws Exception {
+        AuthToken token = getToken(user.getUserId(), new Date(System.currentTimeMillis() + 10000));
+        Cookie cookie = getTokenCookie(token);
+        User updatedUser = new InMemoryUser("user123");
+        when(request.getCookies()).thenReturn(new Cookie[] { cookie });
+        when(userRepository.findById(token.getUserId())).thenReturn(user, updatedUser);
+        filter.doFilter(request, response, chain);
+        filter.doFilter(request, response, chain);
+        verify(userRepository, times(2)).findById(token.getUserId());
+        verify(request).setAttribute(CurrentUser.CURRENT_USER_REQ_ATTR_NAME, user);
+        verify(request).setAttribute(CurrentUser.CURRENT_USER_REQ_ATTR_NAME, updatedUser);
+        verify(response, never()).addCookie(any(Cookie.class));
+    }
+
     @Test
     public void testExpiredTokenDoesNotSetCurrentUser() throws Exception {
         AuthToken token = getToken(user.getUserId(), new Date(System.currentTimeMillis() - 10000));
@@ -51,7 +51,7 @@ public class EdgeMultipleTest  extends RouteTestBase {
     public void testGetEdgesWithNoneFound() throws Exception {
         when(authorizationRepository.getGraphAuthorizations(user)).thenReturn(userAuthorizations);
 
-        ClientApiEdgeMultipleResponse response = route.handle(new String[]{"no-edge-id"}, null, request, user);
+        ClientApiEdgeMultipleResponse response = route.handle(new String[]{"no-edge-id"}, null, null, true, request, user);
 
         assertEquals(0, response.getEdges().size());
     }
@@ -60,7 +60,7 @@ public class EdgeMultipleTest  extends RouteTestBase {
     public void testGetEdgesWithNoneSpecfied() throws Exception {
         when(authorizationRepository.getGraphAuthorizations(user)).thenReturn(userAuthorizations);
 
-        ClientApiEdgeMultipleResponse response = route.handle(new String[]{}, null, request, user);
+        ClientApiEdgeMultipleResponse response = route.handle(new String[]{}, null, null, true, request, user);
 
         assertEquals(0, response.getEdges().size());
     }
@@ -69,7 +69,7 @@ public class EdgeMultipleTest  extends RouteTestBase {
     public void testGetEdgesWithNoWorkspaceId() throws Exception {
         when(authorizationRepository.getGraphAuthorizations(user)).thenReturn(userAuthorizations);
 
-        ClientApiEdgeMultipleResponse response = route.handle(new String[]{publicEdge.getId()}, null, request, user);
+        ClientApiEdgeMultipleResponse response = route.handle(new String[]{publicEdge.getId()}, null, null, true, request, user);
 
         assertEquals(1, response.getEdges().size());
         assertEquals(publicEdge.getId(), response.getEdges().get(0).getId());
@@ -79,7 +79,7 @@ public class EdgeMultipleTest  extends RouteTestBase {
     public void testGetEdges() throws Exception {
         when(authorizationRepository.getGraphAuthorizations(user, WORKSPACE_ID)).thenReturn(workspaceAuthorizations);
 
-        ClientApiEdgeMultipleResponse response = route.handle(new String[]{publicEdge.getId(), sandboxedEdge.getId()}, WORKSPACE_ID, request, user);
+        ClientApiEdgeMultipleResponse response = route.handle(new String[]{publicEdge.getId(), sandboxedEdge.getId()}, WORKSPACE_ID, null, true, request, user);
 
         assertEquals(2, response.getEdges().size());
         assertTrue(response.getEdges().stream().map(ClientApiEdge::getId).collect(Collectors.toList()).contains(publicEdge.getId()));
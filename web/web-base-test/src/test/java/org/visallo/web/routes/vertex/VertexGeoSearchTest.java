@@ -0,0 +1,108 @@
+package org.visallo.web.routes.vertex;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.vertexium.Authorizations;
+import org.vertexium.Visibility;
+import org.vertexium.type.GeoPoint;
+import org.visallo.core.model.ontology.OntologyProperty;
+import org.visallo.web.clientapi.model.ClientApiElementSearchResponse;
+import org.visallo.web.clientapi.model.ClientApiVertexiumObject;
+import org.visallo.web.clientapi.model.PropertyType;
+import org.visallo.web.routes.RouteTestBase;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class VertexGeoSearchTest extends RouteTestBase {
+    private static final String LOCATION = "http://visallo.org/test#location";
+    private static final String LOCATION2 = "http://visallo.org/test#location2";
+    private static final double LATITUDE = 38.9;
+    private static final double LONGITUDE = -77.0;
+    private static final double RADIUS = 20;
+    private static final String BOUNDING_BOX = "39.0,-77.5,38.8,-76.9";
+    private VertexGeoSearch route;
+    private Authorizations authorizations;
+
+    @Before
+    public void before() throws IOException {
+        super.before();
+        authorizations = graph.createAuthorizations("junit");
+        Visibility visibility = visibilityTranslator.getDefaultVisibility();
+
+        // both locations match, must only be returned once
+        graph.prepareVertex("v1", visibility)
+                .addPropertyValue("", LOCATION, new GeoPoint(LATITUDE, LONGITUDE), visibility)
+                .addPropertyValue("", LOCATION2, new GeoPoint(LATITUDE, LONGITUDE), visibility)
+                .save(authorizations);
+        graph.prepareVertex("v2", visibility)
+                .addPropertyValue("", LOCATION, new GeoPoint(38.92, -77.02), visibility)
+                .save(authorizations);
+        // first location is in the circle but not the bounding box, second is in the bounding box but not the circle
+        graph.prepareVertex("v3", visibility)
+                .addPropertyValue("", LOCATION, new GeoPoint(39.05, -77.0), visibility)
+                .addPropertyValue("", LOCATION2, new GeoPoint(38.9, -77.4), visibility)
+                .save(authorizations);
+        graph.flush();
+
+        OntologyProperty location = createGeoProperty(LOCATION);
+        OntologyProperty location2 = createGeoProperty(LOCATION2);
+        when(ontologyRepository.getProperties(WORKSPACE_ID)).thenReturn(Arrays.asList(location, location2));
+
+        route = new VertexGeoSearch(graph, ontologyRepository);
+    }
+
+    @Test
+    public void testBoundingBoxReturnsEachVertexOnce() throws Exception {
+        ClientApiElementSearchResponse response = search(null, 0);
+
+        assertEquals(2L, response.getTotalHits().longValue());
+        assertEquals(2, response.getElements().size());
+        assertEquals(new HashSet<>(Arrays.asList("v1", "v2")), getIds(response));
+        assertEquals(2, response.getNextOffset().intValue());
+    }
+
+    @Test
+    public void testBoundingBoxPaging() throws Exception {
+        ClientApiElementSearchResponse page1 = search(1, 0);
+        ClientApiElementSearchResponse page2 = search(1, 1);
+        ClientApiElementSearchResponse page3 = search(1, 2);
+
+        assertEquals(2L, page1.getTotalHits().longValue());
+        assertEquals(2L, page2.getTotalHits().longValue());
+        assertEquals(1, page1.getElements().size());
+        assertEquals(1, page2.getElements().size());
+        assertEquals(0, page3.getElements().size());
+
+        Set<String> ids = getIds(page1);
+        ids.addAll(getIds(page2));
+        assertEquals(new HashSet<>(Arrays.asList("v1", "v2")), ids);
+    }
+
+    private ClientApiElementSearchResponse search(Integer size, int offset) throws Exception {
+        return route.handle(LATITUDE, LONGITUDE, RADIUS, size, offset, BOUNDING_BOX, null, WORKSPACE_ID, authorizations);
+    }
+
+    private static Set<String> getIds(ClientApiElementSearchResponse response) {
+        return response.getElements().stream()
+                .map(ClientApiVertexiumObject::getId)
+                .collect(Collectors.toSet());
+    }
+
+    private static OntologyProperty createGeoProperty(String propertyName) {
+        OntologyProperty property = mock(OntologyProperty.class);
+        when(property.getDataType()).thenReturn(PropertyType.GEO_LOCATION);
+        when(property.getTitle()).thenReturn(propertyName);
+        return property;
+    }
+}
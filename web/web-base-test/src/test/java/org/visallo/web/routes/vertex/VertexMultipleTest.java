@@ -56,7 +56,7 @@ public class VertexMultipleTest extends RouteTestBase {
         when(authorizationRepository.getGraphAuthorizations(user)).thenReturn(userAuthorizations);
         when(request.getAttribute(eq(WORKSPACE_ID_ATTRIBUTE_NAME))).thenReturn(null);
 
-        ClientApiVertexMultipleResponse response = route.handle(request, new String[]{publicVertex.getId()}, true, false, user);
+        ClientApiVertexMultipleResponse response = route.handle(request, new String[]{publicVertex.getId()}, true, false, null, true, true, user);
 
         assertFalse(response.isRequiredFallback());
         assertEquals(1, response.getVertices().size());
@@ -68,7 +68,7 @@ public class VertexMultipleTest extends RouteTestBase {
         when(authorizationRepository.getGraphAuthorizations(user)).thenReturn(userAuthorizations);
         when(workspaceRepository.hasReadPermissions(WORKSPACE_ID, user)).thenReturn(false);
 
-        route.handle(request, new String[]{publicVertex.getId()}, false, false, user);
+        route.handle(request, new String[]{publicVertex.getId()}, false, false, null, true, true, user);
     }
 
     @Test
@@ -76,7 +76,7 @@ public class VertexMultipleTest extends RouteTestBase {
         when(authorizationRepository.getGraphAuthorizations(user)).thenReturn(userAuthorizations);
         when(workspaceRepository.hasReadPermissions(WORKSPACE_ID, user)).thenReturn(false);
 
-        ClientApiVertexMultipleResponse response = route.handle(request, new String[]{publicVertex.getId(), sandboxedVertex.getId()}, true, false, user);
+        ClientApiVertexMultipleResponse response = route.handle(request, new String[]{publicVertex.getId(), sandboxedVertex.getId()}, true, false, null, true, true, user);
 
         assertTrue(response.isRequiredFallback());
         assertEquals(1, response.getVertices().size());
@@ -88,7 +88,7 @@ public class VertexMultipleTest extends RouteTestBase {
         when(authorizationRepository.getGraphAuthorizations(user, WORKSPACE_ID)).thenReturn(workspaceAuthorizations);
         when(workspaceRepository.hasReadPermissions(WORKSPACE_ID, user)).thenReturn(true);
 
-        ClientApiVertexMultipleResponse response = route.handle(request, new String[]{publicVertex.getId(), sandboxedVertex.getId()}, true, false, user);
+        ClientApiVertexMultipleResponse response = route.handle(request, new String[]{publicVertex.getId(), sandboxedVertex.getId()}, true, false, null, true, true, user);
 
         assertFalse(response.isRequiredFallback());
         assertEquals(2, response.getVertices().size());
@@ -101,7 +101,7 @@ public class VertexMultipleTest extends RouteTestBase {
         when(authorizationRepository.getGraphAuthorizations(user, WORKSPACE_ID)).thenReturn(workspaceAuthorizations);
         when(workspaceRepository.hasReadPermissions(WORKSPACE_ID, user)).thenReturn(true);
 
-        ClientApiVertexMultipleResponse response = route.handle(request, new String[]{"no-vertex-id"}, true, false, user);
+        ClientApiVertexMultipleResponse response = route.handle(request, new String[]{"no-vertex-id"}, true, false, null, true, true, user);
 
         assertFalse(response.isRequiredFallback());
         assertEquals(0, response.getVertices().size());
@@ -111,9 +111,38 @@ public class VertexMultipleTest extends RouteTestBase {
         when(authorizationRepository.getGraphAuthorizations(user, WORKSPACE_ID)).thenReturn(workspaceAuthorizations);
         when(workspaceRepository.hasReadPermissions(WORKSPACE_ID, user)).thenReturn(true);
 
-        ClientApiVertexMultipleResponse response = route.handle(request, new String[]{}, true, false, user);
+        ClientApiVertexMultipleResponse response = route.handle(request, new String[]{}, true, false, null, true, true, user);
 
         assertFalse(response.isRequiredFallback());
         assertEquals(0, response.getVertices().size());
     }
+
+    @Test
+    public void testGetVerticesWithProjection() throws Exception {
+        when(authorizationRepository.getGraphAuthorizations(user, WORKSPACE_ID)).thenReturn(workspaceAuthorizations);
+        when(workspaceRepository.hasReadPermissions(WORKSPACE_ID, user)).thenReturn(true);
+
+        graph.prepareVertex("v3", visibilityTranslator.getDefaultVisibility())
+                .addPropertyValue("k1", "http://visallo.org/test#name", "Joe", visibilityTranslator.getDefaultVisibility())
+                .addPropertyValue("k1", "http://visallo.org/test#age", 42, visibilityTranslator.getDefaultVisibility())
+                .save(userAuthorizations);
+        graph.flush();
+
+        ClientApiVertexMultipleResponse response = route.handle(
+                request,
+                new String[]{"v3"},
+                true,
+                false,
+                new String[]{"http://visallo.org/test#name"},
+                false,
+                false,
+                user
+        );
+
+        assertEquals(1, response.getVertices().size());
+        ClientApiVertex vertex = response.getVertices().get(0);
+        assertEquals(1, vertex.getProperties().size());
+        assertEquals("http://visallo.org/test#name", vertex.getProperties().get(0).getName());
+        assertEquals(0, vertex.getExtendedDataTableNames().size());
+    }
 }
@@ -0,0 +1,88 @@
+package org.visallo.web.util.js;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+
+import static org.junit.Assert.*;
+
+public class CompiledAssetCacheTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testCreateKeyWithoutImplementationVersion() {
+        String key = CompiledAssetCache.createKey("babel", "input", "option");
+        assertNotNull(key);
+        assertEquals(key, CompiledAssetCache.createKey("babel", "input", "option"));
+        assertNotEquals(key, CompiledAssetCache.createKey("babel", "input", "other option"));
+        assertNotEquals(key, CompiledAssetCache.createKey("babel", "other input", "option"));
+    }
+
+    @Test
+    public void testHashResourceUsesContent() {
+        String basic = CompiledAssetCache.hashResource(getClass(), "basic-expected.js");
+        String objectSpread = CompiledAssetCache.hashResource(getClass(), "objectspread-expected.js");
+        assertNotEquals("", basic);
+        assertEquals(basic, CompiledAssetCache.hashResource(getClass(), "basic-expected.js"));
+        assertNotEquals(basic, objectSpread);
+        assertNotEquals(
+                CompiledAssetCache.createKey("closure", "input", basic),
+                CompiledAssetCache.createKey("closure", "input", objectSpread)
+        );
+
+        assertEquals("", CompiledAssetCache.hashResource(getClass(), null));
+        assertEquals("", CompiledAssetCache.hashResource(getClass(), "missing.js"));
+    }
+
+    @Test
+    public void testPutAndGet() throws Exception {
+        File directory = temporaryFolder.newFolder();
+        CompiledAssetCache cache = new CompiledAssetCache(directory, 1);
+        String key = CompiledAssetCache.createKey("babel", "input");
+        assertNull(cache.get("asset", key));
+
+        CachedCompilation compilation = new CachedCompilation();
+        compilation.setOutput("output");
+        compilation.setSourceMap("sourceMap");
+        cache.put("asset", key, compilation);
+
+        CachedCompilation cached = cache.get("asset", key);
+        assertNotNull(cached);
+        assertEquals("output", cached.getOutput());
+        assertEquals("sourceMap", cached.getSourceMap());
+
+        cached = new CompiledAssetCache(directory, 1).get("asset", key);
+        assertNotNull(cached);
+        assertEquals("output", cached.getOutput());
+    }
+
+    @Test
+    public void testPutReplacesPreviousCompilationOfAsset() throws Exception {
+        File directory = temporaryFolder.newFolder();
+        CompiledAssetCache cache = new CompiledAssetCache(directory, 1);
+        String firstKey = CompiledAssetCache.createKey("babel", "first");
+        String secondKey = CompiledAssetCache.createKey("babel", "second");
+
+        CachedCompilation compilation = new CachedCompilation();
+        compilation.setOutput("first output");
+        cache.put("asset", firstKey, compilation);
+        compilation.setOutput("second output");
+        cache.put("asset", secondKey, compilation);
+
+        assertNull(cache.get("asset", firstKey));
+        assertEquals("second output", cache.get("asset", secondKey).getOutput());
+    }
+
+    @Test
+    public void testDisabledCache() {
+        CompiledAssetCache cache = new CompiledAssetCache(null, 1);
+        String key = CompiledAssetCache.createKey("babel", "input");
+        CachedCompilation compilation = new CachedCompilation();
+        compilation.setOutput("output");
+        cache.put("asset", key, compilation);
+        assertNull(cache.get("asset", key));
+    }
+}
@@ -23,7 +23,9 @@ import org.visallo.core.model.workspace.WorkspaceRepository;
 import org.visallo.core.process.VisalloProcess;
 import org.visallo.core.process.VisalloProcessOptions;
 import org.visallo.core.security.VisalloVisibility;
+import org.visallo.core.status.MetricsManager;
 import org.visallo.core.user.User;
+import org.visallo.core.util.AutoDependencyTreeRunner;
 import org.visallo.core.util.ServiceLoaderUtil;
 import org.visallo.core.util.ShutdownService;
 import org.visallo.core.util.VisalloLogger;
@@ -43,6 +45,8 @@ public class ApplicationBootstrap implements ServletContextListener {
     private static VisalloLogger LOGGER;
 
     public static final String CONFIG_HTTP_TRANSPORT_GUARANTEE = "http.transportGuarantee";
+    public static final String CONFIG_STARTUP_THREAD_COUNT = ApplicationBootstrap.class.getName() + ".startupThreadCount";
+    public static final int CONFIG_STARTUP_THREAD_COUNT_DEFAULT = 2;
     public static final String APP_CONFIG_LOADER = "application.config.loader";
     public static final String VISALLO_SERVLET_NAME = "visallo";
     public static final String ATMOSPHERE_SERVLET_NAME = "atmosphere";
@@ -70,11 +74,7 @@ public class ApplicationBootstrap implements ServletContextListener {
             LOGGER.info("Running application with configuration:\n%s", config);
 
             setupInjector(context, config);
-            verifyGraphVersion();
-            setupGraphAuthorizations();
-
-            startApplicationBootstrapInitializers(context, config);
-            startVisalloProcesses(config);
+            startup(context, config);
 
             setupWebApp(context, config);
 
@@ -87,6 +87,37 @@ public class ApplicationBootstrap implements ServletContextListener {
         }
     }
 
+    /**
+     * Verifying the graph version and adding the graph authorizations don't depend on each other so they run in
+     * parallel. The initializers start once both have finished and, as before, the processes start after the
+     * initializers since processes may rely on what the initializers set up. The ontology is loaded before this by
+     * {@link #setupInjector(ServletContext, Configuration)}, its files import each other so they load in order.
+     */
+    private void startup(ServletContext context, Configuration config) {
+        Runnable verifyGraphVersion = AutoDependencyTreeRunner.named(
+                "verifyGraphVersion",
+                this::verifyGraphVersion
+        );
+        Runnable setupGraphAuthorizations = AutoDependencyTreeRunner.named(
+                "setupGraphAuthorizations",
+                this::setupGraphAuthorizations
+        );
+        Runnable startApplicationBootstrapInitializers = AutoDependencyTreeRunner.named(
+                "startApplicationBootstrapInitializers",
+                () -> startApplicationBootstrapInitializers(context, config)
+        );
+        Runnable startVisalloProcesses = AutoDependencyTreeRunner.named(
+                "startVisalloProcesses",
+                () -> startVisalloProcesses(config)
+        );
+
+        AutoDependencyTreeRunner startupRunner = new AutoDependencyTreeRunner(InjectHelper.getInstance(MetricsManager.class));
+        startupRunner.add(verifyGraphVersion, startApplicationBootstrapInitializers);
+        startupRunner.add(setupGraphAuthorizations, startApplicationBootstrapInitializers);
+        startupRunner.add(startApplicationBootstrapInitializers, startVisalloProcesses);
+        startupRunner.run(config.getInt(CONFIG_STARTUP_THREAD_COUNT, CONFIG_STARTUP_THREAD_COUNT_DEFAULT));
+    }
+
     private void startVisalloProcesses(Configuration config) {
         boolean enableWebContainerProcesses = config.getBoolean("org.visallo.web.ApplicationBootstrap.enableWebContainerProcesses", true);
         if (!enableWebContainerProcesses) {
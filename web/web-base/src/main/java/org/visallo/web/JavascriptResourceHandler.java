@@ -10,12 +10,12 @@ import org.visallo.core.util.VisalloLoggerFactory;
 import org.visallo.web.closurecompiler.com.google.javascript.jscomp.*;
 import org.visallo.web.closurecompiler.com.google.javascript.jscomp.Compiler;
 import org.visallo.web.util.js.CachedCompilation;
+import org.visallo.web.util.js.CompiledAssetCache;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.net.URL;
 import java.nio.charset.Charset;
@@ -29,19 +29,8 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 
 public class JavascriptResourceHandler implements RequestResponseHandler {
-    private static final int EXECUTOR_CONCURRENT = 3;
-    private static final long EXECUTOR_IDLE_THREAD_RELEASE_SECONDS = 5;
-    private static final ThreadPoolExecutor compilationExecutor = new ThreadPoolExecutor(
-            EXECUTOR_CONCURRENT,
-            EXECUTOR_CONCURRENT,
-            EXECUTOR_IDLE_THREAD_RELEASE_SECONDS,
-            TimeUnit.SECONDS,
-            new LinkedBlockingQueue<>()
-    );
-
-    static {
-        compilationExecutor.allowCoreThreadTimeOut(true);
-    }
+    private static final VisalloLogger LOGGER = VisalloLoggerFactory.getLogger(JavascriptResourceHandler.class);
+    private static final String COMPILER_NAME = "closure";
 
     private String jsResourceName;
     private String jsResourcePath;
@@ -60,7 +49,7 @@ public class JavascriptResourceHandler implements RequestResponseHandler {
         this.enableSourceMaps = enableSourceMaps;
         this.closureExternResourcePath = closureExternResourcePath;
 
-        compilationTask = compilationExecutor.submit(() -> compileIfNecessary(null));
+        compilationTask = CompiledAssetCache.getInstance().submit(() -> compileIfNecessary(null));
     }
 
     @Override
@@ -68,14 +57,14 @@ public class JavascriptResourceHandler implements RequestResponseHandler {
         CachedCompilation cache = getCache();
 
         if (request.getRequestURI().endsWith(".map")) {
-            write(response, "application/json", cache.getSourceMap());
+            write(request, response, "application/json", cache.getSourceMap(), null);
         } else if (request.getRequestURI().endsWith(".src")) {
-            write(response, "application/javascript", cache.getInput());
+            write(request, response, "application/javascript", cache.getInput(), null);
         } else {
             if (this.enableSourceMaps && cache.getSourceMap() != null) {
                 response.setHeader("X-SourceMap", request.getRequestURI() + ".map");
             }
-            write(response, "application/javascript", cache.getOutput());
+            write(request, response, "application/javascript", cache.getOutput(), cache.getETag());
         }
     }
 
@@ -96,12 +85,15 @@ public class JavascriptResourceHandler implements RequestResponseHandler {
         return cache;
     }
 
-    private void write(HttpServletResponse response, String contentType, String output) throws IOException {
+    private void write(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            String contentType,
+            String output,
+            String eTag
+    ) throws IOException {
         if (output != null) {
-            try (PrintWriter outWriter = response.getWriter()) {
-                response.setContentType(contentType);
-                outWriter.println(output);
-            }
+            CompiledAssetCache.write(request, response, contentType, output, eTag);
         } else {
             throw new VisalloException("Errors during minify: " + jsResourceName);
         }
@@ -125,7 +117,25 @@ public class JavascriptResourceHandler implements RequestResponseHandler {
                     String inputJavascript = writer.toString();
                     newCache.setInput(inputJavascript);
 
-                    runClosureCompilation(newCache);
+                    CompiledAssetCache assetCache = CompiledAssetCache.getInstance();
+                    String key = CompiledAssetCache.createKey(
+                            COMPILER_NAME,
+                            inputJavascript,
+                            jsResourcePath,
+                            Boolean.toString(enableSourceMaps),
+                            CompiledAssetCache.hashResource(JavascriptResourceHandler.class, "visallo-externs.js"),
+                            CompiledAssetCache.hashResource(this.getClass(), closureExternResourcePath)
+                    );
+                    String assetName = COMPILER_NAME + ":" + jsResourceName + ":" + jsResourcePath;
+                    CachedCompilation compiled = assetCache.get(assetName, key);
+                    if (compiled == null) {
+                        runClosureCompilation(newCache);
+                        assetCache.put(assetName, key, newCache);
+                    } else {
+                        LOGGER.debug("using cached compilation of %s", jsResourceName);
+                        newCache.setOutput(compiled.getOutput());
+                        newCache.setSourceMap(compiled.getSourceMap());
+                    }
                 }
             }
             return newCache;
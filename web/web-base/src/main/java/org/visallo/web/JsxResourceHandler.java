@@ -9,6 +9,7 @@ import org.visallo.core.util.VisalloLogger;
 import org.visallo.core.util.VisalloLoggerFactory;
 import org.visallo.web.util.js.BabelExecutor;
 import org.visallo.web.util.js.CachedCompilation;
+import org.visallo.web.util.js.CompiledAssetCache;
 import org.visallo.web.util.js.SourceMapType;
 
 import javax.script.ScriptException;
@@ -16,12 +17,13 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -29,6 +31,8 @@ import static com.google.common.base.Preconditions.checkNotNull;
 public class JsxResourceHandler implements RequestResponseHandler {
     private static final VisalloLogger LOGGER = VisalloLoggerFactory.getLogger(JsxResourceHandler.class);
     private static final BabelExecutor babelExecutor = new BabelExecutor();
+    private static final String COMPILER_NAME = "babel";
+    private static final long COMPILE_TIMEOUT_MINUTES = 5;
 
     private String jsResourceName;
     private String jsResourcePath;
@@ -47,7 +51,7 @@ public class JsxResourceHandler implements RequestResponseHandler {
         this.toJsResourcePath = toJsResourcePath;
         this.sourceMapType = sourceMapType;
 
-        compilationTask = babelExecutor.submit(() -> compileIfNecessary(null));
+        compilationTask = CompiledAssetCache.getInstance().submit(() -> compileIfNecessary(null));
     }
 
     @Override
@@ -55,14 +59,14 @@ public class JsxResourceHandler implements RequestResponseHandler {
         CachedCompilation cache = getCache();
 
         if (request.getRequestURI().endsWith(".map")) {
-            write(response, "application/json", cache.getSourceMap());
+            write(request, response, "application/json", cache.getSourceMap(), null);
         } else if (request.getRequestURI().endsWith(".src")) {
-            write(response, "application/javascript", cache.getInput());
+            write(request, response, "application/javascript", cache.getInput(), null);
         } else {
             if (this.sourceMapType == SourceMapType.EXTERNAL && cache.getSourceMap() != null) {
                 response.setHeader("X-SourceMap", request.getRequestURI() + ".map");
             }
-            write(response, "application/javascript", cache.getOutput());
+            write(request, response, "application/javascript", cache.getOutput(), cache.getETag());
         }
     }
 
@@ -80,19 +84,26 @@ public class JsxResourceHandler implements RequestResponseHandler {
                 cache = compileIfNecessary(previousCompilation);
             }
         } else {
-            cache = compilationTask.get();
+            try {
+                cache = compilationTask.get(COMPILE_TIMEOUT_MINUTES, TimeUnit.MINUTES);
+            } catch (TimeoutException e) {
+                throw new VisalloException("Timed out waiting for compilation of: " + jsResourceName, e);
+            }
         }
 
         previousCompilation = cache;
         return cache;
     }
 
-    private void write(HttpServletResponse response, String contentType, String output) throws IOException {
+    private void write(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            String contentType,
+            String output,
+            String eTag
+    ) throws IOException {
         if (output != null) {
-            try (PrintWriter outWriter = response.getWriter()) {
-                response.setContentType(contentType);
-                outWriter.println(output);
-            }
+            CompiledAssetCache.write(request, response, contentType, output, eTag);
         } else {
             throw new VisalloException("Errors during compilation: " + jsResourceName);
         }
@@ -115,16 +126,52 @@ public class JsxResourceHandler implements RequestResponseHandler {
                         newCache.setInput(inputJavascript);
                         newCache.setPath(toJsResourcePath);
                         newCache.setResourcePath(jsResourceName);
-                        babelExecutor.compileWithSharedEngine(newCache, sourceMapType);
+
+                        CompiledAssetCache assetCache = CompiledAssetCache.getInstance();
+                        String key = CompiledAssetCache.createKey(
+                                COMPILER_NAME,
+                                inputJavascript,
+                                jsResourceName,
+                                toJsResourcePath,
+                                sourceMapType.name()
+                        );
+                        String assetName = COMPILER_NAME + ":" + jsResourceName + ":" + toJsResourcePath;
+                        CachedCompilation compiled = assetCache.get(assetName, key);
+                        if (compiled == null) {
+                            Future<CachedCompilation> babelTask = babelExecutor.submit(() -> {
+                                babelExecutor.compileWithSharedEngine(newCache, sourceMapType);
+                                return newCache;
+                            });
+                            try {
+                                babelTask.get(COMPILE_TIMEOUT_MINUTES, TimeUnit.MINUTES);
+                            } catch (TimeoutException e) {
+                                babelTask.cancel(true);
+                                throw new VisalloException("Timed out compiling: " + jsResourceName, e);
+                            }
+                            assetCache.put(assetName, key, newCache);
+                        } else {
+                            LOGGER.debug("using cached compilation of %s", jsResourceName);
+                            newCache.setOutput(compiled.getOutput());
+                            newCache.setSourceMap(compiled.getSourceMap());
+                        }
                     }
                 }
                 return newCache;
             }
         } catch (IOException e) {
             throw new VisalloException("Unable to read last modified");
-        } catch (ScriptException e) {
-            LOGGER.error("%s in file %s", e.getCause().getMessage(), jsResourcePath.replaceAll("^\\/jsc", ""));
-            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new VisalloException("Interrupted while compiling: " + jsResourceName, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ScriptException) {
+                LOGGER.error("%s in file %s", e.getCause().getCause().getMessage(), jsResourcePath.replaceAll("^\\/jsc", ""));
+                return null;
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new VisalloException("Could not compile: " + jsResourceName, e.getCause());
         }
         return previousCompilation;
     }
@@ -6,21 +6,27 @@ import org.visallo.webster.HandlerChain;
 import org.visallo.webster.RequestResponseHandler;
 import org.apache.commons.io.IOUtils;
 import org.visallo.core.exception.VisalloException;
+import org.visallo.web.util.js.CachedCompilation;
+import org.visallo.web.util.js.CompiledAssetCache;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
 
 public class LessResourceHandler implements RequestResponseHandler {
-    private static LessEngine lessCompiler;
+    static final String COMPILER_NAME = "less";
+    private static final BlockingQueue<LessEngine> idleLessEngines = new LinkedBlockingQueue<>();
+    private static final AtomicInteger lessEngineCount = new AtomicInteger();
 
     private String lessResourceName;
     private boolean checkLastModified;
@@ -33,8 +39,6 @@ public class LessResourceHandler implements RequestResponseHandler {
 
     @Override
     public void handle(HttpServletRequest request, HttpServletResponse response, HandlerChain chain) throws Exception {
-        response.setContentType("text/css");
-
         synchronized (lessResourceName.intern()) {
             if (cache == null) {
                 cache = new LessCache(getCompiled(), checkLastModified ? getLastModified() : 0l);
@@ -46,9 +50,7 @@ public class LessResourceHandler implements RequestResponseHandler {
             }
         }
 
-        try (PrintWriter outWriter = response.getWriter()) {
-            outWriter.println(cache.getOutput());
-        }
+        CompiledAssetCache.write(request, response, "text/css", cache.getOutput(), cache.getETag());
     }
 
     private String getCompiled() throws Exception {
@@ -57,11 +59,57 @@ public class LessResourceHandler implements RequestResponseHandler {
             try (StringWriter writer = new StringWriter()) {
                 IOUtils.copy(in, writer, StandardCharsets.UTF_8);
                 String inputLess = writer.toString();
-                return lessCompiler().compile(inputLess);
+                return compile(lessResourceName, inputLess);
             }
         }
     }
 
+    /**
+     * Compiles less using the compiled asset cache. Less that imports other files isn't cached since
+     * the cache key only covers the input itself.
+     *
+     * @param name the resource the less was read from, identifies the asset in the compiled asset cache.
+     */
+    static String compile(String name, String inputLess) throws Exception {
+        if (inputLess.contains("@import")) {
+            return compileWithPooledEngine(inputLess);
+        }
+
+        CompiledAssetCache assetCache = CompiledAssetCache.getInstance();
+        String assetName = COMPILER_NAME + ":" + name;
+        String key = CompiledAssetCache.createKey(COMPILER_NAME, inputLess, name);
+        CachedCompilation compiled = assetCache.get(assetName, key);
+        if (compiled != null) {
+            return compiled.getOutput();
+        }
+
+        CachedCompilation newCache = new CachedCompilation();
+        newCache.setOutput(compileWithPooledEngine(inputLess));
+        assetCache.put(assetName, key, newCache);
+        return newCache.getOutput();
+    }
+
+    /**
+     * Less engines are not thread safe, so each compilation borrows an engine. At most as many engines as
+     * compiled asset cache threads are created, compilations wait for an idle engine beyond that.
+     */
+    private static String compileWithPooledEngine(String inputLess) throws Exception {
+        LessEngine lessEngine = idleLessEngines.poll();
+        if (lessEngine == null) {
+            if (lessEngineCount.incrementAndGet() <= CompiledAssetCache.getInstance().getThreads()) {
+                lessEngine = createLessEngine();
+            } else {
+                lessEngineCount.decrementAndGet();
+                lessEngine = idleLessEngines.take();
+            }
+        }
+        try {
+            return lessEngine.compile(inputLess);
+        } finally {
+            idleLessEngines.add(lessEngine);
+        }
+    }
+
     private long getLastModified() {
         URL url = this.getClass().getResource(lessResourceName);
         try {
@@ -71,24 +119,22 @@ public class LessResourceHandler implements RequestResponseHandler {
         }
     }
 
-    private synchronized LessEngine lessCompiler() {
-        if (lessCompiler == null) {
-            lessCompiler = new LessEngine();
-            LessOptions options = new LessOptions();
-            options.setCompress(true);
-            options.setCharset("UTF-8");
-            lessCompiler = new LessEngine(options);
-        }
-        return lessCompiler;
+    private static LessEngine createLessEngine() {
+        LessOptions options = new LessOptions();
+        options.setCompress(true);
+        options.setCharset("UTF-8");
+        return new LessEngine(options);
     }
 
     class LessCache {
         private long lastModified;
         private String output;
+        private String eTag;
 
         LessCache(String output, long lastModified) {
             this.lastModified = lastModified;
             this.output = output;
+            this.eTag = CompiledAssetCache.createETag(output);
         }
 
         public long getLastModified() {
@@ -98,5 +144,9 @@ public class LessResourceHandler implements RequestResponseHandler {
         public String getOutput() {
             return output;
         }
+
+        public String getETag() {
+            return eTag;
+        }
     }
 }
@@ -13,6 +13,7 @@ import org.atmosphere.interceptor.BroadcastOnPostAtmosphereInterceptor;
 import org.atmosphere.interceptor.HeartbeatInterceptor;
 import org.atmosphere.interceptor.JavaScriptProtocol;
 import org.json.JSONObject;
+import org.visallo.core.model.user.UserPresenceRegistry;
 import org.visallo.core.model.user.UserRepository;
 import org.visallo.core.model.user.UserSessionCounterRepository;
 import org.visallo.core.model.workQueue.WorkQueueRepository;
@@ -31,6 +32,7 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @AtmosphereHandlerService(
         path = Messaging.PATH,
@@ -56,6 +58,8 @@ public class Messaging implements AtmosphereHandler { //extends AbstractReflecto
     private WorkspaceRepository workspaceRepository;
     private WorkQueueRepository workQueueRepository;
     private UserSessionCounterRepository userSessionCounterRepository;
+    private MessagingRouter messagingRouter;
+    private UserPresenceRegistry userPresenceRegistry;
     private WorkQueueRepository.BroadcastConsumer broadcastConsumer;
     private Map<AtmosphereResource.TRANSPORT, Counter> requestsCounters = new HashMap<>();
 
@@ -106,15 +110,25 @@ public class Messaging implements AtmosphereHandler { //extends AbstractReflecto
                 @Override
                 public void broadcastReceived(JSONObject json) {
                     if (broadcaster != null) {
-                        broadcaster.broadcast(json.toString());
+                        broadcast(json);
                     }
                 }
             };
             this.workQueueRepository.subscribeToBroadcastMessages(broadcastConsumer);
+            userPresenceRegistry.start();
         }
         broadcaster = resource.getBroadcaster();
     }
 
+    private void broadcast(JSONObject json) {
+        Set<AtmosphereResource> resources = messagingRouter.route(json);
+        if (resources == null) {
+            broadcaster.broadcast(json.toString());
+        } else if (!resources.isEmpty()) {
+            broadcaster.broadcast(json.toString(), resources);
+        }
+    }
+
     @Override
     public void destroy() {
         LOGGER.debug("destroy");
@@ -147,6 +161,7 @@ public class Messaging implements AtmosphereHandler { //extends AbstractReflecto
 
     public void onOpen(AtmosphereResource resource) throws IOException {
         incrementUserConnectionCount(resource);
+        messagingRouter.register(resource, getCurrentUserId(resource));
     }
 
     public void onResume(AtmosphereResourceEvent event, AtmosphereResponse response) throws IOException {
@@ -170,6 +185,7 @@ public class Messaging implements AtmosphereHandler { //extends AbstractReflecto
             return;
         }
 
+        messagingRouter.unregister(event.getResource(), getCurrentUserId(event.getResource()));
         boolean lastConnection = decrementUserConnectionCount(event.getResource());
         if (lastConnection) {
             String userId = getCurrentUserId(event.getResource());
@@ -228,6 +244,7 @@ public class Messaging implements AtmosphereHandler { //extends AbstractReflecto
             User authUser = userRepository.findById(authUserId);
             Workspace workspace = workspaceRepository.findById(workspaceId, authUser);
             userRepository.setCurrentWorkspace(authUserId, workspace.getWorkspaceId());
+            messagingRouter.setCurrentWorkspace(authUserId, workspace.getWorkspaceId());
             workQueueRepository.pushUserCurrentWorkspaceChange(authUser, workspace.getWorkspaceId());
 
             LOGGER.debug("User %s switched current workspace to %s", authUserId, workspaceId);
@@ -253,6 +270,9 @@ public class Messaging implements AtmosphereHandler { //extends AbstractReflecto
         String userId = getCurrentUserId(resource);
         boolean autoDelete = !(resource.transport() == AtmosphereResource.TRANSPORT.WEBSOCKET);
         userSessionCounterRepository.updateSession(userId, resource.uuid(), autoDelete);
+        if (userId != null) {
+            userPresenceRegistry.sessionStarted(userId, resource.uuid(), autoDelete);
+        }
     }
 
     private boolean decrementUserConnectionCount(AtmosphereResource resource) {
@@ -261,6 +281,7 @@ public class Messaging implements AtmosphereHandler { //extends AbstractReflecto
             LOGGER.debug("userId could not be found in CurrentUser");
             return false;
         }
+        userPresenceRegistry.sessionEnded(userId, resource.uuid());
         return userSessionCounterRepository.deleteSession(userId, resource.uuid()) < 1;
     }
 
@@ -282,6 +303,16 @@ public class Messaging implements AtmosphereHandler { //extends AbstractReflecto
         this.userRepository = userRepository;
     }
 
+    @Inject
+    public void setMessagingRouter(MessagingRouter messagingRouter) {
+        this.messagingRouter = messagingRouter;
+    }
+
+    @Inject
+    public void setUserPresenceRegistry(UserPresenceRegistry userPresenceRegistry) {
+        this.userPresenceRegistry = userPresenceRegistry;
+    }
+
     @Inject
     public void setAuditService(AuditService auditService) {
         this.auditService = auditService;
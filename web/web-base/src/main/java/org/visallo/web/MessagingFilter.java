@@ -7,6 +7,8 @@ import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.visallo.core.bootstrap.InjectHelper;
+import org.visallo.core.model.graph.EdgeSummaryCache;
+import org.visallo.core.model.user.UserPresenceRegistry;
 import org.visallo.core.model.user.UserRepository;
 import org.visallo.core.user.User;
 import org.visallo.core.util.JSONUtil;
@@ -22,6 +24,7 @@ public class MessagingFilter implements PerRequestBroadcastFilter {
     public static final String TYPE_SET_ACTIVE_WORKSPACE = "setActiveWorkspace";
     public static final String TYPE_SET_ACTIVE_PRODUCT = "setActiveProduct";
     private UserRepository userRepository;
+    private MessagingRouter messagingRouter;
 
     @Override
     public BroadcastAction filter(String broadcasterId, Object originalMessage, Object message) {
@@ -36,7 +39,7 @@ public class MessagingFilter implements PerRequestBroadcastFilter {
             if (message == null || r.isCancelled()) {
                 return new BroadcastAction(BroadcastAction.ACTION.ABORT, null);
             }
-            JSONObject json = new JSONObject(message.toString());
+            JSONObject json = messagingRouter == null ? new JSONObject(message.toString()) : messagingRouter.parse(message);
 
             if (shouldSendMessage(json, r.getRequest())) {
                 return new BroadcastAction(message);
@@ -49,9 +52,20 @@ public class MessagingFilter implements PerRequestBroadcastFilter {
         }
     }
 
+    /**
+     * Messages sent by clients and messages only used to coordinate servers (e.g. user presence, edge summary
+     * invalidations) are never delivered to clients.
+     */
+    static boolean isClientMessage(String type) {
+        return !TYPE_SET_ACTIVE_WORKSPACE.equals(type)
+                && !TYPE_SET_ACTIVE_PRODUCT.equals(type)
+                && !UserPresenceRegistry.BROADCAST_TYPE.equals(type)
+                && !EdgeSummaryCache.BROADCAST_TYPE.equals(type);
+    }
+
     boolean shouldSendMessage(JSONObject json, HttpServletRequest request) {
         String type = json.optString("type", null);
-        if (TYPE_SET_ACTIVE_WORKSPACE.equals(type) || TYPE_SET_ACTIVE_PRODUCT.equals(type)) {
+        if (!isClientMessage(type)) {
             return false;
         }
 
@@ -84,7 +98,9 @@ public class MessagingFilter implements PerRequestBroadcastFilter {
                 return true;
             }
 
-            String currentWorkspaceId = userRepository.getCurrentWorkspaceId(currentUser.getUserId());
+            String currentWorkspaceId = messagingRouter == null
+                    ? userRepository.getCurrentWorkspaceId(currentUser.getUserId())
+                    : messagingRouter.getCurrentWorkspaceId(currentUser.getUserId());
             if (currentWorkspaceId == null) {
                 return true;
             }
@@ -122,4 +138,9 @@ public class MessagingFilter implements PerRequestBroadcastFilter {
         this.userRepository = userRepository;
     }
 
+    @Inject
+    public void setMessagingRouter(MessagingRouter messagingRouter) {
+        this.messagingRouter = messagingRouter;
+    }
+
 }
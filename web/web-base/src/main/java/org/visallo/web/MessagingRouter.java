@@ -0,0 +1,221 @@
+package org.visallo.web;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import org.atmosphere.cpr.AtmosphereResource;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.visallo.core.model.user.DefaultUserListener;
+import org.visallo.core.model.user.UserRepository;
+import org.visallo.core.user.User;
+import org.visallo.core.util.VisalloLogger;
+import org.visallo.core.util.VisalloLoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Indexes the connected {@link AtmosphereResource}s by user and by the user's current workspace so that
+ * messages with permissions only need to be delivered to the matching resources instead of every connection.
+ * The index is updated when resources connect and disconnect, when a user's current workspace is changed through
+ * the {@link UserRepository} of this server ({@link #userUpdated(User)}) and when other servers broadcast a
+ * user's workspace change.
+ */
+@Singleton
+public class MessagingRouter extends DefaultUserListener {
+    private static final VisalloLogger LOGGER = VisalloLoggerFactory.getLogger(MessagingRouter.class);
+    static final String TYPE_USER_WORKSPACE_CHANGE = "userWorkspaceChange";
+    private final UserRepository userRepository;
+    private final Map<String, Set<AtmosphereResource>> resourcesByUserId = new ConcurrentHashMap<>();
+    private final Map<String, String> workspaceIdByUserId = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> userIdsByWorkspaceId = new ConcurrentHashMap<>();
+    private final AtomicReference<ParsedMessage> lastParsedMessage = new AtomicReference<>();
+
+    @Inject
+    public MessagingRouter(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    public void register(AtmosphereResource resource, String userId) {
+        if (userId == null) {
+            return;
+        }
+        resourcesByUserId.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(resource);
+        if (!workspaceIdByUserId.containsKey(userId)) {
+            setCurrentWorkspace(userId, userRepository.getCurrentWorkspaceId(userId));
+        }
+    }
+
+    public void unregister(AtmosphereResource resource, String userId) {
+        if (userId == null) {
+            return;
+        }
+        Set<AtmosphereResource> resources = resourcesByUserId.get(userId);
+        if (resources == null) {
+            return;
+        }
+        resources.remove(resource);
+        if (resources.isEmpty()) {
+            synchronized (this) {
+                if (resources.isEmpty()) {
+                    resourcesByUserId.remove(userId);
+                    setCurrentWorkspace(userId, null);
+                }
+            }
+        }
+    }
+
+    public synchronized void setCurrentWorkspace(String userId, String workspaceId) {
+        String previousWorkspaceId = workspaceId == null
+                ? workspaceIdByUserId.remove(userId)
+                : workspaceIdByUserId.put(userId, workspaceId);
+        if (previousWorkspaceId != null) {
+            Set<String> userIds = userIdsByWorkspaceId.get(previousWorkspaceId);
+            if (userIds != null) {
+                userIds.remove(userId);
+                if (userIds.isEmpty()) {
+                    userIdsByWorkspaceId.remove(previousWorkspaceId);
+                }
+            }
+        }
+        if (workspaceId != null && resourcesByUserId.containsKey(userId)) {
+            userIdsByWorkspaceId.computeIfAbsent(workspaceId, id -> ConcurrentHashMap.newKeySet()).add(userId);
+        } else if (workspaceId != null) {
+            workspaceIdByUserId.remove(userId);
+        }
+    }
+
+    /**
+     * Gets the current workspace of a connected user from the index, falling back to the user repository for
+     * users that aren't connected to this server or haven't selected a workspace yet.
+     */
+    public String getCurrentWorkspaceId(String userId) {
+        String workspaceId = workspaceIdByUserId.get(userId);
+        if (workspaceId != null) {
+            return workspaceId;
+        }
+        workspaceId = userRepository.getCurrentWorkspaceId(userId);
+        if (workspaceId != null && resourcesByUserId.containsKey(userId)) {
+            setCurrentWorkspace(userId, workspaceId);
+        }
+        return workspaceId;
+    }
+
+    /**
+     * Parses a broadcast message. The same message object is passed to the broadcast filters once per
+     * resource so the last parsed message is kept to avoid parsing it again for each resource.
+     */
+    public JSONObject parse(Object message) {
+        ParsedMessage parsed = lastParsedMessage.get();
+        if (parsed != null && parsed.message == message) {
+            return parsed.json;
+        }
+        JSONObject json = message instanceof JSONObject ? (JSONObject) message : new JSONObject(message.toString());
+        lastParsedMessage.set(new ParsedMessage(message, json));
+        return json;
+    }
+
+    /**
+     * Finds the resources a message should be delivered to.
+     *
+     * @return The matching resources or null if the message should be delivered to all resources.
+     */
+    public Set<AtmosphereResource> route(JSONObject json) {
+        String type = json.optString("type", null);
+        if (!MessagingFilter.isClientMessage(type)) {
+            return Collections.emptySet();
+        }
+        if (TYPE_USER_WORKSPACE_CHANGE.equals(type)) {
+            handleUserWorkspaceChange(json);
+        }
+
+        JSONObject permissionsJson = json.optJSONObject("permissions");
+        if (permissionsJson == null) {
+            return null;
+        }
+        JSONArray users = permissionsJson.optJSONArray("users");
+        JSONArray workspaces = permissionsJson.optJSONArray("workspaces");
+        if (users == null && workspaces == null) {
+            return null;
+        }
+
+        Set<String> userIds = null;
+        if (users != null) {
+            userIds = new HashSet<>();
+            for (int i = 0; i < users.length(); i++) {
+                String userId = users.optString(i, null);
+                if (userId != null && resourcesByUserId.containsKey(userId)) {
+                    userIds.add(userId);
+                }
+            }
+        }
+        if (workspaces != null) {
+            Set<String> workspaceUserIds = getUserIdsInWorkspaces(workspaces);
+            if (userIds == null) {
+                userIds = workspaceUserIds;
+            } else {
+                userIds.retainAll(workspaceUserIds);
+            }
+        }
+
+        Set<AtmosphereResource> resources = new HashSet<>();
+        for (String userId : userIds) {
+            Set<AtmosphereResource> userResources = resourcesByUserId.get(userId);
+            if (userResources != null) {
+                resources.addAll(userResources);
+            }
+        }
+        return resources;
+    }
+
+    private Set<String> getUserIdsInWorkspaces(JSONArray workspaces) {
+        Set<String> userIds = new HashSet<>();
+        for (int i = 0; i < workspaces.length(); i++) {
+            Set<String> workspaceUserIds = userIdsByWorkspaceId.get(workspaces.optString(i));
+            if (workspaceUserIds != null) {
+                userIds.addAll(workspaceUserIds);
+            }
+        }
+        return userIds;
+    }
+
+    private void handleUserWorkspaceChange(JSONObject json) {
+        JSONObject data = json.optJSONObject("data");
+        if (data == null) {
+            return;
+        }
+        String userId = data.optString("id", null);
+        if (userId != null && resourcesByUserId.containsKey(userId)) {
+            LOGGER.debug("user %s changed current workspace", userId);
+            setCurrentWorkspace(userId, data.optString("workspaceId", null));
+        }
+    }
+
+    @Override
+    public void userUpdated(User user) {
+        String userId = user.getUserId();
+        if (resourcesByUserId.containsKey(userId)) {
+            String workspaceId = user.getCurrentWorkspaceId();
+            if (!Objects.equals(workspaceId, workspaceIdByUserId.get(userId))) {
+                LOGGER.debug("user %s changed current workspace", userId);
+                setCurrentWorkspace(userId, workspaceId);
+            }
+        }
+    }
+
+    @Override
+    public void userDeleted(User user) {
+        setCurrentWorkspace(user.getUserId(), null);
+    }
+
+    private static class ParsedMessage {
+        private final Object message;
+        private final JSONObject json;
+
+        ParsedMessage(Object message, JSONObject json) {
+            this.message = message;
+            this.json = json;
+        }
+    }
+}
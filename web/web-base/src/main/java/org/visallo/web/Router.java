@@ -12,6 +12,8 @@ import org.visallo.core.exception.VisalloAccessDeniedException;
 import org.visallo.core.exception.VisalloException;
 import org.visallo.core.geocoding.DefaultGeocoderRepository;
 import org.visallo.core.geocoding.GeocoderRepository;
+import org.visallo.core.status.MetricsManager;
+import org.visallo.core.util.AutoDependencyTreeRunner;
 import org.visallo.core.util.ServiceLoaderUtil;
 import org.visallo.core.util.VisalloLogger;
 import org.visallo.core.util.VisalloLoggerFactory;
@@ -65,6 +67,7 @@ public class Router extends HttpServlet {
     private WebApp app;
     private Configuration configuration;
     private GeocoderRepository geocoderRepository;
+    private MetricsManager metricsManager;
     private List<WebEventListener> webEventListeners;
     private List<WebEventListener> webEventListenersReverse;
 
@@ -223,15 +226,21 @@ public class Router extends HttpServlet {
 
             app.post("/csp-report", ContentSecurityPolicyReport.class);
 
+            // plugins register routes and resources on the app which isn't thread safe, so they are initialized
+            // one at a time in order, the runner records how long each takes
             List<WebAppPlugin> webAppPlugins = toList(ServiceLoaderUtil.load(WebAppPlugin.class, configuration));
+            AutoDependencyTreeRunner webAppPluginRunner = new AutoDependencyTreeRunner(metricsManager);
             for (WebAppPlugin webAppPlugin : webAppPlugins) {
-                LOGGER.info("Loading webapp plugin: %s", webAppPlugin.getClass().getName());
-                try {
-                    webAppPlugin.init(app, servletContext, authenticatorInstance);
-                } catch (Exception e) {
-                    throw new VisalloException("Could not initialize webapp plugin: " + webAppPlugin.getClass().getName(), e);
-                }
+                webAppPluginRunner.add(AutoDependencyTreeRunner.named("init " + webAppPlugin.getClass().getName(), () -> {
+                    LOGGER.info("Loading webapp plugin: %s", webAppPlugin.getClass().getName());
+                    try {
+                        webAppPlugin.init(app, servletContext, authenticatorInstance);
+                    } catch (Exception e) {
+                        throw new VisalloException("Could not initialize webapp plugin: " + webAppPlugin.getClass().getName(), e);
+                    }
+                }));
             }
+            webAppPluginRunner.run();
 
             app.get(
                     "/css/images/ui-icons_222222_256x240.png",
@@ -306,6 +315,11 @@ public class Router extends HttpServlet {
         this.geocoderRepository = geocoderRepository;
     }
 
+    @Inject
+    public void setMetricsManager(MetricsManager metricsManager) {
+        this.metricsManager = metricsManager;
+    }
+
     public WebApp getApp() {
         return app;
     }
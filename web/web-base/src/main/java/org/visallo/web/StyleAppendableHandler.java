@@ -1,68 +1,78 @@
 package org.visallo.web;
 
-import com.asual.lesscss.LessEngine;
-import com.asual.lesscss.LessOptions;
 import org.visallo.webster.HandlerChain;
 import org.visallo.webster.RequestResponseHandler;
 import org.apache.commons.io.IOUtils;
 import org.visallo.core.exception.VisalloException;
+import org.visallo.web.util.js.CompiledAssetCache;
 
-import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
 public class StyleAppendableHandler implements RequestResponseHandler {
-    private LessEngine lessCompiler;
-    private String css = "";
+    private final List<Future<String>> parts = new ArrayList<>();
+    private String css;
+    private String eTag;
 
     @Override
     public void handle(HttpServletRequest request, HttpServletResponse response, HandlerChain chain) throws Exception {
-        response.setContentType("text/css");
-        try (ServletOutputStream out = response.getOutputStream()) {
-            out.write(css.getBytes());
-        }
+        CompiledAssetCache.write(request, response, "text/css", getCss(), eTag);
     }
 
     public void appendLessResource(String pathInfo) {
-        try (InputStream in = this.getClass().getResourceAsStream(pathInfo)) {
-            checkNotNull(in, "Could not find resource: " + pathInfo);
-            try (StringWriter writer = new StringWriter()) {
-                IOUtils.copy(in, writer, StandardCharsets.UTF_8);
-                String inputLess = writer.toString();
-                String output = lessCompiler().compile(inputLess);
-                appendCss(output);
+        Future<String> part = CompiledAssetCache.getInstance().submit(() -> {
+            try (InputStream in = this.getClass().getResourceAsStream(pathInfo)) {
+                checkNotNull(in, "Could not find resource: " + pathInfo);
+                try (StringWriter writer = new StringWriter()) {
+                    IOUtils.copy(in, writer, StandardCharsets.UTF_8);
+                    String inputLess = writer.toString();
+                    return LessResourceHandler.compile(pathInfo, inputLess);
+                }
+            } catch (Exception ex) {
+                throw new VisalloException("Could not append less resource: " + pathInfo, ex);
             }
-        } catch (Exception ex) {
-            throw new VisalloException("Could not append less resource: " + pathInfo, ex);
-        }
+        });
+        appendPart(part);
     }
 
     public void appendCssResource(String pathInfo) {
         try (InputStream in = this.getClass().getResourceAsStream(pathInfo)) {
             checkNotNull(in, "Could not find resource: " + pathInfo);
-            appendCss(IOUtils.toString(in));
+            appendPart(CompletableFuture.completedFuture(IOUtils.toString(in)));
         } catch (IOException ex) {
             throw new VisalloException("Could not append css resource: " + pathInfo, ex);
         }
     }
 
-    private void appendCss(String output) {
-        css += output + "\n";
+    private synchronized void appendPart(Future<String> part) {
+        parts.add(part);
+        css = null;
     }
 
-    private synchronized LessEngine lessCompiler() {
-        if (lessCompiler == null) {
-            LessOptions options = new LessOptions();
-            options.setCompress(true);
-            options.setCharset("UTF-8");
-            lessCompiler = new LessEngine(options);
+    private synchronized String getCss() throws InterruptedException {
+        if (css == null) {
+            StringBuilder sb = new StringBuilder();
+            for (Future<String> part : parts) {
+                try {
+                    sb.append(part.get()).append("\n");
+                } catch (ExecutionException ex) {
+                    throw new VisalloException("Could not compile style", ex.getCause());
+                }
+            }
+            css = sb.toString();
+            eTag = CompiledAssetCache.createETag(css);
         }
-        return lessCompiler;
+        return css;
     }
 }
@@ -19,6 +19,7 @@ import org.visallo.web.parameterProviders.*;
 import org.visallo.web.parameterValueConverters.ElementTypeParameterValueConverter;
 import org.visallo.web.parameterValueConverters.JSONObjectParameterValueConverter;
 import org.visallo.web.routes.notification.SystemNotificationSeverityValueConverter;
+import org.visallo.web.util.js.CompiledAssetCache;
 import org.visallo.web.util.js.SourceMapType;
 
 import javax.servlet.ServletContext;
@@ -80,6 +81,7 @@ public class WebApp extends App {
 
         Configuration config = injector.getInstance(Configuration.class);
         this.devMode = config.getBoolean(Configuration.DEV_MODE, Configuration.DEV_MODE_DEFAULT);
+        CompiledAssetCache.initialize(config);
 
         if (!isDevModeEnabled()) {
             String pluginsCssRoute = "plugins.css";
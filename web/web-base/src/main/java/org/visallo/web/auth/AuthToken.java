@@ -46,10 +46,21 @@ public class AuthToken {
         return factory.generateSecret(spec);
     }
 
+    public static JWSVerifier createVerifier(SecretKey macKey) throws AuthTokenException {
+        try {
+            return new MACVerifier(macKey);
+        } catch (Exception e) {
+            throw new AuthTokenException(e);
+        }
+    }
+
     public static AuthToken parse(String token, SecretKey macKey) throws AuthTokenException {
+        return parse(token, macKey, createVerifier(macKey));
+    }
+
+    public static AuthToken parse(String token, SecretKey macKey, JWSVerifier verifier) throws AuthTokenException {
         try {
             SignedJWT signedJWT = SignedJWT.parse(token);
-            JWSVerifier verifier = new MACVerifier(macKey);
 
             if (signedJWT.verify(verifier)) {
                 JWTClaimsSet claims = signedJWT.getJWTClaimsSet();
@@ -0,0 +1,55 @@
+package org.visallo.web.auth;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.nimbusds.jose.JWSVerifier;
+import org.visallo.core.config.Configuration;
+
+import javax.crypto.SecretKey;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches the verified claims of auth tokens, so that requests carrying an already seen token skip parsing and
+ * signature verification. Only the claims are cached, the token's user is looked up on every request so that
+ * changes to the user are seen immediately.
+ */
+@Singleton
+public class AuthTokenCache {
+    public static final String CONFIG_MAXIMUM_SIZE = AuthTokenCache.class.getName() + ".maximumSize";
+    public static final int CONFIG_MAXIMUM_SIZE_DEFAULT = 10000;
+    public static final String CONFIG_EXPIRE_SECONDS = AuthTokenCache.class.getName() + ".expireSeconds";
+    public static final int CONFIG_EXPIRE_SECONDS_DEFAULT = 60;
+    private final Cache<String, AuthToken> cache;
+
+    @Inject
+    public AuthTokenCache(Configuration configuration) {
+        this(
+                configuration.getInt(CONFIG_MAXIMUM_SIZE, CONFIG_MAXIMUM_SIZE_DEFAULT),
+                configuration.getInt(CONFIG_EXPIRE_SECONDS, CONFIG_EXPIRE_SECONDS_DEFAULT)
+        );
+    }
+
+    public AuthTokenCache(int maximumSize, int expireSeconds) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * Gets the verified token for a serialized token, parsing and verifying the token if it hasn't been seen
+     * recently. Expiration is not checked, callers must check it on every request.
+     *
+     * @throws AuthTokenException if the token signature could not be verified
+     */
+    public AuthToken get(String tokenString, SecretKey macKey, JWSVerifier verifier) throws AuthTokenException {
+        AuthToken token = cache.getIfPresent(tokenString);
+        if (token == null) {
+            token = AuthToken.parse(tokenString, macKey, verifier);
+            cache.put(tokenString, token);
+        }
+        return token;
+    }
+}
@@ -1,5 +1,6 @@
 package org.visallo.web.auth;
 
+import com.nimbusds.jose.JWSVerifier;
 import org.apache.commons.lang.StringUtils;
 import org.visallo.core.bootstrap.InjectHelper;
 import org.visallo.core.config.Configuration;
@@ -26,9 +27,11 @@ public class AuthTokenFilter implements Filter {
     public static final String TOKEN_COOKIE_NAME = "JWT";
 
     private SecretKey tokenSigningKey;
+    private JWSVerifier tokenVerifier;
     private long tokenValidityDurationInMinutes;
     private int tokenExpirationToleranceInSeconds;
     private UserRepository userRepository;
+    private AuthTokenCache authTokenCache;
 
     @Override
     public void init(FilterConfig filterConfig) throws ServletException {
@@ -49,9 +52,11 @@ public class AuthTokenFilter implements Filter {
         String keyPassword = getRequiredInitParameter(filterConfig, AUTH_TOKEN_PASSWORD);
         String keySalt = getRequiredInitParameter(filterConfig, AUTH_TOKEN_SALT);
         userRepository = InjectHelper.getInstance(UserRepository.class);
+        authTokenCache = InjectHelper.getInstance(AuthTokenCache.class);
 
         try {
             tokenSigningKey = AuthToken.generateKey(keyPassword, keySalt);
+            tokenVerifier = AuthToken.createVerifier(tokenSigningKey);
         } catch (Exception e) {
             throw new ServletException(e);
         }
@@ -94,7 +99,10 @@ public class AuthTokenFilter implements Filter {
 
     private AuthToken getAuthToken(HttpServletRequest request) throws AuthTokenException {
         Cookie tokenCookie = getTokenCookie(request);
-        return tokenCookie != null ? AuthToken.parse(tokenCookie.getValue(), tokenSigningKey) : null;
+        if (tokenCookie == null) {
+            return null;
+        }
+        return authTokenCache.get(tokenCookie.getValue(), tokenSigningKey, tokenVerifier);
     }
 
     private Cookie getTokenCookie(HttpServletRequest request) {
@@ -1,14 +1,15 @@
 package org.visallo.web.auth;
 
+import com.nimbusds.jose.JWSVerifier;
 import org.apache.commons.lang.StringUtils;
 import org.atmosphere.cpr.*;
 import org.visallo.core.bootstrap.InjectHelper;
 import org.visallo.core.config.Configuration;
 import org.visallo.core.exception.VisalloException;
 import org.visallo.core.model.user.UserRepository;
-import org.visallo.core.user.User;
 import org.visallo.core.util.VisalloLogger;
 import org.visallo.core.util.VisalloLoggerFactory;
+import org.visallo.core.user.User;
 import org.visallo.web.CurrentUser;
 
 import javax.crypto.SecretKey;
@@ -22,8 +23,10 @@ public class AuthTokenWebSocketInterceptor implements AtmosphereInterceptor {
     private static final VisalloLogger LOGGER = VisalloLoggerFactory.getLogger(AuthTokenWebSocketInterceptor.class);
 
     private SecretKey tokenSigningKey;
+    private JWSVerifier tokenVerifier;
     private int tokenExpirationToleranceInSeconds;
     private UserRepository userRepository;
+    private AuthTokenCache authTokenCache;
 
     @Override
     public void configure(AtmosphereConfig config) {
@@ -33,9 +36,11 @@ public class AuthTokenWebSocketInterceptor implements AtmosphereInterceptor {
         checkNotNull(keySalt, "AtmosphereConfig init parameter '" + AUTH_TOKEN_SALT + "' was not set.");
         tokenExpirationToleranceInSeconds = config.getInitParameter(Configuration.AUTH_TOKEN_EXPIRATION_TOLERANCE_IN_SECS, 0);
         userRepository = InjectHelper.getInstance(UserRepository.class);
+        authTokenCache = InjectHelper.getInstance(AuthTokenCache.class);
 
         try {
             tokenSigningKey = AuthToken.generateKey(keyPassword, keySalt);
+            tokenVerifier = AuthToken.createVerifier(tokenSigningKey);
         } catch (Exception e) {
             throw new VisalloException("Key generation failed", e);
         }
@@ -81,7 +86,7 @@ public class AuthTokenWebSocketInterceptor implements AtmosphereInterceptor {
                 }
                 String tokenString = cookieString.substring(equalsSeperatorIndex + 1, cookieSeparatorIndex).trim();
                 if (!StringUtils.isEmpty(tokenString)) {
-                    return AuthToken.parse(tokenString, tokenSigningKey);
+                    return authTokenCache.get(tokenString, tokenSigningKey, tokenVerifier);
                 }
             }
         }
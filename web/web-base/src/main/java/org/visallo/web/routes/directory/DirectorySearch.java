@@ -28,12 +28,15 @@ public class DirectorySearch implements ParameterizedHandler {
             @Required(name = "search", allowEmpty = false) String search,
             @Optional(name = "people", defaultValue = "true") boolean searchPeople,
             @Optional(name = "groups", defaultValue = "true") boolean searchGroups,
+            @Optional(name = "limit") Integer limit,
             User user
     ) {
         ClientApiDirectorySearchResponse response = new ClientApiDirectorySearchResponse();
 
         if (searchPeople) {
-            List<DirectoryPerson> people = this.directoryRepository.searchPeople(search, user);
+            List<DirectoryPerson> people = limit == null
+                    ? this.directoryRepository.searchPeople(search, user)
+                    : this.directoryRepository.searchPeople(search, limit, user);
             for (DirectoryPerson person : people) {
                 response.getEntities().add(person);
             }
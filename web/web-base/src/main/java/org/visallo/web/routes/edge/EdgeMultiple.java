@@ -5,6 +5,7 @@ import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import org.visallo.webster.ParameterizedHandler;
 import org.visallo.webster.annotations.Handle;
+import org.visallo.webster.annotations.Optional;
 import org.visallo.webster.annotations.Required;
 import org.vertexium.Authorizations;
 import org.vertexium.Edge;
@@ -13,14 +14,23 @@ import org.vertexium.Graph;
 import org.visallo.core.model.user.AuthorizationRepository;
 import org.visallo.core.user.User;
 import org.visallo.core.util.ClientApiConverter;
+import org.visallo.core.util.ClientApiProjection;
+import org.visallo.core.util.VertexiumUtil;
 import org.visallo.web.clientapi.model.ClientApiEdge;
 import org.visallo.web.clientapi.model.ClientApiEdgeMultipleResponse;
 import org.visallo.web.parameterProviders.ActiveWorkspaceId;
 
 import javax.servlet.http.HttpServletRequest;
+import java.util.Collection;
+import java.util.EnumSet;
 
 @Singleton
 public class EdgeMultiple implements ParameterizedHandler {
+    private static final EnumSet<FetchHint> PROJECTED_FETCH_HINTS = EnumSet.of(
+            FetchHint.PROPERTIES,
+            FetchHint.PROPERTY_METADATA,
+            FetchHint.EXTENDED_DATA_TABLE_NAMES
+    );
     private final Graph graph;
     private final AuthorizationRepository authorizationRepository;
 
@@ -37,6 +47,8 @@ public class EdgeMultiple implements ParameterizedHandler {
     public ClientApiEdgeMultipleResponse handle(
             @Required(name = "edgeIds[]") String[] edgeIdsParameter,
             @ActiveWorkspaceId(required = false) String workspaceId,
+            @Optional(name = "propertyNames[]") String[] propertyNames,
+            @Optional(name = "includeExtendedDataTableNames", defaultValue = "true") boolean includeExtendedDataTableNames,
             HttpServletRequest request,
             User user
     ) throws Exception {
@@ -44,7 +56,11 @@ public class EdgeMultiple implements ParameterizedHandler {
                 authorizationRepository.getGraphAuthorizations(user, workspaceId) :
                 authorizationRepository.getGraphAuthorizations(user);
 
-        return getEdges(request, workspaceId, Sets.newHashSet(edgeIdsParameter), authorizations);
+        ClientApiProjection projection = ClientApiProjection.create(propertyNames, includeExtendedDataTableNames, true);
+        if (projection.isFull()) {
+            return getEdges(request, workspaceId, Sets.newHashSet(edgeIdsParameter), authorizations);
+        }
+        return getEdges(workspaceId, Sets.newHashSet(edgeIdsParameter), projection, authorizations);
     }
 
     /**
@@ -56,12 +72,28 @@ public class EdgeMultiple implements ParameterizedHandler {
             String workspaceId,
             Iterable<String> edgeIds,
             Authorizations authorizations
+    ) {
+        return getEdges(workspaceId, Sets.newHashSet(edgeIds), ClientApiProjection.FULL, authorizations);
+    }
+
+    private ClientApiEdgeMultipleResponse getEdges(
+            String workspaceId,
+            Collection<String> edgeIds,
+            ClientApiProjection projection,
+            Authorizations authorizations
     ) {
         ClientApiEdgeMultipleResponse edgeResult = new ClientApiEdgeMultipleResponse();
 
-        Iterable<Edge> edges = graph.getEdges(edgeIds, FetchHint.ALL, authorizations);
+        EnumSet<FetchHint> fetchHints = projection.isFull() ? FetchHint.ALL : projection.getFetchHints(PROJECTED_FETCH_HINTS);
+        Iterable<Edge> edges = VertexiumUtil.getEdgesInBatches(
+                graph,
+                edgeIds,
+                fetchHints,
+                VertexiumUtil.DEFAULT_FETCH_BATCH_SIZE,
+                authorizations
+        );
         for (Edge e : edges) {
-            ClientApiEdge clientApiEdge = ClientApiConverter.toClientApiEdge(e, workspaceId);
+            ClientApiEdge clientApiEdge = ClientApiConverter.toClientApiEdge(e, workspaceId, projection);
             edgeResult.getEdges().add(clientApiEdge);
         }
 
@@ -1,5 +1,7 @@
 package org.visallo.web.routes.extendedData;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import org.visallo.webster.ParameterizedHandler;
@@ -10,9 +12,21 @@ import org.vertexium.Authorizations;
 import org.vertexium.ElementType;
 import org.vertexium.ExtendedDataRow;
 import org.vertexium.Graph;
+import org.visallo.core.model.search.ExtendedDataCursor;
 import org.visallo.core.util.ClientApiConverter;
-import org.visallo.web.clientapi.model.ClientApiExtendedDataGetResponse;
+import org.visallo.web.BadRequestException;
+import org.visallo.web.VisalloResponse;
+import org.visallo.web.clientapi.util.ObjectMapperFactory;
 
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Returns a page of an extended data table's rows as a {@link org.visallo.web.clientapi.model.ClientApiExtendedDataGetResponse}.
+ * Rows are written to the response as they are read so large tables don't need to be held in memory, the
+ * response includes a nextCursor to pass back for the next page when more rows are available.
+ */
 @Singleton
 public class ExtendedDataGet implements ParameterizedHandler {
     private final Graph graph;
@@ -23,13 +37,50 @@ public class ExtendedDataGet implements ParameterizedHandler {
     }
 
     @Handle
-    public ClientApiExtendedDataGetResponse handle(
+    public void handle(
             @Required(name = "elementType") ElementType elementType,
             @Required(name = "elementId") String elementId,
             @Required(name = "tableName") String tableName,
-            Authorizations authorizations
+            @Optional(name = "cursor") String cursorString,
+            @Optional(name = "size", defaultValue = "1000") int size,
+            @Optional(name = "columns[]") String[] columnsParameter,
+            Authorizations authorizations,
+            VisalloResponse response
     ) throws Exception {
+        if (size < 1) {
+            throw new BadRequestException("size", "size must be greater than zero");
+        }
+        ExtendedDataCursor cursor = cursorString == null ? ExtendedDataCursor.START : ExtendedDataCursor.decode(cursorString);
+        Set<String> columns = columnsParameter == null ? null : new HashSet<>(Arrays.asList(columnsParameter));
         Iterable<ExtendedDataRow> rows = graph.getExtendedData(elementType, elementId, tableName, authorizations);
-        return new ClientApiExtendedDataGetResponse(ClientApiConverter.toClientApiExtendedDataRows(rows));
+
+        ObjectMapper objectMapper = ObjectMapperFactory.getInstance();
+        response.setContentType("application/json");
+        response.setCharacterEncoding("utf-8");
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("rows");
+            int count = 0;
+            String lastRowId = null;
+            boolean hasMoreRows = false;
+            for (ExtendedDataRow row : rows) {
+                String rowId = row.getId().getRowId();
+                if (!cursor.isAfterCursor(rowId)) {
+                    continue;
+                }
+                if (count == size) {
+                    hasMoreRows = true;
+                    break;
+                }
+                objectMapper.writeValue(generator, ClientApiConverter.toClientApiExtendedDataRow(row, null, columns));
+                lastRowId = rowId;
+                count++;
+            }
+            generator.writeEndArray();
+            if (hasMoreRows) {
+                generator.writeStringField("nextCursor", cursor.next(lastRowId, count).encode());
+            }
+            generator.writeEndObject();
+        }
     }
 }
@@ -4,9 +4,12 @@ import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import org.visallo.webster.ParameterizedHandler;
 import org.vertexium.Graph;
+import org.visallo.core.model.search.ExtendedDataCursor;
+import org.visallo.core.model.search.QueryResultsIterableSearchResults;
 import org.visallo.core.model.search.VertexiumObjectSearchRunnerBase;
 import org.visallo.core.model.search.ExtendedDataSearchRunner;
 import org.visallo.core.model.search.SearchRepository;
+import org.visallo.web.clientapi.model.ClientApiElementSearchResponse;
 import org.visallo.web.routes.vertex.VertexiumObjectSearchBase;
 
 @Singleton
@@ -15,4 +18,10 @@ public class ExtendedDataSearch extends VertexiumObjectSearchBase implements Par
     public ExtendedDataSearch(Graph graph, SearchRepository searchRepository) {
         super(graph, (VertexiumObjectSearchRunnerBase) searchRepository.findSearchRunnerByUri(ExtendedDataSearchRunner.URI));
     }
+
+    @Override
+    protected void setNextPage(ClientApiElementSearchResponse results, QueryResultsIterableSearchResults searchResults) {
+        super.setNextPage(results, searchResults);
+        results.setNextCursor(new ExtendedDataCursor(searchResults.getOffset() + searchResults.getSize(), null).encode());
+    }
 }
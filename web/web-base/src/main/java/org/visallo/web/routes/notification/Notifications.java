@@ -8,25 +8,19 @@ import org.visallo.webster.annotations.Optional;
 import org.apache.commons.lang.time.DateUtils;
 import org.json.JSONArray;
 import org.json.JSONObject;
+import org.visallo.core.model.notification.NotificationScheduler;
 import org.visallo.core.model.notification.SystemNotification;
-import org.visallo.core.model.notification.SystemNotificationRepository;
-import org.visallo.core.model.notification.UserNotificationRepository;
 import org.visallo.core.user.User;
 
 import java.util.Date;
 
 @Singleton
 public class Notifications implements ParameterizedHandler {
-    private final SystemNotificationRepository systemNotificationRepository;
-    private final UserNotificationRepository userNotificationRepository;
+    private final NotificationScheduler notificationScheduler;
 
     @Inject
-    public Notifications(
-            final SystemNotificationRepository systemNotificationRepository,
-            final UserNotificationRepository userNotificationRepository
-    ) {
-        this.systemNotificationRepository = systemNotificationRepository;
-        this.userNotificationRepository = userNotificationRepository;
+    public Notifications(final NotificationScheduler notificationScheduler) {
+        this.notificationScheduler = notificationScheduler;
     }
 
     @Handle
@@ -39,20 +33,20 @@ public class Notifications implements ParameterizedHandler {
         JSONObject systemNotifications = new JSONObject();
 
         JSONArray activeNotifications = new JSONArray();
-        for (SystemNotification notification : systemNotificationRepository.getActiveNotifications(user)) {
+        for (SystemNotification notification : notificationScheduler.getActiveSystemNotifications(user)) {
             activeNotifications.put(notification.toJSONObject());
         }
         systemNotifications.put("active", activeNotifications);
 
         Date maxDate = DateUtils.addDays(new Date(), futureDays);
         JSONArray futureNotifications = new JSONArray();
-        for (SystemNotification notification : systemNotificationRepository.getFutureNotifications(maxDate, user)) {
+        for (SystemNotification notification : notificationScheduler.getFutureSystemNotifications(maxDate, user)) {
             futureNotifications.put(notification.toJSONObject());
         }
         systemNotifications.put("future", futureNotifications);
 
         JSONArray userNotifications = new JSONArray();
-        userNotificationRepository.getActiveNotifications(user)
+        notificationScheduler.getActiveUserNotifications(user).stream()
                 .map(notification -> notification.toJSONObject())
                 .forEach(json -> userNotifications.put(json));
 
@@ -6,6 +6,7 @@ import org.visallo.webster.ParameterizedHandler;
 import org.visallo.webster.annotations.Handle;
 import org.visallo.webster.annotations.Required;
 import org.visallo.core.exception.VisalloResourceNotFoundException;
+import org.visallo.core.model.notification.NotificationScheduler;
 import org.visallo.core.model.notification.SystemNotification;
 import org.visallo.core.model.notification.SystemNotificationRepository;
 import org.visallo.core.model.workQueue.WorkQueueRepository;
@@ -17,14 +18,17 @@ import org.visallo.web.clientapi.model.ClientApiSuccess;
 public class SystemNotificationDelete implements ParameterizedHandler {
     private final SystemNotificationRepository systemNotificationRepository;
     private final WorkQueueRepository workQueueRepository;
+    private final NotificationScheduler notificationScheduler;
 
     @Inject
     public SystemNotificationDelete(
             final SystemNotificationRepository systemNotificationRepository,
-            final WorkQueueRepository workQueueRepository
+            final WorkQueueRepository workQueueRepository,
+            final NotificationScheduler notificationScheduler
     ) {
         this.systemNotificationRepository = systemNotificationRepository;
         this.workQueueRepository = workQueueRepository;
+        this.notificationScheduler = notificationScheduler;
     }
 
     @Handle
@@ -38,6 +42,7 @@ public class SystemNotificationDelete implements ParameterizedHandler {
         }
 
         systemNotificationRepository.endNotification(notification, user);
+        notificationScheduler.cancel(notificationId);
         workQueueRepository.pushSystemNotificationEnded(notificationId);
         return VisalloResponse.SUCCESS;
     }
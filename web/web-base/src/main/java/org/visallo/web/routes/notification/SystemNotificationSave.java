@@ -6,6 +6,7 @@ import org.visallo.webster.ParameterizedHandler;
 import org.visallo.webster.annotations.Handle;
 import org.visallo.webster.annotations.Optional;
 import org.visallo.webster.annotations.Required;
+import org.visallo.core.model.notification.NotificationScheduler;
 import org.visallo.core.model.notification.SystemNotification;
 import org.visallo.core.model.notification.SystemNotificationRepository;
 import org.visallo.core.model.notification.SystemNotificationSeverity;
@@ -22,15 +23,18 @@ import java.util.TimeZone;
 public class SystemNotificationSave implements ParameterizedHandler {
     private final SystemNotificationRepository systemNotificationRepository;
     private final WorkQueueRepository workQueueRepository;
+    private final NotificationScheduler notificationScheduler;
     private static final String DATE_FORMAT = "yyyy-MM-dd HH:mm 'UTC'";
 
     @Inject
     public SystemNotificationSave(
             final SystemNotificationRepository systemNotificationRepository,
-            final WorkQueueRepository workQueueRepository
+            final WorkQueueRepository workQueueRepository,
+            final NotificationScheduler notificationScheduler
     ) {
         this.systemNotificationRepository = systemNotificationRepository;
         this.workQueueRepository = workQueueRepository;
+        this.notificationScheduler = notificationScheduler;
     }
 
     @Handle
@@ -66,6 +70,7 @@ public class SystemNotificationSave implements ParameterizedHandler {
             notification = systemNotificationRepository.updateNotification(notification, user);
         }
 
+        notificationScheduler.schedule(notification);
         if (notification.isActive()) {
             workQueueRepository.pushSystemNotification(notification);
         } else {
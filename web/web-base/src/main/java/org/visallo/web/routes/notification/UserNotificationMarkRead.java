@@ -7,6 +7,7 @@ import org.visallo.webster.annotations.Handle;
 import org.visallo.webster.annotations.Required;
 import org.visallo.core.exception.VisalloAccessDeniedException;
 import org.visallo.core.exception.VisalloResourceNotFoundException;
+import org.visallo.core.model.notification.NotificationScheduler;
 import org.visallo.core.model.notification.UserNotification;
 import org.visallo.core.model.notification.UserNotificationRepository;
 import org.visallo.core.user.User;
@@ -16,10 +17,15 @@ import org.visallo.web.clientapi.model.ClientApiSuccess;
 @Singleton
 public class UserNotificationMarkRead implements ParameterizedHandler {
     private final UserNotificationRepository userNotificationRepository;
+    private final NotificationScheduler notificationScheduler;
 
     @Inject
-    public UserNotificationMarkRead(final UserNotificationRepository userNotificationRepository) {
+    public UserNotificationMarkRead(
+            final UserNotificationRepository userNotificationRepository,
+            final NotificationScheduler notificationScheduler
+    ) {
         this.userNotificationRepository = userNotificationRepository;
+        this.notificationScheduler = notificationScheduler;
     }
 
     @Handle
@@ -42,6 +48,7 @@ public class UserNotificationMarkRead implements ParameterizedHandler {
         }
 
         userNotificationRepository.markRead(notificationIds, user);
+        notificationScheduler.markRead(notificationIds, user);
         return VisalloResponse.SUCCESS;
     }
 }
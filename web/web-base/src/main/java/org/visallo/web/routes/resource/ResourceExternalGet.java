@@ -15,6 +15,7 @@ import org.vertexium.property.StreamingPropertyValue;
 import org.visallo.core.exception.VisalloResourceNotFoundException;
 import org.visallo.core.http.HttpRepository;
 import org.visallo.core.model.properties.VisalloProperties;
+import org.visallo.core.util.ImageProcessingService;
 import org.visallo.core.util.ImageUtils;
 import org.visallo.web.VisalloResponse;
 
@@ -26,14 +27,17 @@ import java.io.InputStream;
 public class ResourceExternalGet implements ParameterizedHandler {
     private final Graph graph;
     private final HttpRepository httpRepository;
+    private final ImageProcessingService imageProcessingService;
 
     @Inject
     public ResourceExternalGet(
             final Graph graph,
-            final HttpRepository httpRepository
+            final HttpRepository httpRepository,
+            final ImageProcessingService imageProcessingService
     ) {
         this.graph = graph;
         this.httpRepository = httpRepository;
+        this.imageProcessingService = imageProcessingService;
     }
 
     @Handle
@@ -76,7 +80,7 @@ public class ResourceExternalGet implements ParameterizedHandler {
 
     private byte[] createAndSaveCachedImage(Vertex vertex, String propertyKey, String url, int maxWidth, int maxHeight, int jpegQuality, Authorizations authorizations) throws IOException {
         byte[] imageData = getAndSaveImageData(vertex, url, authorizations);
-        imageData = ImageUtils.resize(imageData, maxWidth, maxHeight, jpegQuality);
+        imageData = imageProcessingService.resize(imageData, maxWidth, maxHeight, jpegQuality);
 
         StreamingPropertyValue value = new StreamingPropertyValue(new ByteArrayInputStream(imageData), byte[].class);
         value.store(true).searchIndex(false);
@@ -1,6 +1,9 @@
 package org.visallo.web.routes.user;
 
+import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import org.visallo.core.model.user.UserPresenceRegistry;
+import org.visallo.core.user.User;
 import org.visallo.web.VisalloResponse;
 import org.visallo.web.clientapi.model.ClientApiSuccess;
 import org.visallo.webster.ParameterizedHandler;
@@ -14,9 +17,16 @@ import org.visallo.webster.annotations.Handle;
  */
 @Singleton
 public class Heartbeat implements ParameterizedHandler {
+    private final UserPresenceRegistry userPresenceRegistry;
+
+    @Inject
+    public Heartbeat(UserPresenceRegistry userPresenceRegistry) {
+        this.userPresenceRegistry = userPresenceRegistry;
+    }
 
     @Handle
-    public ClientApiSuccess handle() throws Exception {
+    public ClientApiSuccess handle(User user) throws Exception {
+        userPresenceRegistry.touch(user.getUserId());
         return VisalloResponse.SUCCESS;
     }
 }
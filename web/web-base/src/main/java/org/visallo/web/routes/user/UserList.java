@@ -4,8 +4,8 @@ import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import org.vertexium.util.ConvertingIterable;
 import org.vertexium.util.FilterIterable;
+import org.visallo.core.model.user.UserPresenceRegistry;
 import org.visallo.core.model.user.UserRepository;
-import org.visallo.core.model.user.UserSessionCounterRepository;
 import org.visallo.core.model.workspace.Workspace;
 import org.visallo.core.model.workspace.WorkspaceRepository;
 import org.visallo.core.model.workspace.WorkspaceUser;
@@ -30,17 +30,17 @@ public class UserList implements ParameterizedHandler {
     private static final VisalloLogger LOGGER = VisalloLoggerFactory.getLogger(UserList.class);
     private final UserRepository userRepository;
     private final WorkspaceRepository workspaceRepository;
-    private final UserSessionCounterRepository userSessionCounterRepository;
+    private final UserPresenceRegistry userPresenceRegistry;
 
     @Inject
     public UserList(
             UserRepository userRepository,
             WorkspaceRepository workspaceRepository,
-            UserSessionCounterRepository userSessionCounterRepository
+            UserPresenceRegistry userPresenceRegistry
     ) {
         this.userRepository = userRepository;
         this.workspaceRepository = workspaceRepository;
-        this.userSessionCounterRepository = userSessionCounterRepository;
+        this.userPresenceRegistry = userPresenceRegistry;
     }
 
     @Handle
@@ -67,14 +67,17 @@ public class UserList implements ParameterizedHandler {
                 users.add(u);
             }
         } else if (online != null && online) {
-            users = toList(userRepository.find(skip, limit));
-            users.removeIf(u -> userSessionCounterRepository.getSessionCount(u.getUserId()) < 1);
-        } else {
-            users = toList(userRepository.find(query));
-
-            if (workspaceId != null) {
-                users = toList(getUsersWithWorkspaceAccess(workspaceId, users, user));
+            users = new ArrayList<>();
+            for (String userId : userPresenceRegistry.getOnlineUserIds(skip, limit)) {
+                User u = userRepository.findById(userId);
+                if (u != null) {
+                    users.add(u);
+                }
             }
+        } else if (workspaceId != null) {
+            users = toList(getUsersWithWorkspaceAccess(workspaceId, userRepository.find(query), user));
+        } else {
+            users = userRepository.find(query, skip, limit);
         }
 
         Iterable<String> workspaceIds = getCurrentWorkspaceIds(users);
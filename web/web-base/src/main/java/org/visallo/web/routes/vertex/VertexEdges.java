@@ -14,10 +14,19 @@ import org.visallo.core.exception.VisalloResourceNotFoundException;
 import org.visallo.core.trace.Trace;
 import org.visallo.core.trace.TraceSpan;
 import org.visallo.core.util.ClientApiConverter;
+import org.visallo.core.util.ClientApiProjection;
 import org.visallo.web.clientapi.model.ClientApiVertex;
 import org.visallo.web.clientapi.model.ClientApiVertexEdges;
 import org.visallo.web.parameterProviders.ActiveWorkspaceId;
 
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 @Singleton
 public class VertexEdges implements ParameterizedHandler {
     private final Graph graph;
@@ -35,6 +44,7 @@ public class VertexEdges implements ParameterizedHandler {
             @Optional(name = "edgeLabel") String edgeLabel,
             @Optional(name = "relatedVertexId") String relatedVertexId,
             @Optional(name = "direction", defaultValue = "BOTH") String directionStr,
+            @Optional(name = "summary", defaultValue = "false") boolean summary,
             @ActiveWorkspaceId String workspaceId,
             Authorizations authorizations
     ) throws Exception {
@@ -72,11 +82,24 @@ public class VertexEdges implements ParameterizedHandler {
                 .limit(size)
                 .edges();
 
-        ClientApiVertexEdges result = new ClientApiVertexEdges();
-
+        List<Edge> edgeList = new ArrayList<>();
+        Set<String> otherVertexIds = new HashSet<>();
         for (Edge edge : edges) {
-            String otherVertexId = edge.getOtherVertexId(graphVertexId);
-            Vertex otherVertex = graph.getVertex(otherVertexId, authorizations);
+            edgeList.add(edge);
+            otherVertexIds.add(edge.getOtherVertexId(graphVertexId));
+        }
+
+        ClientApiProjection projection = summary ? ClientApiProjection.SUMMARY : ClientApiProjection.FULL;
+        Map<String, Vertex> otherVertices = new HashMap<>();
+        try (TraceSpan trace = Trace.start("getOtherVertices").data("count", Integer.toString(otherVertexIds.size()))) {
+            for (Vertex otherVertex : graph.getVertices(otherVertexIds, getOtherVertexFetchHints(projection), authorizations)) {
+                otherVertices.put(otherVertex.getId(), otherVertex);
+            }
+        }
+
+        ClientApiVertexEdges result = new ClientApiVertexEdges();
+        for (Edge edge : edgeList) {
+            Vertex otherVertex = otherVertices.get(edge.getOtherVertexId(graphVertexId));
             if (otherVertex == null) {
                 continue;
             }
@@ -90,14 +113,40 @@ public class VertexEdges implements ParameterizedHandler {
     }
 
     /**
-     * This is overridable so web plugins can modify the resulting set of edges.
+     * The fetch hints used to load the vertices on the other side of the edges, all of a page's vertices
+     * are loaded with a single call. In summary mode the vertices are loaded without properties. This is
+     * overridable so web plugins can load more or less of each vertex.
+     */
+    protected EnumSet<FetchHint> getOtherVertexFetchHints(ClientApiProjection projection) {
+        return projection.getFetchHints(FetchHint.ALL);
+    }
+
+    /**
+     * This is overridable so web plugins can modify the resulting set of edges. The other vertex only has
+     * what {@link #getOtherVertexFetchHints(ClientApiProjection)} loaded, which in summary mode excludes its properties.
      */
     protected ClientApiVertexEdges.Edge convertEdgeToClientApi(Edge edge, Vertex otherVertex, String workspaceId, Authorizations authorizations) {
+        ClientApiProjection projection = otherVertex.getFetchHints().contains(FetchHint.PROPERTIES)
+                ? ClientApiProjection.FULL
+                : ClientApiProjection.SUMMARY;
+        return convertEdgeToClientApi(edge, otherVertex, workspaceId, projection, authorizations);
+    }
+
+    /**
+     * Converts an edge and the vertex on its other side, including only the parts of the vertex in the projection.
+     */
+    protected ClientApiVertexEdges.Edge convertEdgeToClientApi(
+            Edge edge,
+            Vertex otherVertex,
+            String workspaceId,
+            ClientApiProjection projection,
+            Authorizations authorizations
+    ) {
         ClientApiVertexEdges.Edge clientApiEdge = new ClientApiVertexEdges.Edge();
         clientApiEdge.setRelationship(ClientApiConverter.toClientApiEdge(edge, workspaceId));
 
         ClientApiVertex clientApiVertex;
-        clientApiVertex = ClientApiConverter.toClientApiVertex(otherVertex, workspaceId, authorizations);
+        clientApiVertex = ClientApiConverter.toClientApiVertex(otherVertex, workspaceId, null, false, projection, authorizations);
         clientApiEdge.setVertex(clientApiVertex);
 
         return clientApiEdge;
@@ -4,12 +4,18 @@ import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import org.visallo.webster.ParameterizedHandler;
 import org.visallo.webster.annotations.Handle;
+import org.visallo.webster.annotations.Optional;
 import org.visallo.webster.annotations.Required;
 import org.vertexium.Authorizations;
+import org.vertexium.FetchHint;
 import org.vertexium.Graph;
 import org.vertexium.Vertex;
-import org.vertexium.query.GeoCompare;
+import org.vertexium.query.*;
 import org.vertexium.type.GeoCircle;
+import org.vertexium.type.GeoPoint;
+import org.vertexium.type.GeoRect;
+import org.vertexium.type.GeoShape;
+import org.visallo.core.exception.VisalloException;
 import org.visallo.core.model.ontology.OntologyProperty;
 import org.visallo.core.model.ontology.OntologyRepository;
 import org.visallo.core.util.ClientApiConverter;
@@ -17,8 +23,19 @@ import org.visallo.web.clientapi.model.ClientApiElementSearchResponse;
 import org.visallo.web.clientapi.model.PropertyType;
 import org.visallo.web.parameterProviders.ActiveWorkspaceId;
 
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Finds vertices with any geo location property within a circle using a single query. Results can be paged
+ * with size and offset, restricted to a bounding box (north,west,south,east) such as the visible map area, in
+ * which case each geo location property is queried separately so that both shapes apply to the same property and
+ * the matching ids are de-duplicated before paging, and, when a geohash precision is given, clustered into geohash
+ * cells for each geo location property so that zoomed out maps don't need every point.
+ */
 @Singleton
 public class VertexGeoSearch implements ParameterizedHandler {
+    private static final String GEOHASH_AGGREGATION_PREFIX = "geohash:";
     private final Graph graph;
     private final OntologyRepository ontologyRepository;
 
@@ -36,24 +53,158 @@ public class VertexGeoSearch implements ParameterizedHandler {
             @Required(name = "lat") double latitude,
             @Required(name = "lon") double longitude,
             @Required(name = "radius") double radius,
+            @Optional(name = "size") Integer size,
+            @Optional(name = "offset", defaultValue = "0") int offset,
+            @Optional(name = "bbox") String boundingBox,
+            @Optional(name = "geohashPrecision") Integer geohashPrecision,
             @ActiveWorkspaceId String workspaceId,
             Authorizations authorizations
     ) throws Exception {
+        GeoCircle circle = new GeoCircle(latitude, longitude, radius);
+        List<String> geoPropertyNames = getGeoPropertyNames(workspaceId);
         ClientApiElementSearchResponse results = new ClientApiElementSearchResponse();
+        Set<String> vertexIds = new HashSet<>();
+        int hits;
+        if (boundingBox == null) {
+            Query query = graph.query(authorizations)
+                    .has(GeoShape.class, GeoCompare.WITHIN, circle);
+            QueryResultsIterable<Vertex> vertices = search(
+                    query,
+                    offset,
+                    size,
+                    ClientApiConverter.SEARCH_FETCH_HINTS,
+                    geohashPrecision,
+                    geoPropertyNames,
+                    results
+            );
+            hits = addVertices(vertices, vertexIds, results, workspaceId, authorizations);
+            results.setTotalHits(vertices.getTotalHits());
+        } else {
+            // the circle and the bounding box must match the same property, otherwise a vertex with one location
+            // in the circle and another in the bounding box would match, so each geo property is queried on its
+            // own. A vertex can match more than one property, so only the ids are collected, in property order,
+            // and the page is taken from the de-duplicated ids.
+            GeoRect rect = parseBoundingBox(boundingBox);
+            Set<String> matchingVertexIds = new LinkedHashSet<>();
+            for (String propertyName : geoPropertyNames) {
+                Query query = graph.query(authorizations)
+                        .has(propertyName, GeoCompare.WITHIN, circle)
+                        .has(propertyName, GeoCompare.WITHIN, rect);
+                QueryResultsIterable<Vertex> vertices = search(
+                        query,
+                        0,
+                        null,
+                        FetchHint.NONE,
+                        geohashPrecision,
+                        Collections.singletonList(propertyName),
+                        results
+                );
+                for (Vertex vertex : vertices) {
+                    matchingVertexIds.add(vertex.getId());
+                }
+            }
+            List<String> pageVertexIds = matchingVertexIds.stream()
+                    .skip(offset)
+                    .limit(size == null ? Long.MAX_VALUE : size)
+                    .collect(Collectors.toList());
+            hits = addVertices(getVerticesInOrder(pageVertexIds, authorizations), vertexIds, results, workspaceId, authorizations);
+            results.setTotalHits(matchingVertexIds.size());
+        }
+        results.setNextOffset(offset + hits);
+        return results;
+    }
 
-        for (OntologyProperty property : this.ontologyRepository.getProperties(workspaceId)) {
-            if (property.getDataType() != PropertyType.GEO_LOCATION) {
-                continue;
+    private QueryResultsIterable<Vertex> search(
+            Query query,
+            int skip,
+            Integer limit,
+            EnumSet<FetchHint> fetchHints,
+            Integer geohashPrecision,
+            List<String> geoPropertyNames,
+            ClientApiElementSearchResponse results
+    ) {
+        if (limit != null) {
+            query.limit(limit);
+        }
+        if (skip > 0) {
+            query.skip(skip);
+        }
+
+        List<Aggregation> aggregations = new ArrayList<>();
+        if (geohashPrecision != null) {
+            for (String propertyName : geoPropertyNames) {
+                Aggregation aggregation = new GeohashAggregation(
+                        GEOHASH_AGGREGATION_PREFIX + propertyName,
+                        propertyName,
+                        geohashPrecision
+                );
+                query.addAggregation(aggregation);
+                aggregations.add(aggregation);
             }
+        }
+
+        QueryResultsIterable<Vertex> vertices = query.vertices(fetchHints);
+        for (Aggregation aggregation : aggregations) {
+            GeohashResult geohashResult = vertices.getAggregationResult(aggregation.getAggregationName(), GeohashResult.class);
+            results.getAggregates().put(
+                    aggregation.getAggregationName(),
+                    VertexiumObjectSearchBase.toClientApiAggregateResult(geohashResult)
+            );
+        }
+        return vertices;
+    }
 
-            Iterable<Vertex> vertices = graph.query(authorizations).
-                    has(property.getTitle(), GeoCompare.WITHIN, new GeoCircle(latitude, longitude, radius)).
-                    vertices();
-            for (Vertex vertex : vertices) {
+    private List<Vertex> getVerticesInOrder(List<String> vertexIds, Authorizations authorizations) {
+        Map<String, Vertex> verticesById = new HashMap<>();
+        for (Vertex vertex : graph.getVertices(vertexIds, ClientApiConverter.SEARCH_FETCH_HINTS, authorizations)) {
+            verticesById.put(vertex.getId(), vertex);
+        }
+        return vertexIds.stream()
+                .map(verticesById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private int addVertices(
+            Iterable<Vertex> vertices,
+            Set<String> vertexIds,
+            ClientApiElementSearchResponse results,
+            String workspaceId,
+            Authorizations authorizations
+    ) {
+        int hits = 0;
+        for (Vertex vertex : vertices) {
+            hits++;
+            if (vertexIds.add(vertex.getId())) {
                 results.getElements().add(ClientApiConverter.toClientApiVertex(vertex, workspaceId, authorizations));
             }
         }
+        return hits;
+    }
 
-        return results;
+    private List<String> getGeoPropertyNames(String workspaceId) {
+        List<String> propertyNames = new ArrayList<>();
+        for (OntologyProperty property : this.ontologyRepository.getProperties(workspaceId)) {
+            if (property.getDataType() == PropertyType.GEO_LOCATION) {
+                propertyNames.add(property.getTitle());
+            }
+        }
+        return propertyNames;
+    }
+
+    private static GeoRect parseBoundingBox(String boundingBox) {
+        String[] parts = boundingBox.split(",");
+        if (parts.length != 4) {
+            throw new VisalloException("bbox must be north,west,south,east: " + boundingBox);
+        }
+        try {
+            double north = Double.parseDouble(parts[0].trim());
+            double west = Double.parseDouble(parts[1].trim());
+            double south = Double.parseDouble(parts[2].trim());
+            double east = Double.parseDouble(parts[3].trim());
+            return new GeoRect(new GeoPoint(north, west), new GeoPoint(south, east));
+        } catch (NumberFormatException ex) {
+            throw new VisalloException("bbox must be north,west,south,east: " + boundingBox, ex);
+        }
     }
 }
@@ -5,26 +5,25 @@ import com.google.inject.Singleton;
 import org.visallo.webster.ParameterizedHandler;
 import org.visallo.webster.annotations.Handle;
 import org.vertexium.Authorizations;
-import org.vertexium.Graph;
-import org.visallo.core.model.properties.VisalloProperties;
+import org.visallo.core.model.graph.ConceptTypeCountCache;
 import org.visallo.web.clientapi.model.ClientApiVertexCountsByConceptType;
 
 import java.util.Map;
 
 @Singleton
 public class VertexGetCountsByConceptType implements ParameterizedHandler {
-    private final Graph graph;
+    private final ConceptTypeCountCache conceptTypeCountCache;
 
     @Inject
-    public VertexGetCountsByConceptType(Graph graph) {
-        this.graph = graph;
+    public VertexGetCountsByConceptType(ConceptTypeCountCache conceptTypeCountCache) {
+        this.conceptTypeCountCache = conceptTypeCountCache;
     }
 
     @Handle
     public ClientApiVertexCountsByConceptType handle(
             Authorizations authorizations
     ) throws Exception {
-        Map<Object, Long> conceptTypeCounts = graph.getVertexPropertyCountByValue(VisalloProperties.CONCEPT_TYPE.getPropertyName(), authorizations);
+        Map<Object, Long> conceptTypeCounts = conceptTypeCountCache.getCountsByConceptType(authorizations);
         return new ClientApiVertexCountsByConceptType(conceptTypeCounts);
     }
 }
@@ -11,6 +11,8 @@ import org.visallo.core.model.user.AuthorizationRepository;
 import org.visallo.core.model.workspace.WorkspaceRepository;
 import org.visallo.core.user.User;
 import org.visallo.core.util.ClientApiConverter;
+import org.visallo.core.util.ClientApiProjection;
+import org.visallo.core.util.VertexiumUtil;
 import org.visallo.web.clientapi.model.ClientApiVertex;
 import org.visallo.web.clientapi.model.ClientApiVertexMultipleResponse;
 import org.visallo.web.parameterProviders.VisalloBaseParameterProvider;
@@ -46,6 +48,9 @@ public class VertexMultiple implements ParameterizedHandler {
             @Required(name = "vertexIds[]") String[] vertexIdsParam,
             @Optional(name = "fallbackToPublic", defaultValue = "false") boolean fallbackToPublic,
             @Optional(name = "includeAncillary", defaultValue = "false") boolean includeAncillary,
+            @Optional(name = "propertyNames[]") String[] propertyNames,
+            @Optional(name = "includeExtendedDataTableNames", defaultValue = "true") boolean includeExtendedDataTableNames,
+            @Optional(name = "includeEdgeLabels", defaultValue = "true") boolean includeEdgeLabels,
             User user
     ) throws Exception {
         ClientApiVertexMultipleResponse result = new ClientApiVertexMultipleResponse();
@@ -72,16 +77,22 @@ public class VertexMultiple implements ParameterizedHandler {
 
         Authorizations authorizations = authorizationRepository.getGraphAuthorizations(user, auths.toArray(new String[]{}));
 
-        Iterable<Vertex> graphVertices = graph.getVertices(
+        ClientApiProjection projection = ClientApiProjection.create(propertyNames, includeExtendedDataTableNames, includeEdgeLabels);
+        Iterable<Vertex> graphVertices = VertexiumUtil.getVerticesInBatches(
+                graph,
                 Sets.newHashSet(vertexIdsParam),
-                ClientApiConverter.SEARCH_FETCH_HINTS,
+                projection.getFetchHints(ClientApiConverter.SEARCH_FETCH_HINTS),
+                VertexiumUtil.DEFAULT_FETCH_BATCH_SIZE,
                 authorizations
         );
-        
+
         for (Vertex v : graphVertices) {
             ClientApiVertex vertex = ClientApiConverter.toClientApiVertex(
                     v,
                     workspaceId,
+                    null,
+                    false,
+                    projection,
                     authorizations
             );
 
@@ -4,12 +4,14 @@ import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import org.visallo.webster.ParameterizedHandler;
 import org.visallo.webster.annotations.Handle;
+import org.visallo.webster.annotations.Optional;
 import org.visallo.webster.annotations.Required;
 import org.vertexium.Authorizations;
 import org.vertexium.Graph;
 import org.vertexium.Vertex;
 import org.visallo.core.exception.VisalloResourceNotFoundException;
 import org.visallo.core.util.ClientApiConverter;
+import org.visallo.core.util.ClientApiProjection;
 import org.visallo.web.clientapi.model.ClientApiElement;
 import org.visallo.web.clientapi.model.ClientApiVertex;
 import org.visallo.web.parameterProviders.ActiveWorkspaceId;
@@ -26,13 +28,18 @@ public class VertexProperties implements ParameterizedHandler {
     @Handle
     public ClientApiVertex handle(
             @Required(name = "graphVertexId") String graphVertexId,
+            @Optional(name = "propertyNames[]") String[] propertyNames,
+            @Optional(name = "includeExtendedDataTableNames", defaultValue = "true") boolean includeExtendedDataTableNames,
             @ActiveWorkspaceId String workspaceId,
             Authorizations authorizations
     ) throws Exception {
-        Vertex vertex = graph.getVertex(graphVertexId, authorizations);
+        ClientApiProjection projection = ClientApiProjection.create(propertyNames, includeExtendedDataTableNames, true);
+        Vertex vertex = projection.isFull()
+                ? graph.getVertex(graphVertexId, authorizations)
+                : graph.getVertex(graphVertexId, projection.getFetchHints(ClientApiConverter.SEARCH_FETCH_HINTS), authorizations);
         if (vertex == null) {
             throw new VisalloResourceNotFoundException("Could not find vertex: " + graphVertexId);
         }
-        return (ClientApiVertex) ClientApiConverter.toClientApi(vertex, workspaceId, authorizations);
+        return ClientApiConverter.toClientApiVertex(vertex, workspaceId, null, false, projection, authorizations);
     }
 }
@@ -63,7 +63,7 @@ public abstract class VertexiumObjectSearchBase {
 
             ClientApiElementSearchResponse results = new ClientApiElementSearchResponse();
             results.getElements().addAll(vertexiumObjects);
-            results.setNextOffset((int) (searchResults.getOffset() + searchResults.getSize()));
+            setNextPage(results, searchResults);
 
             Boolean fetchReferencedElements = searchOptions.getOptionalParameter("fetchReferencedElements", Boolean.class);
             if (fetchReferencedElements != null && fetchReferencedElements) {
@@ -76,6 +76,10 @@ public abstract class VertexiumObjectSearchBase {
         }
     }
 
+    protected void setNextPage(ClientApiElementSearchResponse results, QueryResultsIterableSearchResults searchResults) {
+        results.setNextOffset((int) (searchResults.getOffset() + searchResults.getSize()));
+    }
+
     protected List<ClientApiVertexiumObject> findReferencedElements(
             List<ClientApiVertexiumObject> searchResults,
             String workspaceId,
@@ -151,7 +155,7 @@ public abstract class VertexiumObjectSearchBase {
         return toClientApiAggregateResult(aggResult);
     }
 
-    private Map<String, ClientApiSearchResponse.AggregateResult> toClientApiNestedResults(Map<String, AggregationResult> nestedResults) {
+    private static Map<String, ClientApiSearchResponse.AggregateResult> toClientApiNestedResults(Map<String, AggregationResult> nestedResults) {
         Map<String, ClientApiSearchResponse.AggregateResult> results = new HashMap<>();
         for (Map.Entry<String, AggregationResult> entry : nestedResults.entrySet()) {
             ClientApiSearchResponse.AggregateResult aggResult = toClientApiAggregateResult(entry.getValue());
@@ -163,7 +167,7 @@ public abstract class VertexiumObjectSearchBase {
         return results;
     }
 
-    private ClientApiSearchResponse.AggregateResult toClientApiAggregateResult(AggregationResult aggResult) {
+    static ClientApiSearchResponse.AggregateResult toClientApiAggregateResult(AggregationResult aggResult) {
         if (aggResult instanceof TermsResult) {
             return toClientApiTermsAggregateResult((TermsResult) aggResult);
         }
@@ -179,7 +183,7 @@ public abstract class VertexiumObjectSearchBase {
         throw new VisalloException("Unhandled aggregation result type: " + aggResult.getClass().getName());
     }
 
-    private ClientApiSearchResponse.AggregateResult toClientApiStatisticsResult(StatisticsResult agg) {
+    private static ClientApiSearchResponse.AggregateResult toClientApiStatisticsResult(StatisticsResult agg) {
         ClientApiSearchResponse.StatisticsAggregateResult result = new ClientApiSearchResponse.StatisticsAggregateResult();
         result.setCount(agg.getCount());
         result.setAverage(agg.getAverage());
@@ -190,7 +194,7 @@ public abstract class VertexiumObjectSearchBase {
         return result;
     }
 
-    private ClientApiSearchResponse.AggregateResult toClientApiHistogramResult(HistogramResult agg) {
+    private static ClientApiSearchResponse.AggregateResult toClientApiHistogramResult(HistogramResult agg) {
         DateFormat bucketDateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
         ClientApiSearchResponse.HistogramAggregateResult result = new ClientApiSearchResponse.HistogramAggregateResult();
         for (HistogramBucket histogramBucket : agg.getBuckets()) {
@@ -214,7 +218,7 @@ public abstract class VertexiumObjectSearchBase {
         return result;
     }
 
-    private ClientApiSearchResponse.AggregateResult toClientApiGeohashResult(GeohashResult agg) {
+    private static ClientApiSearchResponse.AggregateResult toClientApiGeohashResult(GeohashResult agg) {
         ClientApiSearchResponse.GeohashAggregateResult result = new ClientApiSearchResponse.GeohashAggregateResult();
         result.setMaxCount(agg.getMaxCount());
         for (GeohashBucket geohashBucket : agg.getBuckets()) {
@@ -229,7 +233,7 @@ public abstract class VertexiumObjectSearchBase {
         return result;
     }
 
-    private ClientApiSearchResponse.TermsAggregateResult toClientApiTermsAggregateResult(TermsResult agg) {
+    private static ClientApiSearchResponse.TermsAggregateResult toClientApiTermsAggregateResult(TermsResult agg) {
         ClientApiSearchResponse.TermsAggregateResult result = new ClientApiSearchResponse.TermsAggregateResult();
         for (TermsBucket termsBucket : agg.getBuckets()) {
             ClientApiSearchResponse.TermsAggregateResult.Bucket b = new ClientApiSearchResponse.TermsAggregateResult.Bucket(
@@ -7,6 +7,7 @@ public class CachedCompilation {
     private String input;
     private String output;
     private Long lastModified;
+    private String eTag;
 
     public String getResourcePath() {
         return resourcePath;
@@ -46,6 +47,14 @@ public class CachedCompilation {
 
     public void setOutput(String output) {
         this.output = output;
+        this.eTag = null;
+    }
+
+    public String getETag() {
+        if (eTag == null && output != null) {
+            eTag = CompiledAssetCache.createETag(output);
+        }
+        return eTag;
     }
 
     public Long getLastModified() {
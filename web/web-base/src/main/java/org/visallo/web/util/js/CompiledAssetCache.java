@@ -0,0 +1,314 @@
+package org.visallo.web.util.js;
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.io.IOUtils;
+import org.visallo.core.config.Configuration;
+import org.visallo.core.config.FileConfigurationLoader;
+import org.visallo.core.exception.VisalloException;
+import org.visallo.core.util.VisalloLogger;
+import org.visallo.core.util.VisalloLoggerFactory;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.concurrent.*;
+
+/**
+ * Persists compiled client side assets (closure compiled JavaScript, babel transpiled JSX and compiled LESS)
+ * to local disk keyed by a hash of the compiler, its options and the input, so that unchanged assets don't
+ * need to be recompiled after a restart. Also provides the bounded executor used to warm up assets in parallel
+ * and the response helper used to serve them with strong ETags.
+ * <p>
+ * Each asset remembers the key of its current compilation, when an asset is compiled with a new key the output
+ * cached for its previous key is deleted. Entries that are not read for {@link #CONFIG_MAX_AGE_DAYS} (e.g. assets
+ * that no longer exist) are deleted at start up.
+ */
+public class CompiledAssetCache {
+    private static final VisalloLogger LOGGER = VisalloLoggerFactory.getLogger(CompiledAssetCache.class);
+    public static final String CONFIG_ENABLED = "web.compiledAssetCache.enabled";
+    public static final String CONFIG_DIRECTORY = "web.compiledAssetCache.directory";
+    public static final String CONFIG_THREADS = "web.compiledAssetCache.threads";
+    public static final String CONFIG_MAX_AGE_DAYS = "web.compiledAssetCache.maxAgeDays";
+    private static final int DEFAULT_MAX_AGE_DAYS = 30;
+    private static final String DEFAULT_DIRECTORY_NAME = "compiled-assets";
+    private static final int DEFAULT_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    private static final long EXECUTOR_IDLE_THREAD_RELEASE_SECONDS = 5;
+    private static final String VERSIONED_URL_PARAMETER = "vslo_v";
+    private static final int VERSIONED_MAX_AGE_SECONDS = 365 * 24 * 60 * 60;
+    private static final String OUTPUT_EXTENSION = ".out";
+    private static final String SOURCE_MAP_EXTENSION = ".map";
+    private static final String CURRENT_KEY_EXTENSION = ".current";
+    private static final String VERSION = getVersion();
+    private static CompiledAssetCache instance;
+
+    private final File directory;
+    private final ThreadPoolExecutor executor;
+
+    CompiledAssetCache(File directory, int threads) {
+        this.directory = directory;
+        this.executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                EXECUTOR_IDLE_THREAD_RELEASE_SECONDS,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread thread = new Thread(r);
+                    thread.setName("visallo-asset-compiler-" + thread.getId());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                }
+        );
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    public static synchronized void initialize(Configuration configuration) {
+        File directory = null;
+        if (configuration.getBoolean(CONFIG_ENABLED, true)) {
+            directory = new File(configuration.get(CONFIG_DIRECTORY, getDefaultDirectory(configuration).getAbsolutePath()));
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                LOGGER.warn("Could not create compiled asset cache directory %s, assets will not be cached", directory);
+                directory = null;
+            }
+        }
+        instance = new CompiledAssetCache(directory, configuration.getInt(CONFIG_THREADS, DEFAULT_THREADS));
+        LOGGER.info("compiled asset cache: %s", directory == null ? "disabled" : directory.getAbsolutePath());
+        if (directory != null) {
+            long maxAgeMillis = TimeUnit.DAYS.toMillis(configuration.getInt(CONFIG_MAX_AGE_DAYS, DEFAULT_MAX_AGE_DAYS));
+            instance.submit(() -> {
+                instance.deleteEntriesOlderThan(System.currentTimeMillis() - maxAgeMillis);
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Defaults to a directory inside the Visallo directory the configuration was loaded from (or ~/.visallo)
+     * rather than the temp directory, which is shared with other users and cleaned by the OS.
+     */
+    private static File getDefaultDirectory(Configuration configuration) {
+        String visalloDir = configuration.get(FileConfigurationLoader.ENV_VISALLO_DIR, null);
+        if (visalloDir == null) {
+            visalloDir = new File(System.getProperty("user.home"), ".visallo").getAbsolutePath();
+        }
+        return new File(visalloDir, DEFAULT_DIRECTORY_NAME);
+    }
+
+    public static synchronized CompiledAssetCache getInstance() {
+        if (instance == null) {
+            instance = new CompiledAssetCache(null, DEFAULT_THREADS);
+        }
+        return instance;
+    }
+
+    public <T> Future<T> submit(Callable<T> task) {
+        return executor.submit(task);
+    }
+
+    public int getThreads() {
+        return executor.getMaximumPoolSize();
+    }
+
+    /**
+     * Creates a cache key from everything that affects the compiled output. The Visallo version is
+     * included so that upgrading the compilers invalidates previously cached output. Options that refer to
+     * other resources (e.g. closure externs) should be passed as {@link #hashResource(Class, String)}.
+     */
+    public static String createKey(String compiler, String input, String... options) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(compiler).append('\n');
+        sb.append(VERSION).append('\n');
+        for (String option : options) {
+            sb.append(option).append('\n');
+        }
+        sb.append(input);
+        return sha256(sb.toString());
+    }
+
+    /**
+     * @param name identifies the asset, e.g. its resource path. Output cached for other keys of the same asset
+     *             is deleted.
+     */
+    public CachedCompilation get(String name, String key) {
+        if (directory == null) {
+            return null;
+        }
+        File outputFile = new File(directory, key + OUTPUT_EXTENSION);
+        if (!outputFile.isFile()) {
+            return null;
+        }
+        try {
+            if (!outputFile.setLastModified(System.currentTimeMillis())) {
+                LOGGER.debug("Could not touch compiled asset %s", outputFile);
+            }
+            setCurrentKey(name, key);
+            CachedCompilation cachedCompilation = new CachedCompilation();
+            cachedCompilation.setOutput(new String(Files.readAllBytes(outputFile.toPath()), StandardCharsets.UTF_8));
+            File sourceMapFile = new File(directory, key + SOURCE_MAP_EXTENSION);
+            if (sourceMapFile.isFile()) {
+                cachedCompilation.setSourceMap(new String(Files.readAllBytes(sourceMapFile.toPath()), StandardCharsets.UTF_8));
+            }
+            return cachedCompilation;
+        } catch (IOException ex) {
+            LOGGER.warn("Could not read compiled asset %s", outputFile, ex);
+            return null;
+        }
+    }
+
+    public void put(String name, String key, CachedCompilation cachedCompilation) {
+        if (directory == null || cachedCompilation.getOutput() == null) {
+            return;
+        }
+        try {
+            if (cachedCompilation.getSourceMap() != null) {
+                writeAtomically(new File(directory, key + SOURCE_MAP_EXTENSION), cachedCompilation.getSourceMap());
+            }
+            writeAtomically(new File(directory, key + OUTPUT_EXTENSION), cachedCompilation.getOutput());
+            setCurrentKey(name, key);
+        } catch (IOException ex) {
+            LOGGER.warn("Could not write compiled asset %s", key, ex);
+        }
+    }
+
+    private void setCurrentKey(String name, String key) throws IOException {
+        File currentKeyFile = new File(directory, sha256(name) + CURRENT_KEY_EXTENSION);
+        if (currentKeyFile.isFile()) {
+            String previousKey = new String(Files.readAllBytes(currentKeyFile.toPath()), StandardCharsets.UTF_8).trim();
+            if (previousKey.equals(key)) {
+                return;
+            }
+            LOGGER.debug("deleting previous compilation of %s", name);
+            Files.deleteIfExists(new File(directory, previousKey + OUTPUT_EXTENSION).toPath());
+            Files.deleteIfExists(new File(directory, previousKey + SOURCE_MAP_EXTENSION).toPath());
+        }
+        writeAtomically(currentKeyFile, key);
+    }
+
+    private void deleteEntriesOlderThan(long time) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        int deleted = 0;
+        for (File file : files) {
+            if (file.isFile() && file.lastModified() < time) {
+                try {
+                    Files.deleteIfExists(file.toPath());
+                    deleted++;
+                } catch (IOException ex) {
+                    LOGGER.warn("Could not delete compiled asset %s", file, ex);
+                }
+            }
+        }
+        LOGGER.info("deleted %d compiled assets not used since %s", deleted, new Date(time));
+    }
+
+    private void writeAtomically(File file, String content) throws IOException {
+        Path temp = Files.createTempFile(directory.toPath(), file.getName(), ".tmp");
+        try {
+            Files.write(temp, content.getBytes(StandardCharsets.UTF_8));
+            try {
+                Files.move(temp, file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException ex) {
+                Files.move(temp, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Writes a compiled asset, answering with 304 Not Modified if the client already has it. Requests that
+     * include the version cache breaker are cached by the browser indefinitely, all others must revalidate.
+     */
+    public static void write(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            String contentType,
+            String content,
+            String eTag
+    ) throws IOException {
+        if (eTag == null) {
+            eTag = createETag(content);
+        }
+        String quotedETag = "\"" + eTag + "\"";
+        response.setHeader("ETag", quotedETag);
+        String queryString = request.getQueryString();
+        if (queryString != null && queryString.contains(VERSIONED_URL_PARAMETER + "=")) {
+            response.setHeader("Cache-Control", "public, max-age=" + VERSIONED_MAX_AGE_SECONDS);
+        } else {
+            response.setHeader("Cache-Control", "no-cache");
+        }
+
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null && (ifNoneMatch.equals(quotedETag) || ifNoneMatch.equals(eTag))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        response.setContentType(contentType);
+        try (PrintWriter outWriter = response.getWriter()) {
+            outWriter.println(content);
+        }
+    }
+
+    /**
+     * @return a hash of the resource's content, or an empty string if the resource is null or does not exist
+     */
+    public static String hashResource(Class<?> clazz, String resourcePath) {
+        if (resourcePath == null) {
+            return "";
+        }
+        try (InputStream in = clazz.getResourceAsStream(resourcePath)) {
+            if (in == null) {
+                return "";
+            }
+            return resourcePath + ":" + sha256(IOUtils.toString(in, StandardCharsets.UTF_8));
+        } catch (IOException ex) {
+            throw new VisalloException("Could not read resource: " + resourcePath, ex);
+        }
+    }
+
+    /**
+     * The implementation version is only available when running from a packaged jar, during development
+     * the time this class was last built is used instead.
+     */
+    private static String getVersion() {
+        String version = CompiledAssetCache.class.getPackage().getImplementationVersion();
+        if (version != null) {
+            return version;
+        }
+        try {
+            URL url = CompiledAssetCache.class.getResource(CompiledAssetCache.class.getSimpleName() + ".class");
+            return "dev-" + (url == null ? 0 : url.openConnection().getLastModified());
+        } catch (IOException ex) {
+            LOGGER.warn("Could not determine compiled asset cache version", ex);
+            return "dev-0";
+        }
+    }
+
+    public static String createETag(String content) {
+        return sha256(content);
+    }
+
+    private static String sha256(String s) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Hex.encodeHexString(digest.digest(s.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new VisalloException("Could not find SHA-256", e);
+        }
+    }
+}